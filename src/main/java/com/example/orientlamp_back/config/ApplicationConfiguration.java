@@ -2,7 +2,10 @@ package com.example.orientlamp_back.config;
 
 
 import com.example.orientlamp_back.repository.UserRepository;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -26,4 +29,11 @@ public class ApplicationConfiguration {
         return new RestTemplate();
     }
 
+    /** Catalog DTOs carry a {@code @JsonFilter}; serialize every property unless a request narrows it. */
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer fieldSelectionFilters() {
+        return builder -> builder.filters(new SimpleFilterProvider()
+                .setDefaultFilter(SimpleBeanPropertyFilter.serializeAll()));
+    }
+
 }
\ No newline at end of file
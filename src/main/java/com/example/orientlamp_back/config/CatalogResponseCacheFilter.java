@@ -0,0 +1,203 @@
+package com.example.orientlamp_back.config;
+
+import com.example.orientlamp_back.event.CatalogRefreshedEvent;
+import com.example.orientlamp_back.service.catalog.CatalogSnapshot;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Caches the rendered JSON of catalog GET endpoints (universities, filieres, criteres).
+ *
+ * The first request for a URI renders normally; its body is kept as plain and gzipped byte
+ * arrays together with a SHA-256 ETag. Repeat requests are answered from those arrays without
+ * touching the controller, mapper or Jackson, and a matching {@code If-None-Match} gets a 304.
+ * Entries are tagged with the catalog snapshot version they were rendered from and dropped as
+ * soon as a write rebuilds the snapshot.
+ *
+ * Registered as a plain servlet filter, so it runs after Spring Security has authorised the request.
+ */
+@Component
+public class CatalogResponseCacheFilter extends OncePerRequestFilter {
+
+    private static final String[] CACHED_PREFIXES = {"/api/universities", "/api/filieres", "/api/criteres"};
+    private static final int MAX_ENTRIES = 4096;
+
+    private final CatalogSnapshot catalogSnapshot;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private final Counter hits;
+    private final Counter notModified;
+    private final Counter misses;
+
+    private record Entry(long version, LocalDate renderedOn, String etag, String contentType, byte[] body, byte[] gzipped) {}
+
+    public CatalogResponseCacheFilter(CatalogSnapshot catalogSnapshot, MeterRegistry meterRegistry) {
+        this.catalogSnapshot = catalogSnapshot;
+        this.hits = meterRegistry.counter("catalog.response.cache", "result", "hit");
+        this.notModified = meterRegistry.counter("catalog.response.cache", "result", "not_modified");
+        this.misses = meterRegistry.counter("catalog.response.cache", "result", "miss");
+        meterRegistry.gaugeMapSize("catalog.response.cache.entries", List.of(), entries);
+    }
+
+    @EventListener
+    public void onCatalogRefreshed(CatalogRefreshedEvent event) {
+        entries.clear();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!"GET".equals(request.getMethod())) {
+            return true;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (String prefix : CACHED_PREFIXES) {
+            if (path.equals(prefix) || path.startsWith(prefix + "/")) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String key = request.getQueryString() == null
+                ? request.getRequestURI()
+                : request.getRequestURI() + "?" + request.getQueryString();
+        long version = catalogSnapshot.current().version();
+        LocalDate today = LocalDate.now();
+
+        // List cards show the next upcoming deadline, so entries also expire at midnight
+        Entry entry = entries.get(key);
+        if (entry != null && entry.version() == version && entry.renderedOn().equals(today)) {
+            hits.increment();
+            write(entry, request, response);
+            return;
+        }
+
+        misses.increment();
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        filterChain.doFilter(request, wrapper);
+
+        String contentType = wrapper.getContentType();
+        if (wrapper.getStatus() != HttpServletResponse.SC_OK || contentType == null
+                || !MediaType.APPLICATION_JSON.isCompatibleWith(MediaType.parseMediaType(contentType))) {
+            wrapper.copyBodyToResponse();
+            return;
+        }
+
+        byte[] body = wrapper.getContentAsByteArray();
+        entry = new Entry(version, today, etag(body), contentType, body, gzip(body));
+        // Only keep what was rendered from the snapshot that is still current
+        if (catalogSnapshot.current().version() == version && entries.size() < MAX_ENTRIES) {
+            entries.put(key, entry);
+        }
+        write(entry, request, response);
+    }
+
+    private void write(Entry entry, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setHeader(HttpHeaders.ETAG, entry.etag());
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null && (ifNoneMatch.contains(entry.etag()) || ifNoneMatch.trim().equals("*"))) {
+            notModified.increment();
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        byte[] payload = entry.body();
+        if (acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING))) {
+            payload = entry.gzipped();
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(entry.contentType());
+        response.setContentLength(payload.length);
+        response.getOutputStream().write(payload);
+    }
+
+    /**
+     * Whether the client takes gzip under RFC 9110 content negotiation: gzip (or {@code *} when
+     * gzip is not listed) needs a non-zero q-value, and an explicitly listed identity with a
+     * higher q-value keeps the plain body.
+     */
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        double gzip = -1;
+        double wildcard = -1;
+        double identity = 0;
+        for (String element : acceptEncoding.split(",")) {
+            String[] parts = element.split(";");
+            String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+            double q = quality(parts);
+            switch (coding) {
+                case "gzip", "x-gzip" -> gzip = Math.max(gzip, q);
+                case "*" -> wildcard = q;
+                case "identity" -> identity = q;
+                default -> { }
+            }
+        }
+        double accepted = gzip >= 0 ? gzip : wildcard;
+        return accepted > 0 && accepted >= identity;
+    }
+
+    private static double quality(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String parameter = parts[i].trim();
+            if (parameter.length() > 2 && parameter.regionMatches(true, 0, "q=", 0, 2)) {
+                try {
+                    return Double.parseDouble(parameter.substring(2).trim());
+                } catch (NumberFormatException ex) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    private static String etag(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(digest) + "\"";
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    }
+
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return out.toByteArray();
+    }
+}
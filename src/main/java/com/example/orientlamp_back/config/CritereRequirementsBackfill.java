@@ -0,0 +1,41 @@
+package com.example.orientlamp_back.config;
+
+import com.example.orientlamp_back.entity.Critere;
+import com.example.orientlamp_back.repository.CritereRepository;
+import com.example.orientlamp_back.service.eligibility.CritereRequirementsParser;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Fills the {@code requirements} document of the criteres written before
+ * {@code V14__critere_requirements.sql}: parsing the texts needs the application's parsers, so
+ * the migration leaves the column empty. Every writer sets it since, so this finds nothing
+ * after the first start.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CritereRequirementsBackfill implements ApplicationRunner {
+
+    private final CritereRepository critereRepository;
+
+    @Override
+    @Transactional
+    public void run(ApplicationArguments args) {
+        List<Critere> missing = critereRepository.findByRequirementsIsNull();
+        if (missing.isEmpty()) {
+            return;
+        }
+        for (Critere critere : missing) {
+            critere.setRequirements(CritereRequirementsParser.of(critere));
+        }
+        critereRepository.saveAll(missing);
+        log.info("Backfilled the requirements of {} criteres", missing.size());
+    }
+}
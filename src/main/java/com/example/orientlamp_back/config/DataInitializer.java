@@ -9,6 +9,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.ApplicationArguments;
 import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
@@ -16,10 +17,13 @@ import org.springframework.transaction.annotation.Transactional;
 import com.example.orientlamp_back.entity.Critere;
 import com.example.orientlamp_back.entity.Filiere;
 import com.example.orientlamp_back.entity.University;
+import com.example.orientlamp_back.event.CatalogChangedEvent;
+import com.example.orientlamp_back.repository.CritereHistoryRepository;
 import com.example.orientlamp_back.repository.CritereRepository;
 import com.example.orientlamp_back.repository.FiliereRepository;
 import com.example.orientlamp_back.repository.UniversityRepository;
 import com.example.orientlamp_back.service.FileStorageService;
+import com.example.orientlamp_back.service.eligibility.CritereRequirementsParser;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -64,7 +68,9 @@ public class DataInitializer implements ApplicationRunner {
     private final UniversityRepository  universityRepository;
     private final FiliereRepository     filiereRepository;
     private final CritereRepository     critereRepository;
+    private final CritereHistoryRepository critereHistoryRepository;
     private final FileStorageService    fileStorageService;
+    private final ApplicationEventPublisher eventPublisher;
 
     // Self-injection so @Transactional on seedOne() is applied via Spring proxy
     @Lazy @Autowired
@@ -103,6 +109,7 @@ public class DataInitializer implements ApplicationRunner {
             }
         }
         log.info("DataInitializer: {} institutions seeded.", seeded);
+        eventPublisher.publishEvent(CatalogChangedEvent.all());
     }
 
     // ------------------------------------------------------------------ //
@@ -157,7 +164,7 @@ public class DataInitializer implements ApplicationRunner {
                     .build());
 
             if (fs.hasCritere()) {
-                critereRepository.save(Critere.builder()
+                Critere critere = Critere.builder()
                         .filiere(savedF)
                         .anneeAcademique(fs.anneeAcademique())
                         .typeCandidat(fs.typeCandidat())
@@ -170,7 +177,11 @@ public class DataInitializer implements ApplicationRunner {
                         .classementCnc(fs.classementCnc())
                         .diplomesRequis(fs.diplomesRequis())
                         .notesSemestres(fs.notesSemestres())
-                        .build());
+                        .build();
+                critere.setRequirements(CritereRequirementsParser.of(critere));
+                Critere savedC = critereRepository.save(critere);
+                // V17 only backfilled the criteres present when it ran; seeded ones start their history here
+                critereHistoryRepository.append(savedC);
             }
         }
     }
@@ -0,0 +1,51 @@
+package com.example.orientlamp_back.config;
+
+import com.example.orientlamp_back.controller.FiliereController;
+import com.example.orientlamp_back.controller.UniversityController;
+import com.example.orientlamp_back.dto.CatalogEmbed;
+import com.example.orientlamp_back.dto.FieldSelection;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.AbstractMappingJacksonResponseBodyAdvice;
+
+import java.util.EnumSet;
+
+/**
+ * Applies {@code ?fields=} to every response of the university and filiere endpoints, lists
+ * included: only the named properties of the top-level resource are written. Nested resources
+ * (a university's filieres, a filiere's critere) are written whole once embedded.
+ */
+@RestControllerAdvice(assignableTypes = {UniversityController.class, FiliereController.class})
+public class FieldSelectionAdvice extends AbstractMappingJacksonResponseBodyAdvice {
+
+    @Override
+    protected void beforeBodyWriteInternal(MappingJacksonValue bodyContainer, MediaType contentType,
+                                           MethodParameter returnType, ServerHttpRequest request,
+                                           ServerHttpResponse response) {
+        if (!(request instanceof ServletServerHttpRequest servletRequest)) {
+            return;
+        }
+        HttpServletRequest http = servletRequest.getServletRequest();
+        if (http.getParameter("fields") == null) {
+            return;
+        }
+
+        FieldSelection selection = FieldSelection.parse(
+                http.getParameter("fields"), http.getParameter("embed"), EnumSet.allOf(CatalogEmbed.class));
+        String narrowed = UniversityController.class.isAssignableFrom(returnType.getContainingClass())
+                ? FieldSelection.UNIVERSITY_FILTER
+                : FieldSelection.FILIERE_FILTER;
+
+        bodyContainer.setFilters(new SimpleFilterProvider()
+                .setDefaultFilter(SimpleBeanPropertyFilter.serializeAll())
+                .addFilter(narrowed, SimpleBeanPropertyFilter.filterOutAllExcept(selection.getFields())));
+    }
+}
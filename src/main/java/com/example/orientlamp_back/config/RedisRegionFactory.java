@@ -0,0 +1,241 @@
+package com.example.orientlamp_back.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.boot.spi.SessionFactoryOptions;
+import org.hibernate.cache.cfg.spi.DomainDataRegionBuildingContext;
+import org.hibernate.cache.cfg.spi.DomainDataRegionConfig;
+import org.hibernate.cache.spi.support.DomainDataStorageAccess;
+import org.hibernate.cache.spi.support.RegionFactoryTemplate;
+import org.hibernate.cache.spi.support.StorageAccess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Hibernate second-level cache regions stored in Redis, so every replica shares one cache.
+ *
+ * Each region is a Redis hash {@code l2:<region>} mapping the serialized cache key to the
+ * serialized cache entry. Locking and versioning are left to Hibernate's own access strategies
+ * (READ_WRITE soft locks are stored in the same hash). A Redis failure never fails the
+ * surrounding request: reads degrade to misses and writes are skipped, at worst costing a
+ * database round trip.
+ *
+ * Entity, collection and query-result regions are bounded in age and size: a hash expires
+ * {@code ttl} after its first entry was written, and a put that takes it past
+ * {@code maxEntries} drops the whole region instead. Both only cost misses, which reload from
+ * the database. The update-timestamps region is the exception (see {@link TimestampsStorageAccess}):
+ * Hibernate reads a missing timestamp as "table never written" and would serve stale query
+ * results, so it is never bounded and fails towards "just written" instead.
+ */
+@Slf4j
+public class RedisRegionFactory extends RegionFactoryTemplate {
+
+    private static final String KEY_PREFIX = "l2:";
+
+    // KEYS[1] = region hash, ARGV = field, value, ttl in ms, max entries.
+    // Returns 1 when stored, 0 when the put overflowed the region and dropped it.
+    private static final byte[] PUT = (
+            "redis.call('HSET', KEYS[1], ARGV[1], ARGV[2]) " +
+            "if redis.call('HLEN', KEYS[1]) > tonumber(ARGV[4]) then " +
+            "  redis.call('DEL', KEYS[1]) return 0 end " +
+            "if redis.call('PTTL', KEYS[1]) < 0 then redis.call('PEXPIRE', KEYS[1], ARGV[3]) end " +
+            "return 1").getBytes(StandardCharsets.UTF_8);
+
+    private final RedisConnectionFactory connectionFactory;
+    private final MeterRegistry meterRegistry;
+    private final Duration ttl;
+    private final long maxEntries;
+    private final JdkSerializationRedisSerializer serializer =
+            new JdkSerializationRedisSerializer(RedisRegionFactory.class.getClassLoader());
+
+    public RedisRegionFactory(RedisConnectionFactory connectionFactory, MeterRegistry meterRegistry,
+                              Duration ttl, long maxEntries) {
+        this.connectionFactory = connectionFactory;
+        this.meterRegistry = meterRegistry;
+        this.ttl = ttl;
+        this.maxEntries = maxEntries;
+    }
+
+    @Override
+    protected void prepareForUse(SessionFactoryOptions settings, Map<String, Object> configValues) {
+        log.info("Hibernate second-level cache backed by Redis (regions expire after {}, at most {} entries each)",
+                ttl, maxEntries);
+    }
+
+    @Override
+    protected void releaseFromUse() {
+        // The connection factory is a Spring bean and is closed by the container
+    }
+
+    @Override
+    protected DomainDataStorageAccess createDomainDataStorageAccess(DomainDataRegionConfig regionConfig,
+                                                                    DomainDataRegionBuildingContext buildingContext) {
+        return new RedisStorageAccess(regionConfig.getRegionName());
+    }
+
+    @Override
+    protected StorageAccess createQueryResultsRegionStorageAccess(String regionName,
+                                                                  SessionFactoryImplementor sessionFactory) {
+        return new RedisStorageAccess(regionName);
+    }
+
+    @Override
+    protected StorageAccess createTimestampsRegionStorageAccess(String regionName,
+                                                                SessionFactoryImplementor sessionFactory) {
+        return new TimestampsStorageAccess(regionName);
+    }
+
+    private class RedisStorageAccess implements DomainDataStorageAccess {
+
+        final String regionName;
+        final byte[] hashKey;
+        final Counter hits;
+        final Counter misses;
+        final Counter puts;
+        final Counter evictions;
+        final Counter errors;
+
+        RedisStorageAccess(String regionName) {
+            this.regionName = regionName;
+            this.hashKey = (KEY_PREFIX + regionName).getBytes(StandardCharsets.UTF_8);
+            this.hits = meterRegistry.counter("hibernate.l2.cache.requests", "region", regionName, "result", "hit");
+            this.misses = meterRegistry.counter("hibernate.l2.cache.requests", "region", regionName, "result", "miss");
+            this.puts = meterRegistry.counter("hibernate.l2.cache.puts", "region", regionName);
+            this.evictions = meterRegistry.counter("hibernate.l2.cache.evictions", "region", regionName);
+            this.errors = meterRegistry.counter("hibernate.l2.cache.errors", "region", regionName);
+        }
+
+        @Override
+        public Object getFromCache(Object key, SharedSessionContractImplementor session) {
+            // Deserialised inside execute() so an entry written by an older build reads as a miss
+            Object value = execute(connection ->
+                    serializer.deserialize(connection.hashCommands().hGet(hashKey, serializer.serialize(key))));
+            if (value == null) {
+                misses.increment();
+                return null;
+            }
+            hits.increment();
+            return value;
+        }
+
+        @Override
+        public void putIntoCache(Object key, Object value, SharedSessionContractImplementor session) {
+            Long stored = execute(connection -> connection.scriptingCommands().eval(PUT, ReturnType.INTEGER, 1,
+                    hashKey, serializer.serialize(key), serializer.serialize(value),
+                    argument(ttl.toMillis()), argument(maxEntries)));
+            if (stored == null) {
+                return;
+            }
+            if (stored == 0) {
+                log.debug("Second-level cache region {} reached its size bound and was dropped", regionName);
+                evictions.increment();
+            } else {
+                puts.increment();
+            }
+        }
+
+        @Override
+        public boolean contains(Object key) {
+            return Boolean.TRUE.equals(execute(connection -> connection.hashCommands().hExists(hashKey, serializer.serialize(key))));
+        }
+
+        @Override
+        public void evictData() {
+            if (execute(connection -> connection.keyCommands().del(hashKey)) != null) {
+                evictions.increment();
+            }
+        }
+
+        @Override
+        public void evictData(Object key) {
+            if (execute(connection -> connection.hashCommands().hDel(hashKey, serializer.serialize(key))) != null) {
+                evictions.increment();
+            }
+        }
+
+        @Override
+        public void release() {
+            // Nothing held per region
+        }
+
+        private byte[] argument(long value) {
+            return Long.toString(value).getBytes(StandardCharsets.UTF_8);
+        }
+
+        <T> T execute(Function<RedisConnection, T> command) {
+            try (RedisConnection connection = connectionFactory.getConnection()) {
+                return command.apply(connection);
+            } catch (RuntimeException ex) {
+                errors.increment();
+                log.warn("Second-level cache region {} unavailable: {}", regionName, ex.getMessage());
+                return null;
+            }
+        }
+    }
+
+    /**
+     * One entry per table space, the timestamp of its last write, that cached query results are
+     * checked against. It holds as many entries as there are tables, so it is neither expired nor
+     * dropped by size. It also keeps a floor, the time the hash was (re)created, returned for a
+     * space without an entry: a hash lost to a flush or a Redis eviction comes back with a floor
+     * later than every result cached before it. When Redis cannot be read every space reads as
+     * just written, so query results go to the database instead of being served unchecked.
+     */
+    private class TimestampsStorageAccess extends RedisStorageAccess {
+
+        private final byte[] floorField = serializer.serialize("__floor__");
+
+        TimestampsStorageAccess(String regionName) {
+            super(regionName);
+        }
+
+        @Override
+        public Object getFromCache(Object key, SharedSessionContractImplementor session) {
+            List<Object> values = execute(connection -> connection.hashCommands()
+                    .hMGet(hashKey, serializer.serialize(key), floorField).stream()
+                    .map(serializer::deserialize).toList());
+            if (values == null) {
+                return Long.MAX_VALUE;
+            }
+            Long floor = (Long) values.get(1);
+            if (floor == null) {
+                // A floor set concurrently by another instance is earlier than ours, so ours is the safe one
+                long now = nextTimestamp();
+                if (execute(connection -> connection.hashCommands().hSetNX(hashKey, floorField, serializer.serialize(now))) == null) {
+                    return Long.MAX_VALUE;
+                }
+                floor = now;
+            }
+            Long written = (Long) values.get(0);
+            if (written == null) {
+                misses.increment();
+                return floor;
+            }
+            hits.increment();
+            return Math.max(written, floor);
+        }
+
+        @Override
+        public void putIntoCache(Object key, Object value, SharedSessionContractImplementor session) {
+            // A write recreating a lost hash starts it with a floor, before any query reads it
+            Boolean stored = execute(connection -> {
+                connection.hashCommands().hSetNX(hashKey, floorField, serializer.serialize(nextTimestamp()));
+                return connection.hashCommands().hSet(hashKey, serializer.serialize(key), serializer.serialize(value));
+            });
+            if (stored != null) {
+                puts.increment();
+            }
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.orientlamp_back.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+
+import java.time.Duration;
+
+/**
+ * Enables Hibernate's second-level entity, collection and query caches on top of the
+ * Redis connection from {@link RedisConfiguration}. Cached: University, University.filieres,
+ * Filiere and Critere (see the {@code @Cache} annotations on those entities).
+ *
+ * {@code auto_evict_collection_cache} makes Hibernate evict University.filieres whenever a
+ * Filiere is inserted, moved or deleted, since that collection is the inverse side and is not
+ * otherwise dirtied by those writes.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.cache.second-level.enabled", havingValue = "true", matchIfMissing = true)
+public class SecondLevelCacheConfiguration {
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(RedisConnectionFactory redisConnectionFactory,
+                                                                    MeterRegistry meterRegistry,
+                                                                    @Value("${app.cache.second-level.ttl:1h}") Duration ttl,
+                                                                    @Value("${app.cache.second-level.max-entries:100000}") long maxEntries) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, true);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY,
+                    new RedisRegionFactory(redisConnectionFactory, meterRegistry, ttl, maxEntries));
+            properties.put(AvailableSettings.CACHE_REGION_PREFIX, "orientlamp");
+            properties.put(AvailableSettings.AUTO_EVICT_COLLECTION_CACHE, true);
+        };
+    }
+}
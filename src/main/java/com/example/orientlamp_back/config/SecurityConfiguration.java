@@ -47,7 +47,7 @@ public class SecurityConfiguration {
                                 "/uploads/**",
                                 "/error"
                         ).permitAll()
-                        .requestMatchers(org.springframework.http.HttpMethod.GET, "/api/universities", "/api/universities/**").permitAll()
+                        .requestMatchers(org.springframework.http.HttpMethod.GET, "/api/universities", "/api/universities/**", "/api/search", "/api/suggest").permitAll()
                         .requestMatchers("/api/admin/**").hasRole("ADMIN")
                         .anyRequest().authenticated()
                 )
@@ -0,0 +1,38 @@
+package com.example.orientlamp_back.controller;
+
+import com.example.orientlamp_back.dto.AdmissionChanceDTO;
+import com.example.orientlamp_back.dto.AdmissionScoreDTO;
+import com.example.orientlamp_back.entity.User;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Tag(name = "Admission", description = "Estimated chances of admission")
+@RequestMapping("/api/admissions")
+public interface AdmissionController {
+
+    @Operation(summary = "Chance of admission at every CNC filiere for a CNC rank and/or rating, most likely first")
+    @GetMapping("/cnc")
+    ResponseEntity<List<AdmissionChanceDTO>> getCncChances(
+            @RequestParam(required = false) Integer rank,
+            @RequestParam(required = false) BigDecimal rating);
+
+    @Operation(summary = "Chance of admission at every CNC filiere for the current user's prepa rating and optional CNC rank")
+    @GetMapping("/cnc/me")
+    ResponseEntity<List<AdmissionChanceDTO>> getMyCncChances(
+            @Parameter(hidden = true) @AuthenticationPrincipal User user,
+            @RequestParam(required = false) Integer rank);
+
+    @Operation(summary = "The current user's admission score at every filiere with a score formula, best margin first")
+    @GetMapping("/scores/me")
+    ResponseEntity<List<AdmissionScoreDTO>> getMyScores(
+            @Parameter(hidden = true) @AuthenticationPrincipal User user);
+}
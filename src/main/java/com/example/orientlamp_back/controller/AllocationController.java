@@ -0,0 +1,30 @@
+package com.example.orientlamp_back.controller;
+
+import com.example.orientlamp_back.dto.AllocationRunDTO;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.util.List;
+
+@Tag(name = "Seat allocation", description = "Projected seat allocation and cut-off scores (admin)")
+@RequestMapping("/api/admin/allocations")
+public interface AllocationController {
+
+    @Operation(summary = "Start allocating seats over every student's wishes; returns the running run if there is one")
+    @PostMapping
+    ResponseEntity<AllocationRunDTO> startRun(@RequestParam(required = false) Integer wishes);
+
+    @Operation(summary = "A run with the projected cut-off score of each filiere")
+    @GetMapping("/{id}")
+    ResponseEntity<AllocationRunDTO> getRun(@PathVariable Long id);
+
+    @Operation(summary = "Most recent allocation runs")
+    @GetMapping
+    ResponseEntity<List<AllocationRunDTO>> getRecentRuns();
+}
@@ -1,7 +1,9 @@
 package com.example.orientlamp_back.controller;
 
+import com.example.orientlamp_back.dto.CritereHistoryDTO;
 import com.example.orientlamp_back.dto.CritereRequestDTO;
 import com.example.orientlamp_back.dto.CritereResponseDTO;
+import com.example.orientlamp_back.dto.ThresholdProjectionDTO;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -64,4 +66,20 @@ public interface CritereController {
     @Operation(summary = "Check if critere exists for filiere")
     @GetMapping("/exists/{filiereId}")
     ResponseEntity<Boolean> existsByFiliereId(@PathVariable Long filiereId);
-}
\ No newline at end of file
+
+    @Operation(summary = "Every recorded revision of a filiere's thresholds, oldest first")
+    @GetMapping("/{filiereId}/history")
+    ResponseEntity<List<CritereHistoryDTO>> getCritereHistory(@PathVariable Long filiereId);
+
+    @Operation(summary = "Thresholds of a filiere as of an academic year (its first calendar year)")
+    @GetMapping("/{filiereId}/history/{year}")
+    ResponseEntity<CritereHistoryDTO> getCritereAsOf(@PathVariable Long filiereId, @PathVariable int year);
+
+    @Operation(summary = "Past thresholds of a filiere and next year's projection")
+    @GetMapping("/{filiereId}/trend")
+    ResponseEntity<ThresholdProjectionDTO> getThresholdTrend(@PathVariable Long filiereId);
+
+    @Operation(summary = "Next year's projected thresholds of every filiere with a history")
+    @GetMapping("/trends")
+    ResponseEntity<List<ThresholdProjectionDTO>> getThresholdTrends();
+}
@@ -0,0 +1,42 @@
+package com.example.orientlamp_back.controller;
+
+import com.example.orientlamp_back.dto.EligibilityDTO;
+import com.example.orientlamp_back.dto.EligibilitySimulationDTO;
+import com.example.orientlamp_back.dto.EligibilitySimulationRequestDTO;
+import com.example.orientlamp_back.dto.FiliereSummaryDTO;
+import com.example.orientlamp_back.entity.User;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.util.List;
+
+@Tag(name = "Eligibility", description = "Which filieres a student can apply to")
+@RequestMapping("/api/eligibility")
+public interface EligibilityController {
+
+    @Operation(summary = "Check the current user's student profile against every filiere critere, with the reason for each verdict")
+    @GetMapping("/me")
+    ResponseEntity<EligibilityDTO> getMyEligibility(
+            @Parameter(hidden = true) @AuthenticationPrincipal User user,
+            @RequestParam(defaultValue = "false") boolean eligibleOnly);
+
+    @Operation(summary = "Filieres the current user is eligible for, from the precomputed eligibility matrix")
+    @GetMapping("/me/filieres")
+    ResponseEntity<List<FiliereSummaryDTO>> getMyEligibleFilieres(
+            @Parameter(hidden = true) @AuthenticationPrincipal User user);
+
+    @Operation(summary = "What-if: filieres gained and lost if the current user's profile had these grades")
+    @PostMapping("/simulate")
+    ResponseEntity<EligibilitySimulationDTO> simulate(
+            @Parameter(hidden = true) @AuthenticationPrincipal User user,
+            @Valid @RequestBody EligibilitySimulationRequestDTO request);
+}
@@ -1,7 +1,13 @@
 package com.example.orientlamp_back.controller;
 
+import com.example.orientlamp_back.dto.CatalogSort;
+import com.example.orientlamp_back.dto.CursorPageDTO;
+import com.example.orientlamp_back.dto.FacetedPageDTO;
+import com.example.orientlamp_back.dto.FiliereFacetQuery;
+import com.example.orientlamp_back.dto.FiliereQueryFilter;
 import com.example.orientlamp_back.dto.FiliereRequestDTO;
 import com.example.orientlamp_back.dto.FiliereResponseDTO;
+import com.example.orientlamp_back.dto.FiliereSummaryDTO;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -30,38 +36,64 @@ public interface FiliereController {
     @DeleteMapping("/{id}")
     ResponseEntity<Void> deleteFiliere(@PathVariable Long id);
 
-    @Operation(summary = "Get filiere by ID")
+    @Operation(summary = "Get filiere by ID (optional ?fields=a,b and ?embed=critere)")
     @GetMapping("/{id}")
-    ResponseEntity<FiliereResponseDTO> getFiliereById(@PathVariable Long id);
+    ResponseEntity<FiliereResponseDTO> getFiliereById(
+            @PathVariable Long id,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String embed);
 
     @Operation(summary = "Get all filieres")
     @GetMapping
-    ResponseEntity<List<FiliereResponseDTO>> getAllFilieres();
+    ResponseEntity<List<FiliereSummaryDTO>> getAllFilieres();
+
+    @Operation(summary = "Get a page of filieres (keyset pagination, pass nextCursor to continue)")
+    @GetMapping("/page")
+    ResponseEntity<CursorPageDTO<FiliereSummaryDTO>> getFilieresPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(defaultValue = "NAME") CatalogSort sort);
+
+    @Operation(summary = "Faceted search: combine filters (repeat a parameter to OR values) and get counts per facet value")
+    @GetMapping("/search")
+    ResponseEntity<FacetedPageDTO<FiliereSummaryDTO>> searchFilieres(
+            @ModelAttribute FiliereFacetQuery query,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(defaultValue = "NAME") CatalogSort sort);
+
+    @Operation(summary = "Query filieres by any combination of filiere and critere filters (keyset pagination)")
+    @GetMapping("/query")
+    ResponseEntity<CursorPageDTO<FiliereSummaryDTO>> queryFilieres(
+            @ModelAttribute FiliereQueryFilter filter,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(defaultValue = "NAME") CatalogSort sort);
 
     @Operation(summary = "Get filieres by university ID")
     @GetMapping("/university/{universityId}")
-    ResponseEntity<List<FiliereResponseDTO>> getFilieresByUniversityId(@PathVariable Long universityId);
+    ResponseEntity<List<FiliereSummaryDTO>> getFilieresByUniversityId(@PathVariable Long universityId);
 
     @Operation(summary = "Get filieres by admission type")
     @GetMapping("/admission-type/{admissionType}")
-    ResponseEntity<List<FiliereResponseDTO>> getFilieresByAdmissionType(@PathVariable String admissionType);
+    ResponseEntity<List<FiliereSummaryDTO>> getFilieresByAdmissionType(@PathVariable String admissionType);
 
     @Operation(summary = "Get filieres by language")
     @GetMapping("/language/{language}")
-    ResponseEntity<List<FiliereResponseDTO>> getFilieresByLanguage(@PathVariable String language);
+    ResponseEntity<List<FiliereSummaryDTO>> getFilieresByLanguage(@PathVariable String language);
 
     @Operation(summary = "Get filieres with deadline after specified date")
     @GetMapping("/deadline-after")
-    ResponseEntity<List<FiliereResponseDTO>> getFilieresByApplicationDeadlineAfter(
+    ResponseEntity<List<FiliereSummaryDTO>> getFilieresByApplicationDeadlineAfter(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date);
 
     @Operation(summary = "Get available filieres (with seats > 0)")
     @GetMapping("/available")
-    ResponseEntity<List<FiliereResponseDTO>> getAvailableFilieres();
+    ResponseEntity<List<FiliereSummaryDTO>> getAvailableFilieres();
 
     @Operation(summary = "Get filieres by university and admission type")
     @GetMapping("/university/{universityId}/admission-type/{admissionType}")
-    ResponseEntity<List<FiliereResponseDTO>> getFilieresByUniversityIdAndAdmissionType(
+    ResponseEntity<List<FiliereSummaryDTO>> getFilieresByUniversityIdAndAdmissionType(
             @PathVariable Long universityId,
             @PathVariable String admissionType);
 }
\ No newline at end of file
@@ -0,0 +1,25 @@
+package com.example.orientlamp_back.controller;
+
+import com.example.orientlamp_back.dto.RecommendationDTO;
+import com.example.orientlamp_back.entity.User;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.util.List;
+
+@Tag(name = "Recommendations", description = "Filieres ranked for a student")
+@RequestMapping("/api/recommendations")
+public interface RecommendationController {
+
+    @Operation(summary = "Eligible filieres that best match the current user's city, budget, language and interest preferences and admission margin")
+    @GetMapping("/me")
+    ResponseEntity<List<RecommendationDTO>> getMyRecommendations(
+            @Parameter(hidden = true) @AuthenticationPrincipal User user,
+            @RequestParam(defaultValue = "10") int limit);
+}
@@ -0,0 +1,34 @@
+package com.example.orientlamp_back.controller;
+
+import com.example.orientlamp_back.dto.ScoringJobDTO;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.util.List;
+
+@Tag(name = "Scoring jobs", description = "Batch re-scoring of every student (admin)")
+@RequestMapping("/api/admin/scoring-jobs")
+public interface ScoringJobController {
+
+    @Operation(summary = "Start re-scoring every student; returns the running job if there is one")
+    @PostMapping
+    ResponseEntity<ScoringJobDTO> startJob(@RequestParam(required = false) Integer partitions);
+
+    @Operation(summary = "Re-run the partitions of a job that did not complete")
+    @PostMapping("/{id}/resume")
+    ResponseEntity<ScoringJobDTO> resumeJob(@PathVariable Long id);
+
+    @Operation(summary = "Progress and throughput of a scoring job")
+    @GetMapping("/{id}")
+    ResponseEntity<ScoringJobDTO> getJob(@PathVariable Long id);
+
+    @Operation(summary = "Most recent scoring jobs")
+    @GetMapping
+    ResponseEntity<List<ScoringJobDTO>> getRecentJobs();
+}
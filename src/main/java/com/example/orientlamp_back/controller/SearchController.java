@@ -0,0 +1,20 @@
+package com.example.orientlamp_back.controller;
+
+import com.example.orientlamp_back.dto.SearchResponseDTO;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+@Tag(name = "Search", description = "Full-text search over universities and filieres")
+@RequestMapping("/api/search")
+public interface SearchController {
+
+    @Operation(summary = "Search universities and filieres (accent-insensitive, understands ENSA, ENCG, EMI, FST...)")
+    @GetMapping
+    ResponseEntity<SearchResponseDTO> search(
+            @RequestParam String q,
+            @RequestParam(required = false) Integer limit);
+}
@@ -0,0 +1,22 @@
+package com.example.orientlamp_back.controller;
+
+import com.example.orientlamp_back.dto.SuggestionDTO;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.util.List;
+
+@Tag(name = "Suggest", description = "Typeahead for the search box")
+@RequestMapping("/api/suggest")
+public interface SuggestController {
+
+    @Operation(summary = "Universities and filieres whose name, slug or abbreviation starts a word with q")
+    @GetMapping
+    ResponseEntity<List<SuggestionDTO>> suggest(
+            @RequestParam String q,
+            @RequestParam(required = false) Integer limit);
+}
@@ -1,7 +1,12 @@
 package com.example.orientlamp_back.controller;
 
+import com.example.orientlamp_back.dto.CatalogSort;
+import com.example.orientlamp_back.dto.CursorPageDTO;
+import com.example.orientlamp_back.dto.FiliereFacetQuery;
+import com.example.orientlamp_back.dto.NearbyUniversitiesDTO;
 import com.example.orientlamp_back.dto.UniversityRequestDTO;
 import com.example.orientlamp_back.dto.UniversityResponseDTO;
+import com.example.orientlamp_back.dto.UniversitySummaryDTO;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -30,29 +35,52 @@ public interface UniversityController {
     @DeleteMapping("/{id}")
     ResponseEntity<Void> deleteUniversity(@PathVariable Long id);
 
-    @Operation(summary = "Get university by ID")
+    @Operation(summary = "Get university by ID (optional ?fields=a,b and ?embed=filieres,critere)")
     @GetMapping("/{id}")
-    ResponseEntity<UniversityResponseDTO> getUniversityById(@PathVariable Long id);
+    ResponseEntity<UniversityResponseDTO> getUniversityById(
+            @PathVariable Long id,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String embed);
 
-    @Operation(summary = "Get university by slug")
+    @Operation(summary = "Get university by slug (optional ?fields=a,b and ?embed=filieres,critere)")
     @GetMapping("/slug/{slug}")
-    ResponseEntity<UniversityResponseDTO> getUniversityBySlug(@PathVariable String slug);
+    ResponseEntity<UniversityResponseDTO> getUniversityBySlug(
+            @PathVariable String slug,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String embed);
 
     @Operation(summary = "Get all universities")
     @GetMapping
-    ResponseEntity<List<UniversityResponseDTO>> getAllUniversities();
+    ResponseEntity<List<UniversitySummaryDTO>> getAllUniversities();
+
+    @Operation(summary = "Get a page of universities (keyset pagination, pass nextCursor to continue)")
+    @GetMapping("/page")
+    ResponseEntity<CursorPageDTO<UniversitySummaryDTO>> getUniversitiesPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(defaultValue = "NAME") CatalogSort sort);
 
     @Operation(summary = "Get universities by location")
     @GetMapping("/location/{location}")
-    ResponseEntity<List<UniversityResponseDTO>> getUniversitiesByLocation(@PathVariable String location);
+    ResponseEntity<List<UniversitySummaryDTO>> getUniversitiesByLocation(@PathVariable String location);
 
     @Operation(summary = "Get universities by type")
     @GetMapping("/type/{type}")
-    ResponseEntity<List<UniversityResponseDTO>> getUniversitiesByType(@PathVariable String type);
+    ResponseEntity<List<UniversitySummaryDTO>> getUniversitiesByType(@PathVariable String type);
 
     @Operation(summary = "Get universities by accreditation status")
     @GetMapping("/accreditation/{status}")
-    ResponseEntity<List<UniversityResponseDTO>> getUniversitiesByAccreditationStatus(@PathVariable String status);
+    ResponseEntity<List<UniversitySummaryDTO>> getUniversitiesByAccreditationStatus(@PathVariable String status);
+
+    @Operation(summary = "Get universities near a city or a point (?city= or ?lat=&lon=, optional filiere filters)")
+    @GetMapping("/near")
+    ResponseEntity<NearbyUniversitiesDTO> getUniversitiesNear(
+            @RequestParam(required = false) String city,
+            @RequestParam(name = "lat", required = false) Double latitude,
+            @RequestParam(name = "lon", required = false) Double longitude,
+            @RequestParam(required = false) Double radiusKm,
+            @RequestParam(required = false) Integer limit,
+            @ModelAttribute FiliereFacetQuery filters);
 
     @Operation(summary = "Check if university exists by name")
     @GetMapping("/exists/{name}")
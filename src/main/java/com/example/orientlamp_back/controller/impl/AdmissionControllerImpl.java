@@ -0,0 +1,40 @@
+package com.example.orientlamp_back.controller.impl;
+
+import com.example.orientlamp_back.controller.AdmissionController;
+import com.example.orientlamp_back.dto.AdmissionChanceDTO;
+import com.example.orientlamp_back.dto.AdmissionScoreDTO;
+import com.example.orientlamp_back.entity.User;
+import com.example.orientlamp_back.service.AdmissionService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+@Slf4j
+public class AdmissionControllerImpl implements AdmissionController {
+
+    private final AdmissionService admissionService;
+
+    @Override
+    public ResponseEntity<List<AdmissionChanceDTO>> getCncChances(Integer rank, BigDecimal rating) {
+        log.info("REST request to get CNC admission chances for rank {} and rating {}", rank, rating);
+        return ResponseEntity.ok(admissionService.getCncChances(rank, rating));
+    }
+
+    @Override
+    public ResponseEntity<List<AdmissionChanceDTO>> getMyCncChances(User user, Integer rank) {
+        log.info("REST request to get CNC admission chances of user: {}", user.getIdUser());
+        return ResponseEntity.ok(admissionService.getMyCncChances(user, rank));
+    }
+
+    @Override
+    public ResponseEntity<List<AdmissionScoreDTO>> getMyScores(User user) {
+        log.info("REST request to get admission scores of user: {}", user.getIdUser());
+        return ResponseEntity.ok(admissionService.getMyScores(user));
+    }
+}
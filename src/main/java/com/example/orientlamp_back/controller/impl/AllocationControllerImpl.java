@@ -0,0 +1,38 @@
+package com.example.orientlamp_back.controller.impl;
+
+import com.example.orientlamp_back.controller.AllocationController;
+import com.example.orientlamp_back.dto.AllocationRunDTO;
+import com.example.orientlamp_back.service.AllocationService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+@Slf4j
+public class AllocationControllerImpl implements AllocationController {
+
+    private final AllocationService allocationService;
+
+    @Override
+    public ResponseEntity<AllocationRunDTO> startRun(Integer wishes) {
+        log.info("REST request to start an allocation run with {} wishes per student", wishes);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(allocationService.startRun(wishes));
+    }
+
+    @Override
+    public ResponseEntity<AllocationRunDTO> getRun(Long id) {
+        log.info("REST request to get allocation run: {}", id);
+        return ResponseEntity.ok(allocationService.getRun(id));
+    }
+
+    @Override
+    public ResponseEntity<List<AllocationRunDTO>> getRecentRuns() {
+        log.info("REST request to get recent allocation runs");
+        return ResponseEntity.ok(allocationService.getRecentRuns());
+    }
+}
@@ -1,8 +1,10 @@
 package com.example.orientlamp_back.controller.impl;
 
 import com.example.orientlamp_back.controller.CritereController;
+import com.example.orientlamp_back.dto.CritereHistoryDTO;
 import com.example.orientlamp_back.dto.CritereRequestDTO;
 import com.example.orientlamp_back.dto.CritereResponseDTO;
+import com.example.orientlamp_back.dto.ThresholdProjectionDTO;
 import com.example.orientlamp_back.service.CritereService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -103,4 +105,28 @@ public class CritereControllerImpl implements CritereController {
         boolean exists = critereService.existsByFiliereId(filiereId);
         return ResponseEntity.ok(exists);
     }
-}
\ No newline at end of file
+
+    @Override
+    public ResponseEntity<List<CritereHistoryDTO>> getCritereHistory(Long filiereId) {
+        log.info("REST request to get Critere history for filiere ID: {}", filiereId);
+        return ResponseEntity.ok(critereService.getCritereHistory(filiereId));
+    }
+
+    @Override
+    public ResponseEntity<CritereHistoryDTO> getCritereAsOf(Long filiereId, int year) {
+        log.info("REST request to get Critere of filiere ID: {} as of {}", filiereId, year);
+        return ResponseEntity.ok(critereService.getCritereAsOf(filiereId, year));
+    }
+
+    @Override
+    public ResponseEntity<ThresholdProjectionDTO> getThresholdTrend(Long filiereId) {
+        log.info("REST request to get threshold trend for filiere ID: {}", filiereId);
+        return ResponseEntity.ok(critereService.getThresholdTrend(filiereId));
+    }
+
+    @Override
+    public ResponseEntity<List<ThresholdProjectionDTO>> getThresholdTrends() {
+        log.info("REST request to get threshold trends");
+        return ResponseEntity.ok(critereService.getThresholdTrends());
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.orientlamp_back.controller.impl;
+
+import com.example.orientlamp_back.controller.EligibilityController;
+import com.example.orientlamp_back.dto.EligibilityDTO;
+import com.example.orientlamp_back.dto.EligibilitySimulationDTO;
+import com.example.orientlamp_back.dto.EligibilitySimulationRequestDTO;
+import com.example.orientlamp_back.dto.FiliereSummaryDTO;
+import com.example.orientlamp_back.entity.User;
+import com.example.orientlamp_back.service.EligibilityService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+@Slf4j
+public class EligibilityControllerImpl implements EligibilityController {
+
+    private final EligibilityService eligibilityService;
+
+    @Override
+    public ResponseEntity<EligibilityDTO> getMyEligibility(User user, boolean eligibleOnly) {
+        log.info("REST request to get eligibility of user: {}", user.getIdUser());
+        return ResponseEntity.ok(eligibilityService.getEligibility(user, eligibleOnly));
+    }
+
+    @Override
+    public ResponseEntity<List<FiliereSummaryDTO>> getMyEligibleFilieres(User user) {
+        log.info("REST request to get eligible filieres of user: {}", user.getIdUser());
+        return ResponseEntity.ok(eligibilityService.getEligibleFilieres(user));
+    }
+
+    @Override
+    public ResponseEntity<EligibilitySimulationDTO> simulate(User user, EligibilitySimulationRequestDTO request) {
+        log.info("REST request to simulate eligibility of user: {}", user.getIdUser());
+        return ResponseEntity.ok(eligibilityService.simulate(user, request));
+    }
+}
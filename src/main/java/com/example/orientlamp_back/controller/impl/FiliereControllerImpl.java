@@ -1,8 +1,16 @@
 package com.example.orientlamp_back.controller.impl;
 
 import com.example.orientlamp_back.controller.FiliereController;
+import com.example.orientlamp_back.dto.CatalogEmbed;
+import com.example.orientlamp_back.dto.CatalogSort;
+import com.example.orientlamp_back.dto.CursorPageDTO;
+import com.example.orientlamp_back.dto.FacetedPageDTO;
+import com.example.orientlamp_back.dto.FiliereFacetQuery;
+import com.example.orientlamp_back.dto.FiliereQueryFilter;
+import com.example.orientlamp_back.dto.FieldSelection;
 import com.example.orientlamp_back.dto.FiliereRequestDTO;
 import com.example.orientlamp_back.dto.FiliereResponseDTO;
+import com.example.orientlamp_back.dto.FiliereSummaryDTO;
 import com.example.orientlamp_back.service.FiliereService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -11,6 +19,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.time.LocalDate;
+import java.util.EnumSet;
 import java.util.List;
 
 @RestController
@@ -42,60 +51,82 @@ public class FiliereControllerImpl implements FiliereController {
     }
 
     @Override
-    public ResponseEntity<FiliereResponseDTO> getFiliereById(Long id) {
+    public ResponseEntity<FiliereResponseDTO> getFiliereById(Long id, String fields, String embed) {
         log.info("REST request to get Filiere with ID: {}", id);
-        FiliereResponseDTO responseDTO = filiereService.getFiliereById(id);
+        FieldSelection selection = FieldSelection.parse(fields, embed, EnumSet.of(CatalogEmbed.CRITERE));
+        FiliereResponseDTO responseDTO = filiereService.getFiliereById(id, selection.getEmbedded());
         return ResponseEntity.ok(responseDTO);
     }
 
     @Override
-    public ResponseEntity<List<FiliereResponseDTO>> getAllFilieres() {
+    public ResponseEntity<List<FiliereSummaryDTO>> getAllFilieres() {
         log.info("REST request to get all Filieres");
-        List<FiliereResponseDTO> filieres = filiereService.getAllFilieres();
+        List<FiliereSummaryDTO> filieres = filiereService.getAllFilieres();
         return ResponseEntity.ok(filieres);
     }
 
     @Override
-    public ResponseEntity<List<FiliereResponseDTO>> getFilieresByUniversityId(Long universityId) {
+    public ResponseEntity<CursorPageDTO<FiliereSummaryDTO>> getFilieresPage(String cursor, Integer size, CatalogSort sort) {
+        log.info("REST request to get a page of Filieres sorted by {}", sort);
+        CursorPageDTO<FiliereSummaryDTO> page = filiereService.getFilieresPage(cursor, size, sort);
+        return ResponseEntity.ok(page);
+    }
+
+    @Override
+    public ResponseEntity<FacetedPageDTO<FiliereSummaryDTO>> searchFilieres(FiliereFacetQuery query, String cursor,
+                                                                            Integer size, CatalogSort sort) {
+        log.info("REST request to search Filieres by facets: {}", query);
+        return ResponseEntity.ok(filiereService.searchFilieres(query, cursor, size, sort));
+    }
+
+    @Override
+    public ResponseEntity<CursorPageDTO<FiliereSummaryDTO>> queryFilieres(FiliereQueryFilter filter, String cursor,
+                                                                         Integer size, CatalogSort sort) {
+        log.info("REST request to query Filieres: {}", filter);
+        return ResponseEntity.ok(filiereService.queryFilieres(filter, cursor, size, sort));
+    }
+
+    @Override
+    public ResponseEntity<List<FiliereSummaryDTO>> getFilieresByUniversityId(Long universityId) {
         log.info("REST request to get Filieres by university ID: {}", universityId);
-        List<FiliereResponseDTO> filieres = filiereService.getFilieresByUniversityId(universityId);
+        List<FiliereSummaryDTO> filieres = filiereService.getFilieresByUniversityId(universityId);
         return ResponseEntity.ok(filieres);
     }
 
     @Override
-    public ResponseEntity<List<FiliereResponseDTO>> getFilieresByAdmissionType(String admissionType) {
+    public ResponseEntity<List<FiliereSummaryDTO>> getFilieresByAdmissionType(String admissionType) {
         log.info("REST request to get Filieres by admission type: {}", admissionType);
-        List<FiliereResponseDTO> filieres = filiereService.getFilieresByAdmissionType(admissionType);
+        List<FiliereSummaryDTO> filieres = filiereService.getFilieresByAdmissionType(admissionType);
         return ResponseEntity.ok(filieres);
     }
 
     @Override
-    public ResponseEntity<List<FiliereResponseDTO>> getFilieresByLanguage(String language) {
+    public ResponseEntity<List<FiliereSummaryDTO>> getFilieresByLanguage(String language) {
         log.info("REST request to get Filieres by language: {}", language);
-        List<FiliereResponseDTO> filieres = filiereService.getFilieresByLanguage(language);
+        List<FiliereSummaryDTO> filieres = filiereService.getFilieresByLanguage(language);
         return ResponseEntity.ok(filieres);
     }
 
     @Override
-    public ResponseEntity<List<FiliereResponseDTO>> getFilieresByApplicationDeadlineAfter(LocalDate date) {
+    public ResponseEntity<List<FiliereSummaryDTO>> getFilieresByApplicationDeadlineAfter(LocalDate date) {
         log.info("REST request to get Filieres with deadline after: {}", date);
-        List<FiliereResponseDTO> filieres = filiereService.getFilieresByApplicationDeadlineAfter(date);
+        List<FiliereSummaryDTO> filieres = filiereService.getFilieresByApplicationDeadlineAfter(date);
         return ResponseEntity.ok(filieres);
     }
 
     @Override
-    public ResponseEntity<List<FiliereResponseDTO>> getAvailableFilieres() {
+    public ResponseEntity<List<FiliereSummaryDTO>> getAvailableFilieres() {
         log.info("REST request to get available Filieres");
-        List<FiliereResponseDTO> filieres = filiereService.getAvailableFilieres();
+        List<FiliereSummaryDTO> filieres = filiereService.getAvailableFilieres();
         return ResponseEntity.ok(filieres);
     }
 
     @Override
-    public ResponseEntity<List<FiliereResponseDTO>> getFilieresByUniversityIdAndAdmissionType(
+    public ResponseEntity<List<FiliereSummaryDTO>> getFilieresByUniversityIdAndAdmissionType(
             Long universityId, String admissionType) {
         log.info("REST request to get Filieres by university ID: {} and admission type: {}",
                 universityId, admissionType);
-        List<FiliereResponseDTO> filieres = filiereService.getFilieresByUniversityIdAndAdmissionType(
+        List<FiliereSummaryDTO> filieres = filiereService.getFilieresByUniversityIdAndAdmissionType(
                 universityId, admissionType);
         return ResponseEntity.ok(filieres);
     }
@@ -0,0 +1,26 @@
+package com.example.orientlamp_back.controller.impl;
+
+import com.example.orientlamp_back.controller.RecommendationController;
+import com.example.orientlamp_back.dto.RecommendationDTO;
+import com.example.orientlamp_back.entity.User;
+import com.example.orientlamp_back.service.RecommendationService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+@Slf4j
+public class RecommendationControllerImpl implements RecommendationController {
+
+    private final RecommendationService recommendationService;
+
+    @Override
+    public ResponseEntity<List<RecommendationDTO>> getMyRecommendations(User user, int limit) {
+        log.info("REST request to get recommendations of user: {}", user.getIdUser());
+        return ResponseEntity.ok(recommendationService.getRecommendations(user, limit));
+    }
+}
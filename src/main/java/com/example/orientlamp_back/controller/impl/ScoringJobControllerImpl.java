@@ -0,0 +1,44 @@
+package com.example.orientlamp_back.controller.impl;
+
+import com.example.orientlamp_back.controller.ScoringJobController;
+import com.example.orientlamp_back.dto.ScoringJobDTO;
+import com.example.orientlamp_back.service.ScoringJobService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+@Slf4j
+public class ScoringJobControllerImpl implements ScoringJobController {
+
+    private final ScoringJobService scoringJobService;
+
+    @Override
+    public ResponseEntity<ScoringJobDTO> startJob(Integer partitions) {
+        log.info("REST request to start a scoring job with {} partitions", partitions);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(scoringJobService.startJob(partitions));
+    }
+
+    @Override
+    public ResponseEntity<ScoringJobDTO> resumeJob(Long id) {
+        log.info("REST request to resume scoring job: {}", id);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(scoringJobService.resumeJob(id));
+    }
+
+    @Override
+    public ResponseEntity<ScoringJobDTO> getJob(Long id) {
+        log.info("REST request to get scoring job: {}", id);
+        return ResponseEntity.ok(scoringJobService.getJob(id));
+    }
+
+    @Override
+    public ResponseEntity<List<ScoringJobDTO>> getRecentJobs() {
+        log.info("REST request to get recent scoring jobs");
+        return ResponseEntity.ok(scoringJobService.getRecentJobs());
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.orientlamp_back.controller.impl;
+
+import com.example.orientlamp_back.controller.SearchController;
+import com.example.orientlamp_back.dto.SearchResponseDTO;
+import com.example.orientlamp_back.service.SearchService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequiredArgsConstructor
+@Slf4j
+public class SearchControllerImpl implements SearchController {
+
+    private final SearchService searchService;
+
+    @Override
+    public ResponseEntity<SearchResponseDTO> search(String q, Integer limit) {
+        log.info("REST request to search: {}", q);
+        return ResponseEntity.ok(searchService.search(q, limit));
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.orientlamp_back.controller.impl;
+
+import com.example.orientlamp_back.controller.SuggestController;
+import com.example.orientlamp_back.dto.SuggestionDTO;
+import com.example.orientlamp_back.service.SuggestService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/** Called on every keystroke, so unlike the other controllers it does not log each request. */
+@RestController
+@RequiredArgsConstructor
+public class SuggestControllerImpl implements SuggestController {
+
+    private final SuggestService suggestService;
+
+    @Override
+    public ResponseEntity<List<SuggestionDTO>> suggest(String q, Integer limit) {
+        return ResponseEntity.ok(suggestService.suggest(q, limit));
+    }
+}
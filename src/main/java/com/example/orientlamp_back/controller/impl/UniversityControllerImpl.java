@@ -1,8 +1,15 @@
 package com.example.orientlamp_back.controller.impl;
 
 import com.example.orientlamp_back.controller.UniversityController;
+import com.example.orientlamp_back.dto.CatalogEmbed;
+import com.example.orientlamp_back.dto.CatalogSort;
+import com.example.orientlamp_back.dto.CursorPageDTO;
+import com.example.orientlamp_back.dto.FieldSelection;
+import com.example.orientlamp_back.dto.FiliereFacetQuery;
+import com.example.orientlamp_back.dto.NearbyUniversitiesDTO;
 import com.example.orientlamp_back.dto.UniversityRequestDTO;
 import com.example.orientlamp_back.dto.UniversityResponseDTO;
+import com.example.orientlamp_back.dto.UniversitySummaryDTO;
 import com.example.orientlamp_back.service.UniversityService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -11,6 +18,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.util.EnumSet;
 import java.util.List;
 
 @RestController
@@ -42,47 +50,65 @@ public class UniversityControllerImpl implements UniversityController {
     }
 
     @Override
-    public ResponseEntity<UniversityResponseDTO> getUniversityById(Long id) {
+    public ResponseEntity<UniversityResponseDTO> getUniversityById(Long id, String fields, String embed) {
         log.info("REST request to get University with ID: {}", id);
-        UniversityResponseDTO responseDTO = universityService.getUniversityById(id);
+        FieldSelection selection = FieldSelection.parse(fields, embed, EnumSet.allOf(CatalogEmbed.class));
+        UniversityResponseDTO responseDTO = universityService.getUniversityById(id, selection.getEmbedded());
         return ResponseEntity.ok(responseDTO);
     }
 
     @Override
-    public ResponseEntity<UniversityResponseDTO> getUniversityBySlug(String slug) {
+    public ResponseEntity<UniversityResponseDTO> getUniversityBySlug(String slug, String fields, String embed) {
         log.info("REST request to get University with slug: {}", slug);
-        UniversityResponseDTO responseDTO = universityService.getUniversityBySlug(slug);
+        FieldSelection selection = FieldSelection.parse(fields, embed, EnumSet.allOf(CatalogEmbed.class));
+        UniversityResponseDTO responseDTO = universityService.getUniversityBySlug(slug, selection.getEmbedded());
         return ResponseEntity.ok(responseDTO);
     }
 
     @Override
-    public ResponseEntity<List<UniversityResponseDTO>> getAllUniversities() {
+    public ResponseEntity<List<UniversitySummaryDTO>> getAllUniversities() {
         log.info("REST request to get all Universities");
-        List<UniversityResponseDTO> universities = universityService.getAllUniversities();
+        List<UniversitySummaryDTO> universities = universityService.getAllUniversities();
         return ResponseEntity.ok(universities);
     }
 
     @Override
-    public ResponseEntity<List<UniversityResponseDTO>> getUniversitiesByLocation(String location) {
+    public ResponseEntity<CursorPageDTO<UniversitySummaryDTO>> getUniversitiesPage(String cursor, Integer size, CatalogSort sort) {
+        log.info("REST request to get a page of Universities sorted by {}", sort);
+        CursorPageDTO<UniversitySummaryDTO> page = universityService.getUniversitiesPage(cursor, size, sort);
+        return ResponseEntity.ok(page);
+    }
+
+    @Override
+    public ResponseEntity<List<UniversitySummaryDTO>> getUniversitiesByLocation(String location) {
         log.info("REST request to get Universities by location: {}", location);
-        List<UniversityResponseDTO> universities = universityService.getUniversitiesByLocation(location);
+        List<UniversitySummaryDTO> universities = universityService.getUniversitiesByLocation(location);
         return ResponseEntity.ok(universities);
     }
 
     @Override
-    public ResponseEntity<List<UniversityResponseDTO>> getUniversitiesByType(String type) {
+    public ResponseEntity<List<UniversitySummaryDTO>> getUniversitiesByType(String type) {
         log.info("REST request to get Universities by type: {}", type);
-        List<UniversityResponseDTO> universities = universityService.getUniversitiesByType(type);
+        List<UniversitySummaryDTO> universities = universityService.getUniversitiesByType(type);
         return ResponseEntity.ok(universities);
     }
 
     @Override
-    public ResponseEntity<List<UniversityResponseDTO>> getUniversitiesByAccreditationStatus(String status) {
+    public ResponseEntity<List<UniversitySummaryDTO>> getUniversitiesByAccreditationStatus(String status) {
         log.info("REST request to get Universities by accreditation status: {}", status);
-        List<UniversityResponseDTO> universities = universityService.getUniversitiesByAccreditationStatus(status);
+        List<UniversitySummaryDTO> universities = universityService.getUniversitiesByAccreditationStatus(status);
         return ResponseEntity.ok(universities);
     }
 
+    @Override
+    public ResponseEntity<NearbyUniversitiesDTO> getUniversitiesNear(String city, Double latitude, Double longitude,
+                                                                    Double radiusKm, Integer limit,
+                                                                    FiliereFacetQuery filters) {
+        log.info("REST request to get Universities near {}", city != null ? city : latitude + "," + longitude);
+        NearbyUniversitiesDTO nearby = universityService.getUniversitiesNear(city, latitude, longitude, radiusKm, limit, filters);
+        return ResponseEntity.ok(nearby);
+    }
+
     @Override
     public ResponseEntity<Boolean> existsByName(String name) {
         log.info("REST request to check if University exists by name: {}", name);
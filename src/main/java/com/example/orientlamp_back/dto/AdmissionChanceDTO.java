@@ -0,0 +1,26 @@
+package com.example.orientlamp_back.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Estimated chance of admission at one filiere, with the most recent cut-offs it is based on
+ * and the number of academic years behind the estimate.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AdmissionChanceDTO {
+
+    private FiliereSummaryDTO filiere;
+    private double probability;
+    private String anneeAcademique;
+    private Integer lastAdmittedRank;
+    private BigDecimal minScore;
+    private int years;
+}
@@ -0,0 +1,30 @@
+package com.example.orientlamp_back.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * A student's admission score at one filiere, computed with the filiere's own formula, and how
+ * it compares with the filiere's threshold.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AdmissionScoreDTO {
+
+    private FiliereSummaryDTO filiere;
+    private String formula;
+    /** Null when the formula reads a grade the student's profile does not record. */
+    private BigDecimal score;
+    private BigDecimal threshold;
+    /** Score minus threshold; null without either. */
+    private BigDecimal margin;
+    /** Variables the formula reads that the profile is missing. */
+    private List<String> missing;
+}
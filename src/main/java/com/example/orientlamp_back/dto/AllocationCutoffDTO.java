@@ -0,0 +1,27 @@
+package com.example.orientlamp_back.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/** Projected outcome of one filiere in a seat allocation run. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AllocationCutoffDTO {
+
+    private Long filiereId;
+    /** Null when the filiere is no longer in the catalog. */
+    private String filiereName;
+    /** Null when the filiere sets no seat limit. */
+    private Integer seats;
+    /** Students who listed the filiere among their wishes. */
+    private int applicants;
+    private int admitted;
+    /** Lowest admitted ranking score; null when no one was admitted. */
+    private BigDecimal cutoffScore;
+}
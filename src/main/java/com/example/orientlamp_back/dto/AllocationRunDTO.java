@@ -0,0 +1,32 @@
+package com.example.orientlamp_back.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+/** A seat allocation run, see {@code /api/admin/allocations}. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AllocationRunDTO {
+
+    private Long id;
+    private String status;
+    private long catalogVersion;
+    private int wishesPerStudent;
+    private long students;
+    /** Students holding a seat at the end of the run. */
+    private long assigned;
+    /** Wishes proposed before the allocation settled. */
+    private long proposals;
+    private Instant createdAt;
+    private Instant finishedAt;
+    private String error;
+    /** Per filiere; only filled when a single run is asked for. */
+    private List<AllocationCutoffDTO> cutoffs;
+}
@@ -0,0 +1,19 @@
+package com.example.orientlamp_back.dto;
+
+/**
+ * Associations a catalog detail response may embed, named after the JSON property they fill.
+ */
+public enum CatalogEmbed {
+    FILIERES("filieres"),
+    CRITERE("critere");
+
+    private final String property;
+
+    CatalogEmbed(String property) {
+        this.property = property;
+    }
+
+    public String getProperty() {
+        return property;
+    }
+}
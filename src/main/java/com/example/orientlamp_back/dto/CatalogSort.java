@@ -0,0 +1,14 @@
+package com.example.orientlamp_back.dto;
+
+/**
+ * Stable orderings offered by the paginated catalog endpoints. Every ordering is
+ * tie-broken on id so that keyset cursors never skip or repeat a row.
+ */
+public enum CatalogSort {
+    NAME,
+    ID,
+    /** Filieres only — null fees sort last. */
+    TUITION,
+    /** Filieres only — null deadlines sort last. */
+    DEADLINE
+}
@@ -0,0 +1,31 @@
+package com.example.orientlamp_back.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/** One recorded revision of a filiere's thresholds for an academic year. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CritereHistoryDTO {
+
+    private Long filiereId;
+    private String anneeAcademique;
+    /** First calendar year of {@code anneeAcademique}. */
+    private int academicYear;
+    /** 1 for the first write of the year, incremented by each correction. */
+    private int revision;
+    private String typeCandidat;
+    private String serieBacCible;
+    private BigDecimal seuilCalcul;
+    private BigDecimal noteConcoursEcrit;
+    private BigDecimal scorePrepa;
+    private Integer classementCnc;
+    private Instant recordedAt;
+}
@@ -47,4 +47,7 @@ public class CritereRequestDTO {
     private String diplomesRequis;
 
     private String notesSemestres;
+
+    @Size(max = 500, message = "Score formula must not exceed 500 characters")
+    private String formuleScore;
 }
@@ -28,6 +28,7 @@ public class CritereResponseDTO {
     private Integer classementCnc;
     private String diplomesRequis;
     private String notesSemestres;
+    private String formuleScore;
     private Instant createdAt;
     private Instant updatedAt;
 }
\ No newline at end of file
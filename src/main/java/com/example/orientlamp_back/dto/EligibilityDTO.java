@@ -0,0 +1,30 @@
+package com.example.orientlamp_back.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Result of {@code /api/eligibility/me}: the profile that was checked and a verdict for every
+ * filiere with a critere, eligible ones first.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EligibilityDTO {
+
+    private String candidateType;
+    private String bacMajor;
+    /** Bac grade, CNC rating or semester average, depending on {@link #candidateType}. */
+    private BigDecimal score;
+    private Integer age;
+    private int eligibleCount;
+    /** Filieres with a critere, whether listed or not. */
+    private int total;
+    private List<FiliereEligibilityDTO> results;
+}
@@ -0,0 +1,18 @@
+package com.example.orientlamp_back.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** One critere check behind an eligibility verdict, e.g. {@code THRESHOLD} with the grade compared. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EligibilityReasonDTO {
+
+    private String check;
+    private boolean passed;
+    private String message;
+}
@@ -0,0 +1,35 @@
+package com.example.orientlamp_back.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Result of {@code /api/eligibility/simulate}: the simulated profile, how its eligible set
+ * differs from the user's current one, and the grade that would open the next filiere.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EligibilitySimulationDTO {
+
+    private String candidateType;
+    private String bacMajor;
+    /** Bac grade, CNC rating or semester average of the simulated profile. */
+    private BigDecimal score;
+    private Integer age;
+    private int eligibleCount;
+    /** Filieres the user's own profile is eligible for; 0 without a profile. */
+    private int currentEligibleCount;
+    /** Eligible with the simulated profile but not the current one. */
+    private List<FiliereSummaryDTO> gained;
+    /** Eligible with the current profile but not the simulated one. */
+    private List<FiliereSummaryDTO> lost;
+    /** Lowest threshold above {@link #score} among the filieres of the track and series, or null. */
+    private BigDecimal nextThreshold;
+}
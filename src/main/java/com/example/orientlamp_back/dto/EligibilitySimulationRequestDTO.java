@@ -0,0 +1,63 @@
+package com.example.orientlamp_back.dto;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * A hypothetical student profile for {@code /api/eligibility/simulate}, in the fields of the
+ * bac, prepa and Bac+2 profiles. Fields left out keep the value of the user's own profile when
+ * it is of the same track. The track is {@link #candidateType} if given, else the one the
+ * fields belong to: a CNC rating for prepa, semester averages or a diploma for Bac+2, a bac
+ * grade for bac.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EligibilitySimulationRequestDTO {
+
+    /** BACHELIER, CPGE or DIPLOME. */
+    private String candidateType;
+
+    @Size(max = 100, message = "Bac major must not exceed 100 characters")
+    private String bacMajor;
+
+    @DecimalMin(value = "0.0", message = "Grade must be at least 0")
+    @DecimalMax(value = "20.0", message = "Grade must not exceed 20")
+    private BigDecimal grade;
+
+    @DecimalMin(value = "0.0", message = "CNC rating must be at least 0")
+    private BigDecimal cncRating;
+
+    @DecimalMin(value = "0.0", message = "Average S1 must be at least 0")
+    @DecimalMax(value = "20.0", message = "Average S1 must not exceed 20")
+    private BigDecimal avgS1;
+
+    @DecimalMin(value = "0.0", message = "Average S2 must be at least 0")
+    @DecimalMax(value = "20.0", message = "Average S2 must not exceed 20")
+    private BigDecimal avgS2;
+
+    @DecimalMin(value = "0.0", message = "Average S3 must be at least 0")
+    @DecimalMax(value = "20.0", message = "Average S3 must not exceed 20")
+    private BigDecimal avgS3;
+
+    @DecimalMin(value = "0.0", message = "Average S4 must be at least 0")
+    @DecimalMax(value = "20.0", message = "Average S4 must not exceed 20")
+    private BigDecimal avgS4;
+
+    @Size(max = 100, message = "Diploma type must not exceed 100 characters")
+    private String diplomaType;
+
+    @Min(value = 10, message = "Age must be at least 10")
+    @Max(value = 99, message = "Age must be below 100")
+    private Integer age;
+}
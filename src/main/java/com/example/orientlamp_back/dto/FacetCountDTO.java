@@ -0,0 +1,21 @@
+package com.example.orientlamp_back.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * How many results a facet value would give, counted with the filters of the other facets
+ * applied. {@code selected} values are part of the current filter.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FacetCountDTO {
+
+    private String value;
+    private int count;
+    private boolean selected;
+}
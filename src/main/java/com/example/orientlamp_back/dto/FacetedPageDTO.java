@@ -0,0 +1,28 @@
+package com.example.orientlamp_back.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A keyset page of filtered results, the total number of matches and the counts for every
+ * facet value, keyed by the request parameter of the facet.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FacetedPageDTO<T> {
+
+    private List<T> content;
+    private int size;
+    private String sort;
+    private String nextCursor;
+    private boolean hasNext;
+    private int total;
+    private Map<String, List<FacetCountDTO>> facets;
+}
@@ -0,0 +1,92 @@
+package com.example.orientlamp_back.dto;
+
+import com.example.orientlamp_back.exception.InvalidFieldSelectionException;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * The {@code ?fields=} and {@code ?embed=} parameters of a catalog request.
+ *
+ * Without {@code embed}, an association is embedded when the endpoint embeds it by default and
+ * {@code fields} is either absent or names it. With {@code embed}, exactly the listed associations
+ * are embedded. Embedded associations are always part of the serialized field set.
+ */
+public final class FieldSelection {
+
+    /** Jackson filter ids carried by the university and filiere DTOs. */
+    public static final String UNIVERSITY_FILTER = "university";
+    public static final String FILIERE_FILTER = "filiere";
+
+    private final Set<String> fields;
+    private final Set<CatalogEmbed> embedded;
+
+    private FieldSelection(Set<String> fields, Set<CatalogEmbed> embedded) {
+        this.fields = fields;
+        this.embedded = embedded;
+    }
+
+    public static FieldSelection parse(String fields, String embed, Set<CatalogEmbed> defaults) {
+        Set<String> requested = fields == null ? null : split(fields);
+
+        EnumSet<CatalogEmbed> embedded = EnumSet.noneOf(CatalogEmbed.class);
+        if (embed != null) {
+            for (String name : split(embed)) {
+                embedded.add(embedOf(name));
+            }
+        } else {
+            for (CatalogEmbed candidate : defaults) {
+                if (requested == null || requested.contains(candidate.getProperty())) {
+                    embedded.add(candidate);
+                }
+            }
+        }
+
+        if (requested != null) {
+            embedded.forEach(e -> requested.add(e.getProperty()));
+        }
+        return new FieldSelection(
+                requested == null ? null : Collections.unmodifiableSet(requested),
+                Collections.unmodifiableSet(embedded));
+    }
+
+    /** {@code true} when only some fields were requested. */
+    public boolean isSparse() {
+        return fields != null;
+    }
+
+    /** Requested JSON properties, or {@code null} for all of them. */
+    public Set<String> getFields() {
+        return fields;
+    }
+
+    public Set<CatalogEmbed> getEmbedded() {
+        return embedded;
+    }
+
+    public boolean embeds(CatalogEmbed association) {
+        return embedded.contains(association);
+    }
+
+    private static Set<String> split(String value) {
+        Set<String> names = new LinkedHashSet<>();
+        Arrays.stream(value.split(","))
+                .map(String::trim)
+                .filter(name -> !name.isEmpty())
+                .forEach(names::add);
+        return names;
+    }
+
+    private static CatalogEmbed embedOf(String name) {
+        for (CatalogEmbed candidate : CatalogEmbed.values()) {
+            if (candidate.getProperty().equalsIgnoreCase(name)) {
+                return candidate;
+            }
+        }
+        throw new InvalidFieldSelectionException("Unknown embed '" + name + "', expected one of "
+                + Arrays.stream(CatalogEmbed.values()).map(CatalogEmbed::getProperty).toList());
+    }
+}
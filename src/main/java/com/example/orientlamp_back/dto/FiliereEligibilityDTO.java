@@ -0,0 +1,19 @@
+package com.example.orientlamp_back.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FiliereEligibilityDTO {
+
+    private FiliereSummaryDTO filiere;
+    private boolean eligible;
+    private List<EligibilityReasonDTO> reasons;
+}
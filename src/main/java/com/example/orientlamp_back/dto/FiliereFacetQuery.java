@@ -0,0 +1,30 @@
+package com.example.orientlamp_back.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Filters of {@code GET /api/filieres/search}. Repeating a parameter OR-s its values
+ * ({@code ?language=Français&language=Anglais}); different parameters are AND-ed.
+ * {@code tuitionBand} takes the names of {@code FiliereFacetIndex.TuitionBand}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FiliereFacetQuery {
+
+    private List<String> admissionType;
+    private List<String> language;
+    private List<String> location;
+    private List<String> universityType;
+    private List<Integer> durationYears;
+    private List<String> tuitionBand;
+    private Boolean hasSeats;
+    /** Application deadline not passed yet. */
+    private Boolean open;
+}
@@ -0,0 +1,45 @@
+package com.example.orientlamp_back.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Filters of {@code GET /api/filieres/query}, compiled into one SQL statement. Every filter
+ * is optional and all given filters are AND-ed; repeating a list parameter OR-s its values.
+ * Ranges are inclusive. Critere filters only match filieres that have a critere, except
+ * {@code age}, which also keeps filieres without an age limit.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FiliereQueryFilter {
+
+    private List<Long> universityId;
+    private List<String> admissionType;
+    private List<String> language;
+    private BigDecimal minTuition;
+    private BigDecimal maxTuition;
+    private Integer minDuration;
+    private Integer maxDuration;
+    private Integer minSeats;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate deadlineFrom;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate deadlineTo;
+
+    private List<String> serieBacCible;
+    private BigDecimal minSeuil;
+    private BigDecimal maxSeuil;
+    /** {@code critere.aEntretien}: whether the filiere interviews its candidates. */
+    private Boolean entretien;
+    /** Candidate's age: keeps filieres whose {@code critere.ageMax} admits it. */
+    private Integer age;
+}
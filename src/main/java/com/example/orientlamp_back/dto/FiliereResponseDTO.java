@@ -1,5 +1,6 @@
 package com.example.orientlamp_back.dto;
 
+import com.fasterxml.jackson.annotation.JsonFilter;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -13,6 +14,7 @@ import java.time.LocalDate;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@JsonFilter(FieldSelection.FILIERE_FILTER)
 public class FiliereResponseDTO {
 
     private Long id;
@@ -0,0 +1,33 @@
+package com.example.orientlamp_back.dto;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Card representation of a filiere for list endpoints, without its critere.
+ * {@link FiliereResponseDTO} is the detail view.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonFilter(FieldSelection.FILIERE_FILTER)
+public class FiliereSummaryDTO {
+
+    private Long id;
+    private String name;
+    private Long universityId;
+    private String universityName;
+    private Integer durationYears;
+    private BigDecimal tuitionFee;
+    private String admissionType;
+    private String language;
+    private Integer seatsAvailabial;
+    private LocalDate applicationDeadline;
+}
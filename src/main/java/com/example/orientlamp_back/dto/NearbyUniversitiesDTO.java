@@ -0,0 +1,24 @@
+package com.example.orientlamp_back.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/** Result of {@code /api/universities/near}: the resolved centre and the universities around it. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class NearbyUniversitiesDTO {
+
+    /** City the centre was resolved from, null when coordinates were given. */
+    private String place;
+    private double latitude;
+    private double longitude;
+    private double radiusKm;
+    private int total;
+    private List<NearbyUniversityDTO> results;
+}
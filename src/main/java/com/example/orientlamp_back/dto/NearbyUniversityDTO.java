@@ -0,0 +1,21 @@
+package com.example.orientlamp_back.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A university card with its distance from the searched point. {@code matchingFilieres} is
+ * only set when filiere filters were given: how many of its filieres pass them.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class NearbyUniversityDTO {
+
+    private UniversitySummaryDTO university;
+    private double distanceKm;
+    private Integer matchingFilieres;
+}
@@ -0,0 +1,29 @@
+package com.example.orientlamp_back.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * One recommended filiere with the score it was ranked on and what earned it. {@code margin}
+ * is the student's score minus the admission threshold, null when there is none;
+ * {@code withinBudget} is null when either the budget or the fee is unknown.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RecommendationDTO {
+
+    private FiliereSummaryDTO filiere;
+    private double score;
+    private BigDecimal margin;
+    private boolean cityMatch;
+    private Boolean withinBudget;
+    private boolean languageMatch;
+    private List<String> matchedKeywords;
+}
@@ -0,0 +1,30 @@
+package com.example.orientlamp_back.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/** Progress of a batch re-scoring job, see {@code /api/admin/scoring-jobs}. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ScoringJobDTO {
+
+    private Long id;
+    private String status;
+    private long catalogVersion;
+    private int partitions;
+    private int partitionsDone;
+    private int partitionsFailed;
+    /** Students scored so far; while running, includes partitions not yet committed. */
+    private long students;
+    /** Eligible student/filiere pairs written. */
+    private long pairs;
+    private double studentsPerSecond;
+    private Instant createdAt;
+    private Instant finishedAt;
+}
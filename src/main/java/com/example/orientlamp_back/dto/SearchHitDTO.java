@@ -0,0 +1,23 @@
+package com.example.orientlamp_back.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * One ranked search result: the usual list card plus, per matched field, an HTML-escaped
+ * fragment with the matching words wrapped in {@code <mark>}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SearchHitDTO<T> {
+
+    private T item;
+    private double score;
+    private Map<String, String> highlights;
+}
@@ -0,0 +1,24 @@
+package com.example.orientlamp_back.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Results of {@code /api/search}, best match first within each group. {@code terms} are the
+ * folded words the query was reduced to.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SearchResponseDTO {
+
+    private String query;
+    private List<String> terms;
+    private List<SearchHitDTO<UniversitySummaryDTO>> universities;
+    private List<SearchHitDTO<FiliereSummaryDTO>> filieres;
+}
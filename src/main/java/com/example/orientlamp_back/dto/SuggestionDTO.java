@@ -0,0 +1,24 @@
+package com.example.orientlamp_back.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One typeahead entry. {@code type} is UNIVERSITY or FILIERE; {@code slug} is only set for
+ * universities, {@code universityName} only for filieres.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SuggestionDTO {
+
+    private String type;
+    private Long id;
+    private String name;
+    private String slug;
+    private Long universityId;
+    private String universityName;
+}
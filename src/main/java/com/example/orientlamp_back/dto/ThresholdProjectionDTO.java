@@ -0,0 +1,31 @@
+package com.example.orientlamp_back.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/** A filiere's thresholds projected to the next academic year from the years it has on record. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ThresholdProjectionDTO {
+
+    private Long filiereId;
+    private String filiereName;
+    /** The projected year, e.g. "2026-2027". */
+    private String anneeAcademique;
+    private BigDecimal seuilCalcul;
+    /** Change of {@code seuilCalcul} per year along the trend. */
+    private BigDecimal seuilSlope;
+    private BigDecimal scorePrepa;
+    private Integer classementCnc;
+    /** Years of history the projection is based on. */
+    private int years;
+    /** Final thresholds of each past year, oldest first; only filled for a single filiere. */
+    private List<CritereHistoryDTO> history;
+}
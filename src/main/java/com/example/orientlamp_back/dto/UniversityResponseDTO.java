@@ -1,5 +1,6 @@
 package com.example.orientlamp_back.dto;
 
+import com.fasterxml.jackson.annotation.JsonFilter;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -12,6 +13,7 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@JsonFilter(FieldSelection.UNIVERSITY_FILTER)
 public class UniversityResponseDTO {
 
     private Long id;
@@ -29,6 +31,8 @@ public class UniversityResponseDTO {
     private String headerImageUrl;
     private String earthViewUrl;
     private String galleryImages;
+    private Double latitude;
+    private Double longitude;
     private Instant createdAt;
     private Instant updatedAt;
     private List<FiliereResponseDTO> filieres;
@@ -0,0 +1,37 @@
+package com.example.orientlamp_back.dto;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Card representation of a university for list endpoints: no LOB columns and no nested
+ * filieres, only aggregates over them. {@link UniversityResponseDTO} is the detail view.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonFilter(FieldSelection.UNIVERSITY_FILTER)
+public class UniversitySummaryDTO {
+
+    private Long id;
+    private String name;
+    private String slug;
+    private String location;
+    private String type;
+    private String accreditationStatus;
+    private String website;
+    private String imageUrl;
+    private int filiereCount;
+    private BigDecimal minTuitionFee;
+    private BigDecimal maxTuitionFee;
+    private List<String> languages;
+    private LocalDate nextApplicationDeadline;
+}
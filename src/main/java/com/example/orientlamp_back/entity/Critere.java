@@ -7,12 +7,22 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
 import java.math.BigDecimal;
 import java.time.Instant;
 
 @Entity
 @Table(name = "critere")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@NamedEntityGraph(
+        name = "Critere.catalog",
+        attributeNodes = @NamedAttributeNode("filiere")
+)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -48,14 +58,14 @@ public class Critere {
     @Column(name = "note_concours_ecrit", precision = 5, scale = 2)
     private BigDecimal noteConcoursEcrit;
 
-    @Column(name = "a_entretien", columnDefinition = "TINYINT(1) DEFAULT 0")
+    @Column(name = "a_entretien", columnDefinition = "BOOLEAN DEFAULT FALSE")
     private Boolean aEntretien;
 
     @Column(name = "age_max")
     private Integer ageMax;
 
     @Lob
-    @Column(name = "seuil_matieres_specifiques")
+    @Column(name = "seuil_matieres_specifiques", columnDefinition = "TEXT")
     private String seuilMatieresSpecifiques;
 
     @Column(name = "score_prepa", precision = 5, scale = 2)
@@ -65,13 +75,23 @@ public class Critere {
     private Integer classementCnc;
 
     @Lob
-    @Column(name = "diplomes_requis")
+    @Column(name = "diplomes_requis", columnDefinition = "TEXT")
     private String diplomesRequis;
 
     @Lob
-    @Column(name = "notes_semestres")
+    @Column(name = "notes_semestres", columnDefinition = "TEXT")
     private String notesSemestres;
 
+    /** Admission score formula, see {@code ScoreFormula}; null when the score is the track's grade. */
+    @Lob
+    @Column(name = "formule_score", columnDefinition = "TEXT")
+    private String formuleScore;
+
+    /** Derived from the three texts above by whoever writes them; see {@link CritereRequirements}. */
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "requirements")
+    private CritereRequirements requirements;
+
     @Column(name = "created_at")
     private Instant createdAt;
 
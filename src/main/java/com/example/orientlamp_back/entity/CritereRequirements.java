@@ -0,0 +1,34 @@
+package com.example.orientlamp_back.entity;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The {@code requirements} JSONB document of a critere: what its free-text
+ * {@code seuilMatieresSpecifiques}, {@code notesSemestres} and {@code diplomesRequis} ask,
+ * parsed into the fields the database can index and filter on. The texts stay the source the
+ * admins edit; the document is derived from them on every write by {@code CritereRequirementsParser},
+ * which owns the eligibility vocabulary (subjects, diplomas) this record only carries.
+ * <pre>
+ * {"schema": 1,
+ *  "subjects": {"mathematiques": 14, "physique": 12},
+ *  "minSemester": [12, 12, null, null], "minAverage": 13, "validatedSemesters": 4,
+ *  "diplomas": ["DUT", "BTS"], "minLevel": 2}
+ * </pre>
+ * Absent fields ask nothing.
+ *
+ * @param subjects    minimum grade per subject key ({@code Subject.key()})
+ * @param minSemester minimum average of S1 to S4, null entries where none is set
+ * @param diplomas    accepted {@code DiplomaType} names
+ * @param minLevel    lowest Bac+N level accepted besides the listed diplomas
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record CritereRequirements(int schema, Map<String, BigDecimal> subjects, List<BigDecimal> minSemester,
+                                  BigDecimal minAverage, Integer validatedSemesters, List<String> diplomas,
+                                  Integer minLevel) {
+
+    public static final int SCHEMA = 1;
+}
@@ -28,7 +28,7 @@ public class Preference {
     private User user;
 
     @Lob
-    @Column(name = "desired_citiest")
+    @Column(name = "desired_citiest", columnDefinition = "TEXT")
     private String desiredCitiest;
 
     @Size(max = 100)
@@ -36,11 +36,11 @@ public class Preference {
     private String budgetRange;
 
     @Lob
-    @Column(name = "interests")
+    @Column(name = "interests", columnDefinition = "TEXT")
     private String interests;
 
     @Lob
-    @Column(name = "career_goals")
+    @Column(name = "career_goals", columnDefinition = "TEXT")
     private String careerGoals;
 
     @Size(max = 255)
@@ -39,7 +39,7 @@ public class PrepaStudent {
     private BigDecimal cncRating;
 
     @Lob
-    @Column(name = "notes_trimestre")
+    @Column(name = "notes_trimestre", columnDefinition = "TEXT")
     private String notesTrimestre;
 
     @Size(max = 20)
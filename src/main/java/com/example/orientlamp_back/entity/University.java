@@ -8,6 +8,8 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.ColumnDefault;
 
 import java.time.Instant;
@@ -16,6 +18,13 @@ import java.util.List;
 
 @Entity
 @Table(name = "university")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@NamedEntityGraph(
+        name = "University.catalog",
+        attributeNodes = @NamedAttributeNode(value = "filieres", subgraph = "filieres"),
+        subgraphs = @NamedSubgraph(name = "filieres", attributeNodes = @NamedAttributeNode("critere"))
+)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -85,6 +94,13 @@ public class University {
     @Column(name = "gallery_images", columnDefinition = "TEXT")
     private String galleryImages;
 
+    // WGS 84; when null the campus is placed at the centre of its location's city
+    @Column(name = "latitude")
+    private Double latitude;
+
+    @Column(name = "longitude")
+    private Double longitude;
+
 
     @Column(name = "created_at")
     private Instant createdAt;
@@ -95,6 +111,7 @@ public class University {
 
     // Relationship with Filiere (One-to-Many)
     @OneToMany(mappedBy = "university", cascade = CascadeType.ALL, orphanRemoval = true)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @Builder.Default
     private List<Filiere> filieres = new ArrayList<>();
 
@@ -0,0 +1,19 @@
+package com.example.orientlamp_back.event;
+
+/**
+ * Published by the catalog services whenever a university, filiere or critere is written.
+ * {@code id} is the primary key of the changed row, or {@code null} for {@link Type#ALL}.
+ */
+public record CatalogChangedEvent(Type type, Long id) {
+
+    public enum Type {
+        UNIVERSITY,
+        FILIERE,
+        CRITERE,
+        ALL
+    }
+
+    public static CatalogChangedEvent all() {
+        return new CatalogChangedEvent(Type.ALL, null);
+    }
+}
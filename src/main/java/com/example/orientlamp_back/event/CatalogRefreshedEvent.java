@@ -0,0 +1,30 @@
+package com.example.orientlamp_back.event;
+
+import com.example.orientlamp_back.service.catalog.Catalog;
+
+import java.util.List;
+
+/**
+ * Published once a rebuilt {@link Catalog} has been swapped in, so that derived in-memory
+ * structures can refresh from it without going back to the database.
+ *
+ * {@code causes} are the writes committed on this instance that the rebuild is for, in commit
+ * order; it is empty for the first build and for rebuilds following writes elsewhere.
+ * {@code cause} sums them up for the indexes that update in place: the single write, or
+ * {@link CatalogChangedEvent#all()} when there were several or none.
+ *
+ * {@code remote} is set when the rebuild follows a write made on another instance. In-memory
+ * structures refresh all the same; side effects of the write (notifications) are left to the
+ * instance that made it.
+ */
+public record CatalogRefreshedEvent(Catalog catalog, CatalogChangedEvent cause, List<CatalogChangedEvent> causes,
+                                    boolean remote) {
+
+    public CatalogRefreshedEvent(Catalog catalog, List<CatalogChangedEvent> causes, boolean remote) {
+        this(catalog, causes.size() == 1 ? causes.get(0) : CatalogChangedEvent.all(), List.copyOf(causes), remote);
+    }
+
+    public CatalogRefreshedEvent(Catalog catalog, CatalogChangedEvent cause) {
+        this(catalog, cause, List.of(cause), false);
+    }
+}
@@ -0,0 +1,4 @@
+package com.example.orientlamp_back.event;
+
+/** Published by the preference service whenever a user's preferences are created, updated or deleted. */
+public record PreferenceChangedEvent(Long userId) {}
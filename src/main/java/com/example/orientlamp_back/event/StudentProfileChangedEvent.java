@@ -0,0 +1,7 @@
+package com.example.orientlamp_back.event;
+
+/**
+ * Published by the student and user services whenever a field the eligibility rules read is
+ * written: a bac, prepa or Bac+2 profile, or the user's age or study level.
+ */
+public record StudentProfileChangedEvent(Long userId) {}
@@ -0,0 +1,7 @@
+package com.example.orientlamp_back.exception;
+
+public class AllocationRunNotFoundException extends RuntimeException {
+    public AllocationRunNotFoundException(String message) {
+        super(message);
+    }
+}
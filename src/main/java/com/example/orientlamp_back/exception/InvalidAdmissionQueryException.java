@@ -0,0 +1,7 @@
+package com.example.orientlamp_back.exception;
+
+public class InvalidAdmissionQueryException extends RuntimeException {
+    public InvalidAdmissionQueryException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.orientlamp_back.exception;
+
+public class InvalidFieldSelectionException extends RuntimeException {
+    public InvalidFieldSelectionException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.orientlamp_back.exception;
+
+public class InvalidFiliereQueryException extends RuntimeException {
+    public InvalidFiliereQueryException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.orientlamp_back.exception;
+
+public class InvalidGeoQueryException extends RuntimeException {
+    public InvalidGeoQueryException(String message) {
+        super(message);
+    }
+}
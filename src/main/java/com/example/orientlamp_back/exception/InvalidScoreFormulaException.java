@@ -0,0 +1,7 @@
+package com.example.orientlamp_back.exception;
+
+public class InvalidScoreFormulaException extends RuntimeException {
+    public InvalidScoreFormulaException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.orientlamp_back.exception;
+
+public class InvalidSimulationRequestException extends RuntimeException {
+    public InvalidSimulationRequestException(String message) {
+        super(message);
+    }
+}
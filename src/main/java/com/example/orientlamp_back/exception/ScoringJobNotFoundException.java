@@ -0,0 +1,7 @@
+package com.example.orientlamp_back.exception;
+
+public class ScoringJobNotFoundException extends RuntimeException {
+    public ScoringJobNotFoundException(String message) {
+        super(message);
+    }
+}
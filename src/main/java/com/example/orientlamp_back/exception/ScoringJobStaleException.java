@@ -0,0 +1,7 @@
+package com.example.orientlamp_back.exception;
+
+public class ScoringJobStaleException extends RuntimeException {
+    public ScoringJobStaleException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.orientlamp_back.exception;
+
+public class StudentProfileNotFoundException extends RuntimeException {
+    public StudentProfileNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -29,6 +29,7 @@ public class CritereMapper {
                 .classementCnc(dto.getClassementCnc())
                 .diplomesRequis(dto.getDiplomesRequis())
                 .notesSemestres(dto.getNotesSemestres())
+                .formuleScore(dto.getFormuleScore())
                 .build();
     }
 
@@ -52,6 +53,7 @@ public class CritereMapper {
                 .classementCnc(entity.getClassementCnc())
                 .diplomesRequis(entity.getDiplomesRequis())
                 .notesSemestres(entity.getNotesSemestres())
+                .formuleScore(entity.getFormuleScore())
                 .createdAt(entity.getCreatedAt())
                 .updatedAt(entity.getUpdatedAt())
                 .build();
@@ -75,5 +77,6 @@ public class CritereMapper {
         entity.setClassementCnc(dto.getClassementCnc());
         entity.setDiplomesRequis(dto.getDiplomesRequis());
         entity.setNotesSemestres(dto.getNotesSemestres());
+        entity.setFormuleScore(dto.getFormuleScore());
     }
 }
\ No newline at end of file
@@ -33,6 +33,8 @@ public class UniversityMapper {
                 .accreditationStatus(dto.getAccreditationStatus())
                 .programs(dto.getPrograms())
                 .imageUrl(dto.getImageUrl())
+                .latitude(dto.getLatitude())
+                .longitude(dto.getLongitude())
                 .filieres(new ArrayList<>())
                 .build();
     }
@@ -58,6 +60,8 @@ public class UniversityMapper {
                 .headerImageUrl(entity.getHeaderImageUrl())
                 .earthViewUrl(entity.getEarthViewUrl())
                 .galleryImages(entity.getGalleryImages())
+                .latitude(entity.getLatitude())
+                .longitude(entity.getLongitude())
                 .createdAt(entity.getCreatedAt())
                 .updatedAt(entity.getUpdatedAt())
                 .filieres(entity.getFilieres() != null ?
@@ -88,6 +92,8 @@ public class UniversityMapper {
                 .headerImageUrl(entity.getHeaderImageUrl())
                 .earthViewUrl(entity.getEarthViewUrl())
                 .galleryImages(entity.getGalleryImages())
+                .latitude(entity.getLatitude())
+                .longitude(entity.getLongitude())
                 .createdAt(entity.getCreatedAt())
                 .updatedAt(entity.getUpdatedAt())
                 .build();
@@ -110,5 +116,7 @@ public class UniversityMapper {
         if (dto.getImageUrl() != null) {
             entity.setImageUrl(dto.getImageUrl());
         }
+        entity.setLatitude(dto.getLatitude());
+        entity.setLongitude(dto.getLongitude());
     }
 }
\ No newline at end of file
@@ -0,0 +1,105 @@
+package com.example.orientlamp_back.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+/** The {@code allocation_run} and {@code allocation_cutoff} tables of {@code V16__allocation_runs.sql}. */
+@Repository
+@RequiredArgsConstructor
+public class AllocationRepository {
+
+    public enum Status {
+        RUNNING,
+        DONE,
+        FAILED
+    }
+
+    public record Run(Long id, Status status, long catalogVersion, int wishesPerStudent, long students,
+                      long assigned, long proposals, Instant createdAt, Instant finishedAt, String error) {}
+
+    /** {@code seats} is null without a seat limit, {@code cutoffScore} when no one was admitted. */
+    public record Cutoff(Long filiereId, Integer seats, int applicants, int admitted, BigDecimal cutoffScore) {}
+
+    private static final RowMapper<Run> RUN = (rs, i) -> new Run(
+            rs.getLong("id"), Status.valueOf(rs.getString("status")), rs.getLong("catalog_version"),
+            rs.getInt("wishes_per_student"), rs.getLong("students"), rs.getLong("assigned"), rs.getLong("proposals"),
+            instant(rs.getTimestamp("created_at")), instant(rs.getTimestamp("finished_at")), rs.getString("error"));
+
+    private static final RowMapper<Cutoff> CUTOFF = (rs, i) -> new Cutoff(
+            rs.getLong("filiere_id"), rs.getObject("seats", Integer.class), rs.getInt("applicants"),
+            rs.getInt("admitted"), rs.getBigDecimal("cutoff_score"));
+
+    static final int BATCH_SIZE = 1000;
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public Run create(long catalogVersion, int wishesPerStudent) {
+        Instant now = Instant.now();
+        GeneratedKeyHolder key = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                    "INSERT INTO allocation_run (status, catalog_version, wishes_per_student, created_at) "
+                    + "VALUES (?, ?, ?, ?)",
+                    new String[]{"id"});
+            statement.setString(1, Status.RUNNING.name());
+            statement.setLong(2, catalogVersion);
+            statement.setInt(3, wishesPerStudent);
+            statement.setTimestamp(4, Timestamp.from(now));
+            return statement;
+        }, key);
+        return new Run(key.getKey().longValue(), Status.RUNNING, catalogVersion, wishesPerStudent, 0, 0, 0,
+                now, null, null);
+    }
+
+    public Optional<Run> findById(Long id) {
+        return jdbcTemplate.query("SELECT * FROM allocation_run WHERE id = ?", RUN, id).stream().findFirst();
+    }
+
+    public List<Run> findRecent(int limit) {
+        return jdbcTemplate.query("SELECT * FROM allocation_run ORDER BY id DESC LIMIT ?", RUN, limit);
+    }
+
+    public List<Cutoff> findCutoffs(Long runId) {
+        return jdbcTemplate.query("SELECT * FROM allocation_cutoff WHERE run_id = ? ORDER BY filiere_id",
+                CUTOFF, runId);
+    }
+
+    /** Meant to run in one transaction, so a run's cut-offs and its DONE status commit together. */
+    public void markDone(Long runId, long students, long assigned, long proposals, List<Cutoff> cutoffs) {
+        jdbcTemplate.batchUpdate("INSERT INTO allocation_cutoff (run_id, filiere_id, seats, applicants, admitted, "
+                        + "cutoff_score) VALUES (?, ?, ?, ?, ?, ?)",
+                cutoffs, BATCH_SIZE, (statement, cutoff) -> {
+                    statement.setLong(1, runId);
+                    statement.setLong(2, cutoff.filiereId());
+                    statement.setObject(3, cutoff.seats(), Types.INTEGER);
+                    statement.setInt(4, cutoff.applicants());
+                    statement.setInt(5, cutoff.admitted());
+                    statement.setBigDecimal(6, cutoff.cutoffScore());
+                });
+        jdbcTemplate.update("UPDATE allocation_run SET status = ?, students = ?, assigned = ?, proposals = ?, "
+                        + "finished_at = ? WHERE id = ?",
+                Status.DONE.name(), students, assigned, proposals, Timestamp.from(Instant.now()), runId);
+    }
+
+    public void markFailed(Long runId, String error) {
+        String message = error == null || error.length() <= MAX_ERROR_LENGTH ? error : error.substring(0, MAX_ERROR_LENGTH);
+        jdbcTemplate.update("UPDATE allocation_run SET status = ?, error = ?, finished_at = ? WHERE id = ?",
+                Status.FAILED.name(), message, Timestamp.from(Instant.now()), runId);
+    }
+
+    private static Instant instant(Timestamp timestamp) {
+        return timestamp == null ? null : timestamp.toInstant();
+    }
+}
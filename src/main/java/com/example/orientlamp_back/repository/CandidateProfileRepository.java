@@ -0,0 +1,126 @@
+package com.example.orientlamp_back.repository;
+
+import com.example.orientlamp_back.entity.CurrentStudyLevel;
+import com.example.orientlamp_back.service.eligibility.CandidateProfile;
+import com.example.orientlamp_back.service.eligibility.CandidateProfiles;
+import com.example.orientlamp_back.service.eligibility.CandidateType;
+import com.example.orientlamp_back.service.eligibility.Transcript;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Reads students as {@link CandidateProfile}s straight from the three profile tables, without
+ * loading entities. A user with several profiles is reduced to the one
+ * {@link CandidateProfiles#choose} picks, like {@code /api/eligibility/me} does.
+ */
+@Repository
+public class CandidateProfileRepository {
+
+    /** Rows per round trip; PostgreSQL only honours it with a server-side cursor, i.e. inside a transaction. */
+    static final int FETCH_SIZE = 1000;
+
+    private static final String PROFILES =
+            "SELECT u.id_user, u.age, u.current_study_level, 'BACHELIER' AS track, s.bac_major, s.grade AS score, "
+            + "CAST(NULL AS NUMERIC(5, 2)) AS avg_s1, CAST(NULL AS NUMERIC(5, 2)) AS avg_s2, "
+            + "CAST(NULL AS NUMERIC(5, 2)) AS avg_s3, CAST(NULL AS NUMERIC(5, 2)) AS avg_s4, "
+            + "CAST(NULL AS VARCHAR(100)) AS diploma_type "
+            + "FROM bac_student s JOIN \"user\" u ON u.id_user = s.id_user %1$s "
+            + "UNION ALL "
+            + "SELECT u.id_user, u.age, u.current_study_level, 'CPGE', s.bac_major, s.cnc_rating, "
+            + "NULL, NULL, NULL, NULL, NULL "
+            + "FROM prepa_student s JOIN \"user\" u ON u.id_user = s.id_user %1$s "
+            + "UNION ALL "
+            + "SELECT u.id_user, u.age, u.current_study_level, 'DIPLOME', s.bac_major, NULL, "
+            + "s.avg_s1, s.avg_s2, s.avg_s3, s.avg_s4, s.diploma_type "
+            + "FROM bac2_student s JOIN \"user\" u ON u.id_user = s.id_user %1$s "
+            + "ORDER BY id_user";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CandidateProfileRepository(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+    }
+
+    /** Every student's profile, in user id order, streamed rather than collected. */
+    public void forEach(Consumer<CandidateProfile> consumer) {
+        Collector collector = new Collector(consumer);
+        jdbcTemplate.query(PROFILES.formatted(""), collector);
+        collector.flush();
+    }
+
+    /** Like {@link #forEach} for the students with {@code fromUserId <= id_user < toUserId}. */
+    public void forEachInRange(long fromUserId, long toUserId, Consumer<CandidateProfile> consumer) {
+        Collector collector = new Collector(consumer);
+        jdbcTemplate.query(PROFILES.formatted("WHERE u.id_user >= ? AND u.id_user < ?"), collector,
+                fromUserId, toUserId, fromUserId, toUserId, fromUserId, toUserId);
+        collector.flush();
+    }
+
+    /** Lowest and highest user id, or null when there are no users. */
+    public long[] userIdBounds() {
+        return jdbcTemplate.query("SELECT min(id_user), max(id_user) FROM \"user\"", rs -> {
+            rs.next();
+            long max = rs.getLong(2);
+            return rs.wasNull() ? null : new long[]{rs.getLong(1), max};
+        });
+    }
+
+    public Optional<CandidateProfile> findByUserId(Long userId) {
+        List<CandidateProfile> found = new ArrayList<>(1);
+        Collector collector = new Collector(found::add);
+        jdbcTemplate.query(PROFILES.formatted("WHERE u.id_user = ?"), collector, userId, userId, userId);
+        collector.flush();
+        return found.stream().findFirst();
+    }
+
+    /** Groups the consecutive rows of one user and hands on the profile chosen among them. */
+    private static final class Collector implements RowCallbackHandler {
+
+        private final Consumer<CandidateProfile> consumer;
+        private final List<CandidateProfile> candidates = new ArrayList<>(3);
+        private Long userId;
+        private CandidateType declared;
+
+        Collector(Consumer<CandidateProfile> consumer) {
+            this.consumer = consumer;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            Long id = rs.getLong("id_user");
+            if (!id.equals(userId)) {
+                flush();
+                userId = id;
+                String level = rs.getString("current_study_level");
+                declared = level == null ? null : CandidateType.of(CurrentStudyLevel.valueOf(level));
+            }
+            Integer age = rs.getObject("age", Integer.class);
+            CandidateType track = CandidateType.valueOf(rs.getString("track"));
+            if (track == CandidateType.DIPLOME) {
+                Transcript transcript = Transcript.of(rs.getBigDecimal("avg_s1"), rs.getBigDecimal("avg_s2"),
+                        rs.getBigDecimal("avg_s3"), rs.getBigDecimal("avg_s4"), rs.getString("diploma_type"));
+                candidates.add(new CandidateProfile(id, track, rs.getString("bac_major"), transcript.average(), age,
+                        transcript));
+            } else {
+                candidates.add(new CandidateProfile(id, track, rs.getString("bac_major"), rs.getBigDecimal("score"), age));
+            }
+        }
+
+        void flush() {
+            if (!candidates.isEmpty()) {
+                CandidateProfiles.choose(declared, candidates).ifPresent(consumer);
+                candidates.clear();
+            }
+        }
+    }
+}
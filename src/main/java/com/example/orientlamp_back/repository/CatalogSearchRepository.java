@@ -0,0 +1,89 @@
+package com.example.orientlamp_back.repository;
+
+import com.example.orientlamp_back.service.search.SearchQuery;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * PostgreSQL full-text search over universities and filieres. The weighted documents below are
+ * the exact expressions indexed with GIN in {@code V9__catalog_search.sql}; the planner only
+ * uses those indexes while the two stay identical, which {@code SearchQueryTest} checks.
+ * Only ids and ranks are returned, the rows themselves come from the catalog snapshot.
+ */
+@Repository
+@RequiredArgsConstructor
+public class CatalogSearchRepository {
+
+    public record Hit(Long id, double rank) {}
+
+    private static final String UNIVERSITY_SEARCH =
+            "SELECT u.id, ts_rank_cd(" + universityDocument("u.") + ", q.query, 1) AS rank "
+            + "FROM university u, to_tsquery('simple', :query) AS q(query) "
+            + "WHERE " + universityDocument("u.") + " @@ q.query "
+            + "ORDER BY rank DESC, u.id "
+            + "LIMIT :limit";
+
+    /*
+     * A filiere matches on its own document or on its university's ("ensa", "Rabat"); each arm
+     * can use its GIN index, the union is then ranked on both documents together.
+     */
+    private static final String FILIERE_SEARCH =
+            "WITH q(query) AS (SELECT to_tsquery('simple', :query)), "
+            + "hits AS ("
+            + "SELECT f.id FROM filiere f, q WHERE " + filiereDocument("f.") + " @@ q.query "
+            + "UNION "
+            + "SELECT f.id FROM university u JOIN filiere f ON f.university_id = u.id, q "
+            + "WHERE " + universityDocument("u.") + " @@ q.query"
+            + ") "
+            + "SELECT f.id, ts_rank_cd(" + filiereDocument("f.") + " || " + universityDocument("u.")
+            + ", q.query, 1) AS rank "
+            + "FROM hits JOIN filiere f ON f.id = hits.id JOIN university u ON u.id = f.university_id, q "
+            + "ORDER BY rank DESC, f.id "
+            + "LIMIT :limit";
+
+    private final JdbcClient jdbcClient;
+
+    public List<Hit> searchUniversities(SearchQuery query, int limit) {
+        return search(UNIVERSITY_SEARCH, query, limit);
+    }
+
+    public List<Hit> searchFilieres(SearchQuery query, int limit) {
+        return search(FILIERE_SEARCH, query, limit);
+    }
+
+    private List<Hit> search(String sql, SearchQuery query, int limit) {
+        return jdbcClient.sql(sql)
+                .param("query", query.toTsQuery())
+                .param("limit", limit)
+                .query(Hit.class)
+                .list();
+    }
+
+    /** Name (A) &gt; location, type and programs (B) &gt; description (C). */
+    public static String universityDocument(String alias) {
+        return weighted(alias, "A", "name")
+                + " || " + weighted(alias, "B", "location", "type", "programs")
+                + " || " + weighted(alias, "C", "description");
+    }
+
+    /** Name (A) &gt; admission type and language (B) &gt; admission criteria text (C). */
+    public static String filiereDocument(String alias) {
+        return weighted(alias, "A", "name")
+                + " || " + weighted(alias, "B", "admission_type", "language")
+                + " || " + weighted(alias, "C", "critere_d_admission");
+    }
+
+    private static String weighted(String alias, String weight, String... columns) {
+        StringBuilder text = new StringBuilder();
+        for (String column : columns) {
+            if (!text.isEmpty()) {
+                text.append(" || ' ' || ");
+            }
+            text.append("coalesce(").append(alias).append(column).append(", '')");
+        }
+        return "setweight(to_tsvector('simple', " + SearchQuery.sqlFold(text.toString()) + "), '" + weight + "')";
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.orientlamp_back.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * The single-row {@code catalog_version} table of {@code V18__catalog_version.sql}: a counter
+ * every catalog write bumps, read by each instance to label and invalidate its snapshot.
+ */
+@Repository
+@RequiredArgsConstructor
+public class CatalogVersionRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Bumps the version in the caller's transaction. The row stays locked until that transaction
+     * ends, so catalog writes commit their versions in order.
+     */
+    public void increment() {
+        jdbcTemplate.update("UPDATE catalog_version SET version = version + 1 WHERE id = 1");
+    }
+
+    public long current() {
+        Long version = jdbcTemplate.queryForObject("SELECT version FROM catalog_version WHERE id = 1", Long.class);
+        return version == null ? 0 : version;
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.orientlamp_back.repository;
+
+import com.example.orientlamp_back.entity.Critere;
+import com.example.orientlamp_back.service.admission.ThresholdHistory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * The append-only {@code critere_history} table of {@code V17__critere_history.sql}. Rows are
+ * only ever inserted; each critere write adds the next revision of its filiere and year.
+ */
+@Repository
+@RequiredArgsConstructor
+public class CritereHistoryRepository {
+
+    /** One revision of a filiere's thresholds for one academic year. */
+    public record Entry(Long filiereId, String anneeAcademique, int academicYear, int revision,
+                        String typeCandidat, String serieBacCible, BigDecimal seuilCalcul,
+                        BigDecimal noteConcoursEcrit, BigDecimal scorePrepa, Integer classementCnc,
+                        Instant recordedAt) {}
+
+    private static final RowMapper<Entry> ENTRY = (rs, i) -> new Entry(
+            rs.getLong("filiere_id"), rs.getString("annee_academique"), rs.getInt("academic_year"),
+            rs.getInt("revision"), rs.getString("type_candidat"), rs.getString("serie_bac_cible"),
+            rs.getBigDecimal("seuil_calcul"), rs.getBigDecimal("note_concours_ecrit"),
+            rs.getBigDecimal("score_prepa"), rs.getObject("classement_cnc", Integer.class),
+            rs.getTimestamp("recorded_at").toInstant());
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Records {@code critere} as the next revision of its filiere and academic year. Must run in
+     * the transaction that writes the critere: its row is locked first, so two updates of one
+     * filiere number their revisions one after the other instead of both taking MAX + 1. A critere
+     * that is being created has no row to lock yet; a concurrent create fails on its primary key.
+     */
+    public void append(Critere critere) {
+        jdbcTemplate.queryForList("SELECT filiere_id FROM critere WHERE filiere_id = ? FOR UPDATE",
+                Long.class, critere.getFiliereId());
+        Instant now = Instant.now();
+        int year = ThresholdHistory.startYear(critere.getAnneeAcademique(), now);
+        jdbcTemplate.update("INSERT INTO critere_history (filiere_id, annee_academique, academic_year, revision, "
+                        + "type_candidat, serie_bac_cible, seuil_calcul, note_concours_ecrit, score_prepa, "
+                        + "classement_cnc, recorded_at) "
+                        + "SELECT ?, ?, ?, COALESCE(MAX(revision), 0) + 1, ?, ?, ?, ?, ?, ?, ? "
+                        + "FROM critere_history WHERE filiere_id = ? AND academic_year = ?",
+                critere.getFiliereId(), critere.getAnneeAcademique(), year, critere.getTypeCandidat(),
+                critere.getSerieBacCible(), critere.getSeuilCalcul(), critere.getNoteConcoursEcrit(),
+                critere.getScorePrepa(), critere.getClassementCnc(), Timestamp.from(now),
+                critere.getFiliereId(), year);
+    }
+
+    /** Every revision of {@code filiereId}, oldest first. */
+    public List<Entry> findByFiliereId(Long filiereId) {
+        return jdbcTemplate.query("SELECT * FROM critere_history WHERE filiere_id = ? "
+                + "ORDER BY academic_year, revision", ENTRY, filiereId);
+    }
+
+    /** The last revision of every filiere and year, by filiere then year. */
+    public List<Entry> findYearEnds() {
+        return jdbcTemplate.query("SELECT * FROM critere_history h WHERE h.revision = "
+                + "(SELECT MAX(l.revision) FROM critere_history l "
+                + "WHERE l.filiere_id = h.filiere_id AND l.academic_year = h.academic_year) "
+                + "ORDER BY h.filiere_id, h.academic_year", ENTRY);
+    }
+}
@@ -1,34 +1,25 @@
 package com.example.orientlamp_back.repository;
 
 import com.example.orientlamp_back.entity.Critere;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Query;
-import org.springframework.data.repository.query.Param;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
-import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface CritereRepository extends JpaRepository<Critere, Long> {
+public interface CritereRepository extends JpaRepository<Critere, Long>, CritereRequirementQueries {
 
+    @EntityGraph("Critere.catalog")
     Optional<Critere> findByFiliereId(Long filiereId);
 
-    List<Critere> findByAnneeAcademique(String anneeAcademique);
-
-    List<Critere> findByTypeCandidat(String typeCandidat);
-
-    List<Critere> findBySerieBacCible(String serieBacCible);
-
-    @Query("SELECT c FROM Critere c WHERE c.seuilCalcul >= :minSeuil")
-    List<Critere> findBySeuilCalculGreaterThanEqual(@Param("minSeuil") BigDecimal minSeuil);
-
-    @Query("SELECT c FROM Critere c WHERE c.aEntretien = true")
-    List<Critere> findWithEntretien();
-
-    @Query("SELECT c FROM Critere c WHERE c.ageMax IS NOT NULL AND c.ageMax <= :age")
-    List<Critere> findByAgeMaxLessThanEqual(@Param("age") Integer age);
+    /** Criteres written before their requirements document existed, for the backfill. */
+    List<Critere> findByRequirementsIsNull();
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     boolean existsByFiliereId(Long filiereId);
-}
\ No newline at end of file
+}
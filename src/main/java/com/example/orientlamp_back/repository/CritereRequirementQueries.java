@@ -0,0 +1,24 @@
+package com.example.orientlamp_back.repository;
+
+import com.example.orientlamp_back.service.eligibility.DiplomaType;
+import com.example.orientlamp_back.service.eligibility.Subject;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Lookups on the {@code requirements} document of {@code critere}, answered from the indexes of
+ * {@code V14__critere_requirements.sql} instead of loading and parsing every critere. Each
+ * returns filiere ids in ascending order.
+ */
+public interface CritereRequirementQueries {
+
+    /** Filieres requiring at least {@code minGrade} in {@code subject} ("≥ 14 in maths"). */
+    List<Long> findFiliereIdsRequiringAtLeast(Subject subject, BigDecimal minGrade);
+
+    /** Filieres whose threshold in {@code subject} a student graded {@code grade} there meets. */
+    List<Long> findFiliereIdsWithSubjectThresholdAtMost(Subject subject, BigDecimal grade);
+
+    /** Filieres that list {@code diploma} or accept any diploma of its Bac+N level. */
+    List<Long> findFiliereIdsAcceptingDiploma(DiplomaType diploma);
+}
@@ -0,0 +1,46 @@
+package com.example.orientlamp_back.repository;
+
+import com.example.orientlamp_back.service.eligibility.DiplomaType;
+import com.example.orientlamp_back.service.eligibility.Subject;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * The subject queries compare the same expression the per-subject indexes are built on, so the
+ * subject's key is spliced into the SQL rather than bound: an expression index only matches a
+ * literal key. The key comes from {@link Subject}, never from the request.
+ */
+@RequiredArgsConstructor
+class CritereRequirementQueriesImpl implements CritereRequirementQueries {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<Long> findFiliereIdsRequiringAtLeast(Subject subject, BigDecimal minGrade) {
+        return jdbcTemplate.queryForList("SELECT filiere_id FROM critere WHERE " + threshold(subject)
+                + " >= ? ORDER BY filiere_id", Long.class, minGrade);
+    }
+
+    @Override
+    public List<Long> findFiliereIdsWithSubjectThresholdAtMost(Subject subject, BigDecimal grade) {
+        return jdbcTemplate.queryForList("SELECT filiere_id FROM critere WHERE " + threshold(subject)
+                + " <= ? ORDER BY filiere_id", Long.class, grade);
+    }
+
+    @Override
+    public List<Long> findFiliereIdsAcceptingDiploma(DiplomaType diploma) {
+        return jdbcTemplate.queryForList(
+                "SELECT filiere_id FROM critere WHERE requirements @> CAST(? AS jsonb) "
+                        + "UNION SELECT filiere_id FROM critere WHERE (requirements ->> 'minLevel')::int <= ? "
+                        + "ORDER BY filiere_id",
+                Long.class, "{\"diplomas\": [\"" + diploma.name() + "\"]}", diploma.level());
+    }
+
+    /** The indexed expression of {@code subject}'s threshold. */
+    static String threshold(Subject subject) {
+        return "((requirements -> 'subjects' ->> '" + subject.key() + "')::numeric)";
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.orientlamp_back.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * The {@code eligibility_recompute} table of {@code V19__eligibility_recompute.sql}: the
+ * recomputes of {@code student_eligibility} that committed writes still owe. Marks are added in
+ * the writer's transaction and cleared in the recompute's, up to the highest id the recompute
+ * was started for, so a write committing meanwhile keeps its own mark.
+ */
+@Repository
+@RequiredArgsConstructor
+public class EligibilityRecomputeRepository {
+
+    /** An owed recompute: a filiere's column, a student's row, or with neither the whole table. */
+    public record Mark(long id, Long filiereId, Long userId) {}
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void markFiliere(Long filiereId) {
+        jdbcTemplate.update("INSERT INTO eligibility_recompute (filiere_id) VALUES (?)", filiereId);
+    }
+
+    public void markStudent(Long userId) {
+        jdbcTemplate.update("INSERT INTO eligibility_recompute (id_user) VALUES (?)", userId);
+    }
+
+    public void markAll() {
+        jdbcTemplate.update("INSERT INTO eligibility_recompute (filiere_id, id_user) VALUES (NULL, NULL)");
+    }
+
+    public List<Mark> findAll() {
+        return jdbcTemplate.query("SELECT id, filiere_id, id_user FROM eligibility_recompute ORDER BY id",
+                (rs, rowNum) -> new Mark(rs.getLong("id"), rs.getObject("filiere_id", Long.class),
+                        rs.getObject("id_user", Long.class)));
+    }
+
+    /** Clears the marks of {@code filiereId} up to {@code throughId}; 0 when another instance already did. */
+    public int clearFiliere(Long filiereId, long throughId) {
+        return jdbcTemplate.update("DELETE FROM eligibility_recompute WHERE filiere_id = ? AND id <= ?",
+                filiereId, throughId);
+    }
+
+    public int clearStudent(Long userId, long throughId) {
+        return jdbcTemplate.update("DELETE FROM eligibility_recompute WHERE id_user = ? AND id <= ?",
+                userId, throughId);
+    }
+
+    /** Clears every mark up to {@code throughId}, which a full rebuild settles. */
+    public int clearAll(long throughId) {
+        return jdbcTemplate.update("DELETE FROM eligibility_recompute WHERE id <= ?", throughId);
+    }
+}
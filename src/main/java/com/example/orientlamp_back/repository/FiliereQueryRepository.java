@@ -0,0 +1,145 @@
+package com.example.orientlamp_back.repository;
+
+import com.example.orientlamp_back.dto.CatalogSort;
+import com.example.orientlamp_back.dto.FiliereQueryFilter;
+import com.example.orientlamp_back.dto.FiliereSummaryDTO;
+import com.example.orientlamp_back.service.CatalogCursor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compiles a {@link FiliereQueryFilter} into a single keyset-paginated statement. Only the
+ * given filters become predicates, and {@code critere} is only joined when one of its columns
+ * is filtered on. The predicates and orderings line up with the composite indexes of
+ * {@code V11__filiere_query_indexes.sql}: equality columns first, then the sort key and id.
+ */
+@Repository
+@RequiredArgsConstructor
+public class FiliereQueryRepository {
+
+    private static final String SELECT =
+            "SELECT f.id, f.name, f.university_id, u.name AS university_name, f.duration_years, f.tuition_fee, "
+            + "f.admission_type, f.language, f.seats_availabial, f.application_deadline "
+            + "FROM filiere f JOIN university u ON u.id = f.university_id";
+
+    private final JdbcClient jdbcClient;
+
+    /** At most {@code limit} rows strictly after {@code cursor} in {@code sort} order. */
+    public List<FiliereSummaryDTO> find(FiliereQueryFilter filter, CatalogSort sort, CatalogCursor cursor, int limit) {
+        List<String> where = new ArrayList<>();
+        Map<String, Object> params = new HashMap<>();
+
+        in(where, params, "f.university_id", "universityId", filter.getUniversityId());
+        in(where, params, "f.admission_type", "admissionType", filter.getAdmissionType());
+        in(where, params, "f.language", "language", filter.getLanguage());
+        range(where, params, "f.tuition_fee", "Tuition", filter.getMinTuition(), filter.getMaxTuition());
+        range(where, params, "f.duration_years", "Duration", filter.getMinDuration(), filter.getMaxDuration());
+        range(where, params, "f.seats_availabial", "Seats", filter.getMinSeats(), null);
+        range(where, params, "f.application_deadline", "Deadline",
+                filter.getDeadlineFrom() == null ? null : Date.valueOf(filter.getDeadlineFrom()),
+                filter.getDeadlineTo() == null ? null : Date.valueOf(filter.getDeadlineTo()));
+
+        int critereFilters = where.size();
+        in(where, params, "c.serie_bac_cible", "serieBacCible", filter.getSerieBacCible());
+        range(where, params, "c.seuil_calcul", "Seuil", filter.getMinSeuil(), filter.getMaxSeuil());
+        if (filter.getEntretien() != null) {
+            where.add("coalesce(c.a_entretien, FALSE) = :entretien");
+            params.put("entretien", filter.getEntretien());
+        }
+        if (filter.getAge() != null) {
+            where.add("(c.age_max IS NULL OR c.age_max >= :age)");
+            params.put("age", filter.getAge());
+        }
+        boolean joinCritere = where.size() > critereFilters;
+
+        if (cursor != null) {
+            where.add(seek(sort, cursor, params));
+        }
+
+        StringBuilder sql = new StringBuilder(SELECT);
+        if (joinCritere) {
+            // Inner join: a filiere without a critere matches no critere filter, not even a default
+            sql.append(" JOIN critere c ON c.filiere_id = f.id");
+        }
+        if (!where.isEmpty()) {
+            sql.append(" WHERE ").append(String.join(" AND ", where));
+        }
+        sql.append(" ORDER BY ").append(orderBy(sort)).append(" LIMIT :limit");
+        params.put("limit", limit);
+
+        return jdbcClient.sql(sql.toString())
+                .params(params)
+                .query((rs, row) -> FiliereSummaryDTO.builder()
+                        .id(rs.getLong("id"))
+                        .name(rs.getString("name"))
+                        .universityId(rs.getLong("university_id"))
+                        .universityName(rs.getString("university_name"))
+                        .durationYears(rs.getObject("duration_years", Integer.class))
+                        .tuitionFee(rs.getBigDecimal("tuition_fee"))
+                        .admissionType(rs.getString("admission_type"))
+                        .language(rs.getString("language"))
+                        .seatsAvailabial(rs.getObject("seats_availabial", Integer.class))
+                        .applicationDeadline(rs.getObject("application_deadline", LocalDate.class))
+                        .build())
+                .list();
+    }
+
+    private static void in(List<String> where, Map<String, Object> params, String column, String name, List<?> values) {
+        if (values != null && !values.isEmpty()) {
+            where.add(column + " IN (:" + name + ")");
+            params.put(name, values);
+        }
+    }
+
+    private static void range(List<String> where, Map<String, Object> params, String column, String name,
+                              Object min, Object max) {
+        if (min != null) {
+            where.add(column + " >= :min" + name);
+            params.put("min" + name, min);
+        }
+        if (max != null) {
+            where.add(column + " <= :max" + name);
+            params.put("max" + name, max);
+        }
+    }
+
+    /** Rows without a tuition fee or deadline come last, see {@link CatalogSort}. */
+    private static String orderBy(CatalogSort sort) {
+        return switch (sort) {
+            case NAME -> "f.name ASC, f.id ASC";
+            case ID -> "f.id ASC";
+            case TUITION -> "f.tuition_fee ASC NULLS LAST, f.id ASC";
+            case DEADLINE -> "f.application_deadline ASC NULLS LAST, f.id ASC";
+        };
+    }
+
+    private static String seek(CatalogSort sort, CatalogCursor cursor, Map<String, Object> params) {
+        params.put("cursorId", cursor.getId());
+        return switch (sort) {
+            case NAME -> {
+                params.put("cursorKey", cursor.stringKey());
+                yield "(f.name, f.id) > (:cursorKey, :cursorId)";
+            }
+            case ID -> "f.id > :cursorId";
+            case TUITION -> nullableSeek("f.tuition_fee", cursor.decimalKey(), params);
+            case DEADLINE -> nullableSeek("f.application_deadline",
+                    cursor.dateKey() == null ? null : Date.valueOf(cursor.dateKey()), params);
+        };
+    }
+
+    private static String nullableSeek(String column, Object key, Map<String, Object> params) {
+        if (key == null) {
+            return "(" + column + " IS NULL AND f.id > :cursorId)";
+        }
+        params.put("cursorKey", key);
+        return "((" + column + ", f.id) > (:cursorKey, :cursorId) OR " + column + " IS NULL)";
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.orientlamp_back.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/** The {@code scoring_job} and {@code scoring_job_partition} tables of {@code V13__scoring_jobs.sql}. */
+@Repository
+@RequiredArgsConstructor
+public class ScoringJobRepository {
+
+    public enum Status {
+        PENDING,
+        RUNNING,
+        DONE,
+        FAILED
+    }
+
+    public record Job(Long id, Status status, long catalogVersion, int partitions,
+                      Instant createdAt, Instant finishedAt) {}
+
+    /** Users {@code fromUserId <= id_user < toUserId}. */
+    public record Partition(Long jobId, int partitionNo, long fromUserId, long toUserId, Status status,
+                            long students, long pairs, Instant startedAt, Instant finishedAt, String error) {}
+
+    private static final RowMapper<Job> JOB = (rs, i) -> new Job(
+            rs.getLong("id"), Status.valueOf(rs.getString("status")), rs.getLong("catalog_version"),
+            rs.getInt("partitions"), instant(rs.getTimestamp("created_at")), instant(rs.getTimestamp("finished_at")));
+
+    private static final RowMapper<Partition> PARTITION = (rs, i) -> new Partition(
+            rs.getLong("job_id"), rs.getInt("partition_no"), rs.getLong("from_user_id"), rs.getLong("to_user_id"),
+            Status.valueOf(rs.getString("status")), rs.getLong("students"), rs.getLong("pairs"),
+            instant(rs.getTimestamp("started_at")), instant(rs.getTimestamp("finished_at")), rs.getString("error"));
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /** Creates a RUNNING job with one PENDING partition per {@code [bounds[i], bounds[i + 1])} range. */
+    public Job create(long catalogVersion, long[] bounds) {
+        Instant now = Instant.now();
+        GeneratedKeyHolder key = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                    "INSERT INTO scoring_job (status, catalog_version, partitions, created_at) VALUES (?, ?, ?, ?)",
+                    new String[]{"id"});
+            statement.setString(1, Status.RUNNING.name());
+            statement.setLong(2, catalogVersion);
+            statement.setInt(3, bounds.length - 1);
+            statement.setTimestamp(4, Timestamp.from(now));
+            return statement;
+        }, key);
+        Long id = key.getKey().longValue();
+
+        List<Object[]> partitions = new ArrayList<>(bounds.length - 1);
+        for (int p = 0; p < bounds.length - 1; p++) {
+            partitions.add(new Object[]{id, p, bounds[p], bounds[p + 1], Status.PENDING.name()});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO scoring_job_partition (job_id, partition_no, from_user_id, to_user_id, status) "
+                + "VALUES (?, ?, ?, ?, ?)", partitions);
+        return new Job(id, Status.RUNNING, catalogVersion, bounds.length - 1, now, null);
+    }
+
+    public Optional<Job> findById(Long id) {
+        return jdbcTemplate.query("SELECT * FROM scoring_job WHERE id = ?", JOB, id).stream().findFirst();
+    }
+
+    public List<Job> findRecent(int limit) {
+        return jdbcTemplate.query("SELECT * FROM scoring_job ORDER BY id DESC LIMIT ?", JOB, limit);
+    }
+
+    public List<Partition> findPartitions(Long jobId) {
+        return jdbcTemplate.query("SELECT * FROM scoring_job_partition WHERE job_id = ? ORDER BY partition_no",
+                PARTITION, jobId);
+    }
+
+    public void markJob(Long jobId, Status status) {
+        jdbcTemplate.update("UPDATE scoring_job SET status = ?, finished_at = ? WHERE id = ?", status.name(),
+                status == Status.RUNNING ? null : Timestamp.from(Instant.now()), jobId);
+    }
+
+    public void markRunning(Long jobId, int partitionNo) {
+        jdbcTemplate.update("UPDATE scoring_job_partition SET status = ?, started_at = ?, finished_at = NULL, error = NULL "
+                + "WHERE job_id = ? AND partition_no = ?",
+                Status.RUNNING.name(), Timestamp.from(Instant.now()), jobId, partitionNo);
+    }
+
+    /** Meant to run in the transaction that wrote the partition's rows, so both commit together. */
+    public void markDone(Long jobId, int partitionNo, long students, long pairs) {
+        jdbcTemplate.update("UPDATE scoring_job_partition SET status = ?, students = ?, pairs = ?, finished_at = ? "
+                + "WHERE job_id = ? AND partition_no = ?",
+                Status.DONE.name(), students, pairs, Timestamp.from(Instant.now()), jobId, partitionNo);
+    }
+
+    public void markFailed(Long jobId, int partitionNo, String error) {
+        String message = error == null || error.length() <= MAX_ERROR_LENGTH ? error : error.substring(0, MAX_ERROR_LENGTH);
+        jdbcTemplate.update("UPDATE scoring_job_partition SET status = ?, error = ?, finished_at = ? "
+                + "WHERE job_id = ? AND partition_no = ?",
+                Status.FAILED.name(), message, Timestamp.from(Instant.now()), jobId, partitionNo);
+    }
+
+    private static Instant instant(Timestamp timestamp) {
+        return timestamp == null ? null : timestamp.toInstant();
+    }
+}
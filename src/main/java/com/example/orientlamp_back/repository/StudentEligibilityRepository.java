@@ -0,0 +1,155 @@
+package com.example.orientlamp_back.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.postgresql.copy.CopyManager;
+import org.postgresql.core.BaseConnection;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The {@code student_eligibility} table of {@code V12__student_eligibility.sql}. Rows are
+ * replaced a student, a filiere or a range of students at a time; callers run each
+ * replacement in one transaction so that readers see either the old or the new set.
+ *
+ * Two writers replace rows: the eligibility matrix and the partitions of a scoring job, on any
+ * instance. Each replacement transaction first takes {@link #lockShared} (partitions, whose
+ * ranges never overlap) or {@link #lockExclusive} (the matrix, whose rows cut across every
+ * range), so they never delete and re-insert the same pairs at the same time.
+ */
+@Repository
+@RequiredArgsConstructor
+public class StudentEligibilityRepository {
+
+    /** Rows per {@link #insert} call the writers buffer before sending. */
+    public static final int BATCH_SIZE = 1000;
+
+    /**
+     * An eligible pair; {@code margin} is the student's score minus the threshold, null without
+     * one, and {@code score} the filiere's admission formula evaluated for the student, null
+     * without a formula or a variable it reads.
+     */
+    public record Row(Long userId, Long filiereId, BigDecimal margin, BigDecimal score) {}
+
+    private static final String INSERT =
+            "INSERT INTO student_eligibility (id_user, filiere_id, margin, score) VALUES (?, ?, ?, ?)";
+    private static final String COPY =
+            "COPY student_eligibility (id_user, filiere_id, margin, score) FROM STDIN";
+
+    /** PostgreSQL advisory lock key guarding the replacements, see {@link #lockShared}. */
+    static final long LOCK_KEY = 0x5354_5544_454C_4947L;
+
+    private final JdbcTemplate jdbcTemplate;
+    private volatile Boolean postgres;
+
+    /**
+     * Holds off {@link #lockExclusive} callers until the current transaction ends; shared
+     * holders do not wait for one another.
+     */
+    public void lockShared() {
+        if (postgres()) {
+            jdbcTemplate.query("SELECT pg_advisory_xact_lock_shared(?)", rs -> null, LOCK_KEY);
+        }
+    }
+
+    /** Waits for every other holder and keeps them out until the current transaction ends. */
+    public void lockExclusive() {
+        if (postgres()) {
+            jdbcTemplate.query("SELECT pg_advisory_xact_lock(?)", rs -> null, LOCK_KEY);
+        }
+    }
+
+    public List<Long> findFiliereIds(Long userId) {
+        return jdbcTemplate.queryForList(
+                "SELECT filiere_id FROM student_eligibility WHERE id_user = ? ORDER BY filiere_id",
+                Long.class, userId);
+    }
+
+    public void replaceStudent(Long userId, List<Row> rows) {
+        jdbcTemplate.update("DELETE FROM student_eligibility WHERE id_user = ?", userId);
+        insert(rows);
+    }
+
+    public void replaceFiliere(Long filiereId, List<Row> rows) {
+        jdbcTemplate.update("DELETE FROM student_eligibility WHERE filiere_id = ?", filiereId);
+        for (int from = 0; from < rows.size(); from += BATCH_SIZE) {
+            insert(rows.subList(from, Math.min(rows.size(), from + BATCH_SIZE)));
+        }
+    }
+
+    /** Removes the rows of the students with {@code fromUserId <= id_user < toUserId}. */
+    public void deleteUserRange(long fromUserId, long toUserId) {
+        jdbcTemplate.update("DELETE FROM student_eligibility WHERE id_user >= ? AND id_user < ?", fromUserId, toUserId);
+    }
+
+    /**
+     * Empties the table. A plain DELETE rather than TRUNCATE: TRUNCATE would lock out the
+     * dashboard reads for the whole rebuild instead of letting them see the previous rows.
+     */
+    public void deleteAll() {
+        jdbcTemplate.update("DELETE FROM student_eligibility");
+    }
+
+    /**
+     * Advisory locks and COPY are PostgreSQL's; the H2 test databases fall back to no lock (they
+     * run one writer at a time anyway) and to JDBC batches.
+     */
+    private boolean postgres() {
+        Boolean supported = postgres;
+        if (supported == null) {
+            supported = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                    "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName()));
+            postgres = supported;
+        }
+        return supported;
+    }
+
+    /**
+     * Sends {@code rows} in one round trip: a COPY on PostgreSQL, which skips the per-row
+     * statement execution of a batched INSERT, and a JDBC batch elsewhere. Runs on the
+     * transaction's connection, so it commits or rolls back with the delete before it.
+     */
+    public void insert(List<Row> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        if (postgres()) {
+            copy(rows);
+            return;
+        }
+        List<Object[]> args = new ArrayList<>(rows.size());
+        for (Row row : rows) {
+            args.add(new Object[]{row.userId(), row.filiereId(), row.margin(), row.score()});
+        }
+        jdbcTemplate.batchUpdate(INSERT, args);
+    }
+
+    private void copy(List<Row> rows) {
+        // COPY's text format: tab-separated columns, \N for null. Ids and numbers need no escaping.
+        StringBuilder data = new StringBuilder(rows.size() * 32);
+        for (Row row : rows) {
+            data.append(row.userId()).append('\t').append(row.filiereId()).append('\t');
+            number(data, row.margin()).append('\t');
+            number(data, row.score()).append('\n');
+        }
+        jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            try {
+                return new CopyManager(connection.unwrap(BaseConnection.class))
+                        .copyIn(COPY, new StringReader(data.toString()));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private static StringBuilder number(StringBuilder data, BigDecimal value) {
+        return data.append(value == null ? "\\N" : value.toPlainString());
+    }
+}
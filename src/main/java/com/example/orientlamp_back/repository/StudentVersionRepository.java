@@ -0,0 +1,52 @@
+package com.example.orientlamp_back.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * The {@code student_version} table of {@code V20__student_version.sql}: a counter per student
+ * that every write to their preferences or profile bumps, read to tell whether something cached
+ * for them on any instance is still current. A student never written has no row, version 0.
+ */
+@Repository
+@RequiredArgsConstructor
+public class StudentVersionRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+    private volatile Boolean postgres;
+
+    /**
+     * Bumps {@code userId}'s version in the caller's transaction, creating the row on the first
+     * write. The row stays locked until that transaction ends, like {@code catalog_version}.
+     */
+    public void increment(Long userId) {
+        if (postgres()) {
+            // Two first writes racing: the second waits for the first's row and bumps it
+            jdbcTemplate.update("INSERT INTO student_version (id_user, version) VALUES (?, 1) "
+                    + "ON CONFLICT (id_user) DO UPDATE SET version = student_version.version + 1", userId);
+        } else if (jdbcTemplate.update("UPDATE student_version SET version = version + 1 WHERE id_user = ?", userId) == 0) {
+            jdbcTemplate.update("INSERT INTO student_version (id_user, version) VALUES (?, 1)", userId);
+        }
+    }
+
+    public long current(Long userId) {
+        List<Long> version = jdbcTemplate.queryForList(
+                "SELECT version FROM student_version WHERE id_user = ?", Long.class, userId);
+        return version.isEmpty() ? 0 : version.get(0);
+    }
+
+    /** The H2 test databases have no ON CONFLICT; they run one writer at a time anyway. */
+    private boolean postgres() {
+        Boolean supported = postgres;
+        if (supported == null) {
+            supported = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                    "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName()));
+            postgres = supported;
+        }
+        return supported;
+    }
+}
@@ -1,24 +1,28 @@
 package com.example.orientlamp_back.repository;
 
 import com.example.orientlamp_back.entity.University;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
-import java.util.Optional;
 
+/**
+ * The catalog load uses the {@code University.catalog} entity graph so that the universities,
+ * their filieres and their critere come back in a single round trip instead of 1 + U + F.
+ * Every other catalog read is served from that snapshot.
+ */
 @Repository
 public interface UniversityRepository extends JpaRepository<University, Long> {
 
-    Optional<University> findByName(String name);
-
-    Optional<University> findBySlug(String slug);
-
-    List<University> findByLocation(String location);
-
-    List<University> findByType(String type);
-
-    List<University> findByAccreditationStatus(String accreditationStatus);
+    @EntityGraph("University.catalog")
+    @Query("SELECT u FROM University u")
+    List<University> findAllWithFilieres();
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     boolean existsByName(String name);
-}
\ No newline at end of file
+}
@@ -0,0 +1,20 @@
+package com.example.orientlamp_back.service;
+
+import com.example.orientlamp_back.dto.AdmissionChanceDTO;
+import com.example.orientlamp_back.dto.AdmissionScoreDTO;
+import com.example.orientlamp_back.entity.User;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public interface AdmissionService {
+
+    /** Chances at every CNC filiere for a CNC {@code rank} and/or {@code rating}, most likely first. */
+    List<AdmissionChanceDTO> getCncChances(Integer rank, BigDecimal rating);
+
+    /** Same, rated on {@code user}'s prepa profile; {@code rank} is optional. */
+    List<AdmissionChanceDTO> getMyCncChances(User user, Integer rank);
+
+    /** {@code user}'s score at every filiere with a score formula, best margin first. */
+    List<AdmissionScoreDTO> getMyScores(User user);
+}
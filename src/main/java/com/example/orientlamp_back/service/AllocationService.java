@@ -0,0 +1,19 @@
+package com.example.orientlamp_back.service;
+
+import com.example.orientlamp_back.dto.AllocationRunDTO;
+
+import java.util.List;
+
+public interface AllocationService {
+
+    /**
+     * Starts allocating seats over every student's first {@code wishes} wishes (a default when
+     * null) and returns at once. While a run is in progress, that run is returned instead.
+     */
+    AllocationRunDTO startRun(Integer wishes);
+
+    /** The run with the projected cut-off of each filiere. */
+    AllocationRunDTO getRun(Long id);
+
+    List<AllocationRunDTO> getRecentRuns();
+}
@@ -0,0 +1,98 @@
+package com.example.orientlamp_back.service;
+
+import com.example.orientlamp_back.dto.CatalogSort;
+import com.example.orientlamp_back.exception.InvalidPageRequestException;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+
+/**
+ * Opaque continuation token for keyset pagination: the sort it was issued for plus the
+ * sort key and id of the last row already returned. The next page seeks strictly past
+ * {@code (key, id)}, so its cost does not depend on how deep the client has paged.
+ *
+ * The listings page over the in-memory catalog snapshot rather than SQL: the seek is a binary
+ * search in the snapshot's presorted order ({@code Catalog.seekFilieres}). A token holds values,
+ * not positions, so it stays valid across snapshot rebuilds; rows written in between show up
+ * or not according to where their key sorts, as with a database seek. Only
+ * {@code /api/filieres/query} still pages in SQL ({@code FiliereQueryRepository}).
+ */
+public final class CatalogCursor {
+
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private static final String SEPARATOR = "\u0000";
+
+    private final CatalogSort sort;
+    private final Long id;
+    private final String key;
+
+    private CatalogCursor(CatalogSort sort, Long id, String key) {
+        this.sort = sort;
+        this.id = id;
+        this.key = key;
+    }
+
+    public static String encode(CatalogSort sort, Object key, Long id) {
+        String raw = sort.name() + SEPARATOR + id + SEPARATOR + (key == null ? "N" : "V" + key);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** Returns {@code null} for a missing token, i.e. a request for the first page. */
+    public static CatalogCursor decode(String token, CatalogSort expectedSort) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(SEPARATOR, 3);
+            CatalogSort sort = CatalogSort.valueOf(parts[0]);
+            if (sort != expectedSort) {
+                throw new InvalidPageRequestException("Cursor was issued for sort " + sort + ", not " + expectedSort);
+            }
+            String key = parts[2].startsWith("V") ? parts[2].substring(1) : null;
+            CatalogCursor cursor = new CatalogCursor(sort, Long.valueOf(parts[1]), key);
+            // Parse eagerly so a tampered key is reported as a bad cursor, not a server error
+            if (sort == CatalogSort.TUITION) {
+                cursor.decimalKey();
+            } else if (sort == CatalogSort.DEADLINE) {
+                cursor.dateKey();
+            }
+            return cursor;
+        } catch (InvalidPageRequestException ex) {
+            throw ex;
+        } catch (RuntimeException ex) {
+            throw new InvalidPageRequestException("Malformed cursor");
+        }
+    }
+
+    public static int clampSize(Integer size) {
+        if (size == null || size < 1) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.min(size, MAX_PAGE_SIZE);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public boolean hasNullKey() {
+        return key == null;
+    }
+
+    public String stringKey() {
+        return key;
+    }
+
+    public BigDecimal decimalKey() {
+        return key == null ? null : new BigDecimal(key);
+    }
+
+    public LocalDate dateKey() {
+        return key == null ? null : LocalDate.parse(key);
+    }
+}
@@ -1,7 +1,9 @@
 package com.example.orientlamp_back.service;
 
+import com.example.orientlamp_back.dto.CritereHistoryDTO;
 import com.example.orientlamp_back.dto.CritereRequestDTO;
 import com.example.orientlamp_back.dto.CritereResponseDTO;
+import com.example.orientlamp_back.dto.ThresholdProjectionDTO;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -31,4 +33,15 @@ public interface CritereService {
     List<CritereResponseDTO> getCriteresByAgeMaxLessThanEqual(Integer age);
 
     boolean existsByFiliereId(Long filiereId);
+
+    /** Every recorded revision of the filiere's thresholds, oldest first. */
+    List<CritereHistoryDTO> getCritereHistory(Long filiereId);
+
+    /** The thresholds in effect in academic year {@code year} (its first calendar year). */
+    CritereHistoryDTO getCritereAsOf(Long filiereId, int year);
+
+    /** Next year's projected thresholds with the past years they come from. */
+    ThresholdProjectionDTO getThresholdTrend(Long filiereId);
+
+    List<ThresholdProjectionDTO> getThresholdTrends();
 }
\ No newline at end of file
@@ -0,0 +1,21 @@
+package com.example.orientlamp_back.service;
+
+import com.example.orientlamp_back.dto.EligibilityDTO;
+import com.example.orientlamp_back.dto.EligibilitySimulationDTO;
+import com.example.orientlamp_back.dto.EligibilitySimulationRequestDTO;
+import com.example.orientlamp_back.dto.FiliereSummaryDTO;
+import com.example.orientlamp_back.entity.User;
+
+import java.util.List;
+
+public interface EligibilityService {
+
+    /** Verdicts of every filiere with a critere for {@code user}; only eligible ones when {@code eligibleOnly}. */
+    EligibilityDTO getEligibility(User user, boolean eligibleOnly);
+
+    /** Filieres {@code user} is eligible for, read from the precomputed eligibility matrix. */
+    List<FiliereSummaryDTO> getEligibleFilieres(User user);
+
+    /** How {@code user}'s eligible filieres change with the hypothetical profile {@code request}. */
+    EligibilitySimulationDTO simulate(User user, EligibilitySimulationRequestDTO request);
+}
@@ -14,6 +14,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 
@@ -124,6 +125,17 @@ public class EmailService {
         mailSender.send(message); // let MailException propagate to caller
     }
 
+    /** Sends a batch of messages over one connection; {@code from} is filled in for each. */
+    public void sendEmails(List<SimpleMailMessage> messages) {
+        if (messages.isEmpty()) {
+            return;
+        }
+        for (SimpleMailMessage message : messages) {
+            message.setFrom(fromEmail);
+        }
+        mailSender.send(messages.toArray(new SimpleMailMessage[0]));
+    }
+
     @Transactional
     public void cleanupExpiredTokens() {
         tokenRepository.deleteByExpiryDateBefore(LocalDateTime.now());
@@ -1,10 +1,18 @@
 package com.example.orientlamp_back.service;
 
+import com.example.orientlamp_back.dto.CatalogEmbed;
+import com.example.orientlamp_back.dto.CatalogSort;
+import com.example.orientlamp_back.dto.CursorPageDTO;
+import com.example.orientlamp_back.dto.FacetedPageDTO;
+import com.example.orientlamp_back.dto.FiliereFacetQuery;
+import com.example.orientlamp_back.dto.FiliereQueryFilter;
 import com.example.orientlamp_back.dto.FiliereRequestDTO;
 import com.example.orientlamp_back.dto.FiliereResponseDTO;
+import com.example.orientlamp_back.dto.FiliereSummaryDTO;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Set;
 
 public interface FiliereService {
 
@@ -14,19 +22,32 @@ public interface FiliereService {
 
     void deleteFiliere(Long id);
 
-    FiliereResponseDTO getFiliereById(Long id);
+    /** Detail view; the critere is only materialised when {@code embed} contains it. */
+    FiliereResponseDTO getFiliereById(Long id, Set<CatalogEmbed> embed);
 
-    List<FiliereResponseDTO> getAllFilieres();
+    List<FiliereSummaryDTO> getAllFilieres();
 
-    List<FiliereResponseDTO> getFilieresByUniversityId(Long universityId);
+    /**
+     * Keyset-paginated listing, seeking in the catalog snapshot; {@code cursor} is the
+     * {@code nextCursor} of the previous page, see {@link CatalogCursor}.
+     */
+    CursorPageDTO<FiliereSummaryDTO> getFilieresPage(String cursor, Integer size, CatalogSort sort);
 
-    List<FiliereResponseDTO> getFilieresByAdmissionType(String admissionType);
+    /** Filieres matching every filter in {@code query}, keyset-paginated, with live facet counts. */
+    FacetedPageDTO<FiliereSummaryDTO> searchFilieres(FiliereFacetQuery query, String cursor, Integer size, CatalogSort sort);
 
-    List<FiliereResponseDTO> getFilieresByLanguage(String language);
+    /** Filieres matching every filter in {@code filter}, read with one keyset-paginated SQL query. */
+    CursorPageDTO<FiliereSummaryDTO> queryFilieres(FiliereQueryFilter filter, String cursor, Integer size, CatalogSort sort);
 
-    List<FiliereResponseDTO> getFilieresByApplicationDeadlineAfter(LocalDate date);
+    List<FiliereSummaryDTO> getFilieresByUniversityId(Long universityId);
 
-    List<FiliereResponseDTO> getAvailableFilieres();
+    List<FiliereSummaryDTO> getFilieresByAdmissionType(String admissionType);
 
-    List<FiliereResponseDTO> getFilieresByUniversityIdAndAdmissionType(Long universityId, String admissionType);
+    List<FiliereSummaryDTO> getFilieresByLanguage(String language);
+
+    List<FiliereSummaryDTO> getFilieresByApplicationDeadlineAfter(LocalDate date);
+
+    List<FiliereSummaryDTO> getAvailableFilieres();
+
+    List<FiliereSummaryDTO> getFilieresByUniversityIdAndAdmissionType(Long universityId, String admissionType);
 }
\ No newline at end of file
@@ -0,0 +1,12 @@
+package com.example.orientlamp_back.service;
+
+import com.example.orientlamp_back.dto.RecommendationDTO;
+import com.example.orientlamp_back.entity.User;
+
+import java.util.List;
+
+public interface RecommendationService {
+
+    /** The {@code limit} filieres {@code user} is eligible for that best fit their preferences, best first. */
+    List<RecommendationDTO> getRecommendations(User user, int limit);
+}
@@ -0,0 +1,21 @@
+package com.example.orientlamp_back.service;
+
+import com.example.orientlamp_back.dto.ScoringJobDTO;
+
+import java.util.List;
+
+public interface ScoringJobService {
+
+    /**
+     * Starts re-scoring every student in {@code partitions} user id ranges (a default when
+     * null) and returns at once. While a job runs, the running job is returned instead.
+     */
+    ScoringJobDTO startJob(Integer partitions);
+
+    /** Re-runs the partitions of job {@code id} that did not complete. */
+    ScoringJobDTO resumeJob(Long id);
+
+    ScoringJobDTO getJob(Long id);
+
+    List<ScoringJobDTO> getRecentJobs();
+}
@@ -0,0 +1,9 @@
+package com.example.orientlamp_back.service;
+
+import com.example.orientlamp_back.dto.SearchResponseDTO;
+
+public interface SearchService {
+
+    /** Ranked universities and filieres for free text such as "ingénieur informatique Rabat" or "ensa". */
+    SearchResponseDTO search(String query, Integer limit);
+}
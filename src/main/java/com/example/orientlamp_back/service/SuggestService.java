@@ -0,0 +1,11 @@
+package com.example.orientlamp_back.service;
+
+import com.example.orientlamp_back.dto.SuggestionDTO;
+
+import java.util.List;
+
+public interface SuggestService {
+
+    /** Universities and filieres whose name, slug or abbreviation has a word starting with {@code query}. */
+    List<SuggestionDTO> suggest(String query, Integer limit);
+}
@@ -1,10 +1,17 @@
 package com.example.orientlamp_back.service;
 
+import com.example.orientlamp_back.dto.CatalogEmbed;
+import com.example.orientlamp_back.dto.CatalogSort;
+import com.example.orientlamp_back.dto.CursorPageDTO;
+import com.example.orientlamp_back.dto.FiliereFacetQuery;
+import com.example.orientlamp_back.dto.NearbyUniversitiesDTO;
 import com.example.orientlamp_back.dto.UniversityRequestDTO;
 import com.example.orientlamp_back.dto.UniversityResponseDTO;
+import com.example.orientlamp_back.dto.UniversitySummaryDTO;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.util.List;
+import java.util.Set;
 
 public interface UniversityService {
 
@@ -14,17 +21,31 @@ public interface UniversityService {
 
     void deleteUniversity(Long id);
 
-    UniversityResponseDTO getUniversityById(Long id);
+    /** Detail view; only the associations in {@code embed} are materialised. */
+    UniversityResponseDTO getUniversityById(Long id, Set<CatalogEmbed> embed);
 
-    UniversityResponseDTO getUniversityBySlug(String slug);
+    UniversityResponseDTO getUniversityBySlug(String slug, Set<CatalogEmbed> embed);
 
-    List<UniversityResponseDTO> getAllUniversities();
+    List<UniversitySummaryDTO> getAllUniversities();
 
-    List<UniversityResponseDTO> getUniversitiesByLocation(String location);
+    /**
+     * Keyset-paginated listing, seeking in the catalog snapshot; {@code cursor} is the
+     * {@code nextCursor} of the previous page, see {@link CatalogCursor}.
+     */
+    CursorPageDTO<UniversitySummaryDTO> getUniversitiesPage(String cursor, Integer size, CatalogSort sort);
 
-    List<UniversityResponseDTO> getUniversitiesByType(String type);
+    List<UniversitySummaryDTO> getUniversitiesByLocation(String location);
 
-    List<UniversityResponseDTO> getUniversitiesByAccreditationStatus(String accreditationStatus);
+    List<UniversitySummaryDTO> getUniversitiesByType(String type);
+
+    List<UniversitySummaryDTO> getUniversitiesByAccreditationStatus(String accreditationStatus);
+
+    /**
+     * Universities within {@code radiusKm} of a city or of a coordinate pair, nearest first.
+     * When {@code filters} selects any facet only universities with a matching filiere are kept.
+     */
+    NearbyUniversitiesDTO getUniversitiesNear(String city, Double latitude, Double longitude, Double radiusKm,
+                                              Integer limit, FiliereFacetQuery filters);
 
     boolean existsByName(String name);
 
@@ -0,0 +1,46 @@
+package com.example.orientlamp_back.service.admission;
+
+import com.example.orientlamp_back.event.CatalogRefreshedEvent;
+import com.example.orientlamp_back.service.catalog.Catalog;
+import com.example.orientlamp_back.service.catalog.CatalogSnapshot;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holds the {@link ScoreFormulas} compiled for the current catalog; a critere write refreshes
+ * the catalog and recompiles the formulas that changed.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AdmissionFormulas {
+
+    private final CatalogSnapshot catalogSnapshot;
+    private final AtomicReference<ScoreFormulas> current = new AtomicReference<>();
+
+    public ScoreFormulas current() {
+        ScoreFormulas formulas = current.get();
+        if (formulas != null) {
+            return formulas;
+        }
+        current.compareAndSet(null, ScoreFormulas.build(catalogSnapshot.current()));
+        return current.get();
+    }
+
+    /** The formulas compiled from {@code catalog}, so that their filiere indexes line up with it. */
+    public ScoreFormulas forCatalog(Catalog catalog) {
+        ScoreFormulas formulas = current();
+        return formulas.version() == catalog.version() ? formulas : ScoreFormulas.build(catalog, formulas);
+    }
+
+    @EventListener
+    public void onCatalogRefreshed(CatalogRefreshedEvent event) {
+        ScoreFormulas formulas = ScoreFormulas.build(event.catalog(), current.get());
+        current.set(formulas);
+        log.debug("Score formulas v{}: {} distinct formulas", formulas.version(), formulas.formulaCount());
+    }
+}
@@ -0,0 +1,199 @@
+package com.example.orientlamp_back.service.admission;
+
+import com.example.orientlamp_back.repository.CritereHistoryRepository;
+import com.example.orientlamp_back.service.catalog.Catalog;
+import com.example.orientlamp_back.service.eligibility.CandidateType;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Chances of a prepa student at each CNC filiere, estimated from the cut-offs it admitted at in
+ * past academic years: the last admitted CNC rank ({@code classementCnc}) and the lowest
+ * admitted score ({@code scorePrepa}).
+ *
+ * Each year's cut-off is a soft step: a rank well inside it scores close to 1, one well beyond
+ * close to 0, with a logistic of width {@link #RANK_SPREAD} in log-rank (so the margin is
+ * relative: 100 places matter more near rank 200 than near rank 3000). The years are averaged
+ * with recent ones weighted more. When only a rating is given, or a year has no rank, the score
+ * cut-off is used the same way.
+ *
+ * Observations are stored column-wise: row {@code r} (one per filiere) owns the slice
+ * {@code [offsets[r], offsets[r + 1])} of the flat arrays, so a query is one pass over them.
+ */
+public final class CncAdmissionModel {
+
+    /** Width of a rank cut-off's step, in natural-log units of rank (about 15% of the rank). */
+    static final double RANK_SPREAD = 0.15;
+    /** Width of a score cut-off's step, in points out of 20. */
+    static final double SCORE_SPREAD = 0.25;
+    /** Weight of each year relative to the one after it. */
+    static final double YEAR_DECAY = 0.7;
+
+    /** What one filiere admitted at in one academic year; either cut-off may be missing. */
+    public record Observation(int filiere, String anneeAcademique, Integer lastAdmittedRank, BigDecimal minScore) {}
+
+    public record Chance(int filiere, double probability, String anneeAcademique,
+                         Integer lastAdmittedRank, BigDecimal minScore, int years) {}
+
+    private final long version;
+    private final int[] filieres;
+    private final int[] offsets;
+    private final double[] logRank;
+    private final double[] score;
+    private final double[] weight;
+    private final Observation[] latest;
+
+    private CncAdmissionModel(long version, int[] filieres, int[] offsets, double[] logRank, double[] score,
+                              double[] weight, Observation[] latest) {
+        this.version = version;
+        this.filieres = filieres;
+        this.offsets = offsets;
+        this.logRank = logRank;
+        this.score = score;
+        this.weight = weight;
+        this.latest = latest;
+    }
+
+    /** A model over the current critere of every filiere that admits through the CNC. */
+    public static CncAdmissionModel build(Catalog catalog) {
+        return build(catalog, ThresholdHistory.EMPTY);
+    }
+
+    /**
+     * Like {@link #build(Catalog)}, with the past years {@code history} recorded for the
+     * catalog's filieres. The current critere wins over a history entry for the same year.
+     */
+    public static CncAdmissionModel build(Catalog catalog, ThresholdHistory history) {
+        List<Observation> observations = new ArrayList<>();
+        for (CritereHistoryRepository.Entry e : history.entries()) {
+            int f = catalog.filiereIndex(e.filiereId());
+            if (f != Catalog.NONE && isCnc(e.classementCnc(), e.scorePrepa(), e.typeCandidat())) {
+                observations.add(new Observation(f, e.anneeAcademique(), e.classementCnc(), e.scorePrepa()));
+            }
+        }
+        for (int f = 0; f < catalog.filiereCount(); f++) {
+            Catalog.CritereRow c = catalog.filiere(f).critere();
+            if (c == null) {
+                continue;
+            }
+            if (isCnc(c.classementCnc(), c.scorePrepa(), catalog.string(c.typeCandidat()))) {
+                observations.add(new Observation(f, catalog.string(c.anneeAcademique()), c.classementCnc(), c.scorePrepa()));
+            }
+        }
+        return build(catalog.version(), observations);
+    }
+
+    public static CncAdmissionModel build(long version, List<Observation> observations) {
+        // Per filiere, newest year first; a year recorded twice keeps its last observation.
+        Map<Integer, TreeMap<String, Observation>> byFiliere = new TreeMap<>();
+        for (Observation o : observations) {
+            byFiliere.computeIfAbsent(o.filiere(), f -> new TreeMap<>(Comparator.reverseOrder()))
+                    .put(o.anneeAcademique() == null ? "" : o.anneeAcademique(), o);
+        }
+
+        int[] filieres = new int[byFiliere.size()];
+        int[] offsets = new int[byFiliere.size() + 1];
+        Observation[] latest = new Observation[byFiliere.size()];
+        int total = byFiliere.values().stream().mapToInt(Map::size).sum();
+        double[] logRank = new double[total];
+        double[] score = new double[total];
+        double[] weight = new double[total];
+
+        int row = 0;
+        int i = 0;
+        for (Map.Entry<Integer, TreeMap<String, Observation>> entry : byFiliere.entrySet()) {
+            filieres[row] = entry.getKey();
+            offsets[row] = i;
+            latest[row] = entry.getValue().firstEntry().getValue();
+            double w = 1;
+            for (Observation o : entry.getValue().values()) {
+                logRank[i] = o.lastAdmittedRank() == null || o.lastAdmittedRank() <= 0
+                        ? Double.NaN
+                        : Math.log(o.lastAdmittedRank());
+                score[i] = o.minScore() == null ? Double.NaN : o.minScore().doubleValue();
+                weight[i] = w;
+                w *= YEAR_DECAY;
+                i++;
+            }
+            row++;
+        }
+        offsets[row] = i;
+        return new CncAdmissionModel(version, filieres, offsets, logRank, score, weight, latest);
+    }
+
+    private static boolean isCnc(Integer classementCnc, BigDecimal scorePrepa, String typeCandidat) {
+        return classementCnc != null
+                || (scorePrepa != null && CandidateType.parse(typeCandidat) == CandidateType.CPGE);
+    }
+
+    public long version() {
+        return version;
+    }
+
+    public int filiereCount() {
+        return filieres.length;
+    }
+
+    /**
+     * Chance at every filiere the model can estimate for a student ranked {@code rank} and/or
+     * rated {@code rating}, most likely first. A filiere none of whose years has a cut-off of the
+     * kind given is left out.
+     */
+    public List<Chance> chances(Integer rank, BigDecimal rating) {
+        double studentLogRank = rank == null || rank <= 0 ? Double.NaN : Math.log(rank);
+        double studentScore = rating == null ? Double.NaN : rating.doubleValue();
+
+        double[] probability = new double[filieres.length];
+        int estimated = 0;
+        for (int r = 0; r < filieres.length; r++) {
+            double sum = 0;
+            double weights = 0;
+            for (int o = offsets[r]; o < offsets[r + 1]; o++) {
+                double p;
+                if (!Double.isNaN(studentLogRank) && !Double.isNaN(logRank[o])) {
+                    p = step((studentLogRank - logRank[o]) / RANK_SPREAD);
+                } else if (!Double.isNaN(studentScore) && !Double.isNaN(score[o])) {
+                    p = step((score[o] - studentScore) / SCORE_SPREAD);
+                } else {
+                    continue;
+                }
+                sum += weight[o] * p;
+                weights += weight[o];
+            }
+            probability[r] = weights == 0 ? Double.NaN : sum / weights;
+            if (weights > 0) {
+                estimated++;
+            }
+        }
+
+        Integer[] rows = new Integer[estimated];
+        int n = 0;
+        for (int r = 0; r < filieres.length; r++) {
+            if (!Double.isNaN(probability[r])) {
+                rows[n++] = r;
+            }
+        }
+        Arrays.sort(rows, (a, b) -> probability[a] != probability[b]
+                ? Double.compare(probability[b], probability[a])
+                : Integer.compare(filieres[a], filieres[b]));
+
+        List<Chance> chances = new ArrayList<>(rows.length);
+        for (int r : rows) {
+            Observation o = latest[r];
+            chances.add(new Chance(filieres[r], Math.round(probability[r] * 1000) / 1000.0, o.anneeAcademique(),
+                    o.lastAdmittedRank(), o.minScore(), offsets[r + 1] - offsets[r]));
+        }
+        return chances;
+    }
+
+    /** 1 far below zero, 0.5 at zero, 0 far above. */
+    private static double step(double x) {
+        return 1 / (1 + Math.exp(x));
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.orientlamp_back.service.admission;
+
+import com.example.orientlamp_back.event.CatalogRefreshedEvent;
+import com.example.orientlamp_back.service.catalog.Catalog;
+import com.example.orientlamp_back.service.catalog.CatalogSnapshot;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holds the {@link CncAdmissionModel} for the current catalog and the past years of
+ * {@link ThresholdTrends}. A critere write refreshes the catalog, and with it the cut-off
+ * distributions; the year it wrote comes from the catalog, so the history may lag behind it.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CncAdmissionModels {
+
+    private final CatalogSnapshot catalogSnapshot;
+    private final ThresholdTrends thresholdTrends;
+    private final AtomicReference<CncAdmissionModel> current = new AtomicReference<>();
+
+    public CncAdmissionModel current() {
+        CncAdmissionModel model = current.get();
+        if (model != null) {
+            return model;
+        }
+        current.compareAndSet(null, CncAdmissionModel.build(catalogSnapshot.current(), thresholdTrends.current()));
+        return current.get();
+    }
+
+    /** The model built from {@code catalog}, so that its filiere indexes line up with it. */
+    public CncAdmissionModel forCatalog(Catalog catalog) {
+        CncAdmissionModel model = current();
+        return model.version() == catalog.version() ? model : CncAdmissionModel.build(catalog, thresholdTrends.current());
+    }
+
+    @EventListener
+    public void onCatalogRefreshed(CatalogRefreshedEvent event) {
+        CncAdmissionModel model = CncAdmissionModel.build(event.catalog(), thresholdTrends.current());
+        current.set(model);
+        log.debug("CNC admission model v{}: {} filieres", model.version(), model.filiereCount());
+    }
+}
@@ -0,0 +1,412 @@
+package com.example.orientlamp_back.service.admission;
+
+import com.example.orientlamp_back.exception.InvalidScoreFormulaException;
+import com.example.orientlamp_back.service.search.SearchQuery;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * A filiere's admission score formula ({@code Critere.formuleScore}), parsed and compiled once
+ * into a tree of evaluator nodes whose variables are already resolved to {@link ScoreVariables}
+ * slots, so evaluating it is plain arithmetic on a {@code double[]}.
+ * <pre>
+ *   0.75 * national + 0.25 * regional
+ *   (4 * mathematiques + 3 * physique + francais) / 8
+ *   max(cnc, 0.6 * cnc + 0.4 * trimestres)
+ * </pre>
+ * The language has numbers, the variables of {@link ScoreVariables}, {@code + - * /},
+ * parentheses and the functions {@code min}, {@code max} and {@code moyenne}. Names are
+ * matched case- and accent-insensitively. Constant sub-expressions are folded at compile time.
+ *
+ * {@link #evaluate} scores one student; {@link #evaluateAll} scores a population held column-wise,
+ * one operation over the whole column at a time.
+ */
+public final class ScoreFormula {
+
+    public static final int MAX_LENGTH = 500;
+
+    private final String text;
+    private final Node root;
+    private final BitSet variables;
+
+    private ScoreFormula(String text, Node root, BitSet variables) {
+        this.text = text;
+        this.root = root;
+        this.variables = variables;
+    }
+
+    /** The compiled {@code text}; throws {@link InvalidScoreFormulaException} on a syntax error. */
+    public static ScoreFormula compile(String text) {
+        if (text == null || text.isBlank()) {
+            throw new InvalidScoreFormulaException("Score formula is empty");
+        }
+        if (text.length() > MAX_LENGTH) {
+            throw new InvalidScoreFormulaException("Score formula must not exceed " + MAX_LENGTH + " characters");
+        }
+        Parser parser = new Parser(text);
+        Node root = parser.expression();
+        parser.expectEnd();
+        return new ScoreFormula(text.trim(), root, parser.variables);
+    }
+
+    public String text() {
+        return text;
+    }
+
+    /** Whether the formula reads the variable at {@code slot}. */
+    public boolean reads(int slot) {
+        return variables.get(slot);
+    }
+
+    /** Names of the variables read that are missing (NaN) in {@code values}. */
+    public List<String> missing(double[] values) {
+        List<String> missing = new ArrayList<>();
+        for (int slot = variables.nextSetBit(0); slot >= 0; slot = variables.nextSetBit(slot + 1)) {
+            if (Double.isNaN(values[slot])) {
+                missing.add(ScoreVariables.name(slot));
+            }
+        }
+        return missing;
+    }
+
+    /** The score of one student's variables; NaN if it reads a missing one or divides by zero. */
+    public double evaluate(double[] values) {
+        return root.eval(values);
+    }
+
+    /**
+     * Scores {@code n} students at once into {@code out[0..n)}. {@code columns[slot][i]} is
+     * variable {@code slot} of student {@code i}; a null column is missing for everyone.
+     */
+    public void evaluateAll(double[][] columns, int n, double[] out) {
+        root.evalAll(columns, n, out);
+    }
+
+    @Override
+    public String toString() {
+        return text;
+    }
+
+    // ------------------------------------------------------------------ //
+    //  Evaluator nodes                                                     //
+    // ------------------------------------------------------------------ //
+
+    private abstract static class Node {
+
+        abstract double eval(double[] values);
+
+        abstract void evalAll(double[][] columns, int n, double[] out);
+
+        /** This node's values in a fresh array; a variable's column is shared, not copied. */
+        double[] column(double[][] columns, int n) {
+            double[] out = new double[n];
+            evalAll(columns, n, out);
+            return out;
+        }
+    }
+
+    private static final class Constant extends Node {
+        final double value;
+
+        Constant(double value) {
+            this.value = value;
+        }
+
+        @Override
+        double eval(double[] values) {
+            return value;
+        }
+
+        @Override
+        void evalAll(double[][] columns, int n, double[] out) {
+            Arrays.fill(out, 0, n, value);
+        }
+    }
+
+    private static final class Variable extends Node {
+        final int slot;
+
+        Variable(int slot) {
+            this.slot = slot;
+        }
+
+        @Override
+        double eval(double[] values) {
+            return values[slot];
+        }
+
+        @Override
+        void evalAll(double[][] columns, int n, double[] out) {
+            double[] column = columns[slot];
+            if (column == null) {
+                Arrays.fill(out, 0, n, Double.NaN);
+            } else {
+                System.arraycopy(column, 0, out, 0, n);
+            }
+        }
+
+        @Override
+        double[] column(double[][] columns, int n) {
+            return columns[slot] == null ? super.column(columns, n) : columns[slot];
+        }
+    }
+
+    private static final class Negate extends Node {
+        final Node operand;
+
+        Negate(Node operand) {
+            this.operand = operand;
+        }
+
+        @Override
+        double eval(double[] values) {
+            return -operand.eval(values);
+        }
+
+        @Override
+        void evalAll(double[][] columns, int n, double[] out) {
+            operand.evalAll(columns, n, out);
+            for (int i = 0; i < n; i++) {
+                out[i] = -out[i];
+            }
+        }
+    }
+
+    private static final class Binary extends Node {
+        final char op;
+        final Node left;
+        final Node right;
+
+        Binary(char op, Node left, Node right) {
+            this.op = op;
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        double eval(double[] values) {
+            return apply(op, left.eval(values), right.eval(values));
+        }
+
+        @Override
+        void evalAll(double[][] columns, int n, double[] out) {
+            left.evalAll(columns, n, out);
+            if (right instanceof Constant constant) {
+                for (int i = 0; i < n; i++) {
+                    out[i] = apply(op, out[i], constant.value);
+                }
+                return;
+            }
+            double[] r = right.column(columns, n);
+            switch (op) {
+                case '+' -> { for (int i = 0; i < n; i++) out[i] += r[i]; }
+                case '-' -> { for (int i = 0; i < n; i++) out[i] -= r[i]; }
+                case '*' -> { for (int i = 0; i < n; i++) out[i] *= r[i]; }
+                default -> { for (int i = 0; i < n; i++) out[i] = apply(op, out[i], r[i]); }
+            }
+        }
+    }
+
+    private static final class Call extends Node {
+        final String function;
+        final Node[] arguments;
+
+        Call(String function, Node[] arguments) {
+            this.function = function;
+            this.arguments = arguments;
+        }
+
+        @Override
+        double eval(double[] values) {
+            double result = arguments[0].eval(values);
+            for (int a = 1; a < arguments.length; a++) {
+                result = combine(function, result, arguments[a].eval(values));
+            }
+            return function.equals("moyenne") ? result / arguments.length : result;
+        }
+
+        @Override
+        void evalAll(double[][] columns, int n, double[] out) {
+            arguments[0].evalAll(columns, n, out);
+            for (int a = 1; a < arguments.length; a++) {
+                double[] next = arguments[a].column(columns, n);
+                for (int i = 0; i < n; i++) {
+                    out[i] = combine(function, out[i], next[i]);
+                }
+            }
+            if (function.equals("moyenne")) {
+                for (int i = 0; i < n; i++) {
+                    out[i] /= arguments.length;
+                }
+            }
+        }
+    }
+
+    private static double apply(char op, double a, double b) {
+        return switch (op) {
+            case '+' -> a + b;
+            case '-' -> a - b;
+            case '*' -> a * b;
+            // A zero divisor gives no score rather than an infinite one.
+            default -> b == 0 ? Double.NaN : a / b;
+        };
+    }
+
+    /** Running min, max or sum; NaN in, NaN out, unlike Math.min's sign rules for zeros. */
+    private static double combine(String function, double acc, double value) {
+        if (Double.isNaN(acc) || Double.isNaN(value)) {
+            return Double.NaN;
+        }
+        return switch (function) {
+            case "min" -> Math.min(acc, value);
+            case "max" -> Math.max(acc, value);
+            default -> acc + value;
+        };
+    }
+
+    // ------------------------------------------------------------------ //
+    //  Parser                                                              //
+    // ------------------------------------------------------------------ //
+
+    /**
+     * Recursive descent over
+     * <pre>
+     *   expression := term (('+' | '-') term)*
+     *   term       := factor (('*' | '/') factor)*
+     *   factor     := '-' factor | number | name | name '(' expression (',' expression)* ')' | '(' expression ')'
+     * </pre>
+     */
+    private static final class Parser {
+
+        private final String source;
+        private final String folded;
+        private int pos;
+        final BitSet variables = new BitSet();
+
+        Parser(String source) {
+            this.source = source;
+            this.folded = SearchQuery.fold(source);
+        }
+
+        Node expression() {
+            Node node = term();
+            for (char c = peek(); c == '+' || c == '-'; c = peek()) {
+                pos++;
+                node = fold(new Binary(c, node, term()));
+            }
+            return node;
+        }
+
+        Node term() {
+            Node node = factor();
+            for (char c = peek(); c == '*' || c == '/'; c = peek()) {
+                pos++;
+                node = fold(new Binary(c, node, factor()));
+            }
+            return node;
+        }
+
+        Node factor() {
+            char c = peek();
+            if (c == '-') {
+                pos++;
+                Node operand = factor();
+                return operand instanceof Constant constant ? new Constant(-constant.value) : new Negate(operand);
+            }
+            if (c == '(') {
+                pos++;
+                Node node = expression();
+                expect(')');
+                return node;
+            }
+            if (Character.isDigit(c) || c == '.') {
+                return number();
+            }
+            if (Character.isLetter(c) || c == '_') {
+                return name();
+            }
+            throw error(c == 0 ? "Unexpected end of formula" : "Unexpected '" + c + "'");
+        }
+
+        private Node number() {
+            int start = pos;
+            while (pos < folded.length() && (Character.isDigit(folded.charAt(pos)) || folded.charAt(pos) == '.')) {
+                pos++;
+            }
+            try {
+                return new Constant(Double.parseDouble(folded.substring(start, pos)));
+            } catch (NumberFormatException e) {
+                pos = start;
+                throw error("Malformed number");
+            }
+        }
+
+        private Node name() {
+            int start = pos;
+            while (pos < folded.length()
+                    && (Character.isLetterOrDigit(folded.charAt(pos)) || folded.charAt(pos) == '_')) {
+                pos++;
+            }
+            String name = folded.substring(start, pos);
+            if (peek() == '(') {
+                pos++;
+                if (!name.equals("min") && !name.equals("max") && !name.equals("moyenne")) {
+                    pos = start;
+                    throw error("Unknown function '" + name + "' (expected min, max or moyenne)");
+                }
+                List<Node> arguments = new ArrayList<>();
+                arguments.add(expression());
+                while (peek() == ',') {
+                    pos++;
+                    arguments.add(expression());
+                }
+                expect(')');
+                Call call = new Call(name, arguments.toArray(new Node[0]));
+                return arguments.stream().allMatch(a -> a instanceof Constant)
+                        ? new Constant(call.eval(new double[0]))
+                        : call;
+            }
+            int slot = ScoreVariables.slot(name);
+            if (slot < 0) {
+                pos = start;
+                throw error("Unknown variable '" + name + "'");
+            }
+            variables.set(slot);
+            return new Variable(slot);
+        }
+
+        private static Node fold(Binary node) {
+            return node.left instanceof Constant && node.right instanceof Constant
+                    ? new Constant(node.eval(new double[0]))
+                    : node;
+        }
+
+        void expectEnd() {
+            if (peek() != 0) {
+                throw error("Unexpected '" + peek() + "'");
+            }
+        }
+
+        private void expect(char c) {
+            if (peek() != c) {
+                throw error("Expected '" + c + "'");
+            }
+            pos++;
+        }
+
+        /** The next non-blank character, or 0 at the end. */
+        private char peek() {
+            while (pos < folded.length() && Character.isWhitespace(folded.charAt(pos))) {
+                pos++;
+            }
+            return pos < folded.length() ? folded.charAt(pos) : 0;
+        }
+
+        private InvalidScoreFormulaException error(String message) {
+            return new InvalidScoreFormulaException(message + " at position " + (pos + 1) + " of: " + source);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.orientlamp_back.service.admission;
+
+import com.example.orientlamp_back.exception.InvalidScoreFormulaException;
+import com.example.orientlamp_back.service.catalog.Catalog;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The compiled {@link ScoreFormula} of every filiere of one {@link Catalog}, indexed like its
+ * filieres. Filieres sharing a formula text share one compiled formula, and a rebuild reuses
+ * the ones the previous build compiled, so a catalog refresh only compiles formulas that changed.
+ */
+@Slf4j
+public final class ScoreFormulas {
+
+    private final long version;
+    private final ScoreFormula[] byFiliere;
+    private final Map<String, ScoreFormula> byText;
+
+    private ScoreFormulas(long version, ScoreFormula[] byFiliere, Map<String, ScoreFormula> byText) {
+        this.version = version;
+        this.byFiliere = byFiliere;
+        this.byText = byText;
+    }
+
+    public static ScoreFormulas build(Catalog catalog) {
+        return build(catalog, null);
+    }
+
+    /**
+     * Like {@link #build(Catalog)}, reusing what {@code previous} compiled. A stored formula that
+     * no longer compiles is left out with a warning; writes are validated, so that takes a
+     * change to the language.
+     */
+    public static ScoreFormulas build(Catalog catalog, ScoreFormulas previous) {
+        Map<String, ScoreFormula> known = previous == null ? Map.of() : previous.byText;
+        Map<String, ScoreFormula> compiled = new HashMap<>();
+        ScoreFormula[] byFiliere = new ScoreFormula[catalog.filiereCount()];
+        for (int f = 0; f < byFiliere.length; f++) {
+            Catalog.CritereRow c = catalog.filiere(f).critere();
+            if (c == null || c.formuleScore() == null || c.formuleScore().isBlank()) {
+                continue;
+            }
+            String text = c.formuleScore().trim();
+            ScoreFormula formula = compiled.get(text);
+            if (formula == null) {
+                formula = known.get(text);
+                if (formula == null) {
+                    try {
+                        formula = ScoreFormula.compile(text);
+                    } catch (InvalidScoreFormulaException e) {
+                        log.warn("Score formula of filiere {} ignored: {}", catalog.filiere(f).id(), e.getMessage());
+                        continue;
+                    }
+                }
+                compiled.put(text, formula);
+            }
+            byFiliere[f] = formula;
+        }
+        return new ScoreFormulas(catalog.version(), byFiliere, Map.copyOf(compiled));
+    }
+
+    public long version() {
+        return version;
+    }
+
+    /** The formula of the filiere at {@code filiere}, or null when it has none. */
+    public ScoreFormula formula(int filiere) {
+        return byFiliere[filiere];
+    }
+
+    /** Number of distinct compiled formulas. */
+    public int formulaCount() {
+        return byText.size();
+    }
+
+    /** Score of one student at the filiere at {@code filiere}; NaN without a formula or a variable it reads. */
+    public double score(int filiere, double[] variables) {
+        ScoreFormula formula = byFiliere[filiere];
+        return formula == null ? Double.NaN : formula.evaluate(variables);
+    }
+
+    /** Scores of {@code n} students held column-wise at the filiere at {@code filiere}, see {@link ScoreFormula#evaluateAll}. */
+    public void scoreAll(int filiere, double[][] columns, int n, double[] out) {
+        ScoreFormula formula = byFiliere[filiere];
+        if (formula == null) {
+            Arrays.fill(out, 0, n, Double.NaN);
+        } else {
+            formula.evaluateAll(columns, n, out);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.orientlamp_back.service.admission;
+
+import com.example.orientlamp_back.entity.Bac2Student;
+import com.example.orientlamp_back.entity.BacStudent;
+import com.example.orientlamp_back.entity.PrepaStudent;
+import com.example.orientlamp_back.service.eligibility.CandidateProfile;
+import com.example.orientlamp_back.service.eligibility.Subject;
+import com.example.orientlamp_back.service.eligibility.Transcript;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The names a {@link ScoreFormula} can read and the slot each one has in a student's variable
+ * vector. A slot the student's profile does not record holds NaN, and so does any score that
+ * reads it.
+ * <ul>
+ *   <li>{@code bac}: bac grade; {@code national}, {@code regional}, {@code controle_continu}:
+ *       the parts of it, not yet recorded by the bac profile</li>
+ *   <li>one per {@link Subject#key()} ({@code mathematiques}, {@code physique}, ...): bac
+ *       subject grades, read from the profile's {@code subjectDegree} ("Maths 16, PC 15")</li>
+ *   <li>{@code cnc}: CNC rating; {@code t1} to {@code t6}: prepa trimester notes in the order
+ *       {@code notesTrimestre} lists them; {@code trimestres}: their mean</li>
+ *   <li>{@code s1} to {@code s4}: Bac+2 semester averages; {@code semestres}: their mean</li>
+ * </ul>
+ */
+public final class ScoreVariables {
+
+    public static final int TRIMESTERS = 6;
+
+    private static final String[] FIXED = {
+            "bac", "national", "regional", "controle_continu",
+            "cnc", "t1", "t2", "t3", "t4", "t5", "t6", "trimestres",
+            "s1", "s2", "s3", "s4", "semestres"};
+    private static final Map<String, Integer> SLOTS;
+    private static final String[] NAMES;
+
+    static {
+        Map<String, Integer> slots = new LinkedHashMap<>();
+        for (String name : FIXED) {
+            slots.put(name, slots.size());
+        }
+        for (Subject subject : Subject.values()) {
+            slots.put(subject.key(), slots.size());
+        }
+        SLOTS = Map.copyOf(slots);
+        NAMES = slots.keySet().toArray(new String[0]);
+    }
+
+    public static final int COUNT = NAMES.length;
+
+    static final int BAC = SLOTS.get("bac");
+    static final int CNC = SLOTS.get("cnc");
+    static final int T1 = SLOTS.get("t1");
+    static final int TRIMESTRES = SLOTS.get("trimestres");
+    static final int S1 = SLOTS.get("s1");
+    static final int SEMESTRES = SLOTS.get("semestres");
+
+    private static final Pattern NOTE = Pattern.compile("(\\d{1,2}(?:[.,]\\d{1,2})?)");
+
+    private ScoreVariables() {
+    }
+
+    /** Slot of the variable {@code name}, or -1 when there is none. */
+    public static int slot(String name) {
+        Integer slot = SLOTS.get(name);
+        return slot == null ? -1 : slot;
+    }
+
+    public static String name(int slot) {
+        return NAMES[slot];
+    }
+
+    /** A vector with every variable missing. */
+    public static double[] empty() {
+        double[] variables = new double[COUNT];
+        Arrays.fill(variables, Double.NaN);
+        return variables;
+    }
+
+    public static double[] of(BacStudent student) {
+        double[] variables = empty();
+        variables[BAC] = value(student.getGrade());
+        Subject.parseThresholds(student.getSubjectDegree())
+                .forEach((subject, grade) -> variables[slot(subject.key())] = grade.doubleValue());
+        return variables;
+    }
+
+    public static double[] of(PrepaStudent student) {
+        double[] variables = empty();
+        variables[CNC] = value(student.getCncRating());
+        if (student.getNotesTrimestre() != null) {
+            Matcher note = NOTE.matcher(student.getNotesTrimestre().replaceAll("(?i)t\\d", ""));
+            double sum = 0;
+            int count = 0;
+            while (count < TRIMESTERS && note.find()) {
+                double value = Double.parseDouble(note.group(1).replace(',', '.'));
+                variables[T1 + count++] = value;
+                sum += value;
+            }
+            variables[TRIMESTRES] = count == 0 ? Double.NaN : sum / count;
+        }
+        return variables;
+    }
+
+    public static double[] of(Bac2Student student) {
+        double[] variables = empty();
+        Transcript transcript = Transcript.of(student.getAvgS1(), student.getAvgS2(), student.getAvgS3(),
+                student.getAvgS4(), student.getDiplomaType());
+        for (int s = 0; s < Transcript.SEMESTERS; s++) {
+            variables[S1 + s] = value(transcript.semester(s));
+        }
+        variables[SEMESTRES] = value(transcript.average());
+        return variables;
+    }
+
+    /**
+     * The variables a {@link CandidateProfile} carries: its track's headline grade and, for a
+     * Bac+2 profile, the semesters. Subject grades and trimester notes are not part of a profile
+     * and stay missing; batch jobs that stream profiles score with this.
+     */
+    public static double[] of(CandidateProfile profile) {
+        double[] variables = empty();
+        switch (profile.type()) {
+            case BACHELIER -> variables[BAC] = value(profile.score());
+            case CPGE -> variables[CNC] = value(profile.score());
+            case DIPLOME -> {
+                if (profile.transcript() != null) {
+                    for (int s = 0; s < Transcript.SEMESTERS; s++) {
+                        variables[S1 + s] = value(profile.transcript().semester(s));
+                    }
+                }
+                variables[SEMESTRES] = value(profile.score());
+            }
+        }
+        return variables;
+    }
+
+    private static double value(BigDecimal value) {
+        return value == null ? Double.NaN : value.doubleValue();
+    }
+}
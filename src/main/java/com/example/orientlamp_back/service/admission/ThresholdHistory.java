@@ -0,0 +1,212 @@
+package com.example.orientlamp_back.service.admission;
+
+import com.example.orientlamp_back.repository.CritereHistoryRepository.Entry;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The thresholds each filiere ended every academic year with, read once from
+ * {@code critere_history}, and the next year's thresholds projected from them.
+ *
+ * Entries are grouped by filiere in id order, each group sorted by year, so "as of year Y" is
+ * two binary searches. Projections are computed for every filiere when the history is built:
+ * a least-squares line through the last {@link #TREND_YEARS} years with recent years weighted
+ * more, extended one year. With a single year the projection is that year's value.
+ */
+public final class ThresholdHistory {
+
+    static final int TREND_YEARS = 5;
+    /** Weight of each year relative to the one after it, like {@link CncAdmissionModel#YEAR_DECAY}. */
+    static final double YEAR_DECAY = 0.7;
+    static final BigDecimal MAX_GRADE = BigDecimal.valueOf(20);
+
+    private static final Pattern YEAR = Pattern.compile("(?:19|20)\\d\\d");
+
+    /**
+     * Next year's thresholds of one filiere.
+     *
+     * @param seuilSlope change of {@code seuilCalcul} per year along the fitted line
+     * @param years      years of history the projection was fitted on
+     */
+    public record Projection(Long filiereId, int academicYear, String anneeAcademique, BigDecimal seuilCalcul,
+                             BigDecimal seuilSlope, BigDecimal scorePrepa, Integer classementCnc, int years) {}
+
+    public static final ThresholdHistory EMPTY = build(List.of());
+
+    private final long[] filiereIds;
+    private final int[] offsets;
+    private final int[] years;
+    private final Entry[] entries;
+    private final Projection[] projections;
+
+    private ThresholdHistory(long[] filiereIds, int[] offsets, int[] years, Entry[] entries, Projection[] projections) {
+        this.filiereIds = filiereIds;
+        this.offsets = offsets;
+        this.years = years;
+        this.entries = entries;
+        this.projections = projections;
+    }
+
+    /** @param yearEnds one entry per filiere and year, by filiere id then year */
+    public static ThresholdHistory build(List<Entry> yearEnds) {
+        Entry[] entries = yearEnds.toArray(new Entry[0]);
+        int groups = 0;
+        for (int i = 0; i < entries.length; i++) {
+            if (i == 0 || !entries[i].filiereId().equals(entries[i - 1].filiereId())) {
+                groups++;
+            }
+        }
+        long[] filiereIds = new long[groups];
+        int[] offsets = new int[groups + 1];
+        int[] years = new int[entries.length];
+        int g = 0;
+        for (int i = 0; i < entries.length; i++) {
+            if (i == 0 || !entries[i].filiereId().equals(entries[i - 1].filiereId())) {
+                filiereIds[g] = entries[i].filiereId();
+                offsets[g++] = i;
+            }
+            years[i] = entries[i].academicYear();
+        }
+        offsets[groups] = entries.length;
+
+        Projection[] projections = new Projection[groups];
+        for (g = 0; g < groups; g++) {
+            projections[g] = project(entries, offsets[g], offsets[g + 1]);
+        }
+        return new ThresholdHistory(filiereIds, offsets, years, entries, projections);
+    }
+
+    /**
+     * First calendar year named in an {@code anneeAcademique} ("2024-2025", "2024/25"), or the
+     * year of {@code recordedAt} when the text names none. V17 backfills with the same rule.
+     */
+    public static int startYear(String anneeAcademique, Instant recordedAt) {
+        if (anneeAcademique != null) {
+            Matcher year = YEAR.matcher(anneeAcademique);
+            if (year.find()) {
+                return Integer.parseInt(year.group());
+            }
+        }
+        return recordedAt.atZone(ZoneOffset.UTC).getYear();
+    }
+
+    public int filiereCount() {
+        return filiereIds.length;
+    }
+
+    public int size() {
+        return entries.length;
+    }
+
+    /** What {@code filiereId} had in effect in {@code year}: its latest year up to it, or null. */
+    public Entry asOf(Long filiereId, int year) {
+        int g = Arrays.binarySearch(filiereIds, filiereId);
+        if (g < 0) {
+            return null;
+        }
+        // Last year <= year within the group.
+        int lo = offsets[g];
+        int hi = offsets[g + 1];
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (years[mid] <= year) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo == offsets[g] ? null : entries[lo - 1];
+    }
+
+    /** Every year recorded for {@code filiereId}, oldest first. */
+    public List<Entry> years(Long filiereId) {
+        int g = Arrays.binarySearch(filiereIds, filiereId);
+        return g < 0 ? List.of() : List.of(Arrays.copyOfRange(entries, offsets[g], offsets[g + 1]));
+    }
+
+    /** Next year's projection for {@code filiereId}, or null when it has no history. */
+    public Projection projection(Long filiereId) {
+        int g = Arrays.binarySearch(filiereIds, filiereId);
+        return g < 0 ? null : projections[g];
+    }
+
+    public List<Projection> projections() {
+        return List.of(projections);
+    }
+
+    /** Every recorded year in filiere id then year order. */
+    public List<Entry> entries() {
+        return List.of(entries);
+    }
+
+    private static Projection project(Entry[] entries, int from, int to) {
+        int last = entries[to - 1].academicYear();
+        int next = last + 1;
+        Fit seuil = new Fit();
+        Fit prepa = new Fit();
+        Fit rank = new Fit();
+        int years = 0;
+        for (int i = to - 1; i >= from && last - entries[i].academicYear() < TREND_YEARS; i--) {
+            double x = entries[i].academicYear() - next;
+            double w = Math.pow(YEAR_DECAY, last - entries[i].academicYear());
+            seuil.add(x, entries[i].seuilCalcul(), w);
+            prepa.add(x, entries[i].scorePrepa(), w);
+            rank.add(x, entries[i].classementCnc() == null ? null : BigDecimal.valueOf(entries[i].classementCnc()), w);
+            years++;
+        }
+        Integer projectedRank = rank.empty() ? null : (int) Math.max(1, Math.round(rank.valueAtZero()));
+        return new Projection(entries[from].filiereId(), next, next + "-" + (next + 1),
+                grade(seuil), seuil.empty() ? null : BigDecimal.valueOf(seuil.slope()).setScale(2, RoundingMode.HALF_UP),
+                grade(prepa), projectedRank, years);
+    }
+
+    private static BigDecimal grade(Fit fit) {
+        if (fit.empty()) {
+            return null;
+        }
+        BigDecimal value = BigDecimal.valueOf(fit.valueAtZero()).setScale(2, RoundingMode.HALF_UP);
+        return value.max(BigDecimal.ZERO).min(MAX_GRADE);
+    }
+
+    /** Weighted least-squares line through (x, y) points, x relative to the projected year. */
+    private static final class Fit {
+        double w;
+        double wx;
+        double wy;
+        double wxx;
+        double wxy;
+
+        void add(double x, BigDecimal y, double weight) {
+            if (y == null) {
+                return;
+            }
+            double value = y.doubleValue();
+            w += weight;
+            wx += weight * x;
+            wy += weight * value;
+            wxx += weight * x * x;
+            wxy += weight * x * value;
+        }
+
+        boolean empty() {
+            return w == 0;
+        }
+
+        /** Slope; 0 when all points share one x. */
+        double slope() {
+            double variance = w * wxx - wx * wx;
+            return Math.abs(variance) < 1e-12 ? 0 : (w * wxy - wx * wy) / variance;
+        }
+
+        double valueAtZero() {
+            return (wy - slope() * wx) / w;
+        }
+    }
+}
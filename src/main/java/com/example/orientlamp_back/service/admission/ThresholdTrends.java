@@ -0,0 +1,57 @@
+package com.example.orientlamp_back.service.admission;
+
+import com.example.orientlamp_back.event.CatalogChangedEvent;
+import com.example.orientlamp_back.event.CatalogRefreshedEvent;
+import com.example.orientlamp_back.repository.CritereHistoryRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holds the {@link ThresholdHistory} with every filiere's projection, loaded and projected in
+ * one batch and served from memory. A critere write appends to the history, so the batch is
+ * re-run once the catalog it refreshed is swapped in; other catalog changes leave it alone.
+ */
+@Service
+@Slf4j
+public class ThresholdTrends {
+
+    private final CritereHistoryRepository critereHistoryRepository;
+    private final Timer rebuildTimer;
+    private final AtomicReference<ThresholdHistory> current = new AtomicReference<>();
+
+    public ThresholdTrends(CritereHistoryRepository critereHistoryRepository, MeterRegistry meterRegistry) {
+        this.critereHistoryRepository = critereHistoryRepository;
+        this.rebuildTimer = Timer.builder("thresholds.trends.rebuild")
+                .description("Time to load the threshold history and project every filiere")
+                .register(meterRegistry);
+    }
+
+    public ThresholdHistory current() {
+        ThresholdHistory history = current.get();
+        if (history != null) {
+            return history;
+        }
+        current.compareAndSet(null, load());
+        return current.get();
+    }
+
+    @EventListener
+    public void onCatalogRefreshed(CatalogRefreshedEvent event) {
+        CatalogChangedEvent cause = event.cause();
+        if (cause != null && cause.type() != CatalogChangedEvent.Type.CRITERE && cause.type() != CatalogChangedEvent.Type.ALL) {
+            return;
+        }
+        current.set(load());
+    }
+
+    private ThresholdHistory load() {
+        ThresholdHistory history = rebuildTimer.record(() -> ThresholdHistory.build(critereHistoryRepository.findYearEnds()));
+        log.debug("Threshold history loaded: {} filieres, {} years", history.filiereCount(), history.size());
+        return history;
+    }
+}
@@ -0,0 +1,199 @@
+package com.example.orientlamp_back.service.allocation;
+
+import java.util.Arrays;
+
+/**
+ * Student-proposing deferred acceptance (Gale–Shapley) over primitive arrays. Every student
+ * proposes to their wishes in order; a filiere holds the best {@code capacity} proposals seen so
+ * far in a min-heap keyed on its ranking score and bumps its weakest holder when a better one
+ * arrives. The result is the student-optimal stable allocation.
+ *
+ * Wishes are stored CSR-style: student {@code s} owns {@code [offsets[s], offsets[s + 1])} of
+ * {@code wishes} (filiere indexes, best first) and of {@code scores} (the student's ranking score
+ * at each). Each proposal costs one heap operation, so a run is
+ * {@code O(wishes × log(capacity))} with no allocation once the heaps are sized.
+ *
+ * Ties between equal scores go to the lower student index, so a run is deterministic.
+ */
+public final class DeferredAcceptance {
+
+    /** The allocation: {@code assigned[s]} is the filiere student {@code s} lands in, or -1. */
+    public record Result(int[] assigned, int[] admitted, int[] applicants, double[] cutoff, int proposals) {
+
+        /** Lowest admitted score at {@code filiere}, NaN when it admitted nobody. */
+        public double cutoff(int filiere) {
+            return cutoff[filiere];
+        }
+
+        public int assignedCount() {
+            int count = 0;
+            for (int filiere : assigned) {
+                if (filiere >= 0) {
+                    count++;
+                }
+            }
+            return count;
+        }
+    }
+
+    /**
+     * Collects the CSR wish arrays one student at a time when the population is streamed and
+     * its size is not known up front.
+     */
+    public static final class Wishes {
+
+        private int students;
+        private int[] offsets = new int[1024];
+        private int[] filieres = new int[4096];
+        private double[] scores = new double[4096];
+        private int size;
+
+        /** Adds a wish of the current student, after the ones added before it. */
+        public void add(int filiere, double score) {
+            if (size == filieres.length) {
+                filieres = Arrays.copyOf(filieres, size * 2);
+                scores = Arrays.copyOf(scores, size * 2);
+            }
+            filieres[size] = filiere;
+            scores[size++] = score;
+        }
+
+        /** Closes the current student's wishes; returns their student index. */
+        public int endStudent() {
+            if (students + 2 > offsets.length) {
+                offsets = Arrays.copyOf(offsets, offsets.length * 2);
+            }
+            offsets[++students] = size;
+            return students - 1;
+        }
+
+        public int students() {
+            return students;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public Result run(int[] capacity) {
+            return DeferredAcceptance.run(students, offsets, filieres, scores, capacity);
+        }
+    }
+
+    private DeferredAcceptance() {
+    }
+
+    /**
+     * @param capacity seats per filiere; a negative capacity is unlimited
+     */
+    public static Result run(int students, int[] offsets, int[] wishes, double[] scores, int[] capacity) {
+        int filieres = capacity.length;
+
+        // Heaps are sized to min(seats, applicants), so a big capacity no one applies to costs nothing.
+        int[] applicants = new int[filieres];
+        for (int w = 0; w < offsets[students]; w++) {
+            applicants[wishes[w]]++;
+        }
+        int[][] heapStudent = new int[filieres][];
+        double[][] heapScore = new double[filieres][];
+        int[] size = new int[filieres];
+        int[] limit = new int[filieres];
+        for (int f = 0; f < filieres; f++) {
+            limit[f] = capacity[f] < 0 ? applicants[f] : Math.min(capacity[f], applicants[f]);
+            heapStudent[f] = new int[limit[f]];
+            heapScore[f] = new double[limit[f]];
+        }
+
+        int[] next = new int[students];
+        int[] free = new int[students];
+        int freeCount = 0;
+        for (int s = students - 1; s >= 0; s--) {
+            next[s] = offsets[s];
+            free[freeCount++] = s;
+        }
+
+        int proposals = 0;
+        while (freeCount > 0) {
+            int s = free[--freeCount];
+            while (next[s] < offsets[s + 1]) {
+                int w = next[s]++;
+                int f = wishes[w];
+                double score = scores[w];
+                proposals++;
+                if (limit[f] == 0) {
+                    continue;
+                }
+                if (size[f] < limit[f]) {
+                    push(heapStudent[f], heapScore[f], size[f]++, s, score);
+                    s = -1;
+                    break;
+                }
+                if (better(score, s, heapScore[f][0], heapStudent[f][0])) {
+                    int bumped = heapStudent[f][0];
+                    heapStudent[f][0] = s;
+                    heapScore[f][0] = score;
+                    siftDown(heapStudent[f], heapScore[f], size[f], 0);
+                    s = bumped;
+                }
+            }
+            // A bumped student goes on with their next wish; one out of wishes stays unassigned.
+            if (s >= 0 && next[s] < offsets[s + 1]) {
+                free[freeCount++] = s;
+            }
+        }
+
+        int[] assigned = new int[students];
+        Arrays.fill(assigned, -1);
+        double[] cutoff = new double[filieres];
+        for (int f = 0; f < filieres; f++) {
+            cutoff[f] = size[f] == 0 ? Double.NaN : heapScore[f][0];
+            for (int i = 0; i < size[f]; i++) {
+                assigned[heapStudent[f][i]] = f;
+            }
+        }
+        return new Result(assigned, size, applicants, cutoff, proposals);
+    }
+
+    /** Whether ({@code score}, {@code student}) ranks above ({@code otherScore}, {@code other}). */
+    private static boolean better(double score, int student, double otherScore, int other) {
+        return score > otherScore || (score == otherScore && student < other);
+    }
+
+    private static void push(int[] students, double[] scores, int at, int student, double score) {
+        int i = at;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!better(scores[parent], students[parent], score, student)) {
+                break;
+            }
+            students[i] = students[parent];
+            scores[i] = scores[parent];
+            i = parent;
+        }
+        students[i] = student;
+        scores[i] = score;
+    }
+
+    /** Restores the min-heap (weakest at the root) below {@code i}. */
+    private static void siftDown(int[] students, double[] scores, int size, int i) {
+        int student = students[i];
+        double score = scores[i];
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && better(scores[child], students[child], scores[child + 1], students[child + 1])) {
+                child++;
+            }
+            if (!better(score, student, scores[child], students[child])) {
+                break;
+            }
+            students[i] = students[child];
+            scores[i] = scores[child];
+            i = child;
+        }
+        students[i] = student;
+        scores[i] = score;
+    }
+}
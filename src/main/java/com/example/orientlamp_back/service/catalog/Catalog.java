@@ -0,0 +1,560 @@
+package com.example.orientlamp_back.service.catalog;
+
+import com.example.orientlamp_back.dto.CatalogEmbed;
+import com.example.orientlamp_back.dto.CatalogSort;
+import com.example.orientlamp_back.dto.CritereResponseDTO;
+import com.example.orientlamp_back.dto.FiliereResponseDTO;
+import com.example.orientlamp_back.dto.FiliereSummaryDTO;
+import com.example.orientlamp_back.dto.UniversityResponseDTO;
+import com.example.orientlamp_back.dto.UniversitySummaryDTO;
+import com.example.orientlamp_back.entity.Critere;
+import com.example.orientlamp_back.entity.Filiere;
+import com.example.orientlamp_back.entity.University;
+import com.example.orientlamp_back.exception.InvalidPageRequestException;
+import com.example.orientlamp_back.service.CatalogCursor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable, fully materialised copy of the University → Filiere → Critere graph.
+ *
+ * Rows live in id-ordered arrays and refer to each other by array index. Low-cardinality
+ * strings (location, type, language, admission type, …) are dictionary-encoded: rows hold an
+ * int code and {@link #string(int)} resolves it, so equal values share one instance and
+ * filters compare ints. Never mutated after construction — {@link CatalogSnapshot} swaps in
+ * a new instance instead.
+ */
+public final class Catalog {
+
+    /** Dictionary code for a {@code null} value. */
+    public static final int NONE = -1;
+
+    private final long version;
+    private final Instant builtAt;
+    private final String[] dictionary;
+    private final Map<String, Integer> codes;
+
+    private final UniversityRow[] universities;
+    private final FiliereRow[] filieres;
+    private final int critereCount;
+
+    private final Map<Long, Integer> universityIndexById;
+    private final Map<String, Integer> universityIndexBySlug;
+    private final Map<Long, Integer> filiereIndexById;
+
+    private final int[] universitiesByName;
+    private final int[] filieresByName;
+    private final int[] filieresByTuition;
+    private final int[] filieresByDeadline;
+
+    private final UniversityAggregate[] aggregates;
+
+    public record UniversityRow(
+            Long id, String name, String slug,
+            int location, int type, int accreditationStatus,
+            String description, String website, String contactEmail, String phone,
+            String programs, String imageUrl, String headerImageUrl, String earthViewUrl,
+            String galleryImages, Double latitude, Double longitude, Instant createdAt, Instant updatedAt,
+            int[] filieres) {}
+
+    public record FiliereRow(
+            Long id, String name, int university,
+            int critereAdmission, Integer durationYears, BigDecimal tuitionFee,
+            int admissionType, int language, Integer seatsAvailabial,
+            LocalDate applicationDeadline, Instant createdAt, Instant updatedAt,
+            CritereRow critere) {}
+
+    public record CritereRow(
+            int anneeAcademique, int typeCandidat, int serieBacCible,
+            BigDecimal seuilCalcul, BigDecimal noteConcoursEcrit, Boolean aEntretien,
+            Integer ageMax, String seuilMatieresSpecifiques, BigDecimal scorePrepa,
+            Integer classementCnc, int diplomesRequis, String notesSemestres, String formuleScore,
+            Instant createdAt, Instant updatedAt) {}
+
+    /** Per-university figures shown on list cards, computed once per build. */
+    private record UniversityAggregate(BigDecimal minTuitionFee, BigDecimal maxTuitionFee,
+                                       List<String> languages, LocalDate[] deadlines) {}
+
+    private Catalog(long version, Instant builtAt, Dictionary dictionary,
+                    UniversityRow[] universities, FiliereRow[] filieres) {
+        this.version = version;
+        this.builtAt = builtAt;
+        this.dictionary = dictionary.values.toArray(new String[0]);
+        this.codes = Map.copyOf(dictionary.codes);
+        this.universities = universities;
+        this.filieres = filieres;
+
+        Map<Long, Integer> byId = new HashMap<>(universities.length * 2);
+        Map<String, Integer> bySlug = new HashMap<>(universities.length * 2);
+        for (int i = 0; i < universities.length; i++) {
+            byId.put(universities[i].id(), i);
+            if (universities[i].slug() != null) {
+                bySlug.put(universities[i].slug(), i);
+            }
+        }
+        this.universityIndexById = Map.copyOf(byId);
+        this.universityIndexBySlug = Map.copyOf(bySlug);
+
+        Map<Long, Integer> filiereById = new HashMap<>(filieres.length * 2);
+        int criteres = 0;
+        for (int i = 0; i < filieres.length; i++) {
+            filiereById.put(filieres[i].id(), i);
+            if (filieres[i].critere() != null) {
+                criteres++;
+            }
+        }
+        this.filiereIndexById = Map.copyOf(filiereById);
+        this.critereCount = criteres;
+
+        this.aggregates = new UniversityAggregate[universities.length];
+        for (int i = 0; i < universities.length; i++) {
+            aggregates[i] = aggregate(universities[i]);
+        }
+
+        this.universitiesByName = sortedPositions(universities.length, universityOrder(CatalogSort.NAME));
+        this.filieresByName = sortedPositions(filieres.length, filiereOrder(CatalogSort.NAME));
+        this.filieresByTuition = sortedPositions(filieres.length, filiereOrder(CatalogSort.TUITION));
+        this.filieresByDeadline = sortedPositions(filieres.length, filiereOrder(CatalogSort.DEADLINE));
+    }
+
+    /** Builds a catalog from universities whose filieres and critere are already initialised. */
+    public static Catalog build(long version, List<University> source) {
+        Dictionary dictionary = new Dictionary();
+
+        List<University> sortedUniversities = new ArrayList<>(source);
+        sortedUniversities.sort(Comparator.comparing(University::getId));
+
+        List<Filiere> sortedFilieres = new ArrayList<>();
+        for (University university : sortedUniversities) {
+            sortedFilieres.addAll(university.getFilieres());
+        }
+        sortedFilieres.sort(Comparator.comparing(Filiere::getId));
+
+        Map<Long, Integer> universityIndex = new HashMap<>();
+        for (int i = 0; i < sortedUniversities.size(); i++) {
+            universityIndex.put(sortedUniversities.get(i).getId(), i);
+        }
+
+        FiliereRow[] filiereRows = new FiliereRow[sortedFilieres.size()];
+        Map<Long, List<Integer>> filieresPerUniversity = new HashMap<>();
+        for (int i = 0; i < filiereRows.length; i++) {
+            Filiere f = sortedFilieres.get(i);
+            Long universityId = f.getUniversity().getId();
+            filieresPerUniversity.computeIfAbsent(universityId, k -> new ArrayList<>()).add(i);
+            filiereRows[i] = new FiliereRow(
+                    f.getId(), f.getName(), universityIndex.get(universityId),
+                    dictionary.encode(f.getCritereAdmission()), f.getDurationYears(), f.getTuitionFee(),
+                    dictionary.encode(f.getAdmissionType()), dictionary.encode(f.getLanguage()),
+                    f.getSeatsAvailabial(), f.getApplicationDeadline(), f.getCreatedAt(), f.getUpdatedAt(),
+                    toRow(f.getCritere(), dictionary));
+        }
+
+        UniversityRow[] universityRows = new UniversityRow[sortedUniversities.size()];
+        for (int i = 0; i < universityRows.length; i++) {
+            University u = sortedUniversities.get(i);
+            int[] own = filieresPerUniversity.getOrDefault(u.getId(), List.of()).stream()
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+            universityRows[i] = new UniversityRow(
+                    u.getId(), u.getName(), u.getSlug(),
+                    dictionary.encode(u.getLocation()), dictionary.encode(u.getType()),
+                    dictionary.encode(u.getAccreditationStatus()),
+                    u.getDescription(), u.getWebsite(), u.getContactEmail(), u.getPhone(),
+                    u.getPrograms(), u.getImageUrl(), u.getHeaderImageUrl(), u.getEarthViewUrl(),
+                    u.getGalleryImages(), u.getLatitude(), u.getLongitude(), u.getCreatedAt(), u.getUpdatedAt(), own);
+        }
+
+        return new Catalog(version, Instant.now(), dictionary, universityRows, filiereRows);
+    }
+
+    private static CritereRow toRow(Critere c, Dictionary dictionary) {
+        if (c == null) {
+            return null;
+        }
+        return new CritereRow(
+                dictionary.encode(c.getAnneeAcademique()), dictionary.encode(c.getTypeCandidat()),
+                dictionary.encode(c.getSerieBacCible()), c.getSeuilCalcul(), c.getNoteConcoursEcrit(),
+                c.getAEntretien(), c.getAgeMax(), c.getSeuilMatieresSpecifiques(), c.getScorePrepa(),
+                c.getClassementCnc(), dictionary.encode(c.getDiplomesRequis()), c.getNotesSemestres(),
+                c.getFormuleScore(), c.getCreatedAt(), c.getUpdatedAt());
+    }
+
+    // ------------------------------------------------------------------ //
+    //  Lookups                                                             //
+    // ------------------------------------------------------------------ //
+
+    public long version() {
+        return version;
+    }
+
+    public Instant builtAt() {
+        return builtAt;
+    }
+
+    public int universityCount() {
+        return universities.length;
+    }
+
+    public int filiereCount() {
+        return filieres.length;
+    }
+
+    public int critereCount() {
+        return critereCount;
+    }
+
+    public int dictionarySize() {
+        return dictionary.length;
+    }
+
+    public UniversityRow university(int index) {
+        return universities[index];
+    }
+
+    public FiliereRow filiere(int index) {
+        return filieres[index];
+    }
+
+    /** Index of the university with this id, or -1. */
+    public int universityIndex(Long id) {
+        return universityIndexById.getOrDefault(id, -1);
+    }
+
+    /** Index of the university with this slug, or -1. */
+    public int universityIndexBySlug(String slug) {
+        return slug == null ? -1 : universityIndexBySlug.getOrDefault(slug, -1);
+    }
+
+    /** Index of the filiere with this id, or -1. */
+    public int filiereIndex(Long id) {
+        return filiereIndexById.getOrDefault(id, -1);
+    }
+
+    public String string(int code) {
+        return code == NONE ? null : dictionary[code];
+    }
+
+    /**
+     * Dictionary code for {@code value}. A value that never occurs in the catalog gets a code
+     * that no row carries, so filtering on it simply matches nothing.
+     */
+    public int code(String value) {
+        if (value == null) {
+            return NONE;
+        }
+        return codes.getOrDefault(value, Integer.MIN_VALUE);
+    }
+
+    // ------------------------------------------------------------------ //
+    //  Keyset pages over presorted positions                               //
+    // ------------------------------------------------------------------ //
+
+    /** Row index at {@code position} in the given order. */
+    public int universityAt(CatalogSort sort, int position) {
+        return switch (sort) {
+            case NAME -> universitiesByName[position];
+            case ID -> position;
+            default -> throw new InvalidPageRequestException("Universities cannot be sorted by " + sort);
+        };
+    }
+
+    public int filiereAt(CatalogSort sort, int position) {
+        return switch (sort) {
+            case NAME -> filieresByName[position];
+            case ID -> position;
+            case TUITION -> filieresByTuition[position];
+            case DEADLINE -> filieresByDeadline[position];
+        };
+    }
+
+    /** First position strictly after the cursor in the given order (binary search, no scan). */
+    public int seekUniversities(CatalogSort sort, CatalogCursor cursor) {
+        if (sort != CatalogSort.NAME && sort != CatalogSort.ID) {
+            throw new InvalidPageRequestException("Universities cannot be sorted by " + sort);
+        }
+        if (cursor == null) {
+            return 0;
+        }
+        Comparable<?> key = sort == CatalogSort.NAME ? cursor.stringKey() : null;
+        return seek(universities.length, position -> {
+            UniversityRow row = universities[universityAt(sort, position)];
+            return compareKeys(sort == CatalogSort.NAME ? row.name() : null, row.id(), key, cursor.getId());
+        });
+    }
+
+    public int seekFilieres(CatalogSort sort, CatalogCursor cursor) {
+        if (cursor == null) {
+            return 0;
+        }
+        Comparable<?> key = switch (sort) {
+            case NAME -> cursor.stringKey();
+            case ID -> null;
+            case TUITION -> cursor.decimalKey();
+            case DEADLINE -> cursor.dateKey();
+        };
+        return seek(filieres.length, position -> {
+            FiliereRow row = filieres[filiereAt(sort, position)];
+            return compareKeys(filiereKey(row, sort), row.id(), key, cursor.getId());
+        });
+    }
+
+    /** Sort key of a filiere for the given order, as written into cursors. */
+    public static Comparable<?> filiereKey(FiliereRow row, CatalogSort sort) {
+        return switch (sort) {
+            case NAME -> row.name();
+            case ID -> null;
+            case TUITION -> row.tuitionFee();
+            case DEADLINE -> row.applicationDeadline();
+        };
+    }
+
+    private interface PositionComparator {
+        int compareToCursor(int position);
+    }
+
+    private static int seek(int length, PositionComparator comparator) {
+        int low = 0;
+        int high = length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (comparator.compareToCursor(mid) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /** Orders by key with nulls last, then by id. */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static int compareKeys(Comparable key, Long id, Comparable otherKey, Long otherId) {
+        if (key != otherKey) {
+            if (key == null) {
+                return 1;
+            }
+            if (otherKey == null) {
+                return -1;
+            }
+            int byKey = key.compareTo(otherKey);
+            if (byKey != 0) {
+                return byKey;
+            }
+        }
+        return id.compareTo(otherId);
+    }
+
+    private Comparator<Integer> universityOrder(CatalogSort sort) {
+        return (a, b) -> compareKeys(
+                sort == CatalogSort.NAME ? universities[a].name() : null, universities[a].id(),
+                sort == CatalogSort.NAME ? universities[b].name() : null, universities[b].id());
+    }
+
+    private Comparator<Integer> filiereOrder(CatalogSort sort) {
+        return (a, b) -> compareKeys(
+                filiereKey(filieres[a], sort), filieres[a].id(),
+                filiereKey(filieres[b], sort), filieres[b].id());
+    }
+
+    private static int[] sortedPositions(int length, Comparator<Integer> order) {
+        Integer[] positions = new Integer[length];
+        Arrays.setAll(positions, i -> i);
+        Arrays.sort(positions, order);
+        return Arrays.stream(positions).mapToInt(Integer::intValue).toArray();
+    }
+
+    private UniversityAggregate aggregate(UniversityRow university) {
+        BigDecimal min = null;
+        BigDecimal max = null;
+        List<String> languages = new ArrayList<>();
+        List<LocalDate> deadlines = new ArrayList<>();
+        for (int f : university.filieres()) {
+            FiliereRow filiere = filieres[f];
+            BigDecimal fee = filiere.tuitionFee();
+            if (fee != null) {
+                min = min == null || fee.compareTo(min) < 0 ? fee : min;
+                max = max == null || fee.compareTo(max) > 0 ? fee : max;
+            }
+            String language = string(filiere.language());
+            if (language != null && !languages.contains(language)) {
+                languages.add(language);
+            }
+            if (filiere.applicationDeadline() != null) {
+                deadlines.add(filiere.applicationDeadline());
+            }
+        }
+        languages.sort(null);
+        LocalDate[] sortedDeadlines = deadlines.toArray(new LocalDate[0]);
+        Arrays.sort(sortedDeadlines);
+        return new UniversityAggregate(min, max, List.copyOf(languages), sortedDeadlines);
+    }
+
+    // ------------------------------------------------------------------ //
+    //  DTO materialisation                                                 //
+    // ------------------------------------------------------------------ //
+
+    public UniversityResponseDTO toUniversityDTO(int index) {
+        return toUniversityDTO(index, EnumSet.allOf(CatalogEmbed.class));
+    }
+
+    /** Detail view; associations not in {@code embed} are left {@code null} and never materialised. */
+    public UniversityResponseDTO toUniversityDTO(int index, Set<CatalogEmbed> embed) {
+        UniversityRow u = universities[index];
+        List<FiliereResponseDTO> filiereDTOs = null;
+        if (embed.contains(CatalogEmbed.FILIERES) || embed.contains(CatalogEmbed.CRITERE)) {
+            boolean withCritere = embed.contains(CatalogEmbed.CRITERE);
+            filiereDTOs = new ArrayList<>(u.filieres().length);
+            for (int f : u.filieres()) {
+                filiereDTOs.add(toFiliereDTO(f, withCritere));
+            }
+        }
+
+        return UniversityResponseDTO.builder()
+                .id(u.id())
+                .name(u.name())
+                .location(string(u.location()))
+                .type(string(u.type()))
+                .description(u.description())
+                .website(u.website())
+                .contactEmail(u.contactEmail())
+                .phone(u.phone())
+                .accreditationStatus(string(u.accreditationStatus()))
+                .programs(u.programs())
+                .imageUrl(u.imageUrl())
+                .slug(u.slug())
+                .headerImageUrl(u.headerImageUrl())
+                .earthViewUrl(u.earthViewUrl())
+                .galleryImages(u.galleryImages())
+                .latitude(u.latitude())
+                .longitude(u.longitude())
+                .createdAt(u.createdAt())
+                .updatedAt(u.updatedAt())
+                .filieres(filiereDTOs)
+                .build();
+    }
+
+    /** Card view; {@code today} picks the next deadline that has not passed yet. */
+    public UniversitySummaryDTO toUniversitySummaryDTO(int index, LocalDate today) {
+        UniversityRow u = universities[index];
+        UniversityAggregate aggregate = aggregates[index];
+
+        LocalDate[] deadlines = aggregate.deadlines();
+        int next = Arrays.binarySearch(deadlines, today);
+        if (next < 0) {
+            next = -next - 1;
+        }
+
+        return UniversitySummaryDTO.builder()
+                .id(u.id())
+                .name(u.name())
+                .slug(u.slug())
+                .location(string(u.location()))
+                .type(string(u.type()))
+                .accreditationStatus(string(u.accreditationStatus()))
+                .website(u.website())
+                .imageUrl(u.imageUrl())
+                .filiereCount(u.filieres().length)
+                .minTuitionFee(aggregate.minTuitionFee())
+                .maxTuitionFee(aggregate.maxTuitionFee())
+                .languages(aggregate.languages())
+                .nextApplicationDeadline(next < deadlines.length ? deadlines[next] : null)
+                .build();
+    }
+
+    public FiliereSummaryDTO toFiliereSummaryDTO(int index) {
+        FiliereRow f = filieres[index];
+        UniversityRow u = universities[f.university()];
+
+        return FiliereSummaryDTO.builder()
+                .id(f.id())
+                .name(f.name())
+                .universityId(u.id())
+                .universityName(u.name())
+                .durationYears(f.durationYears())
+                .tuitionFee(f.tuitionFee())
+                .admissionType(string(f.admissionType()))
+                .language(string(f.language()))
+                .seatsAvailabial(f.seatsAvailabial())
+                .applicationDeadline(f.applicationDeadline())
+                .build();
+    }
+
+    public FiliereResponseDTO toFiliereDTO(int index) {
+        return toFiliereDTO(index, true);
+    }
+
+    public FiliereResponseDTO toFiliereDTO(int index, boolean withCritere) {
+        FiliereRow f = filieres[index];
+        UniversityRow u = universities[f.university()];
+
+        return FiliereResponseDTO.builder()
+                .id(f.id())
+                .name(f.name())
+                .universityId(u.id())
+                .universityName(u.name())
+                .critereAdmission(string(f.critereAdmission()))
+                .durationYears(f.durationYears())
+                .tuitionFee(f.tuitionFee())
+                .admissionType(string(f.admissionType()))
+                .language(string(f.language()))
+                .seatsAvailabial(f.seatsAvailabial())
+                .applicationDeadline(f.applicationDeadline())
+                .createdAt(f.createdAt())
+                .updatedAt(f.updatedAt())
+                .critere(withCritere && f.critere() != null ? toCritereDTO(index) : null)
+                .build();
+    }
+
+    /** Critere of the filiere at {@code filiereIndex}; the filiere must have one. */
+    public CritereResponseDTO toCritereDTO(int filiereIndex) {
+        FiliereRow f = filieres[filiereIndex];
+        CritereRow c = f.critere();
+
+        return CritereResponseDTO.builder()
+                .filiereId(f.id())
+                .filiereName(f.name())
+                .anneeAcademique(string(c.anneeAcademique()))
+                .typeCandidat(string(c.typeCandidat()))
+                .serieBacCible(string(c.serieBacCible()))
+                .seuilCalcul(c.seuilCalcul())
+                .noteConcoursEcrit(c.noteConcoursEcrit())
+                .aEntretien(c.aEntretien())
+                .ageMax(c.ageMax())
+                .seuilMatieresSpecifiques(c.seuilMatieresSpecifiques())
+                .scorePrepa(c.scorePrepa())
+                .classementCnc(c.classementCnc())
+                .diplomesRequis(string(c.diplomesRequis()))
+                .notesSemestres(c.notesSemestres())
+                .formuleScore(c.formuleScore())
+                .createdAt(c.createdAt())
+                .updatedAt(c.updatedAt())
+                .build();
+    }
+
+    /** Assigns dense int codes to distinct strings in first-seen order. */
+    private static final class Dictionary {
+
+        private final Map<String, Integer> codes = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+
+        int encode(String value) {
+            if (value == null) {
+                return NONE;
+            }
+            return codes.computeIfAbsent(value, v -> {
+                values.add(v);
+                return values.size() - 1;
+            });
+        }
+    }
+}
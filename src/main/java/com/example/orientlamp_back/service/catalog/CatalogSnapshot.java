@@ -0,0 +1,258 @@
+package com.example.orientlamp_back.service.catalog;
+
+import com.example.orientlamp_back.event.CatalogChangedEvent;
+import com.example.orientlamp_back.event.CatalogRefreshedEvent;
+import com.example.orientlamp_back.repository.CatalogVersionRepository;
+import com.example.orientlamp_back.repository.UniversityRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Holds the current {@link Catalog}. Readers call {@link #current()} and never touch the
+ * database; writers publish a {@link CatalogChangedEvent}, which bumps {@code catalog_version}
+ * inside their transaction. Once it has committed, a background worker rebuilds the catalog
+ * with a single fetch-joined query and swaps it in atomically, then publishes the
+ * {@link CatalogRefreshedEvent} the derived indexes rebuild from, all off the request thread.
+ * Writes committing together are folded into one rebuild. Requests already holding the
+ * previous instance finish against it unchanged.
+ *
+ * Other instances see the write through {@code catalog_version}: the worker polls it every
+ * {@code app.catalog.poll-interval} and rebuilds when it has moved past the version served.
+ * Each catalog is labelled with the version read in the same transaction as its rows, so all
+ * instances agree on what a version contains.
+ */
+@Service
+@Slf4j
+public class CatalogSnapshot {
+
+    private final UniversityRepository universityRepository;
+    private final CatalogVersionRepository catalogVersionRepository;
+    private final TransactionTemplate readTransaction;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Duration pollInterval;
+    private final Timer buildTimer;
+    private final Counter localRefreshes;
+    private final Counter remoteRefreshes;
+
+    private final AtomicReference<Catalog> current = new AtomicReference<>();
+    /** Writes committed on this instance that the worker has not rebuilt for yet. */
+    private final Queue<CatalogChangedEvent> pending = new ConcurrentLinkedQueue<>();
+    /** Writes on this instance between their version bump and their queueing. */
+    private final AtomicInteger committing = new AtomicInteger();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private volatile boolean rebuilding;
+    private final ScheduledExecutorService worker = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "catalog-snapshot");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public CatalogSnapshot(UniversityRepository universityRepository,
+                           CatalogVersionRepository catalogVersionRepository,
+                           PlatformTransactionManager transactionManager,
+                           ApplicationEventPublisher eventPublisher,
+                           MeterRegistry meterRegistry,
+                           @Value("${app.catalog.poll-interval:2s}") Duration pollInterval) {
+        this.universityRepository = universityRepository;
+        this.catalogVersionRepository = catalogVersionRepository;
+        this.eventPublisher = eventPublisher;
+        this.pollInterval = pollInterval;
+
+        // The version and the rows it labels must come from one database snapshot
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.readTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+
+        this.buildTimer = Timer.builder("catalog.snapshot.build")
+                .description("Time to load and index the catalog")
+                .register(meterRegistry);
+        this.localRefreshes = refreshCounter(meterRegistry, "local");
+        this.remoteRefreshes = refreshCounter(meterRegistry, "remote");
+        Gauge.builder("catalog.snapshot.version", this, s -> s.peek(Catalog::version))
+                .description("Version of the catalog currently served")
+                .register(meterRegistry);
+        registerSize(meterRegistry, "university", Catalog::universityCount);
+        registerSize(meterRegistry, "filiere", Catalog::filiereCount);
+        registerSize(meterRegistry, "critere", Catalog::critereCount);
+        registerSize(meterRegistry, "dictionary", Catalog::dictionarySize);
+    }
+
+    /** The catalog to serve reads from; built on first use, for no write in particular. */
+    public Catalog current() {
+        Catalog catalog = current.get();
+        return catalog != null ? catalog : refresh(List.of(), false);
+    }
+
+    /**
+     * Whether a write committed on this instance is not yet in {@link #current()}. Readers that
+     * must not miss it (the eligibility matrix) treat their derived data as pending meanwhile.
+     * The queue is read first: the worker raises {@code rebuilding} before it empties the queue
+     * and lowers it only once the listeners have run, so no write can slip between the two reads.
+     */
+    public boolean isRefreshPending() {
+        return !pending.isEmpty() || rebuilding;
+    }
+
+    /**
+     * Bumps {@code catalog_version} in the writer's transaction and queues the rebuild for once
+     * it has committed. Published outside a transaction, the write is already committed.
+     * Runs before the other listeners, so what they record is never visible without the bump.
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        catalogVersionRepository.increment();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            enqueue(event);
+            return;
+        }
+        committing.incrementAndGet();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    enqueue(event);
+                }
+                committing.decrementAndGet();
+            }
+        });
+    }
+
+    @EventListener
+    public void onApplicationReady(ApplicationReadyEvent event) {
+        if (!pollInterval.isZero() && !pollInterval.isNegative()) {
+            worker.scheduleWithFixedDelay(this::poll, pollInterval.toMillis(), pollInterval.toMillis(),
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void enqueue(CatalogChangedEvent event) {
+        log.debug("Catalog changed ({} {}), rebuilding snapshot", event.type(), event.id());
+        pending.add(event);
+        if (scheduled.compareAndSet(false, true)) {
+            worker.execute(this::drain);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        worker.shutdownNow();
+    }
+
+    /**
+     * Rebuilds and swaps the snapshot, then publishes {@link CatalogRefreshedEvent} on the
+     * calling thread. Serialised so two rebuilds cannot swap in an older build after a newer one.
+     */
+    public Catalog refresh(CatalogChangedEvent cause) {
+        return refresh(List.of(cause), false);
+    }
+
+    private synchronized Catalog refresh(List<CatalogChangedEvent> causes, boolean remote) {
+        Catalog rebuilt = buildTimer.record(() -> readTransaction.execute(status -> {
+            long version = catalogVersionRepository.current();
+            return Catalog.build(version, universityRepository.findAllWithFilieres());
+        }));
+        // A local write may have committed while this was building and be in it: then this
+        // rebuild is that write's as well, and the instances' shared state must follow it.
+        boolean elsewhere = remote && committing.get() == 0 && pending.isEmpty();
+        current.set(rebuilt);
+        (elsewhere ? remoteRefreshes : localRefreshes).increment();
+
+        log.info("Catalog snapshot v{} built{}: {} universities, {} filieres, {} distinct strings",
+                rebuilt.version(), elsewhere ? " after a write on another instance" : "",
+                rebuilt.universityCount(), rebuilt.filiereCount(), rebuilt.dictionarySize());
+        eventPublisher.publishEvent(new CatalogRefreshedEvent(rebuilt, causes, elsewhere));
+        return rebuilt;
+    }
+
+    /**
+     * Worker thread only. All the writes waiting are rebuilt for once and handed on together, so
+     * listeners still see each of them. A failed rebuild is retried by the poll.
+     */
+    private void drain() {
+        rebuilding = true;
+        scheduled.set(false);
+        List<CatalogChangedEvent> causes = new ArrayList<>();
+        try {
+            for (CatalogChangedEvent cause = pending.poll(); cause != null; cause = pending.poll()) {
+                causes.add(cause);
+            }
+            if (!causes.isEmpty()) {
+                refresh(causes, false);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Catalog snapshot rebuild failed: {}", e.getMessage());
+            pending.addAll(causes);
+        } finally {
+            rebuilding = false;
+        }
+    }
+
+    /** Worker thread only. Picks up writes made on other instances, and retries failed rebuilds. */
+    private void poll() {
+        if (!pending.isEmpty()) {
+            drain();
+            return;
+        }
+        Catalog catalog = current.get();
+        try {
+            if (catalog != null && catalogVersionRepository.current() > catalog.version()) {
+                refresh(List.of(), true);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Catalog version poll failed: {}", e.getMessage());
+        }
+    }
+
+    private double peek(ToDoubleFunction<Catalog> metric) {
+        Catalog catalog = current.get();
+        return catalog == null ? 0 : metric.applyAsDouble(catalog);
+    }
+
+    private void registerSize(MeterRegistry meterRegistry, String type,
+                              ToDoubleFunction<Catalog> metric) {
+        Gauge.builder("catalog.snapshot.entries", this, s -> s.peek(metric))
+                .description("Rows held in the catalog snapshot")
+                .tag("type", type)
+                .register(meterRegistry);
+    }
+
+    private static Counter refreshCounter(MeterRegistry meterRegistry, String source) {
+        return Counter.builder("catalog.snapshot.refreshes")
+                .description("Catalog rebuilds, by whether the write was made on this instance")
+                .tag("source", source)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,349 @@
+package com.example.orientlamp_back.service.catalog;
+
+import com.example.orientlamp_back.event.CatalogChangedEvent;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Per-value bitsets over the filieres of one {@link Catalog}: bit {@code i} of a value's set
+ * is the filiere at catalog index {@code i}. A filter is an OR of the selected values inside a
+ * facet and an AND across facets; the count for every facet value is taken against the other
+ * facets' filters only, so selecting "CNC" does not zero the other admission types.
+ *
+ * Instances are immutable and share unchanged bitsets with their predecessor: a write to one
+ * filiere copies only the sets that filiere leaves or joins (see {@link #update}).
+ */
+public final class FiliereFacetIndex {
+
+    public enum Facet {
+        ADMISSION_TYPE("admissionType"),
+        LANGUAGE("language"),
+        LOCATION("location"),
+        UNIVERSITY_TYPE("universityType"),
+        DURATION_YEARS("durationYears"),
+        TUITION_BAND("tuitionBand"),
+        HAS_SEATS("hasSeats"),
+        /** Application deadline not passed yet; depends on the day, so kept out of the stored facets. */
+        OPEN("open");
+
+        private final String property;
+
+        Facet(String property) {
+            this.property = property;
+        }
+
+        public String getProperty() {
+            return property;
+        }
+    }
+
+    /** Yearly tuition in MAD; upper bounds are exclusive. */
+    public enum TuitionBand {
+        FREE(BigDecimal.ZERO, BigDecimal.ONE),
+        UNDER_20K(BigDecimal.ONE, BigDecimal.valueOf(20_000)),
+        FROM_20K_TO_50K(BigDecimal.valueOf(20_000), BigDecimal.valueOf(50_000)),
+        FROM_50K_TO_100K(BigDecimal.valueOf(50_000), BigDecimal.valueOf(100_000)),
+        OVER_100K(BigDecimal.valueOf(100_000), null);
+
+        private final BigDecimal from;
+        private final BigDecimal to;
+
+        TuitionBand(BigDecimal from, BigDecimal to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        static TuitionBand of(BigDecimal fee) {
+            if (fee == null) {
+                return null;
+            }
+            for (TuitionBand band : values()) {
+                if (fee.compareTo(band.from) >= 0 && (band.to == null || fee.compareTo(band.to) < 0)) {
+                    return band;
+                }
+            }
+            return FREE;
+        }
+    }
+
+    private static final Facet[] STORED = Arrays.copyOf(Facet.values(), Facet.values().length - 1);
+
+    /** Values of one stored facet, in first-seen order, and which filieres carry each. */
+    private record Column(String[] values, BitSet[] bits, int[] ordinals) {
+
+        int indexOf(String value) {
+            for (int v = 0; v < values.length; v++) {
+                if (values[v].equals(value)) {
+                    return v;
+                }
+            }
+            return -1;
+        }
+    }
+
+    /** Filieres whose deadline is still open on {@code date}; recomputed at most once a day. */
+    private record OpenOn(LocalDate date, BitSet open) {}
+
+    /** Outcome of {@link #query}: the matching filieres and the count for every facet value. */
+    public record Result(BitSet matches, Map<Facet, Map<String, Integer>> counts) {}
+
+    private final Catalog catalog;
+    private final int size;
+    private final Long[] ids;
+    private final LocalDate[] deadlines;
+    private final EnumMap<Facet, Column> columns;
+    private volatile OpenOn openOn;
+
+    private FiliereFacetIndex(Catalog catalog, int size, Long[] ids, LocalDate[] deadlines,
+                              EnumMap<Facet, Column> columns) {
+        this.catalog = catalog;
+        this.size = size;
+        this.ids = ids;
+        this.deadlines = deadlines;
+        this.columns = columns;
+    }
+
+    public static FiliereFacetIndex build(Catalog catalog) {
+        int size = catalog.filiereCount();
+        Long[] ids = new Long[size];
+        LocalDate[] deadlines = new LocalDate[size];
+        String[][] rows = new String[size][];
+        for (int i = 0; i < size; i++) {
+            ids[i] = catalog.filiere(i).id();
+            deadlines[i] = catalog.filiere(i).applicationDeadline();
+            rows[i] = values(catalog, i);
+        }
+
+        EnumMap<Facet, Column> columns = new EnumMap<>(Facet.class);
+        for (Facet facet : STORED) {
+            Map<String, Integer> ordinalOf = new LinkedHashMap<>();
+            List<BitSet> bits = new ArrayList<>();
+            int[] ordinals = new int[size];
+            for (int i = 0; i < size; i++) {
+                String value = rows[i][facet.ordinal()];
+                if (value == null) {
+                    ordinals[i] = -1;
+                    continue;
+                }
+                int v = ordinalOf.computeIfAbsent(value, key -> {
+                    bits.add(new BitSet(size));
+                    return bits.size() - 1;
+                });
+                bits.get(v).set(i);
+                ordinals[i] = v;
+            }
+            columns.put(facet, new Column(ordinalOf.keySet().toArray(new String[0]),
+                    bits.toArray(new BitSet[0]), ordinals));
+        }
+        return new FiliereFacetIndex(catalog, size, ids, deadlines, columns);
+    }
+
+    /**
+     * Index for {@code catalog}, which was built because of {@code cause}. A filiere updated in
+     * place or appended (new ids sort last) and a university update only re-file the affected
+     * rows; a delete shifts every later catalog index and, like bulk reloads or a version gap,
+     * falls back to a full {@link #build}.
+     */
+    public FiliereFacetIndex update(Catalog catalog, CatalogChangedEvent cause) {
+        if (catalog.version() != this.catalog.version() + 1 || cause.id() == null) {
+            return build(catalog);
+        }
+        int newSize = catalog.filiereCount();
+        return switch (cause.type()) {
+            case CRITERE -> newSize == size ? withRows(catalog, new int[0], size) : build(catalog);
+            case FILIERE -> {
+                int index = catalog.filiereIndex(cause.id());
+                boolean inPlace = newSize == size && index >= 0 && cause.id().equals(ids[index]);
+                boolean appended = newSize == size + 1 && index == size;
+                yield inPlace || appended ? withRows(catalog, new int[]{index}, newSize) : build(catalog);
+            }
+            case UNIVERSITY -> {
+                int university = catalog.universityIndex(cause.id());
+                if (newSize != size) {
+                    yield build(catalog);
+                }
+                yield withRows(catalog, university < 0 ? new int[0] : catalog.university(university).filieres(), size);
+            }
+            case ALL -> build(catalog);
+        };
+    }
+
+    /**
+     * Filieres matching {@code selected} (facet to accepted values) and, for every facet, the
+     * number of filieres each value would match given the selections on the other facets.
+     */
+    public Result query(Map<Facet, Set<String>> selected, LocalDate today) {
+        EnumMap<Facet, BitSet> filters = new EnumMap<>(Facet.class);
+        selected.forEach((facet, values) -> {
+            if (values != null && !values.isEmpty()) {
+                filters.put(facet, union(facet, values, today));
+            }
+        });
+
+        BitSet matches = all();
+        filters.values().forEach(matches::and);
+
+        Map<Facet, Map<String, Integer>> counts = new EnumMap<>(Facet.class);
+        for (Facet facet : Facet.values()) {
+            BitSet base = all();
+            filters.forEach((other, filter) -> {
+                if (other != facet) {
+                    base.and(filter);
+                }
+            });
+            Map<String, Integer> facetCounts = new LinkedHashMap<>();
+            if (facet == Facet.OPEN) {
+                BitSet open = open(today);
+                facetCounts.put("true", intersectionSize(base, open));
+                facetCounts.put("false", base.cardinality() - facetCounts.get("true"));
+            } else {
+                Column column = columns.get(facet);
+                for (int v = 0; v < column.values().length; v++) {
+                    facetCounts.put(column.values()[v], intersectionSize(base, column.bits()[v]));
+                }
+            }
+            counts.put(facet, facetCounts);
+        }
+        return new Result(matches, counts);
+    }
+
+    /** The catalog these bitsets index; bit {@code i} is its filiere {@code i}. */
+    public Catalog catalog() {
+        return catalog;
+    }
+
+    public long version() {
+        return catalog.version();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private BitSet union(Facet facet, Set<String> values, LocalDate today) {
+        if (facet == Facet.OPEN) {
+            BitSet open = open(today);
+            BitSet union = new BitSet(size);
+            if (values.contains("true")) {
+                union.or(open);
+            }
+            if (values.contains("false")) {
+                BitSet closed = all();
+                closed.andNot(open);
+                union.or(closed);
+            }
+            return union;
+        }
+        Column column = columns.get(facet);
+        BitSet union = new BitSet(size);
+        for (String value : values) {
+            int v = column.indexOf(value);
+            if (v >= 0) {
+                union.or(column.bits()[v]);
+            }
+        }
+        return union;
+    }
+
+    private BitSet open(LocalDate today) {
+        OpenOn cached = openOn;
+        if (cached != null && cached.date().equals(today)) {
+            return cached.open();
+        }
+        BitSet open = new BitSet(size);
+        for (int i = 0; i < size; i++) {
+            if (deadlines[i] != null && !deadlines[i].isBefore(today)) {
+                open.set(i);
+            }
+        }
+        openOn = new OpenOn(today, open);
+        return open;
+    }
+
+    private BitSet all() {
+        BitSet all = new BitSet(size);
+        all.set(0, size);
+        return all;
+    }
+
+    /** Copy of this index with {@code rows} re-read from {@code catalog}; untouched bitsets are shared. */
+    private FiliereFacetIndex withRows(Catalog catalog, int[] rows, int newSize) {
+        Long[] newIds = newSize == size ? ids : Arrays.copyOf(ids, newSize);
+        LocalDate[] newDeadlines = rows.length == 0 ? deadlines : Arrays.copyOf(deadlines, newSize);
+        EnumMap<Facet, Column> newColumns = new EnumMap<>(columns);
+
+        for (int row : rows) {
+            if (row >= size) {
+                newIds[row] = catalog.filiere(row).id();
+            }
+            newDeadlines[row] = catalog.filiere(row).applicationDeadline();
+            String[] values = values(catalog, row);
+            for (Facet facet : STORED) {
+                newColumns.put(facet, refile(newColumns.get(facet), row, values[facet.ordinal()], newSize));
+            }
+        }
+        return new FiliereFacetIndex(catalog, newSize, newIds, newDeadlines, newColumns);
+    }
+
+    private Column refile(Column column, int row, String value, int newSize) {
+        boolean appended = row >= column.ordinals().length;
+        int previous = appended ? -1 : column.ordinals()[row];
+        int next = value == null ? -1 : column.indexOf(value);
+        if (!appended && next == previous && (value == null || next >= 0)) {
+            return column;
+        }
+
+        String[] values = column.values();
+        BitSet[] bits = column.bits().clone();
+        if (value != null && next < 0) {
+            values = Arrays.copyOf(values, values.length + 1);
+            values[values.length - 1] = value;
+            bits = Arrays.copyOf(bits, bits.length + 1);
+            bits[bits.length - 1] = new BitSet(newSize);
+            next = values.length - 1;
+        }
+        if (previous >= 0) {
+            bits[previous] = (BitSet) bits[previous].clone();
+            bits[previous].clear(row);
+        }
+        if (next >= 0) {
+            bits[next] = (BitSet) bits[next].clone();
+            bits[next].set(row);
+        }
+        int[] ordinals = Arrays.copyOf(column.ordinals(), newSize);
+        ordinals[row] = next;
+        return new Column(values, bits, ordinals);
+    }
+
+    /** Facet values of one filiere, indexed by {@link Facet#ordinal()}. */
+    private static String[] values(Catalog catalog, int index) {
+        Catalog.FiliereRow f = catalog.filiere(index);
+        Catalog.UniversityRow u = catalog.university(f.university());
+        TuitionBand band = TuitionBand.of(f.tuitionFee());
+
+        String[] values = new String[STORED.length];
+        values[Facet.ADMISSION_TYPE.ordinal()] = catalog.string(f.admissionType());
+        values[Facet.LANGUAGE.ordinal()] = catalog.string(f.language());
+        values[Facet.LOCATION.ordinal()] = catalog.string(u.location());
+        values[Facet.UNIVERSITY_TYPE.ordinal()] = catalog.string(u.type());
+        values[Facet.DURATION_YEARS.ordinal()] = f.durationYears() == null ? null : f.durationYears().toString();
+        values[Facet.TUITION_BAND.ordinal()] = band == null ? null : band.name();
+        values[Facet.HAS_SEATS.ordinal()] = String.valueOf(f.seatsAvailabial() != null && f.seatsAvailabial() > 0);
+        return values;
+    }
+
+    private static int intersectionSize(BitSet left, BitSet right) {
+        BitSet intersection = (BitSet) left.clone();
+        intersection.and(right);
+        return intersection.cardinality();
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.orientlamp_back.service.catalog;
+
+import com.example.orientlamp_back.dto.FiliereFacetQuery;
+import com.example.orientlamp_back.event.CatalogRefreshedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holds the {@link FiliereFacetIndex} for the current catalog. Each refresh re-files only the
+ * filieres touched by the write that caused it.
+ */
+@Service
+@Slf4j
+public class FiliereFacets {
+
+    private final CatalogSnapshot catalogSnapshot;
+    private final Timer updateTimer;
+    private final AtomicReference<FiliereFacetIndex> current = new AtomicReference<>();
+
+    public FiliereFacets(CatalogSnapshot catalogSnapshot, MeterRegistry meterRegistry) {
+        this.catalogSnapshot = catalogSnapshot;
+        this.updateTimer = Timer.builder("catalog.facets.update")
+                .description("Time to bring the filiere facet bitsets up to date after a catalog refresh")
+                .register(meterRegistry);
+    }
+
+    public FiliereFacetIndex current() {
+        FiliereFacetIndex index = current.get();
+        if (index != null) {
+            return index;
+        }
+        Catalog catalog = catalogSnapshot.current();
+        current.compareAndSet(null, FiliereFacetIndex.build(catalog));
+        return current.get();
+    }
+
+    /** Refreshes are published one at a time from the synchronized {@link CatalogSnapshot#refresh}. */
+    @EventListener
+    public void onCatalogRefreshed(CatalogRefreshedEvent event) {
+        FiliereFacetIndex previous = current.get();
+        FiliereFacetIndex updated = updateTimer.record(() -> previous == null
+                ? FiliereFacetIndex.build(event.catalog())
+                : previous.update(event.catalog(), event.cause()));
+        current.set(updated);
+        log.debug("Filiere facets v{}: {} filieres", updated.version(), updated.size());
+    }
+
+    /** The facet values chosen in {@code query}, as {@link FiliereFacetIndex#query} expects them. */
+    public static Map<FiliereFacetIndex.Facet, Set<String>> selection(FiliereFacetQuery query) {
+        Map<FiliereFacetIndex.Facet, Set<String>> selected = new EnumMap<>(FiliereFacetIndex.Facet.class);
+        select(selected, FiliereFacetIndex.Facet.ADMISSION_TYPE, query.getAdmissionType());
+        select(selected, FiliereFacetIndex.Facet.LANGUAGE, query.getLanguage());
+        select(selected, FiliereFacetIndex.Facet.LOCATION, query.getLocation());
+        select(selected, FiliereFacetIndex.Facet.UNIVERSITY_TYPE, query.getUniversityType());
+        select(selected, FiliereFacetIndex.Facet.DURATION_YEARS, query.getDurationYears());
+        select(selected, FiliereFacetIndex.Facet.TUITION_BAND, query.getTuitionBand());
+        if (query.getHasSeats() != null) {
+            select(selected, FiliereFacetIndex.Facet.HAS_SEATS, List.of(query.getHasSeats()));
+        }
+        if (query.getOpen() != null) {
+            select(selected, FiliereFacetIndex.Facet.OPEN, List.of(query.getOpen()));
+        }
+        return selected;
+    }
+
+    private static void select(Map<FiliereFacetIndex.Facet, Set<String>> selected,
+                               FiliereFacetIndex.Facet facet, List<?> values) {
+        if (values != null && !values.isEmpty()) {
+            Set<String> strings = new HashSet<>();
+            values.forEach(value -> strings.add(String.valueOf(value)));
+            selected.put(facet, strings);
+        }
+    }
+}
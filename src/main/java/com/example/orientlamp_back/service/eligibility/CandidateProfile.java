@@ -0,0 +1,19 @@
+package com.example.orientlamp_back.service.eligibility;
+
+import java.math.BigDecimal;
+
+/**
+ * What the eligibility rules look at for one student.
+ *
+ * @param score      the grade compared with a critere's threshold: the bac grade for
+ *                   {@link CandidateType#BACHELIER}, the CNC rating for {@link CandidateType#CPGE}
+ *                   and the average of the recorded semesters for {@link CandidateType#DIPLOME}
+ * @param transcript semesters and diploma of a {@link CandidateType#DIPLOME} profile, null otherwise
+ */
+public record CandidateProfile(Long userId, CandidateType type, String bacMajor, BigDecimal score, Integer age,
+                               Transcript transcript) {
+
+    public CandidateProfile(Long userId, CandidateType type, String bacMajor, BigDecimal score, Integer age) {
+        this(userId, type, bacMajor, score, age, null);
+    }
+}
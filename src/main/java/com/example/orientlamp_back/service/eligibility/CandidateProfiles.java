@@ -0,0 +1,124 @@
+package com.example.orientlamp_back.service.eligibility;
+
+import com.example.orientlamp_back.entity.Bac2Student;
+import com.example.orientlamp_back.entity.BacStudent;
+import com.example.orientlamp_back.entity.PrepaStudent;
+import com.example.orientlamp_back.entity.User;
+import com.example.orientlamp_back.exception.StudentProfileNotFoundException;
+import com.example.orientlamp_back.repository.Bac2StudentRepository;
+import com.example.orientlamp_back.repository.BacStudentRepository;
+import com.example.orientlamp_back.repository.PrepaStudentRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Builds a {@link CandidateProfile} from whichever student profile a user filled in. The track
+ * follows the user's declared study level; a user without one, or without the matching
+ * profile, is taken on the first profile found in bac, prepa, Bac+2 order.
+ */
+@Component
+@RequiredArgsConstructor
+public class CandidateProfiles {
+
+    private final BacStudentRepository bacStudentRepository;
+    private final PrepaStudentRepository prepaStudentRepository;
+    private final Bac2StudentRepository bac2StudentRepository;
+
+    @Transactional(readOnly = true)
+    public CandidateProfile forUser(User user) {
+        return forUser(user, s -> of(user, s), s -> of(user, s), s -> of(user, s));
+    }
+
+    /**
+     * {@code user}'s profile picked like {@link #forUser(User)}, read through whichever of
+     * {@code bac}, {@code prepa} and {@code bac2} matches its track.
+     */
+    @Transactional(readOnly = true)
+    public <T> T forUser(User user, Function<BacStudent, T> bac, Function<PrepaStudent, T> prepa,
+                         Function<Bac2Student, T> bac2) {
+        CandidateType declared = CandidateType.of(user.getCurrentStudyLevel());
+        if (declared != null) {
+            Optional<T> profile = load(user, declared, bac, prepa, bac2);
+            if (profile.isPresent()) {
+                return profile.get();
+            }
+        }
+        for (CandidateType type : CandidateType.values()) {
+            if (type != declared) {
+                Optional<T> profile = load(user, type, bac, prepa, bac2);
+                if (profile.isPresent()) {
+                    return profile.get();
+                }
+            }
+        }
+        throw new StudentProfileNotFoundException("No student profile found for user: " + user.getIdUser());
+    }
+
+    /**
+     * The profile {@link #forUser} would pick among {@code available}, all of one user: the one
+     * of the {@code declared} track if any, else the first in bac, prepa, Bac+2 order.
+     */
+    public static Optional<CandidateProfile> choose(CandidateType declared, List<CandidateProfile> available) {
+        if (declared != null) {
+            for (CandidateProfile profile : available) {
+                if (profile.type() == declared) {
+                    return Optional.of(profile);
+                }
+            }
+        }
+        for (CandidateType type : CandidateType.values()) {
+            for (CandidateProfile profile : available) {
+                if (profile.type() == type) {
+                    return Optional.of(profile);
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    private <T> Optional<T> load(User user, CandidateType type, Function<BacStudent, T> bac,
+                                 Function<PrepaStudent, T> prepa, Function<Bac2Student, T> bac2) {
+        return switch (type) {
+            case BACHELIER -> bacStudentRepository.findByIdUser(user.getIdUser()).map(bac);
+            case CPGE -> prepaStudentRepository.findByIdUser(user.getIdUser()).map(prepa);
+            case DIPLOME -> bac2StudentRepository.findByIdUser(user.getIdUser()).map(bac2);
+        };
+    }
+
+    public static CandidateProfile of(User user, BacStudent student) {
+        return new CandidateProfile(user.getIdUser(), CandidateType.BACHELIER,
+                student.getBacMajor(), student.getGrade(), user.getAge());
+    }
+
+    public static CandidateProfile of(User user, PrepaStudent student) {
+        return new CandidateProfile(user.getIdUser(), CandidateType.CPGE,
+                student.getBacMajor(), student.getCncRating(), user.getAge());
+    }
+
+    public static CandidateProfile of(User user, Bac2Student student) {
+        Transcript transcript = Transcript.of(student.getAvgS1(), student.getAvgS2(),
+                student.getAvgS3(), student.getAvgS4(), student.getDiplomaType());
+        return new CandidateProfile(user.getIdUser(), CandidateType.DIPLOME,
+                student.getBacMajor(), transcript.average(), user.getAge(), transcript);
+    }
+
+    /** Mean of the semesters recorded so far, or null if none is. */
+    public static BigDecimal average(BigDecimal... semesters) {
+        BigDecimal sum = BigDecimal.ZERO;
+        int count = 0;
+        for (BigDecimal semester : semesters) {
+            if (semester != null) {
+                sum = sum.add(semester);
+                count++;
+            }
+        }
+        return count == 0 ? null : sum.divide(BigDecimal.valueOf(count), 2, RoundingMode.HALF_UP);
+    }
+}
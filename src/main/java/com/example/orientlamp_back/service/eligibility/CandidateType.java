@@ -0,0 +1,48 @@
+package com.example.orientlamp_back.service.eligibility;
+
+import com.example.orientlamp_back.entity.CurrentStudyLevel;
+import com.example.orientlamp_back.service.search.SearchQuery;
+
+/**
+ * The three admission tracks a {@code Critere.typeCandidat} can name, each backed by its own
+ * student profile table: {@code bac_students}, {@code prepa_students} and {@code bac2_students}.
+ */
+public enum CandidateType {
+    BACHELIER,
+    CPGE,
+    DIPLOME;
+
+    /**
+     * Track named by a free-text {@code typeCandidat} ("Bacheliers", "Lauréat CPGE",
+     * "Titulaires d'un diplôme supérieur"), or null when the text names none of them.
+     */
+    public static CandidateType parse(String typeCandidat) {
+        if (typeCandidat == null) {
+            return null;
+        }
+        String folded = SearchQuery.fold(typeCandidat);
+        if (folded.contains("cpge") || folded.contains("prepa")) {
+            return CPGE;
+        }
+        if (folded.contains("diplome") || folded.contains("titulaire") || folded.contains("bac+")
+                || folded.contains("licence") || folded.contains("dut") || folded.contains("bts")) {
+            return DIPLOME;
+        }
+        if (folded.contains("bachelier") || folded.contains("baccalaureat")) {
+            return BACHELIER;
+        }
+        return null;
+    }
+
+    /** Track a user applies on given their declared study level, or null when it is not set. */
+    public static CandidateType of(CurrentStudyLevel level) {
+        if (level == null) {
+            return null;
+        }
+        return switch (level) {
+            case bac, bac1 -> BACHELIER;
+            case bac2prepa -> CPGE;
+            default -> DIPLOME;
+        };
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.orientlamp_back.service.eligibility;
+
+import com.example.orientlamp_back.entity.Critere;
+import com.example.orientlamp_back.entity.CritereRequirements;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Derives the {@link CritereRequirements} document of a critere from its free texts with the
+ * {@link Subject}, {@link TranscriptRequirement} and {@link DiplomaType} parsers. Whoever writes
+ * a critere's texts sets the document with {@link #of(Critere)} before saving it:
+ * {@code CritereServiceImpl}, the seed data and {@code CritereRequirementsBackfill}.
+ */
+public final class CritereRequirementsParser {
+
+    private CritereRequirementsParser() {
+    }
+
+    /** The document of the three texts; one with no field set when they ask nothing. */
+    public static CritereRequirements parse(String seuilMatieresSpecifiques, String notesSemestres,
+                                            String diplomesRequis) {
+        Map<String, BigDecimal> subjects = new LinkedHashMap<>();
+        Subject.parseThresholds(seuilMatieresSpecifiques).forEach((subject, min) -> subjects.put(subject.key(), min));
+
+        TranscriptRequirement transcript = TranscriptRequirement.parse(notesSemestres, diplomesRequis);
+        if (transcript == null) {
+            return new CritereRequirements(CritereRequirements.SCHEMA, subjects.isEmpty() ? null : subjects,
+                    null, null, null, null, null);
+        }
+        boolean semesters = Arrays.stream(transcript.minSemester()).anyMatch(s -> s != null);
+        return new CritereRequirements(CritereRequirements.SCHEMA,
+                subjects.isEmpty() ? null : subjects,
+                semesters ? Arrays.asList(transcript.minSemester()) : null,
+                transcript.minAverage(),
+                transcript.validatedSemesters() == 0 ? null : transcript.validatedSemesters(),
+                transcript.diplomas().isEmpty() ? null : transcript.diplomas().stream().sorted().map(Enum::name).toList(),
+                transcript.minLevel());
+    }
+
+    /** The document of {@code critere}'s current texts. */
+    public static CritereRequirements of(Critere critere) {
+        return parse(critere.getSeuilMatieresSpecifiques(), critere.getNotesSemestres(), critere.getDiplomesRequis());
+    }
+}
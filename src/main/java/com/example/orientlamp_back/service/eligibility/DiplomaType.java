@@ -0,0 +1,74 @@
+package com.example.orientlamp_back.service.eligibility;
+
+import com.example.orientlamp_back.service.search.SearchQuery;
+
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/** Post-bac diplomas a Bac+2 student may hold or a critere may require, with their Bac+N level. */
+public enum DiplomaType {
+    DUT(2, "dut"),
+    BTS(2, "bts"),
+    DTS(2, "dts"),
+    DEUG(2, "deug"),
+    DEUST(2, "deust"),
+    DEUP(2, "deup"),
+    LICENCE_PROFESSIONNELLE(3, "licence professionnelle", "licence pro", "lp"),
+    LICENCE(3, "licence", "bachelor"),
+    MASTER(5, "master"),
+    INGENIEUR(5, "ingenieur");
+
+    private static final Pattern BAC_PLUS = Pattern.compile("bac\\s*\\+\\s*(\\d)");
+
+    private final int level;
+    private final String[] names;
+
+    DiplomaType(int level, String... names) {
+        this.level = level;
+        this.names = names;
+    }
+
+    public int level() {
+        return level;
+    }
+
+    /** The diploma a free-text {@code diplomaType} ("DUT Génie Informatique", "BTS") names, or null. */
+    public static DiplomaType parse(String text) {
+        Set<DiplomaType> found = parseAll(text);
+        return found.isEmpty() ? null : found.iterator().next();
+    }
+
+    /** Every diploma named in {@code text}; a licence professionnelle is not also read as a licence. */
+    public static Set<DiplomaType> parseAll(String text) {
+        Set<DiplomaType> found = EnumSet.noneOf(DiplomaType.class);
+        if (text == null) {
+            return found;
+        }
+        String words = " " + normalize(text) + " ";
+        for (DiplomaType type : values()) {
+            for (String name : type.names) {
+                if (words.contains(" " + name + " ")) {
+                    found.add(type);
+                    words = words.replace(" " + name + " ", " ");
+                    break;
+                }
+            }
+        }
+        return found;
+    }
+
+    /** The N of a "Bac+N" in {@code text}, or null. */
+    public static Integer parseLevel(String text) {
+        if (text == null) {
+            return null;
+        }
+        Matcher matcher = BAC_PLUS.matcher(SearchQuery.fold(text));
+        return matcher.find() ? Integer.valueOf(matcher.group(1)) : null;
+    }
+
+    private static String normalize(String text) {
+        return SearchQuery.fold(text).replaceAll("[^\\p{L}\\p{Nd}]+", " ").trim();
+    }
+}
@@ -0,0 +1,510 @@
+package com.example.orientlamp_back.service.eligibility;
+
+import com.example.orientlamp_back.service.catalog.Catalog;
+import com.example.orientlamp_back.service.search.SearchQuery;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Every critere of a catalog compiled into admission rules. Rules are grouped by candidate type,
+ * then by targeted bac series, and each group is sorted by threshold: the filieres a profile
+ * passes on grade are a prefix of each group it belongs to, found with one binary search. Only
+ * that prefix is then checked for age.
+ *
+ * A critere whose {@code typeCandidat} names no known track is filed under every track, one
+ * without a series under {@link #ANY_SERIES}. Filieres without a critere have no rule and are
+ * never reported as eligible: there is nothing to check a profile against.
+ *
+ * Rules whose {@code notesSemestres} or {@code diplomesRequis} ask something of a Bac+2
+ * transcript ({@link TranscriptRequirement}) also have their conditions laid out column-wise,
+ * so the transcript of a profile is checked against all of them in one pass once the grouped
+ * lookup is done. The parsed requirements are handed on from one build to the next, so an
+ * unchanged text is not parsed again when the catalog is refreshed.
+ */
+public final class EligibilityIndex {
+
+    public enum Check {
+        CANDIDATE_TYPE,
+        BAC_SERIES,
+        THRESHOLD,
+        AGE,
+        DIPLOMA,
+        TRANSCRIPT,
+        WRITTEN_EXAM,
+        INTERVIEW
+    }
+
+    /** Outcome of one check; written exam and interview are steps still ahead and always pass. */
+    public record Reason(Check check, boolean passed, String message) {}
+
+    public record Verdict(int filiere, boolean eligible, List<Reason> reasons) {}
+
+    /**
+     * Who a filiere's threshold applies to, for looking its students up in a {@link GradeIndex}.
+     *
+     * @param type      null when any track may apply
+     * @param series    normalized bac series, empty for any
+     * @param threshold the grade compared, null when there is none
+     */
+    public record Audience(CandidateType type, Set<String> series, BigDecimal threshold) {}
+
+    static final String ANY_SERIES = "*";
+
+    /** Short forms students enter for their bac series. */
+    static final Map<String, String> SERIES_ABBREVIATIONS = Map.of(
+            "sm", "sciences mathematiques",
+            "sma", "sciences mathematiques a",
+            "smb", "sciences mathematiques b",
+            "pc", "sciences physiques",
+            "spc", "sciences physiques",
+            "svt", "sciences de la vie et de la terre",
+            "se", "sciences economiques",
+            "sgc", "sciences de gestion comptable",
+            "stm", "sciences et technologies mecaniques",
+            "ste", "sciences et technologies electriques");
+
+    private record Rule(int filiere, CandidateType type, String typeText, Set<String> series, String seriesText,
+                        double threshold, BigDecimal thresholdValue, Integer ageMax,
+                        BigDecimal writtenExam, boolean interview, TranscriptRequirement transcript) {
+
+        boolean hasThreshold() {
+            return thresholdValue != null;
+        }
+    }
+
+    /** Rules of one (type, series) group, ascending by threshold; rules without one come first. */
+    private record Group(int[] rules, double[] thresholds) {}
+
+    /**
+     * Transcript conditions of the rules that have some, one column per condition: NaN where a
+     * minimum is not set, {@link Integer#MAX_VALUE} where no Bac+N level is accepted.
+     */
+    private record TranscriptColumns(int[] filieres, double[][] minSemester, double[] minAverage,
+                                     int[] validatedSemesters, boolean[] requiresDiploma, long[] diplomas,
+                                     int[] minLevel) {}
+
+    private final long version;
+    private final Rule[] rules;
+    private final int[] ruleByFiliere;
+    private final Map<CandidateType, Map<String, Group>> groups;
+    private final TranscriptColumns transcripts;
+    /** Parsed transcript requirements by source text, reused by the next build. */
+    private final Map<String, Optional<TranscriptRequirement>> parsedTranscripts;
+
+    private EligibilityIndex(long version, Rule[] rules, int[] ruleByFiliere,
+                             Map<CandidateType, Map<String, Group>> groups, TranscriptColumns transcripts,
+                             Map<String, Optional<TranscriptRequirement>> parsedTranscripts) {
+        this.version = version;
+        this.rules = rules;
+        this.ruleByFiliere = ruleByFiliere;
+        this.groups = groups;
+        this.transcripts = transcripts;
+        this.parsedTranscripts = parsedTranscripts;
+    }
+
+    public static EligibilityIndex build(Catalog catalog) {
+        return build(catalog, null);
+    }
+
+    /** Like {@link #build(Catalog)}, reusing the transcript requirements {@code previous} parsed. */
+    public static EligibilityIndex build(Catalog catalog, EligibilityIndex previous) {
+        Map<String, Optional<TranscriptRequirement>> known = previous == null ? Map.of() : previous.parsedTranscripts;
+        Map<String, Optional<TranscriptRequirement>> parsed = new HashMap<>();
+        List<Rule> rules = new ArrayList<>();
+        int[] ruleByFiliere = new int[catalog.filiereCount()];
+        Arrays.fill(ruleByFiliere, -1);
+        for (int f = 0; f < catalog.filiereCount(); f++) {
+            Catalog.CritereRow c = catalog.filiere(f).critere();
+            if (c != null) {
+                String notes = c.notesSemestres();
+                String diplomas = catalog.string(c.diplomesRequis());
+                String key = notes + '\u0000' + diplomas;
+                Optional<TranscriptRequirement> transcript = parsed.computeIfAbsent(key, k -> known.containsKey(k)
+                        ? known.get(k)
+                        : Optional.ofNullable(TranscriptRequirement.parse(notes, diplomas)));
+                ruleByFiliere[f] = rules.size();
+                rules.add(compile(catalog, f, c, transcript.orElse(null)));
+            }
+        }
+
+        Map<CandidateType, Map<String, List<Integer>>> members = new EnumMap<>(CandidateType.class);
+        for (int r = 0; r < rules.size(); r++) {
+            Rule rule = rules.get(r);
+            for (CandidateType type : rule.type() == null ? List.of(CandidateType.values()) : List.of(rule.type())) {
+                Map<String, List<Integer>> bySeries = members.computeIfAbsent(type, t -> new HashMap<>());
+                for (String series : rule.series().isEmpty() ? Set.of(ANY_SERIES) : rule.series()) {
+                    bySeries.computeIfAbsent(series, s -> new ArrayList<>()).add(r);
+                }
+            }
+        }
+
+        Map<CandidateType, Map<String, Group>> groups = new EnumMap<>(CandidateType.class);
+        members.forEach((type, bySeries) -> {
+            Map<String, Group> compiled = new HashMap<>();
+            bySeries.forEach((series, ids) -> {
+                ids.sort(Comparator.comparingDouble((Integer r) -> rules.get(r).threshold()).thenComparingInt(r -> r));
+                int[] sorted = ids.stream().mapToInt(Integer::intValue).toArray();
+                double[] thresholds = new double[sorted.length];
+                for (int i = 0; i < sorted.length; i++) {
+                    thresholds[i] = rules.get(sorted[i]).threshold();
+                }
+                compiled.put(series, new Group(sorted, thresholds));
+            });
+            groups.put(type, Map.copyOf(compiled));
+        });
+        return new EligibilityIndex(catalog.version(), rules.toArray(new Rule[0]), ruleByFiliere, groups,
+                transcriptColumns(rules), Map.copyOf(parsed));
+    }
+
+    private static TranscriptColumns transcriptColumns(List<Rule> rules) {
+        List<Rule> withTranscript = rules.stream().filter(rule -> rule.transcript() != null).toList();
+        int n = withTranscript.size();
+        int[] filieres = new int[n];
+        double[][] minSemester = new double[Transcript.SEMESTERS][n];
+        double[] minAverage = new double[n];
+        int[] validated = new int[n];
+        boolean[] requiresDiploma = new boolean[n];
+        long[] diplomas = new long[n];
+        int[] minLevel = new int[n];
+        for (int t = 0; t < n; t++) {
+            Rule rule = withTranscript.get(t);
+            TranscriptRequirement requirement = rule.transcript();
+            filieres[t] = rule.filiere();
+            for (int s = 0; s < Transcript.SEMESTERS; s++) {
+                BigDecimal min = requirement.minSemester()[s];
+                minSemester[s][t] = min == null ? Double.NaN : min.doubleValue();
+            }
+            minAverage[t] = requirement.minAverage() == null ? Double.NaN : requirement.minAverage().doubleValue();
+            validated[t] = requirement.validatedSemesters();
+            requiresDiploma[t] = requirement.requiresDiploma();
+            for (DiplomaType diploma : requirement.diplomas()) {
+                diplomas[t] |= 1L << diploma.ordinal();
+            }
+            minLevel[t] = requirement.minLevel() == null ? Integer.MAX_VALUE : requirement.minLevel();
+        }
+        return new TranscriptColumns(filieres, minSemester, minAverage, validated, requiresDiploma, diplomas, minLevel);
+    }
+
+    /** Indexes of the filieres {@code profile} is eligible for. */
+    public BitSet eligible(CandidateProfile profile) {
+        BitSet eligible = new BitSet(ruleByFiliere.length);
+        Map<String, Group> byType = profile.type() == null ? null : groups.get(profile.type());
+        if (byType == null) {
+            return eligible;
+        }
+        String major = normalizeSeries(profile.bacMajor());
+        // Without a grade only the rules without a threshold, sorted first, can pass.
+        double score = profile.score() == null ? Double.NEGATIVE_INFINITY : profile.score().doubleValue();
+        byType.forEach((series, group) -> {
+            if (!series.equals(ANY_SERIES) && !matchesSeries(series, major)) {
+                return;
+            }
+            int passing = upperBound(group.thresholds(), score);
+            for (int i = 0; i < passing; i++) {
+                Rule rule = rules[group.rules()[i]];
+                if (passesAge(rule, profile.age())) {
+                    eligible.set(rule.filiere());
+                }
+            }
+        });
+        if (transcripts.filieres().length > 0) {
+            retainTranscriptPasses(eligible, profile.transcript());
+        }
+        return eligible;
+    }
+
+    /**
+     * The lowest threshold above {@code profile}'s score among the rules of its type and series:
+     * the grade at which the next filiere opens up, or null when no threshold is above it. One
+     * binary search per group, like {@link #eligible}; age and transcript are not considered.
+     */
+    public BigDecimal nextThreshold(CandidateProfile profile) {
+        Map<String, Group> byType = profile.type() == null ? null : groups.get(profile.type());
+        if (byType == null) {
+            return null;
+        }
+        String major = normalizeSeries(profile.bacMajor());
+        double score = profile.score() == null ? Double.NEGATIVE_INFINITY : profile.score().doubleValue();
+        Rule next = null;
+        for (Map.Entry<String, Group> entry : byType.entrySet()) {
+            if (!entry.getKey().equals(ANY_SERIES) && !matchesSeries(entry.getKey(), major)) {
+                continue;
+            }
+            Group group = entry.getValue();
+            int passing = upperBound(group.thresholds(), score);
+            if (passing < group.rules().length) {
+                Rule rule = rules[group.rules()[passing]];
+                if (next == null || rule.threshold() < next.threshold()) {
+                    next = rule;
+                }
+            }
+        }
+        return next == null ? null : next.thresholdValue();
+    }
+
+    /** Clears from {@code eligible} the filieres whose transcript conditions {@code transcript} misses. */
+    private void retainTranscriptPasses(BitSet eligible, Transcript transcript) {
+        double[] semester = new double[Transcript.SEMESTERS];
+        double average = Double.NaN;
+        int validated = 0;
+        long diploma = 0;
+        int level = Integer.MIN_VALUE;
+        Arrays.fill(semester, Double.NaN);
+        if (transcript != null) {
+            for (int s = 0; s < Transcript.SEMESTERS; s++) {
+                semester[s] = transcript.semester(s) == null ? Double.NaN : transcript.semester(s).doubleValue();
+            }
+            average = transcript.average() == null ? Double.NaN : transcript.average().doubleValue();
+            validated = transcript.validatedSemesters();
+            if (transcript.diploma() != null) {
+                diploma = 1L << transcript.diploma().ordinal();
+                level = transcript.diploma().level();
+            }
+        }
+
+        TranscriptColumns c = transcripts;
+        for (int t = 0; t < c.filieres().length; t++) {
+            if (!eligible.get(c.filieres()[t])) {
+                continue;
+            }
+            // A NaN grade compares false, so a missing grade fails any minimum set on it.
+            boolean passes = validated >= c.validatedSemesters()[t]
+                    && (Double.isNaN(c.minAverage()[t]) || average >= c.minAverage()[t])
+                    && (!c.requiresDiploma()[t] || (c.diplomas()[t] & diploma) != 0 || level >= c.minLevel()[t]);
+            for (int s = 0; passes && s < Transcript.SEMESTERS; s++) {
+                double min = c.minSemester()[s][t];
+                passes = Double.isNaN(min) || semester[s] >= min;
+            }
+            if (!passes) {
+                eligible.clear(c.filieres()[t]);
+            }
+        }
+    }
+
+    /** Whether {@code profile} is eligible for the filiere at {@code filiere}, without building reasons. */
+    public boolean isEligible(int filiere, CandidateProfile profile) {
+        int r = filiere < ruleByFiliere.length ? ruleByFiliere[filiere] : -1;
+        if (r < 0) {
+            return false;
+        }
+        Rule rule = rules[r];
+        return passesType(rule, profile.type())
+                && passesSeries(rule, normalizeSeries(profile.bacMajor()))
+                && passesThreshold(rule, profile.score())
+                && passesAge(rule, profile.age())
+                && passesTranscript(rule, profile.transcript());
+    }
+
+    /** The audience of the filiere at {@code filiere}'s rule, or null if it has no critere. */
+    public Audience audience(int filiere) {
+        int r = filiere < ruleByFiliere.length ? ruleByFiliere[filiere] : -1;
+        if (r < 0) {
+            return null;
+        }
+        Rule rule = rules[r];
+        return new Audience(rule.type(), rule.series(), rule.thresholdValue());
+    }
+
+    /**
+     * How far {@code profile}'s score is above the threshold of the filiere at {@code filiere}
+     * (negative when below), or null when either is missing.
+     */
+    public BigDecimal margin(int filiere, CandidateProfile profile) {
+        int r = filiere < ruleByFiliere.length ? ruleByFiliere[filiere] : -1;
+        if (r < 0 || !rules[r].hasThreshold() || profile.score() == null) {
+            return null;
+        }
+        return profile.score().subtract(rules[r].thresholdValue());
+    }
+
+    /** Every check of the filiere at {@code filiere} against {@code profile}, or null if it has no critere. */
+    public Verdict explain(int filiere, CandidateProfile profile) {
+        int r = filiere < ruleByFiliere.length ? ruleByFiliere[filiere] : -1;
+        if (r < 0) {
+            return null;
+        }
+        Rule rule = rules[r];
+        List<Reason> reasons = new ArrayList<>(6);
+
+        if (rule.type() != null) {
+            boolean passed = passesType(rule, profile.type());
+            reasons.add(new Reason(Check.CANDIDATE_TYPE, passed, passed
+                    ? "Open to " + rule.typeText()
+                    : "Reserved to " + rule.typeText()));
+        }
+        if (!rule.series().isEmpty()) {
+            boolean passed = passesSeries(rule, normalizeSeries(profile.bacMajor()));
+            reasons.add(new Reason(Check.BAC_SERIES, passed, profile.bacMajor() == null
+                    ? "Requires a bac in " + rule.seriesText() + "; no bac series on profile"
+                    : (passed ? "Bac " + profile.bacMajor() + " is accepted"
+                       : "Bac " + profile.bacMajor() + " is not among " + rule.seriesText())));
+        }
+        if (rule.hasThreshold()) {
+            boolean passed = passesThreshold(rule, profile.score());
+            String threshold = rule.thresholdValue().toPlainString();
+            reasons.add(new Reason(Check.THRESHOLD, passed, profile.score() == null
+                    ? "Threshold " + threshold + "; no grade on profile"
+                    : "Grade " + profile.score().toPlainString() + (passed ? " meets" : " is below")
+                      + " the threshold of " + threshold));
+        }
+        if (rule.ageMax() != null) {
+            boolean passed = passesAge(rule, profile.age());
+            reasons.add(new Reason(Check.AGE, passed, profile.age() == null
+                    ? "Maximum age " + rule.ageMax() + "; no age on profile"
+                    : "Age " + profile.age() + (passed ? " is within" : " exceeds") + " the maximum of " + rule.ageMax()));
+        }
+        TranscriptRequirement requirement = rule.transcript();
+        if (requirement != null && requirement.requiresDiploma()) {
+            Transcript transcript = profile.transcript();
+            boolean passed = requirement.acceptsDiploma(transcript == null ? null : transcript.diploma());
+            String held = transcript == null || transcript.diplomaText() == null ? null : transcript.diplomaText();
+            reasons.add(new Reason(Check.DIPLOMA, passed, held == null
+                    ? "Requires " + requirement.describeDiplomas() + "; no diploma on profile"
+                    : (passed ? "Diploma " + held + " is accepted"
+                       : "Diploma " + held + " is not among " + requirement.describeDiplomas())));
+        }
+        if (requirement != null && requirement.requiresGrades()) {
+            boolean passed = requirement.acceptsGrades(profile.transcript());
+            reasons.add(new Reason(Check.TRANSCRIPT, passed, profile.transcript() == null
+                    ? "Requires " + requirement.describeGrades() + "; no semester grades on profile"
+                    : (passed ? "Semester grades meet " : "Semester grades do not meet ") + requirement.describeGrades()));
+        }
+        if (rule.writtenExam() != null) {
+            reasons.add(new Reason(Check.WRITTEN_EXAM, true,
+                    "Written exam to pass with at least " + rule.writtenExam().toPlainString()));
+        }
+        if (rule.interview()) {
+            reasons.add(new Reason(Check.INTERVIEW, true, "Interview required"));
+        }
+
+        boolean eligible = true;
+        for (Reason reason : reasons) {
+            eligible &= reason.passed();
+        }
+        return new Verdict(filiere, eligible, reasons);
+    }
+
+    public long version() {
+        return version;
+    }
+
+    /** Number of filieres with a compiled rule. */
+    public int ruleCount() {
+        return rules.length;
+    }
+
+    private static Rule compile(Catalog catalog, int filiere, Catalog.CritereRow c, TranscriptRequirement transcript) {
+        String typeText = catalog.string(c.typeCandidat());
+        CandidateType type = CandidateType.parse(typeText);
+        String seriesText = catalog.string(c.serieBacCible());
+
+        // A prepa student is ranked on the CNC score, which scorePrepa expresses when present.
+        BigDecimal threshold = type == CandidateType.CPGE && c.scorePrepa() != null ? c.scorePrepa() : c.seuilCalcul();
+        return new Rule(filiere, type, typeText, parseSeries(seriesText), seriesText,
+                threshold == null ? Double.NEGATIVE_INFINITY : threshold.doubleValue(), threshold,
+                c.ageMax(), c.noteConcoursEcrit(), Boolean.TRUE.equals(c.aEntretien()), transcript);
+    }
+
+    /** "Sciences Mathématiques / Lettres" → {sciences mathematiques, lettres}; empty for any series. */
+    static Set<String> parseSeries(String text) {
+        if (text == null) {
+            return Set.of();
+        }
+        Set<String> series = new LinkedHashSet<>();
+        for (String part : SearchQuery.fold(text).split("[/,;]|\\bou\\b")) {
+            String normalized = normalizeSeries(part);
+            if (normalized.contains("toutes")) {
+                return Set.of();
+            }
+            if (!normalized.isEmpty()) {
+                series.add(normalized);
+            }
+        }
+        return Set.copyOf(series);
+    }
+
+    static String normalizeSeries(String value) {
+        if (value == null) {
+            return "";
+        }
+        String folded = SearchQuery.fold(value);
+        StringBuilder normalized = new StringBuilder(folded.length());
+        boolean space = false;
+        for (int i = 0; i < folded.length(); i++) {
+            char c = folded.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                if (space && !normalized.isEmpty()) {
+                    normalized.append(' ');
+                }
+                normalized.append(c);
+                space = false;
+            } else {
+                space = true;
+            }
+        }
+        String result = normalized.toString();
+        return SERIES_ABBREVIATIONS.getOrDefault(result, result);
+    }
+
+    /** "Sciences Mathématiques A" belongs to the "Sciences Mathématiques" series. */
+    static boolean matchesSeries(String series, String major) {
+        return !major.isEmpty() && (major.equals(series) || major.startsWith(series + " "));
+    }
+
+    private static boolean passesType(Rule rule, CandidateType type) {
+        return rule.type() == null || rule.type() == type;
+    }
+
+    private static boolean passesSeries(Rule rule, String major) {
+        if (rule.series().isEmpty()) {
+            return true;
+        }
+        for (String series : rule.series()) {
+            if (matchesSeries(series, major)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean passesThreshold(Rule rule, BigDecimal score) {
+        return !rule.hasThreshold() || (score != null && score.doubleValue() >= rule.threshold());
+    }
+
+    private static boolean passesAge(Rule rule, Integer age) {
+        return rule.ageMax() == null || (age != null && age <= rule.ageMax());
+    }
+
+    private static boolean passesTranscript(Rule rule, Transcript transcript) {
+        TranscriptRequirement requirement = rule.transcript();
+        return requirement == null
+                || (requirement.acceptsDiploma(transcript == null ? null : transcript.diploma())
+                    && requirement.acceptsGrades(transcript));
+    }
+
+    /** Number of thresholds {@code <= score}. */
+    private static int upperBound(double[] thresholds, double score) {
+        int low = 0;
+        int high = thresholds.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (thresholds[mid] <= score) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
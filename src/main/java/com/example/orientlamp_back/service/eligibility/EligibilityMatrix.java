@@ -0,0 +1,458 @@
+package com.example.orientlamp_back.service.eligibility;
+
+import com.example.orientlamp_back.event.CatalogChangedEvent;
+import com.example.orientlamp_back.event.CatalogRefreshedEvent;
+import com.example.orientlamp_back.event.StudentProfileChangedEvent;
+import com.example.orientlamp_back.repository.CandidateProfileRepository;
+import com.example.orientlamp_back.repository.CatalogVersionRepository;
+import com.example.orientlamp_back.repository.EligibilityRecomputeRepository;
+import com.example.orientlamp_back.repository.StudentEligibilityRepository;
+import com.example.orientlamp_back.service.admission.AdmissionFormulas;
+import com.example.orientlamp_back.service.admission.ScoreFormulas;
+import com.example.orientlamp_back.service.admission.ScoreVariables;
+import com.example.orientlamp_back.service.catalog.Catalog;
+import com.example.orientlamp_back.service.catalog.CatalogSnapshot;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Keeps {@code student_eligibility} in step with the criteres and the student profiles, so that
+ * a dashboard read is one primary-key lookup. Writes only mark what they touched, in
+ * {@code eligibility_recompute} and in the writer's transaction: a critere write its filiere's
+ * column, a profile write its student's row, a bulk catalog reload everything. A single
+ * background worker per instance drains the marks, so a burst of writes to the same filiere or
+ * student costs one recompute, and marks left by an instance that went down before draining
+ * them are picked up by the next pass of any other, or by its own on restart.
+ *
+ * Until its recompute is committed a stored cell may be stale; {@link #pending} tells readers
+ * which filieres of a student's row, or whether the whole row, to evaluate live instead.
+ */
+@Service
+@Slf4j
+public class EligibilityMatrix {
+
+    /** What of a student's stored row is not up to date: the whole {@code row}, or these {@code filieres}. */
+    public record Pending(boolean row, Set<Long> filieres) {
+
+        static final Pending NONE = new Pending(false, Set.of());
+        static final Pending ROW = new Pending(true, Set.of());
+
+        public boolean any() {
+            return row || !filieres.isEmpty();
+        }
+    }
+
+    /** Bound of {@code student_eligibility.score}, NUMERIC(10, 2). */
+    private static final double MAX_SCORE = 1e8;
+
+    private final CatalogSnapshot catalogSnapshot;
+    private final CatalogVersionRepository catalogVersionRepository;
+    private final EligibilityRules eligibilityRules;
+    private final AdmissionFormulas admissionFormulas;
+    private final CandidateProfileRepository candidateProfileRepository;
+    private final StudentEligibilityRepository studentEligibilityRepository;
+    private final EligibilityRecomputeRepository eligibilityRecomputeRepository;
+    private final TransactionTemplate transaction;
+
+    /*
+     * What this instance knows to be owed, for the readers: each entry carries the sequence
+     * number of its latest mark, so a recompute only clears the marks made before it started.
+     */
+    private final AtomicLong sequence = new AtomicLong();
+    private final Map<Long, Long> owedStudents = new ConcurrentHashMap<>();
+    private final Map<Long, Long> owedFilieres = new ConcurrentHashMap<>();
+    private final AtomicLong owedAll = new AtomicLong();
+    /** Scoring job partitions of this instance not committed yet, from user id to the end of the range. */
+    private final NavigableMap<Long, Long> scoringRanges = new ConcurrentSkipListMap<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "eligibility-matrix");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Timer studentTimer;
+    private final Timer filiereTimer;
+    private final Timer allTimer;
+
+    public EligibilityMatrix(CatalogSnapshot catalogSnapshot,
+                             CatalogVersionRepository catalogVersionRepository,
+                             EligibilityRules eligibilityRules,
+                             AdmissionFormulas admissionFormulas,
+                             CandidateProfileRepository candidateProfileRepository,
+                             StudentEligibilityRepository studentEligibilityRepository,
+                             EligibilityRecomputeRepository eligibilityRecomputeRepository,
+                             PlatformTransactionManager transactionManager,
+                             MeterRegistry meterRegistry) {
+        this.catalogSnapshot = catalogSnapshot;
+        this.catalogVersionRepository = catalogVersionRepository;
+        this.eligibilityRules = eligibilityRules;
+        this.admissionFormulas = admissionFormulas;
+        this.candidateProfileRepository = candidateProfileRepository;
+        this.studentEligibilityRepository = studentEligibilityRepository;
+        this.eligibilityRecomputeRepository = eligibilityRecomputeRepository;
+        this.transaction = new TransactionTemplate(transactionManager);
+
+        this.studentTimer = recomputeTimer(meterRegistry, "student");
+        this.filiereTimer = recomputeTimer(meterRegistry, "filiere");
+        this.allTimer = recomputeTimer(meterRegistry, "all");
+        Gauge.builder("eligibility.matrix.backlog", owedStudents, Map::size)
+                .description("Recomputes waiting for the eligibility matrix worker")
+                .tag("scope", "student")
+                .register(meterRegistry);
+        Gauge.builder("eligibility.matrix.backlog", owedFilieres, Map::size)
+                .description("Recomputes waiting for the eligibility matrix worker")
+                .tag("scope", "filiere")
+                .register(meterRegistry);
+        Gauge.builder("eligibility.matrix.backlog", owedAll, owed -> owed.get() > 0 ? 1 : 0)
+                .description("Recomputes waiting for the eligibility matrix worker")
+                .tag("scope", "all")
+                .register(meterRegistry);
+    }
+
+    /** Ids of the filieres {@code userId} was last computed eligible for. */
+    public List<Long> filiereIds(Long userId) {
+        return studentEligibilityRepository.findFiliereIds(userId);
+    }
+
+    /**
+     * What of the stored row of {@code userId} may be out of date: all of it while its own
+     * recompute, a full rebuild or the scoring partition holding it has not been committed yet;
+     * otherwise the filieres whose column recompute has not. Writes on other instances are
+     * known from the first pass after this instance's catalog has caught up with them.
+     */
+    public Pending pending(Long userId) {
+        if (owedAll.get() > 0 || owedStudents.containsKey(userId) || isScoring(userId)) {
+            return Pending.ROW;
+        }
+        return owedFilieres.isEmpty() ? Pending.NONE : new Pending(false, Set.copyOf(owedFilieres.keySet()));
+    }
+
+    public boolean isPending(Long userId) {
+        return pending(userId).any();
+    }
+
+    /** Called by a scoring job of this instance before it rewrites a partition, see {@link #pending}. */
+    public void scoring(long fromUserId, long toUserId) {
+        scoringRanges.put(fromUserId, toUserId);
+    }
+
+    /** Called once the partition starting at {@code fromUserId} has committed or failed. */
+    public void scored(long fromUserId) {
+        scoringRanges.remove(fromUserId);
+    }
+
+    private boolean isScoring(Long userId) {
+        Map.Entry<Long, Long> range = scoringRanges.floorEntry(userId);
+        return range != null && userId < range.getValue();
+    }
+
+    /**
+     * Records the recompute a catalog write owes, in the writer's transaction, and runs a pass
+     * once it has committed: usually that pass waits for the refresh the write triggers, but
+     * the refresh may already have been.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (event.type() == CatalogChangedEvent.Type.ALL || event.id() == null) {
+            eligibilityRecomputeRepository.markAll();
+        } else if (event.type() != CatalogChangedEvent.Type.UNIVERSITY) {
+            // Universities carry no critere; their deleted filieres cascade out of the table.
+            eligibilityRecomputeRepository.markFiliere(event.id());
+        } else {
+            return;
+        }
+        afterCommit(this::schedule);
+    }
+
+    /** Records the recompute a profile write owes, in the writer's transaction; pending from its commit. */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onStudentProfileChanged(StudentProfileChangedEvent event) {
+        eligibilityRecomputeRepository.markStudent(event.userId());
+        afterCommit(() -> {
+            owedStudents.put(event.userId(), sequence.incrementAndGet());
+            schedule();
+        });
+    }
+
+    /**
+     * The catalog now holds the writes of {@code causes}: their columns are pending from here
+     * until the worker has recomputed them. Any refresh, the first build and those for writes
+     * elsewhere included, runs a pass, which recomputes whatever the table still owes.
+     */
+    @EventListener
+    public void onCatalogRefreshed(CatalogRefreshedEvent event) {
+        for (CatalogChangedEvent cause : event.causes()) {
+            if (cause.type() == CatalogChangedEvent.Type.ALL || cause.id() == null) {
+                owedAll.set(sequence.incrementAndGet());
+            } else if (cause.type() != CatalogChangedEvent.Type.UNIVERSITY) {
+                owedFilieres.put(cause.id(), sequence.incrementAndGet());
+            }
+        }
+        schedule();
+    }
+
+    @EventListener
+    public void onApplicationReady(ApplicationReadyEvent event) {
+        schedule();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        worker.shutdownNow();
+    }
+
+    /** Runs {@code action} once the current transaction has committed, or now without one. */
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private void schedule() {
+        if (scheduled.compareAndSet(false, true)) {
+            worker.execute(this::drain);
+        }
+    }
+
+    /**
+     * Runs on the worker thread only. Marks arriving while it runs schedule another pass.
+     *
+     * A mark is only acted on by a catalog that holds its write: the marks are read before the
+     * version, and a mark commits with its version bump, so once the catalog served has reached
+     * that version it is recent enough for all of them. Until then the pass waits for the
+     * refresh that brings the catalog there, which schedules the next one.
+     */
+    private void drain() {
+        scheduled.set(false);
+        long started = sequence.get();
+        List<EligibilityRecomputeRepository.Mark> marks;
+        Catalog catalog;
+        try {
+            marks = eligibilityRecomputeRepository.findAll();
+            catalog = catalogSnapshot.current();
+            if (!marks.isEmpty() && catalogVersionRepository.current() > catalog.version()) {
+                log.debug("Eligibility recomputes wait for the catalog to catch up from v{}", catalog.version());
+                return;
+            }
+        } catch (RuntimeException e) {
+            log.warn("Eligibility recompute marks could not be read: {}", e.getMessage());
+            return;
+        }
+
+        long through = 0;
+        boolean all = false;
+        Set<Long> filieres = new LinkedHashSet<>();
+        Set<Long> students = new LinkedHashSet<>();
+        for (EligibilityRecomputeRepository.Mark mark : marks) {
+            through = mark.id();
+            if (mark.filiereId() != null) {
+                filieres.add(mark.filiereId());
+                owedFilieres.putIfAbsent(mark.filiereId(), started);
+            } else if (mark.userId() != null) {
+                students.add(mark.userId());
+                owedStudents.putIfAbsent(mark.userId(), started);
+            } else {
+                all = true;
+                owedAll.compareAndSet(0, started);
+            }
+        }
+
+        long settled = through;
+        if (all) {
+            // Everything is recomputed below; marks made from here on are handled by the next pass.
+            filieres.clear();
+            students.clear();
+            run(() -> recomputeAll(catalog, settled), owedAll, "all students");
+        }
+        for (Long filiereId : filieres) {
+            run(() -> recomputeFiliere(catalog, filiereId, settled), owedFilieres, filiereId, "filiere " + filiereId);
+        }
+        for (Long userId : students) {
+            run(() -> recomputeStudent(catalog, userId, settled), owedStudents, userId, "student " + userId);
+        }
+        // What was owed before this pass and is no longer in the table was recomputed elsewhere
+        owedFilieres.entrySet().removeIf(owed -> owed.getValue() <= started && !filieres.contains(owed.getKey()));
+        owedStudents.entrySet().removeIf(owed -> owed.getValue() <= started && !students.contains(owed.getKey()));
+        if (!all) {
+            owedAll.updateAndGet(owed -> owed <= started ? 0 : owed);
+        }
+    }
+
+    /**
+     * Clears the reader's mark of {@code key} unless a write made a newer one meanwhile. A
+     * failed recompute keeps both marks and is retried with the next pass, not in a loop.
+     */
+    private void run(Runnable recompute, Map<Long, Long> owed, Long key, String what) {
+        Long mark = owed.get(key);
+        if (attempt(recompute, what) && mark != null) {
+            owed.remove(key, mark);
+        }
+    }
+
+    private void run(Runnable recompute, AtomicLong owed, String what) {
+        long mark = owed.get();
+        if (attempt(recompute, what)) {
+            owed.compareAndSet(mark, 0);
+        }
+    }
+
+    private boolean attempt(Runnable recompute, String what) {
+        try {
+            recompute.run();
+            return true;
+        } catch (RuntimeException e) {
+            log.warn("Eligibility recompute of {} failed: {}", what, e.getMessage());
+            return false;
+        }
+    }
+
+    /*
+     * Each recompute takes the exclusive lock, then clears its marks: none left means another
+     * instance has just done it, against a catalog as recent, and it is skipped.
+     */
+    void recomputeStudent(Catalog catalog, Long userId, long through) {
+        studentTimer.record(() -> {
+            EligibilityIndex index = eligibilityRules.forCatalog(catalog);
+            ScoreFormulas formulas = admissionFormulas.forCatalog(catalog);
+            transaction.executeWithoutResult(status -> {
+                studentEligibilityRepository.lockExclusive();
+                if (eligibilityRecomputeRepository.clearStudent(userId, through) == 0) {
+                    return;
+                }
+                List<StudentEligibilityRepository.Row> rows = new ArrayList<>();
+                candidateProfileRepository.findByUserId(userId)
+                        .ifPresent(profile -> rows(catalog, index, formulas, profile, rows::add));
+                studentEligibilityRepository.replaceStudent(userId, rows);
+            });
+        });
+    }
+
+    void recomputeFiliere(Catalog catalog, Long filiereId, long through) {
+        filiereTimer.record(() -> {
+            EligibilityIndex index = eligibilityRules.forCatalog(catalog);
+            ScoreFormulas formulas = admissionFormulas.forCatalog(catalog);
+            int f = catalog.filiereIndex(filiereId);
+            Boolean done = transaction.execute(status -> {
+                studentEligibilityRepository.lockExclusive();
+                if (eligibilityRecomputeRepository.clearFiliere(filiereId, through) == 0) {
+                    return false;
+                }
+                List<StudentEligibilityRepository.Row> rows = new ArrayList<>();
+                if (f >= 0) {
+                    candidateProfileRepository.forEach(profile -> {
+                        if (index.isEligible(f, profile)) {
+                            rows.add(new StudentEligibilityRepository.Row(profile.userId(), filiereId,
+                                    index.margin(f, profile), score(formulas, f, ScoreVariables.of(profile))));
+                        }
+                    });
+                }
+                studentEligibilityRepository.replaceFiliere(filiereId, rows);
+                return true;
+            });
+            if (Boolean.TRUE.equals(done)) {
+                log.debug("Eligibility column of filiere {} recomputed", filiereId);
+            }
+        });
+    }
+
+    void recomputeAll(Catalog catalog, long through) {
+        allTimer.record(() -> {
+            EligibilityIndex index = eligibilityRules.forCatalog(catalog);
+            ScoreFormulas formulas = admissionFormulas.forCatalog(catalog);
+            int[] rows = {0};
+            Boolean done = transaction.execute(status -> {
+                studentEligibilityRepository.lockExclusive();
+                if (eligibilityRecomputeRepository.clearAll(through) == 0) {
+                    return false;
+                }
+                studentEligibilityRepository.deleteAll();
+                List<StudentEligibilityRepository.Row> batch = new ArrayList<>(StudentEligibilityRepository.BATCH_SIZE);
+                candidateProfileRepository.forEach(profile -> rows(catalog, index, formulas, profile, row -> {
+                    batch.add(row);
+                    if (batch.size() == StudentEligibilityRepository.BATCH_SIZE) {
+                        studentEligibilityRepository.insert(batch);
+                        rows[0] += batch.size();
+                        batch.clear();
+                    }
+                }));
+                studentEligibilityRepository.insert(batch);
+                rows[0] += batch.size();
+                return true;
+            });
+            if (Boolean.TRUE.equals(done)) {
+                log.info("Eligibility matrix rebuilt against catalog v{}: {} eligible pairs", catalog.version(), rows[0]);
+            }
+        });
+    }
+
+    /**
+     * The stored rows of {@code profile}: one per filiere it is eligible for, with its margin and
+     * its score by the filiere's formula. {@code formulas} must be compiled from {@code catalog}.
+     */
+    public static void rows(Catalog catalog, EligibilityIndex index, ScoreFormulas formulas, CandidateProfile profile,
+                            Consumer<StudentEligibilityRepository.Row> sink) {
+        BitSet eligible = index.eligible(profile);
+        if (eligible.isEmpty()) {
+            return;
+        }
+        double[] variables = formulas.formulaCount() == 0 ? null : ScoreVariables.of(profile);
+        for (int f = eligible.nextSetBit(0); f >= 0; f = eligible.nextSetBit(f + 1)) {
+            sink.accept(new StudentEligibilityRepository.Row(profile.userId(), catalog.filiere(f).id(),
+                    index.margin(f, profile), variables == null ? null : score(formulas, f, variables)));
+        }
+    }
+
+    /** The stored score at filiere {@code f}, to the cent; null when there is none or it overflows the column. */
+    static BigDecimal score(ScoreFormulas formulas, int f, double[] variables) {
+        double score = formulas.score(f, variables);
+        if (!Double.isFinite(score) || Math.abs(score) >= MAX_SCORE) {
+            return null;
+        }
+        return BigDecimal.valueOf(score).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private static Timer recomputeTimer(MeterRegistry meterRegistry, String scope) {
+        return Timer.builder("eligibility.matrix.recompute")
+                .description("Time to recompute part of the eligibility matrix")
+                .tag("scope", scope)
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+}
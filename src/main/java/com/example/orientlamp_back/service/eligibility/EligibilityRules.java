@@ -0,0 +1,50 @@
+package com.example.orientlamp_back.service.eligibility;
+
+import com.example.orientlamp_back.event.CatalogRefreshedEvent;
+import com.example.orientlamp_back.service.catalog.Catalog;
+import com.example.orientlamp_back.service.catalog.CatalogSnapshot;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holds the {@link EligibilityIndex} for the current catalog. It is recompiled whole on each
+ * refresh: one rule per critere, grouped and sorted in well under a millisecond. Transcript
+ * requirements parsed by the previous index are carried over rather than parsed again.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class EligibilityRules {
+
+    private final CatalogSnapshot catalogSnapshot;
+    private final AtomicReference<EligibilityIndex> current = new AtomicReference<>();
+
+    public EligibilityIndex current() {
+        EligibilityIndex index = current.get();
+        if (index != null) {
+            return index;
+        }
+        current.compareAndSet(null, EligibilityIndex.build(catalogSnapshot.current()));
+        return current.get();
+    }
+
+    /**
+     * Rules compiled from {@code catalog}, so that their filiere indexes line up with it; only
+     * rebuilt when a refresh landed between reading the catalog and the rules.
+     */
+    public EligibilityIndex forCatalog(Catalog catalog) {
+        EligibilityIndex index = current();
+        return index.version() == catalog.version() ? index : EligibilityIndex.build(catalog, index);
+    }
+
+    @EventListener
+    public void onCatalogRefreshed(CatalogRefreshedEvent event) {
+        EligibilityIndex index = EligibilityIndex.build(event.catalog(), current.get());
+        current.set(index);
+        log.debug("Eligibility rules v{}: {} compiled", index.version(), index.ruleCount());
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.orientlamp_back.service.eligibility;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * The reverse of {@link EligibilityIndex}: students grouped by track and bac series, each group
+ * sorted by the grade the thresholds compare. The students a threshold moving from {@code a} to
+ * {@code b} can affect are those graded in {@code [min(a, b), max(a, b))}, so finding them is a
+ * binary search per matching group and a walk over just that slice.
+ *
+ * A student without a grade sorts first, as if graded minus infinity, which is how the rules
+ * treat them: they only pass where there is no threshold.
+ *
+ * Immutable; see {@link StudentGrades} for how profile writes are layered on top.
+ */
+public final class GradeIndex {
+
+    private record Group(CandidateType type, String major, double[] grades, CandidateProfile[] profiles) {}
+
+    private final Group[] groups;
+    private final int size;
+
+    private GradeIndex(Group[] groups, int size) {
+        this.groups = groups;
+        this.size = size;
+    }
+
+    public static GradeIndex build(List<CandidateProfile> profiles) {
+        Map<CandidateType, Map<String, List<CandidateProfile>>> byKey = new HashMap<>();
+        int size = 0;
+        for (CandidateProfile profile : profiles) {
+            if (profile.type() == null) {
+                continue;
+            }
+            byKey.computeIfAbsent(profile.type(), t -> new HashMap<>())
+                    .computeIfAbsent(EligibilityIndex.normalizeSeries(profile.bacMajor()), m -> new ArrayList<>())
+                    .add(profile);
+            size++;
+        }
+
+        List<Group> groups = new ArrayList<>();
+        byKey.forEach((type, byMajor) -> byMajor.forEach((major, members) -> {
+            CandidateProfile[] sorted = members.toArray(new CandidateProfile[0]);
+            Arrays.sort(sorted, Comparator.comparingDouble(GradeIndex::grade));
+            double[] grades = new double[sorted.length];
+            for (int i = 0; i < sorted.length; i++) {
+                grades[i] = grade(sorted[i]);
+            }
+            groups.add(new Group(type, major, grades, sorted));
+        }));
+        return new GradeIndex(groups.toArray(new Group[0]), size);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Every student {@code audience} applies to graded {@code from <= grade < to}. Students
+     * whose user id is in {@code skip} are left out.
+     */
+    public void forEachBetween(EligibilityIndex.Audience audience, double from, double to, Set<Long> skip,
+                               Consumer<CandidateProfile> consumer) {
+        for (Group group : groups) {
+            if (!applies(audience, group.type(), group.major())) {
+                continue;
+            }
+            for (int i = lowerBound(group.grades(), from); i < group.grades().length && group.grades()[i] < to; i++) {
+                CandidateProfile profile = group.profiles()[i];
+                if (!skip.contains(profile.userId())) {
+                    consumer.accept(profile);
+                }
+            }
+        }
+    }
+
+    /** Whether {@code profile} would be among {@link #forEachBetween}'s students. */
+    public static boolean matches(EligibilityIndex.Audience audience, double from, double to, CandidateProfile profile) {
+        double grade = grade(profile);
+        return profile.type() != null
+                && applies(audience, profile.type(), EligibilityIndex.normalizeSeries(profile.bacMajor()))
+                && grade >= from && grade < to;
+    }
+
+    /** The grade a threshold is compared with, minus infinity without one. */
+    public static double grade(CandidateProfile profile) {
+        return profile.score() == null ? Double.NEGATIVE_INFINITY : profile.score().doubleValue();
+    }
+
+    private static boolean applies(EligibilityIndex.Audience audience, CandidateType type, String major) {
+        if (audience.type() != null && audience.type() != type) {
+            return false;
+        }
+        if (audience.series().isEmpty()) {
+            return true;
+        }
+        for (String series : audience.series()) {
+            if (EligibilityIndex.matchesSeries(series, major)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** First position with a grade {@code >= value}. */
+    private static int lowerBound(double[] grades, double value) {
+        int low = 0;
+        int high = grades.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (grades[mid] < value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
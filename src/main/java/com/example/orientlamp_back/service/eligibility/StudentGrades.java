@@ -0,0 +1,125 @@
+package com.example.orientlamp_back.service.eligibility;
+
+import com.example.orientlamp_back.event.StudentProfileChangedEvent;
+import com.example.orientlamp_back.repository.CandidateProfileRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Holds the {@link GradeIndex} of every student, built from one scan of the profile tables on
+ * first use. Profile writes are not merged into the sorted arrays: each written profile is kept
+ * aside and shadows its indexed entry, and once {@link #REBUILD_AFTER} have piled up the index
+ * is rebuilt in the background.
+ */
+@Service
+@Slf4j
+public class StudentGrades {
+
+    static final int REBUILD_AFTER = 10_000;
+
+    private final CandidateProfileRepository candidateProfileRepository;
+    private final TransactionTemplate readOnly;
+    private final Timer buildTimer;
+
+    private final AtomicReference<GradeIndex> index = new AtomicReference<>();
+    /** Profiles written since the index was built; empty for a student who no longer has one. */
+    private final Map<Long, Optional<CandidateProfile>> written = new ConcurrentHashMap<>();
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private final ExecutorService rebuilder = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "student-grades");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public StudentGrades(CandidateProfileRepository candidateProfileRepository,
+                         PlatformTransactionManager transactionManager,
+                         MeterRegistry meterRegistry) {
+        this.candidateProfileRepository = candidateProfileRepository;
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+        this.buildTimer = Timer.builder("eligibility.grades.build")
+                .description("Time to scan the student profiles into the grade index")
+                .register(meterRegistry);
+        Gauge.builder("eligibility.grades.overlay", written, Map::size)
+                .description("Profiles written since the grade index was built")
+                .register(meterRegistry);
+    }
+
+    /** Every student {@code audience} applies to graded {@code from <= grade < to}, as currently stored. */
+    public void forEachBetween(EligibilityIndex.Audience audience, double from, double to,
+                               Consumer<CandidateProfile> consumer) {
+        current().forEachBetween(audience, from, to, written.keySet(), consumer);
+        for (Optional<CandidateProfile> profile : written.values()) {
+            profile.filter(p -> GradeIndex.matches(audience, from, to, p)).ifPresent(consumer);
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onStudentProfileChanged(StudentProfileChangedEvent event) {
+        // Recorded even before the first build, which may already be scanning past this student.
+        written.put(event.userId(), candidateProfileRepository.findByUserId(event.userId()));
+        if (written.size() >= REBUILD_AFTER && rebuilding.compareAndSet(false, true)) {
+            rebuilder.execute(this::rebuild);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        rebuilder.shutdownNow();
+    }
+
+    private GradeIndex current() {
+        GradeIndex current = index.get();
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            if (index.get() == null) {
+                index.set(load());
+            }
+            return index.get();
+        }
+    }
+
+    private void rebuild() {
+        try {
+            Map<Long, Optional<CandidateProfile>> merged = Map.copyOf(written);
+            index.set(load());
+            // Writes that landed during the scan stay shadowed; the scan may have missed them.
+            merged.forEach(written::remove);
+        } catch (RuntimeException e) {
+            log.warn("Grade index rebuild failed: {}", e.getMessage());
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+
+    private GradeIndex load() {
+        GradeIndex built = buildTimer.record(() -> readOnly.execute(status -> {
+            List<CandidateProfile> profiles = new ArrayList<>();
+            candidateProfileRepository.forEach(profiles::add);
+            return GradeIndex.build(profiles);
+        }));
+        log.info("Grade index built: {} students", built.size());
+        return built;
+    }
+}
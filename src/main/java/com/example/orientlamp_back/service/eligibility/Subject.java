@@ -0,0 +1,79 @@
+package com.example.orientlamp_back.service.eligibility;
+
+import com.example.orientlamp_back.service.search.SearchQuery;
+
+import java.math.BigDecimal;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * School subjects a critere may set a minimum grade in ({@code seuilMatieresSpecifiques}).
+ * {@link #key()} is the subject's key in the {@code subjects} object of the critere's
+ * requirements document; each key has an expression index in
+ * {@code V14__critere_requirements.sql}, so a subject added here needs one there too.
+ */
+public enum Subject {
+    MATHEMATIQUES("mathematiques", "maths", "math"),
+    PHYSIQUE("physique chimie", "physique", "pc"),
+    SVT("sciences de la vie et de la terre", "svt", "sciences naturelles"),
+    FRANCAIS("francais"),
+    ANGLAIS("anglais"),
+    ARABE("arabe"),
+    PHILOSOPHIE("philosophie", "philo"),
+    ECONOMIE("economie", "eco"),
+    COMPTABILITE("comptabilite", "compta"),
+    INFORMATIQUE("informatique", "info");
+
+    private static final Pattern GRADE = Pattern.compile("(\\d{1,2}(?:[.,]\\d{1,2})?)(?:\\s*/\\s*20)?");
+
+    private final String[] names;
+
+    Subject(String... names) {
+        this.names = names;
+    }
+
+    public String key() {
+        return name().toLowerCase();
+    }
+
+    /** The subject named by {@code key} as returned by {@link #key()}, or null. */
+    public static Subject fromKey(String key) {
+        for (Subject subject : values()) {
+            if (subject.key().equals(key)) {
+                return subject;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The minimum grades a {@code seuilMatieresSpecifiques} text sets, one per clause
+     * ({@code ;}, {@code ,} or new line): "Mathématiques ≥ 14, Physique-Chimie : 12/20". A clause
+     * naming no known subject or no grade is ignored; a subject named twice keeps the higher grade.
+     */
+    public static Map<Subject, BigDecimal> parseThresholds(String text) {
+        Map<Subject, BigDecimal> thresholds = new EnumMap<>(Subject.class);
+        if (text == null) {
+            return thresholds;
+        }
+        for (String clause : SearchQuery.fold(text).split("[;\\n]|,(?!\\d)")) {
+            Matcher grade = GRADE.matcher(clause);
+            if (!grade.find()) {
+                continue;
+            }
+            String words = " " + clause.replaceAll("[^\\p{L}]+", " ").trim() + " ";
+            BigDecimal min = new BigDecimal(grade.group(1).replace(',', '.'));
+            for (Subject subject : values()) {
+                for (String name : subject.names) {
+                    if (words.contains(" " + name + " ")) {
+                        thresholds.merge(subject, min, BigDecimal::max);
+                        break;
+                    }
+                }
+            }
+        }
+        return thresholds;
+    }
+}
@@ -0,0 +1,385 @@
+package com.example.orientlamp_back.service.eligibility;
+
+import com.example.orientlamp_back.entity.User;
+import com.example.orientlamp_back.event.CatalogRefreshedEvent;
+import com.example.orientlamp_back.repository.UserRepository;
+import com.example.orientlamp_back.service.EmailService;
+import com.example.orientlamp_back.service.catalog.Catalog;
+import com.example.orientlamp_back.service.catalog.CatalogSnapshot;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Tells students when a threshold change moves them in or out of a filiere. Each refreshed
+ * catalog is compared with the one before it; for every filiere whose threshold moved, the
+ * {@link StudentGrades} between the old and the new threshold are the only ones who can have
+ * crossed it, and the old and new rules confirm which did. Their notifications are queued and
+ * mailed in batches of {@code app.notifications.batch-size} through {@link EmailService}.
+ *
+ * Delivery is best effort: the queue lives in memory, so notifications not yet mailed are lost
+ * when the instance stops, and a message that still fails after its retries is only counted
+ * ({@code eligibility.notifications.sent{result=failed}}) and logged, not kept for later.
+ *
+ * Only threshold crossings are notified: a student who gains or loses a filiere through another
+ * field of the same write (series, age limit) is not looked for. Everything runs on one worker
+ * thread, so catalogs are compared in the order they were built.
+ */
+@Service
+@Slf4j
+public class ThresholdNotifications {
+
+    /** The students graded in a range, like {@link StudentGrades#forEachBetween}. */
+    @FunctionalInterface
+    interface Students {
+        void forEachBetween(EligibilityIndex.Audience audience, double from, double to,
+                            Consumer<CandidateProfile> consumer);
+    }
+
+    private record Notification(Long userId, String filiere, String university, boolean eligible,
+                                BigDecimal before, BigDecimal after, long queuedNanos) {}
+
+    private final CatalogSnapshot catalogSnapshot;
+    private final EligibilityRules eligibilityRules;
+    private final StudentGrades studentGrades;
+    private final UserRepository userRepository;
+    private final EmailService emailService;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration backoff;
+
+    /** The catalog the last comparison ended on, and its rules; worker thread only. */
+    private Catalog seen;
+    private EligibilityIndex seenRules;
+
+    private final ConcurrentLinkedQueue<Notification> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "threshold-notifications");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Timer fanoutTimer;
+    private final DistributionSummary studentsSummary;
+    private final DistributionSummary batchSummary;
+    private final Timer deliveryTimer;
+    private final Counter sentCounter;
+    private final Counter failedCounter;
+
+    public ThresholdNotifications(CatalogSnapshot catalogSnapshot,
+                                  EligibilityRules eligibilityRules,
+                                  StudentGrades studentGrades,
+                                  UserRepository userRepository,
+                                  EmailService emailService,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${app.notifications.batch-size:50}") int batchSize,
+                                  @Value("${app.notifications.max-attempts:3}") int maxAttempts,
+                                  @Value("${app.notifications.backoff:1s}") Duration backoff) {
+        this.catalogSnapshot = catalogSnapshot;
+        this.eligibilityRules = eligibilityRules;
+        this.studentGrades = studentGrades;
+        this.userRepository = userRepository;
+        this.emailService = emailService;
+        this.batchSize = Math.max(1, batchSize);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.backoff = backoff;
+
+        this.fanoutTimer = Timer.builder("eligibility.notifications.fanout")
+                .description("Time from a catalog refresh to the notifications of one threshold change being queued")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.studentsSummary = DistributionSummary.builder("eligibility.notifications.students")
+                .description("Students who crossed one threshold change")
+                .register(meterRegistry);
+        this.batchSummary = DistributionSummary.builder("eligibility.notifications.batch")
+                .description("Messages per mail batch")
+                .register(meterRegistry);
+        this.deliveryTimer = Timer.builder("eligibility.notifications.delivery")
+                .description("Time a notification waited in the queue before its batch was sent")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.sentCounter = sentCounter(meterRegistry, "sent");
+        this.failedCounter = sentCounter(meterRegistry, "failed");
+        Gauge.builder("eligibility.notifications.queue", queued, AtomicInteger::get)
+                .description("Notifications waiting to be mailed")
+                .register(meterRegistry);
+    }
+
+    @EventListener
+    public void onApplicationReady(ApplicationReadyEvent event) {
+        // A change is a difference from the catalog before it, so start from the one served now.
+        worker.execute(() -> {
+            if (seen == null) {
+                remember(catalogSnapshot.current());
+            }
+        });
+    }
+
+    @EventListener
+    public void onCatalogRefreshed(CatalogRefreshedEvent event) {
+        long refreshedNanos = System.nanoTime();
+        worker.execute(() -> {
+            if (event.remote()) {
+                // The instance that made the write notifies; this one only moves past it.
+                if (seen == null || event.catalog().version() > seen.version()) {
+                    remember(event.catalog());
+                }
+                return;
+            }
+            compare(event.catalog(), refreshedNanos);
+            drain();
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        worker.shutdownNow();
+    }
+
+    /** Queues the crossings between the last catalog seen and {@code after}. Worker thread only. */
+    private void compare(Catalog after, long refreshedNanos) {
+        if (seen == null || after.version() <= seen.version()) {
+            if (seen == null) {
+                remember(after);
+            }
+            return;
+        }
+        EligibilityIndex afterRules = eligibilityRules.forCatalog(after);
+        for (int fa = 0; fa < after.filiereCount(); fa++) {
+            EligibilityIndex.Audience now = afterRules.audience(fa);
+            int fb = seen.filiereIndex(after.filiere(fa).id());
+            EligibilityIndex.Audience was = fb == Catalog.NONE ? null : seenRules.audience(fb);
+            if (now == null || was == null || sameThreshold(was.threshold(), now.threshold())) {
+                continue;
+            }
+            Catalog.FiliereRow filiere = after.filiere(fa);
+            String university = after.university(filiere.university()).name();
+            int[] count = new int[1];
+            crossings(studentGrades::forEachBetween, seenRules, fb, afterRules, fa, (profile, eligible) -> {
+                queue.add(new Notification(profile.userId(), filiere.name(), university, eligible,
+                        was.threshold(), now.threshold(), System.nanoTime()));
+                queued.incrementAndGet();
+                count[0]++;
+            });
+            fanoutTimer.record(System.nanoTime() - refreshedNanos, TimeUnit.NANOSECONDS);
+            studentsSummary.record(count[0]);
+            log.info("Threshold of filiere {} moved from {} to {}: {} students notified",
+                    filiere.id(), was.threshold(), now.threshold(), count[0]);
+        }
+        remember(after);
+    }
+
+    /**
+     * The students whose eligibility for a filiere differs between its rule at {@code before}
+     * and at {@code after}, with whether they are eligible now. Only students graded between
+     * the two thresholds are looked at: everyone else is on the same side of both.
+     */
+    static void crossings(Students students, EligibilityIndex before, int fb, EligibilityIndex after, int fa,
+                          BiConsumer<CandidateProfile, Boolean> crossed) {
+        EligibilityIndex.Audience was = before.audience(fb);
+        EligibilityIndex.Audience now = after.audience(fa);
+        double a = grade(was.threshold());
+        double b = grade(now.threshold());
+        Set<Long> checked = new HashSet<>();
+        Consumer<CandidateProfile> check = profile -> {
+            if (checked.add(profile.userId())) {
+                boolean eligible = after.isEligible(fa, profile);
+                if (eligible != before.isEligible(fb, profile)) {
+                    crossed.accept(profile, eligible);
+                }
+            }
+        };
+        students.forEachBetween(now, Math.min(a, b), Math.max(a, b), check);
+        if (was.type() != now.type() || !was.series().equals(now.series())) {
+            students.forEachBetween(was, Math.min(a, b), Math.max(a, b), check);
+        }
+    }
+
+    /** Mails the queue in batches. Worker thread only. */
+    private void drain() {
+        if (!draining.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            List<Notification> batch = new ArrayList<>(batchSize);
+            for (Notification n = queue.poll(); n != null; n = queue.poll()) {
+                queued.decrementAndGet();
+                batch.add(n);
+                if (batch.size() == batchSize) {
+                    send(batch);
+                    batch.clear();
+                }
+            }
+            send(batch);
+        } finally {
+            draining.set(false);
+        }
+    }
+
+    private void send(List<Notification> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        Map<Long, User> users = new HashMap<>();
+        for (User user : userRepository.findAllById(batch.stream().map(Notification::userId).distinct().toList())) {
+            users.put(user.getIdUser(), user);
+        }
+        List<SimpleMailMessage> messages = new ArrayList<>(batch.size());
+        for (Notification n : batch) {
+            User user = users.get(n.userId());
+            if (user != null && user.getEmail() != null) {
+                messages.add(message(user, n));
+            }
+        }
+        deliver(messages);
+        batchSummary.record(messages.size());
+        long now = System.nanoTime();
+        for (Notification n : batch) {
+            deliveryTimer.record(now - n.queuedNanos(), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Hands {@code messages} to the mail server, counting each one sent or failed. When the server
+     * reports which messages it refused (a bad address), only those are tried again; when the
+     * whole call fails, the same messages are, after a pause that doubles each time. Once
+     * {@code app.notifications.max-attempts} are spent, a batch still failing is split in halves,
+     * each sent once more, so one message the server chokes on fails alone. Worker thread only.
+     */
+    void deliver(List<SimpleMailMessage> messages) {
+        List<SimpleMailMessage> pending = messages;
+        long backoffMillis = backoff.toMillis();
+        for (int attempt = 1; !pending.isEmpty(); attempt++) {
+            RuntimeException failure;
+            List<SimpleMailMessage> refused = pending;
+            try {
+                emailService.sendEmails(pending);
+                sentCounter.increment(pending.size());
+                return;
+            } catch (MailSendException e) {
+                failure = e;
+                List<SimpleMailMessage> failed = pending.stream().filter(e.getFailedMessages()::containsKey).toList();
+                if (!failed.isEmpty()) {
+                    refused = failed;
+                    sentCounter.increment(pending.size() - refused.size());
+                }
+            } catch (RuntimeException e) {
+                failure = e;
+            }
+            if (attempt >= maxAttempts) {
+                split(refused, failure);
+                return;
+            }
+            log.debug("Threshold notifications: {} of {} messages failed (attempt {}), retrying in {} ms: {}",
+                    refused.size(), pending.size(), attempt, backoffMillis, failure.getMessage());
+            pending = refused;
+            if (!pause(backoffMillis)) {
+                failedCounter.increment(pending.size());
+                return;
+            }
+            backoffMillis *= 2;
+        }
+    }
+
+    /** The last try for messages that kept failing: halves until each one stands or fails alone. */
+    private void split(List<SimpleMailMessage> messages, RuntimeException failure) {
+        if (messages.isEmpty()) {
+            return;
+        }
+        if (messages.size() == 1) {
+            log.warn("Threshold notification to {} failed: {}",
+                    String.join(",", messages.get(0).getTo()), failure.getMessage());
+            failedCounter.increment();
+            return;
+        }
+        int half = messages.size() / 2;
+        for (List<SimpleMailMessage> part : List.of(messages.subList(0, half), messages.subList(half, messages.size()))) {
+            try {
+                emailService.sendEmails(part);
+                sentCounter.increment(part.size());
+            } catch (RuntimeException e) {
+                split(part, e);
+            }
+        }
+    }
+
+    /** Waits before a retry; false when the worker is being shut down. */
+    private static boolean pause(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static SimpleMailMessage message(User user, Notification n) {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setTo(user.getEmail());
+        String threshold = "the admission threshold moved from " + (n.before() == null ? "none" : n.before())
+                + " to " + (n.after() == null ? "none" : n.after());
+        if (n.eligible()) {
+            message.setSubject("You are now eligible for " + n.filiere());
+            message.setText("Hello " + (user.getFirstName() != null ? user.getFirstName() : "user") + ",\n\n"
+                    + "Good news: " + threshold + " for " + n.filiere() + " (" + n.university() + "), "
+                    + "and your profile now meets it.");
+        } else {
+            message.setSubject("You are no longer eligible for " + n.filiere());
+            message.setText("Hello " + (user.getFirstName() != null ? user.getFirstName() : "user") + ",\n\n"
+                    + threshold + " for " + n.filiere() + " (" + n.university() + "), "
+                    + "and your profile no longer meets it.");
+        }
+        return message;
+    }
+
+    private void remember(Catalog catalog) {
+        seen = catalog;
+        seenRules = eligibilityRules.forCatalog(catalog);
+    }
+
+    private static boolean sameThreshold(BigDecimal a, BigDecimal b) {
+        return a == null ? b == null : b != null && a.compareTo(b) == 0;
+    }
+
+    /** A threshold as the grade it compares against; none lets every grade through. */
+    private static double grade(BigDecimal threshold) {
+        return threshold == null ? Double.NEGATIVE_INFINITY : threshold.doubleValue();
+    }
+
+    private static Counter sentCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("eligibility.notifications.sent")
+                .description("Threshold notifications handed to the mail server, counted per message")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
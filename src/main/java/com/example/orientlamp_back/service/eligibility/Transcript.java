@@ -0,0 +1,46 @@
+package com.example.orientlamp_back.service.eligibility;
+
+import java.math.BigDecimal;
+
+/**
+ * The Bac+2 part of a {@link CandidateProfile}: semester averages S1 to S4 (null when not yet
+ * recorded) and the diploma held.
+ *
+ * @param diploma the diploma {@code diplomaText} names, or null when it names none known
+ */
+public record Transcript(BigDecimal s1, BigDecimal s2, BigDecimal s3, BigDecimal s4,
+                         DiplomaType diploma, String diplomaText) {
+
+    public static final int SEMESTERS = 4;
+    /** A semester counts as validated from this average up. */
+    public static final BigDecimal VALIDATION_GRADE = BigDecimal.TEN;
+
+    public static Transcript of(BigDecimal s1, BigDecimal s2, BigDecimal s3, BigDecimal s4, String diplomaText) {
+        return new Transcript(s1, s2, s3, s4, DiplomaType.parse(diplomaText), diplomaText);
+    }
+
+    /** Average of semester {@code index}, 0-based. */
+    public BigDecimal semester(int index) {
+        return switch (index) {
+            case 0 -> s1;
+            case 1 -> s2;
+            case 2 -> s3;
+            case 3 -> s4;
+            default -> throw new IndexOutOfBoundsException(index);
+        };
+    }
+
+    public BigDecimal average() {
+        return CandidateProfiles.average(s1, s2, s3, s4);
+    }
+
+    public int validatedSemesters() {
+        int validated = 0;
+        for (int i = 0; i < SEMESTERS; i++) {
+            if (semester(i) != null && semester(i).compareTo(VALIDATION_GRADE) >= 0) {
+                validated++;
+            }
+        }
+        return validated;
+    }
+}
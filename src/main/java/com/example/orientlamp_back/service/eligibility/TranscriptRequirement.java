@@ -0,0 +1,166 @@
+package com.example.orientlamp_back.service.eligibility;
+
+import com.example.orientlamp_back.service.search.SearchQuery;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * What a critere's {@code notesSemestres} and {@code diplomesRequis} texts ask of a Bac+2
+ * transcript, parsed once when the rules are compiled. Clauses are separated by {@code ;},
+ * {@code ,} or new lines and may read:
+ * <ul>
+ *   <li>{@code S1 >= 12}, {@code S3-S4 : 11} or {@code S1 à S4 ≥ 12}: minimum average of those semesters</li>
+ *   <li>{@code 12/20 minimum par semestre}: the same for every semester</li>
+ *   <li>{@code moyenne générale >= 13}: minimum average of the recorded semesters</li>
+ *   <li>{@code 4 semestres validés}, {@code S1-S4 validés} or {@code tous les semestres validés}:
+ *       number of semesters with at least {@link Transcript#VALIDATION_GRADE}</li>
+ * </ul>
+ * {@code diplomesRequis} lists accepted diplomas ("DUT, BTS ou DEUG"); "ou équivalent" also
+ * accepts any diploma of the same Bac+N level, and a bare "Bac+3" accepts any from that level.
+ * Text that matches none of these asks nothing. A decimal comma ("12,5") is kept within its clause.
+ *
+ * @param minSemester minimum average per semester S1 to S4, null entries where none is set
+ * @param minLevel    lowest Bac+N level accepted besides the listed diplomas, or null
+ */
+public record TranscriptRequirement(BigDecimal[] minSemester, BigDecimal minAverage, int validatedSemesters,
+                                    Set<DiplomaType> diplomas, Integer minLevel) {
+
+    private static final String NUMBER = "(\\d{1,2}(?:[.,]\\d{1,2})?)";
+    private static final String COMPARATOR = "\\s*(?:>=|>|:|=|≥|de|d au moins)?\\s*";
+    private static final Pattern SEMESTER_RANGE = Pattern.compile(
+            "s([1-4])(?:\\s*(?:-|a|au)\\s*s([1-4]))?" + COMPARATOR + NUMBER);
+    private static final Pattern PER_SEMESTER = Pattern.compile(NUMBER + "(?:\\s*/\\s*20)?[^0-9]*par semestre");
+    private static final Pattern AVERAGE = Pattern.compile("moyenne[^0-9]*?" + NUMBER);
+    private static final Pattern VALIDATED_COUNT = Pattern.compile("(\\d)\\s*semestres?\\s*valide");
+    private static final Pattern VALIDATED_RANGE = Pattern.compile("s([1-4])\\s*(?:-|a|au)\\s*s([1-4])\\s*valide");
+
+    /** The requirement of the two texts, or null when they ask nothing of a transcript. */
+    public static TranscriptRequirement parse(String notesSemestres, String diplomesRequis) {
+        BigDecimal[] minSemester = new BigDecimal[Transcript.SEMESTERS];
+        BigDecimal minAverage = null;
+        int validated = 0;
+
+        if (notesSemestres != null) {
+            for (String clause : SearchQuery.fold(notesSemestres).split("[;\\n]|,(?!\\d)")) {
+                clause = clause.trim();
+                Matcher m;
+                if ((m = VALIDATED_RANGE.matcher(clause)).find()) {
+                    validated = Math.max(validated, Math.abs(Integer.parseInt(m.group(2)) - Integer.parseInt(m.group(1))) + 1);
+                } else if ((m = VALIDATED_COUNT.matcher(clause)).find()) {
+                    validated = Math.max(validated, Math.min(Transcript.SEMESTERS, Integer.parseInt(m.group(1))));
+                } else if (clause.contains("valide") && clause.contains("tous")) {
+                    validated = Transcript.SEMESTERS;
+                } else if (clause.contains("moyenne") && (m = AVERAGE.matcher(clause.replaceAll("s[1-4]", ""))).find()) {
+                    minAverage = max(minAverage, number(m.group(1)));
+                } else if ((m = PER_SEMESTER.matcher(clause)).find()) {
+                    BigDecimal min = number(m.group(1));
+                    for (int i = 0; i < minSemester.length; i++) {
+                        minSemester[i] = max(minSemester[i], min);
+                    }
+                } else {
+                    m = SEMESTER_RANGE.matcher(clause);
+                    while (m.find()) {
+                        int from = Integer.parseInt(m.group(1)) - 1;
+                        int to = m.group(2) == null ? from : Integer.parseInt(m.group(2)) - 1;
+                        BigDecimal min = number(m.group(3));
+                        for (int i = Math.min(from, to); i <= Math.max(from, to); i++) {
+                            minSemester[i] = max(minSemester[i], min);
+                        }
+                    }
+                }
+            }
+        }
+
+        Set<DiplomaType> diplomas = DiplomaType.parseAll(diplomesRequis);
+        Integer minLevel = DiplomaType.parseLevel(diplomesRequis);
+        if (minLevel == null && !diplomas.isEmpty() && SearchQuery.fold(diplomesRequis).contains("equivalent")) {
+            minLevel = diplomas.stream().mapToInt(DiplomaType::level).min().getAsInt();
+        }
+
+        boolean semesters = Arrays.stream(minSemester).anyMatch(s -> s != null);
+        if (!semesters && minAverage == null && validated == 0 && diplomas.isEmpty() && minLevel == null) {
+            return null;
+        }
+        return new TranscriptRequirement(minSemester, minAverage, validated, Set.copyOf(diplomas), minLevel);
+    }
+
+    public boolean requiresDiploma() {
+        return !diplomas.isEmpty() || minLevel != null;
+    }
+
+    public boolean requiresGrades() {
+        return minAverage != null || validatedSemesters > 0 || Arrays.stream(minSemester).anyMatch(s -> s != null);
+    }
+
+    public boolean acceptsDiploma(DiplomaType diploma) {
+        return !requiresDiploma()
+                || (diploma != null && (diplomas.contains(diploma) || (minLevel != null && diploma.level() >= minLevel)));
+    }
+
+    /** Whether {@code transcript} meets every grade condition; a missing transcript meets none. */
+    public boolean acceptsGrades(Transcript transcript) {
+        if (!requiresGrades()) {
+            return true;
+        }
+        if (transcript == null) {
+            return false;
+        }
+        for (int i = 0; i < Transcript.SEMESTERS; i++) {
+            BigDecimal grade = transcript.semester(i);
+            if (minSemester[i] != null && (grade == null || grade.compareTo(minSemester[i]) < 0)) {
+                return false;
+            }
+        }
+        BigDecimal average = transcript.average();
+        if (minAverage != null && (average == null || average.compareTo(minAverage) < 0)) {
+            return false;
+        }
+        return transcript.validatedSemesters() >= validatedSemesters;
+    }
+
+    /** "S1 ≥ 12, S2 ≥ 12, average ≥ 13, 4 semesters validated" */
+    public String describeGrades() {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < Transcript.SEMESTERS; i++) {
+            if (minSemester[i] != null) {
+                append(text, "S" + (i + 1) + " ≥ " + minSemester[i].toPlainString());
+            }
+        }
+        if (minAverage != null) {
+            append(text, "average ≥ " + minAverage.toPlainString());
+        }
+        if (validatedSemesters > 0) {
+            append(text, validatedSemesters + " semesters validated");
+        }
+        return text.toString();
+    }
+
+    /** "DUT, BTS or any Bac+2" */
+    public String describeDiplomas() {
+        StringBuilder text = new StringBuilder();
+        diplomas.stream().sorted().forEach(d -> append(text, d.name().replace('_', ' ')));
+        if (minLevel != null) {
+            append(text, (diplomas.isEmpty() ? "" : "or ") + "any Bac+" + minLevel);
+        }
+        return text.toString().replace(", or ", " or ");
+    }
+
+    private static void append(StringBuilder text, String part) {
+        if (!text.isEmpty()) {
+            text.append(", ");
+        }
+        text.append(part);
+    }
+
+    private static BigDecimal number(String text) {
+        return new BigDecimal(text.replace(',', '.'));
+    }
+
+    private static BigDecimal max(BigDecimal current, BigDecimal candidate) {
+        return current == null || candidate.compareTo(current) > 0 ? candidate : current;
+    }
+}
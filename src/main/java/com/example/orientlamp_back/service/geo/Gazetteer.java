@@ -0,0 +1,85 @@
+package com.example.orientlamp_back.service.geo;
+
+import com.example.orientlamp_back.service.search.SearchQuery;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Offline lookup of Moroccan cities from {@code geo/morocco-cities.csv}. Names and aliases
+ * (French, English and Arabic spellings) are matched accent- and case-insensitively, and a
+ * free-text location such as "Rabat - Agdal, Maroc" resolves through its longest known phrase.
+ */
+@Component
+@Slf4j
+public class Gazetteer {
+
+    static final String RESOURCE = "geo/morocco-cities.csv";
+
+    public record Place(String name, double latitude, double longitude) {}
+
+    private final Map<String, Place> places;
+
+    public Gazetteer() {
+        this.places = load();
+        log.info("Gazetteer loaded: {} names", places.size());
+    }
+
+    public Optional<Place> resolve(String text) {
+        if (text == null) {
+            return Optional.empty();
+        }
+        List<String> words = List.of(normalize(text).split(" "));
+        for (int length = words.size(); length > 0; length--) {
+            for (int start = 0; start + length <= words.size(); start++) {
+                Place place = places.get(String.join(" ", words.subList(start, start + length)));
+                if (place != null) {
+                    return Optional.of(place);
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static Map<String, Place> load() {
+        Map<String, Place> places = new HashMap<>();
+        ClassPathResource resource = new ClassPathResource(RESOURCE);
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] columns = line.split(";", -1);
+                Place place = new Place(columns[0],
+                        Double.parseDouble(columns[1]), Double.parseDouble(columns[2]));
+                List<String> names = new ArrayList<>(List.of(columns[3].split("\\|")));
+                names.add(columns[0]);
+                for (String name : names) {
+                    if (!name.isBlank()) {
+                        places.putIfAbsent(normalize(name), place);
+                    }
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot read " + RESOURCE, ex);
+        }
+        return Map.copyOf(places);
+    }
+
+    private static String normalize(String text) {
+        return SearchQuery.fold(text).replaceAll("[^\\p{L}\\p{Nd}]+", " ").trim();
+    }
+}
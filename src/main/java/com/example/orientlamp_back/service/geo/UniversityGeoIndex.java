@@ -0,0 +1,165 @@
+package com.example.orientlamp_back.service.geo;
+
+import com.example.orientlamp_back.service.catalog.Catalog;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable spatial index over the universities of one {@link Catalog}. Campuses are bucketed
+ * in a grid of {@link #CELL_DEGREES} cells; a radius query only visits the cells overlapping
+ * the circle's bounding box and keeps the campuses within great-circle distance.
+ *
+ * A university without coordinates is placed at the centre of the city named in its location,
+ * as resolved by the {@link Gazetteer}; one whose location is unknown too is left out.
+ */
+public final class UniversityGeoIndex {
+
+    public record Hit(int university, double distanceKm) {}
+
+    static final double CELL_DEGREES = 0.5;
+    static final double EARTH_RADIUS_KM = 6371.0088;
+    private static final double KM_PER_DEGREE = Math.PI * EARTH_RADIUS_KM / 180;
+
+    private final Catalog catalog;
+    private final double[] latitudes;
+    private final double[] longitudes;
+    /** Cosine of each latitude, the per-campus half of the haversine. */
+    private final double[] cosines;
+    private final Map<Long, int[]> cells;
+    private final int located;
+
+    private UniversityGeoIndex(Catalog catalog, double[] latitudes, double[] longitudes, double[] cosines,
+                               Map<Long, int[]> cells, int located) {
+        this.catalog = catalog;
+        this.latitudes = latitudes;
+        this.longitudes = longitudes;
+        this.cosines = cosines;
+        this.cells = cells;
+        this.located = located;
+    }
+
+    public static UniversityGeoIndex build(Catalog catalog, Gazetteer gazetteer) {
+        int count = catalog.universityCount();
+        double[] latitudes = new double[count];
+        double[] longitudes = new double[count];
+        double[] cosines = new double[count];
+        Map<Long, List<Integer>> buckets = new HashMap<>();
+        int located = 0;
+        for (int u = 0; u < count; u++) {
+            Catalog.UniversityRow row = catalog.university(u);
+            if (row.latitude() != null && row.longitude() != null) {
+                latitudes[u] = row.latitude();
+                longitudes[u] = row.longitude();
+            } else {
+                Gazetteer.Place place = gazetteer.resolve(catalog.string(row.location())).orElse(null);
+                if (place == null) {
+                    latitudes[u] = Double.NaN;
+                    longitudes[u] = Double.NaN;
+                    continue;
+                }
+                latitudes[u] = place.latitude();
+                longitudes[u] = place.longitude();
+            }
+            cosines[u] = Math.cos(Math.toRadians(latitudes[u]));
+            buckets.computeIfAbsent(cell(latitudes[u], longitudes[u]), key -> new ArrayList<>()).add(u);
+            located++;
+        }
+
+        Map<Long, int[]> cells = new HashMap<>(buckets.size() * 2);
+        buckets.forEach((key, members) -> cells.put(key, members.stream().mapToInt(Integer::intValue).toArray()));
+        return new UniversityGeoIndex(catalog, latitudes, longitudes, cosines, cells, located);
+    }
+
+    /** Universities within {@code radiusKm} of the point, nearest first. */
+    public List<Hit> near(double latitude, double longitude, double radiusKm) {
+        double latitudeSpan = radiusKm / KM_PER_DEGREE;
+        double cosine = Math.cos(Math.toRadians(Math.min(89, Math.abs(latitude) + latitudeSpan)));
+        double longitudeSpan = Math.min(180, radiusKm / (KM_PER_DEGREE * Math.max(cosine, 1e-6)));
+
+        int fromRow = index(Math.max(-90, latitude - latitudeSpan));
+        int toRow = index(Math.min(90, latitude + latitudeSpan));
+        int fromColumn = index(longitude - longitudeSpan);
+        int toColumn = index(longitude + longitudeSpan);
+
+        // Cells on the edge of the box stick out of it: their campuses outside the box are
+        // dropped on four comparisons before paying for a distance.
+        double minLatitude = latitude - latitudeSpan;
+        double maxLatitude = latitude + latitudeSpan;
+        double minLongitude = longitude - longitudeSpan;
+        double maxLongitude = longitude + longitudeSpan;
+        double cosine0 = Math.cos(Math.toRadians(latitude));
+
+        List<Hit> hits = new ArrayList<>();
+        for (int row = fromRow; row <= toRow; row++) {
+            for (int column = fromColumn; column <= toColumn; column++) {
+                int[] members = cells.get(key(row, column));
+                if (members == null) {
+                    continue;
+                }
+                for (int u : members) {
+                    if (latitudes[u] < minLatitude || latitudes[u] > maxLatitude
+                            || longitudes[u] < minLongitude || longitudes[u] > maxLongitude) {
+                        continue;
+                    }
+                    double distance = haversine(latitude, longitude, cosine0, latitudes[u], longitudes[u], cosines[u]);
+                    if (distance <= radiusKm) {
+                        hits.add(new Hit(u, distance));
+                    }
+                }
+            }
+        }
+        hits.sort(Comparator.comparingDouble(Hit::distanceKm).thenComparingInt(Hit::university));
+        return hits;
+    }
+
+    /** Haversine distance; accurate to well under a kilometre at the scale of the country. */
+    public static double distanceKm(double latitude1, double longitude1, double latitude2, double longitude2) {
+        return haversine(latitude1, longitude1, Math.cos(Math.toRadians(latitude1)),
+                latitude2, longitude2, Math.cos(Math.toRadians(latitude2)));
+    }
+
+    private static double haversine(double latitude1, double longitude1, double cosine1,
+                                    double latitude2, double longitude2, double cosine2) {
+        double sinLatitude = Math.sin(Math.toRadians(latitude2 - latitude1) / 2);
+        double sinLongitude = Math.sin(Math.toRadians(longitude2 - longitude1) / 2);
+        double a = sinLatitude * sinLatitude + cosine1 * cosine2 * sinLongitude * sinLongitude;
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    public Catalog catalog() {
+        return catalog;
+    }
+
+    public long version() {
+        return catalog.version();
+    }
+
+    /** Universities placed on the map, out of {@code catalog().universityCount()}. */
+    public int located() {
+        return located;
+    }
+
+    double latitude(int university) {
+        return latitudes[university];
+    }
+
+    double longitude(int university) {
+        return longitudes[university];
+    }
+
+    private static long cell(double latitude, double longitude) {
+        return key(index(latitude), index(longitude));
+    }
+
+    private static int index(double degrees) {
+        return (int) Math.floor(degrees / CELL_DEGREES);
+    }
+
+    private static long key(int row, int column) {
+        return ((long) row << 32) | (column & 0xFFFFFFFFL);
+    }
+}
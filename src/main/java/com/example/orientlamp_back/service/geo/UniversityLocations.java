@@ -0,0 +1,41 @@
+package com.example.orientlamp_back.service.geo;
+
+import com.example.orientlamp_back.event.CatalogRefreshedEvent;
+import com.example.orientlamp_back.service.catalog.CatalogSnapshot;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holds the {@link UniversityGeoIndex} for the current catalog. The index is rebuilt whole on
+ * each refresh: it is a few hundred points and a gazetteer lookup each.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UniversityLocations {
+
+    private final CatalogSnapshot catalogSnapshot;
+    private final Gazetteer gazetteer;
+    private final AtomicReference<UniversityGeoIndex> current = new AtomicReference<>();
+
+    public UniversityGeoIndex current() {
+        UniversityGeoIndex index = current.get();
+        if (index != null) {
+            return index;
+        }
+        current.compareAndSet(null, UniversityGeoIndex.build(catalogSnapshot.current(), gazetteer));
+        return current.get();
+    }
+
+    @EventListener
+    public void onCatalogRefreshed(CatalogRefreshedEvent event) {
+        UniversityGeoIndex index = UniversityGeoIndex.build(event.catalog(), gazetteer);
+        current.set(index);
+        log.debug("University locations v{}: {} of {} placed", index.version(), index.located(),
+                event.catalog().universityCount());
+    }
+}
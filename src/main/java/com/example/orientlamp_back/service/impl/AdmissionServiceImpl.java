@@ -0,0 +1,108 @@
+package com.example.orientlamp_back.service.impl;
+
+import com.example.orientlamp_back.dto.AdmissionChanceDTO;
+import com.example.orientlamp_back.dto.AdmissionScoreDTO;
+import com.example.orientlamp_back.entity.PrepaStudent;
+import com.example.orientlamp_back.entity.User;
+import com.example.orientlamp_back.exception.InvalidAdmissionQueryException;
+import com.example.orientlamp_back.exception.StudentProfileNotFoundException;
+import com.example.orientlamp_back.repository.PrepaStudentRepository;
+import com.example.orientlamp_back.service.AdmissionService;
+import com.example.orientlamp_back.service.admission.AdmissionFormulas;
+import com.example.orientlamp_back.service.admission.CncAdmissionModel;
+import com.example.orientlamp_back.service.admission.CncAdmissionModels;
+import com.example.orientlamp_back.service.admission.ScoreFormula;
+import com.example.orientlamp_back.service.admission.ScoreFormulas;
+import com.example.orientlamp_back.service.admission.ScoreVariables;
+import com.example.orientlamp_back.service.catalog.Catalog;
+import com.example.orientlamp_back.service.catalog.CatalogSnapshot;
+import com.example.orientlamp_back.service.eligibility.CandidateProfiles;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AdmissionServiceImpl implements AdmissionService {
+
+    private static final BigDecimal MAX_RATING = BigDecimal.valueOf(20);
+
+    private final CatalogSnapshot catalogSnapshot;
+    private final CncAdmissionModels cncAdmissionModels;
+    private final PrepaStudentRepository prepaStudentRepository;
+    private final AdmissionFormulas admissionFormulas;
+    private final CandidateProfiles candidateProfiles;
+
+    @Override
+    public List<AdmissionChanceDTO> getCncChances(Integer rank, BigDecimal rating) {
+        if (rank == null && rating == null) {
+            throw new InvalidAdmissionQueryException("Give a CNC rank, a rating or both");
+        }
+        if (rank != null && rank <= 0) {
+            throw new InvalidAdmissionQueryException("CNC rank must be positive");
+        }
+        if (rating != null && (rating.signum() < 0 || rating.compareTo(MAX_RATING) > 0)) {
+            throw new InvalidAdmissionQueryException("CNC rating must be between 0 and 20");
+        }
+
+        Catalog catalog = catalogSnapshot.current();
+        return cncAdmissionModels.forCatalog(catalog).chances(rank, rating).stream()
+                .map(chance -> toDTO(catalog, chance))
+                .toList();
+    }
+
+    @Override
+    public List<AdmissionChanceDTO> getMyCncChances(User user, Integer rank) {
+        PrepaStudent student = prepaStudentRepository.findByIdUser(user.getIdUser())
+                .orElseThrow(() -> new StudentProfileNotFoundException(
+                        "No prepa profile found for user id: " + user.getIdUser()));
+        return getCncChances(rank, student.getCncRating());
+    }
+
+    @Override
+    public List<AdmissionScoreDTO> getMyScores(User user) {
+        double[] variables = candidateProfiles.forUser(user, ScoreVariables::of, ScoreVariables::of, ScoreVariables::of);
+        Catalog catalog = catalogSnapshot.current();
+        ScoreFormulas formulas = admissionFormulas.forCatalog(catalog);
+
+        List<AdmissionScoreDTO> scores = new ArrayList<>();
+        for (int f = 0; f < catalog.filiereCount(); f++) {
+            ScoreFormula formula = formulas.formula(f);
+            if (formula == null) {
+                continue;
+            }
+            double value = formula.evaluate(variables);
+            BigDecimal score = Double.isNaN(value) ? null : BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP);
+            BigDecimal threshold = catalog.filiere(f).critere().seuilCalcul();
+            scores.add(AdmissionScoreDTO.builder()
+                    .filiere(catalog.toFiliereSummaryDTO(f))
+                    .formula(formula.text())
+                    .score(score)
+                    .threshold(threshold)
+                    .margin(score == null || threshold == null ? null : score.subtract(threshold))
+                    .missing(formula.missing(variables))
+                    .build());
+        }
+        scores.sort(Comparator.comparing(AdmissionScoreDTO::getMargin, Comparator.nullsLast(Comparator.reverseOrder()))
+                .thenComparing(AdmissionScoreDTO::getScore, Comparator.nullsLast(Comparator.reverseOrder())));
+        return scores;
+    }
+
+    private static AdmissionChanceDTO toDTO(Catalog catalog, CncAdmissionModel.Chance chance) {
+        return AdmissionChanceDTO.builder()
+                .filiere(catalog.toFiliereSummaryDTO(chance.filiere()))
+                .probability(chance.probability())
+                .anneeAcademique(chance.anneeAcademique())
+                .lastAdmittedRank(chance.lastAdmittedRank())
+                .minScore(chance.minScore())
+                .years(chance.years())
+                .build();
+    }
+}
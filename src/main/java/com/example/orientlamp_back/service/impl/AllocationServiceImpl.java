@@ -0,0 +1,269 @@
+package com.example.orientlamp_back.service.impl;
+
+import com.example.orientlamp_back.dto.AllocationCutoffDTO;
+import com.example.orientlamp_back.dto.AllocationRunDTO;
+import com.example.orientlamp_back.entity.Preference;
+import com.example.orientlamp_back.exception.AllocationRunNotFoundException;
+import com.example.orientlamp_back.repository.AllocationRepository;
+import com.example.orientlamp_back.repository.CandidateProfileRepository;
+import com.example.orientlamp_back.repository.PreferenceRepository;
+import com.example.orientlamp_back.service.AllocationService;
+import com.example.orientlamp_back.service.admission.AdmissionFormulas;
+import com.example.orientlamp_back.service.admission.ScoreFormulas;
+import com.example.orientlamp_back.service.admission.ScoreVariables;
+import com.example.orientlamp_back.service.allocation.DeferredAcceptance;
+import com.example.orientlamp_back.service.catalog.Catalog;
+import com.example.orientlamp_back.service.catalog.CatalogSnapshot;
+import com.example.orientlamp_back.service.eligibility.CandidateProfile;
+import com.example.orientlamp_back.service.eligibility.EligibilityIndex;
+import com.example.orientlamp_back.service.eligibility.EligibilityRules;
+import com.example.orientlamp_back.service.geo.Gazetteer;
+import com.example.orientlamp_back.service.recommendation.Preferences;
+import com.example.orientlamp_back.service.recommendation.RecommendationFeatures;
+import com.example.orientlamp_back.service.recommendation.RecommendationIndex;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Projects the admission round: every student proposes to their ranked wishes and every filiere
+ * keeps its best-ranked applicants up to its seats, by {@link DeferredAcceptance}. The lowest
+ * score a filiere ends up admitting is its projected cut-off.
+ *
+ * There is no wish list yet, so a student's wishes are their top recommendations: the filieres
+ * they are eligible for, ranked against their preferences like {@code /api/recommendations}. A
+ * filiere ranks applicants by its score formula, or by their profile score when it has none or
+ * the formula reads something the profile does not carry.
+ *
+ * The whole population is held in primitive arrays for the run, so memory grows with
+ * {@code students × wishes}. Only one run is in progress at a time per instance.
+ */
+@Service
+@Slf4j
+public class AllocationServiceImpl implements AllocationService {
+
+    static final int MAX_WISHES = 50;
+    static final int RECENT_RUNS = 20;
+
+    private final AllocationRepository allocationRepository;
+    private final CandidateProfileRepository candidateProfileRepository;
+    private final PreferenceRepository preferenceRepository;
+    private final CatalogSnapshot catalogSnapshot;
+    private final EligibilityRules eligibilityRules;
+    private final RecommendationFeatures recommendationFeatures;
+    private final AdmissionFormulas admissionFormulas;
+    private final Gazetteer gazetteer;
+    private final TransactionTemplate transaction;
+    private final TransactionTemplate readOnly;
+    private final int defaultWishes;
+    private final Timer wishesTimer;
+    private final Timer matchingTimer;
+
+    private final ExecutorService coordinator = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "allocation-run");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Set<Long> running = ConcurrentHashMap.newKeySet();
+
+    public AllocationServiceImpl(AllocationRepository allocationRepository,
+                                 CandidateProfileRepository candidateProfileRepository,
+                                 PreferenceRepository preferenceRepository,
+                                 CatalogSnapshot catalogSnapshot,
+                                 EligibilityRules eligibilityRules,
+                                 RecommendationFeatures recommendationFeatures,
+                                 AdmissionFormulas admissionFormulas,
+                                 Gazetteer gazetteer,
+                                 PlatformTransactionManager transactionManager,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${app.allocation.wishes:10}") int defaultWishes) {
+        this.allocationRepository = allocationRepository;
+        this.candidateProfileRepository = candidateProfileRepository;
+        this.preferenceRepository = preferenceRepository;
+        this.catalogSnapshot = catalogSnapshot;
+        this.eligibilityRules = eligibilityRules;
+        this.recommendationFeatures = recommendationFeatures;
+        this.admissionFormulas = admissionFormulas;
+        this.gazetteer = gazetteer;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+        this.defaultWishes = defaultWishes;
+        this.wishesTimer = phaseTimer(meterRegistry, "wishes");
+        this.matchingTimer = phaseTimer(meterRegistry, "matching");
+    }
+
+    @Override
+    public synchronized AllocationRunDTO startRun(Integer wishes) {
+        if (!running.isEmpty()) {
+            Long id = running.iterator().next();
+            log.info("Allocation run {} is still in progress, not starting another", id);
+            return getRun(id);
+        }
+        int perStudent = Math.max(1, Math.min(wishes == null ? defaultWishes : wishes, MAX_WISHES));
+        Catalog catalog = catalogSnapshot.current();
+        AllocationRepository.Run run = allocationRepository.create(catalog.version(), perStudent);
+        log.info("Allocation run {} created: {} wishes per student against catalog v{}", run.id(), perStudent,
+                catalog.version());
+        running.add(run.id());
+        coordinator.execute(() -> {
+            try {
+                run(run.id(), perStudent);
+            } finally {
+                running.remove(run.id());
+            }
+        });
+        return toDTO(run, null);
+    }
+
+    @Override
+    public AllocationRunDTO getRun(Long id) {
+        AllocationRepository.Run run = allocationRepository.findById(id)
+                .orElseThrow(() -> new AllocationRunNotFoundException("Allocation run not found with id: " + id));
+        Catalog catalog = catalogSnapshot.current();
+        List<AllocationCutoffDTO> cutoffs = allocationRepository.findCutoffs(id).stream()
+                .map(cutoff -> {
+                    int f = catalog.filiereIndex(cutoff.filiereId());
+                    return AllocationCutoffDTO.builder()
+                            .filiereId(cutoff.filiereId())
+                            .filiereName(f == Catalog.NONE ? null : catalog.filiere(f).name())
+                            .seats(cutoff.seats())
+                            .applicants(cutoff.applicants())
+                            .admitted(cutoff.admitted())
+                            .cutoffScore(cutoff.cutoffScore())
+                            .build();
+                })
+                .toList();
+        return toDTO(run, cutoffs);
+    }
+
+    @Override
+    public List<AllocationRunDTO> getRecentRuns() {
+        return allocationRepository.findRecent(RECENT_RUNS).stream()
+                .map(run -> toDTO(run, null))
+                .toList();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        coordinator.shutdownNow();
+    }
+
+    private void run(Long runId, int perStudent) {
+        try {
+            Catalog catalog = catalogSnapshot.current();
+            EligibilityIndex rules = eligibilityRules.forCatalog(catalog);
+            RecommendationIndex features = recommendationFeatures.forCatalog(catalog);
+            ScoreFormulas formulas = admissionFormulas.forCatalog(catalog);
+
+            long started = System.nanoTime();
+            DeferredAcceptance.Wishes wishes = new DeferredAcceptance.Wishes();
+            readOnly.executeWithoutResult(status -> {
+                Map<Long, Preferences> preferences = preferences();
+                candidateProfileRepository.forEach(profile -> {
+                    Preferences preference = preferences.getOrDefault(profile.userId(), Preferences.NONE);
+                    List<RecommendationIndex.Recommendation> ranked =
+                            features.recommend(preference, rules.eligible(profile), rules, profile, perStudent);
+                    double[] variables = ranked.isEmpty() ? null : ScoreVariables.of(profile);
+                    for (RecommendationIndex.Recommendation wish : ranked) {
+                        wishes.add(wish.filiere(), rankingScore(formulas, wish.filiere(), variables, profile));
+                    }
+                    wishes.endStudent();
+                });
+            });
+            long collected = System.nanoTime();
+            wishesTimer.record(collected - started, TimeUnit.NANOSECONDS);
+
+            DeferredAcceptance.Result result = wishes.run(capacities(catalog));
+            matchingTimer.record(System.nanoTime() - collected, TimeUnit.NANOSECONDS);
+
+            List<AllocationRepository.Cutoff> cutoffs = new ArrayList<>(catalog.filiereCount());
+            for (int f = 0; f < catalog.filiereCount(); f++) {
+                double cutoff = result.cutoff(f);
+                cutoffs.add(new AllocationRepository.Cutoff(catalog.filiere(f).id(), catalog.filiere(f).seatsAvailabial(),
+                        result.applicants()[f], result.admitted()[f],
+                        Double.isNaN(cutoff) ? null : BigDecimal.valueOf(cutoff).setScale(3, RoundingMode.HALF_UP)));
+            }
+            int assigned = result.assignedCount();
+            transaction.executeWithoutResult(status -> allocationRepository.markDone(runId, wishes.students(),
+                    assigned, result.proposals(), cutoffs));
+            log.info("Allocation run {} DONE: {} students, {} wishes, {} assigned, {} proposals; wishes in {}ms, "
+                            + "matching in {}ms", runId, wishes.students(), wishes.size(), assigned, result.proposals(),
+                    (collected - started) / 1_000_000, (System.nanoTime() - collected) / 1_000_000);
+        } catch (RuntimeException e) {
+            log.warn("Allocation run {} failed: {}", runId, e.getMessage());
+            allocationRepository.markFailed(runId, e.getMessage());
+        }
+    }
+
+    /** Every stated preference by user id; students without one rank on eligibility alone. */
+    private Map<Long, Preferences> preferences() {
+        Map<Long, Preferences> byUser = new HashMap<>();
+        for (Preference preference : preferenceRepository.findAll()) {
+            byUser.put(preference.getUser().getIdUser(), Preferences.of(preference, gazetteer));
+        }
+        return byUser;
+    }
+
+    /**
+     * The student's score at filiere {@code f}: its formula, else the profile score; 0 when
+     * there is neither, so such students come last.
+     */
+    static double rankingScore(ScoreFormulas formulas, int f, double[] variables, CandidateProfile profile) {
+        double score = formulas.score(f, variables);
+        if (!Double.isNaN(score)) {
+            return score;
+        }
+        return profile.score() == null ? 0 : profile.score().doubleValue();
+    }
+
+    /** Seats per filiere; -1 for a filiere that sets no limit. */
+    static int[] capacities(Catalog catalog) {
+        int[] capacity = new int[catalog.filiereCount()];
+        for (int f = 0; f < capacity.length; f++) {
+            Integer seats = catalog.filiere(f).seatsAvailabial();
+            capacity[f] = seats == null ? -1 : Math.max(0, seats);
+        }
+        return capacity;
+    }
+
+    private static AllocationRunDTO toDTO(AllocationRepository.Run run, List<AllocationCutoffDTO> cutoffs) {
+        return AllocationRunDTO.builder()
+                .id(run.id())
+                .status(run.status().name())
+                .catalogVersion(run.catalogVersion())
+                .wishesPerStudent(run.wishesPerStudent())
+                .students(run.students())
+                .assigned(run.assigned())
+                .proposals(run.proposals())
+                .createdAt(run.createdAt())
+                .finishedAt(run.finishedAt())
+                .error(run.error())
+                .cutoffs(cutoffs)
+                .build();
+    }
+
+    private static Timer phaseTimer(MeterRegistry meterRegistry, String phase) {
+        return Timer.builder("allocation.run")
+                .description("Time spent in each phase of a seat allocation run")
+                .tag("phase", phase)
+                .register(meterRegistry);
+    }
+}
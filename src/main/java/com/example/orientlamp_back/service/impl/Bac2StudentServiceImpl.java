@@ -4,12 +4,14 @@ import com.example.orientlamp_back.dto.Bac2StudentRequestDTO;
 import com.example.orientlamp_back.dto.Bac2StudentResponseDTO;
 import com.example.orientlamp_back.entity.Bac2Student;
 import com.example.orientlamp_back.entity.User;
+import com.example.orientlamp_back.event.StudentProfileChangedEvent;
 import com.example.orientlamp_back.mapper.Bac2StudentMapper;
 import com.example.orientlamp_back.repository.Bac2StudentRepository;
 import com.example.orientlamp_back.repository.UserRepository;
 import com.example.orientlamp_back.service.Bac2StudentService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -26,6 +28,7 @@ public class Bac2StudentServiceImpl implements Bac2StudentService {
     private final Bac2StudentRepository bac2StudentRepository;
     private final UserRepository userRepository;
     private final Bac2StudentMapper bac2StudentMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public Bac2StudentResponseDTO createBac2Student(Bac2StudentRequestDTO requestDTO) {
@@ -40,6 +43,7 @@ public class Bac2StudentServiceImpl implements Bac2StudentService {
 
         Bac2Student bac2Student = bac2StudentMapper.toEntity(requestDTO, user);
         Bac2Student savedBac2Student = bac2StudentRepository.save(bac2Student);
+        eventPublisher.publishEvent(new StudentProfileChangedEvent(savedBac2Student.getIdUser()));
 
         log.info("Bac2Student created successfully for user ID: {}", savedBac2Student.getIdUser());
         return bac2StudentMapper.toDTO(savedBac2Student);
@@ -54,6 +58,7 @@ public class Bac2StudentServiceImpl implements Bac2StudentService {
 
         bac2StudentMapper.updateEntityFromDTO(requestDTO, bac2Student);
         Bac2Student updatedBac2Student = bac2StudentRepository.save(bac2Student);
+        eventPublisher.publishEvent(new StudentProfileChangedEvent(idUser));
 
         log.info("Bac2Student updated successfully for user ID: {}", updatedBac2Student.getIdUser());
         return bac2StudentMapper.toDTO(updatedBac2Student);
@@ -68,6 +73,7 @@ public class Bac2StudentServiceImpl implements Bac2StudentService {
         }
 
         bac2StudentRepository.deleteById(idUser);
+        eventPublisher.publishEvent(new StudentProfileChangedEvent(idUser));
         log.info("Bac2Student deleted successfully for user ID: {}", idUser);
     }
 
@@ -4,12 +4,14 @@ import com.example.orientlamp_back.dto.BacStudentRequestDTO;
 import com.example.orientlamp_back.dto.BacStudentResponseDTO;
 import com.example.orientlamp_back.entity.BacStudent;
 import com.example.orientlamp_back.entity.User;
+import com.example.orientlamp_back.event.StudentProfileChangedEvent;
 import com.example.orientlamp_back.mapper.BacStudentMapper;
 import com.example.orientlamp_back.repository.BacStudentRepository;
 import com.example.orientlamp_back.repository.UserRepository;
 import com.example.orientlamp_back.service.BacStudentService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -26,6 +28,7 @@ public class BacStudentServiceImpl implements BacStudentService {
     private final BacStudentRepository bacStudentRepository;
     private final UserRepository userRepository;
     private final BacStudentMapper bacStudentMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public BacStudentResponseDTO createBacStudent(BacStudentRequestDTO requestDTO) {
@@ -40,6 +43,7 @@ public class BacStudentServiceImpl implements BacStudentService {
 
         BacStudent bacStudent = bacStudentMapper.toEntity(requestDTO, user);
         BacStudent savedBacStudent = bacStudentRepository.save(bacStudent);
+        eventPublisher.publishEvent(new StudentProfileChangedEvent(savedBacStudent.getIdUser()));
 
         log.info("BacStudent created successfully for user ID: {}", savedBacStudent.getIdUser());
         return bacStudentMapper.toDTO(savedBacStudent);
@@ -54,6 +58,7 @@ public class BacStudentServiceImpl implements BacStudentService {
 
         bacStudentMapper.updateEntityFromDTO(requestDTO, bacStudent);
         BacStudent updatedBacStudent = bacStudentRepository.save(bacStudent);
+        eventPublisher.publishEvent(new StudentProfileChangedEvent(idUser));
 
         log.info("BacStudent updated successfully for user ID: {}", updatedBacStudent.getIdUser());
         return bacStudentMapper.toDTO(updatedBacStudent);
@@ -68,6 +73,7 @@ public class BacStudentServiceImpl implements BacStudentService {
         }
 
         bacStudentRepository.deleteById(idUser);
+        eventPublisher.publishEvent(new StudentProfileChangedEvent(idUser));
         log.info("BacStudent deleted successfully for user ID: {}", idUser);
     }
 
@@ -1,21 +1,34 @@
 package com.example.orientlamp_back.service.impl;
 
+import com.example.orientlamp_back.dto.CritereHistoryDTO;
 import com.example.orientlamp_back.dto.CritereRequestDTO;
 import com.example.orientlamp_back.dto.CritereResponseDTO;
+import com.example.orientlamp_back.dto.ThresholdProjectionDTO;
 import com.example.orientlamp_back.entity.Critere;
 import com.example.orientlamp_back.entity.Filiere;
+import com.example.orientlamp_back.event.CatalogChangedEvent;
 import com.example.orientlamp_back.mapper.CritereMapper;
+import com.example.orientlamp_back.repository.CritereHistoryRepository;
 import com.example.orientlamp_back.repository.CritereRepository;
 import com.example.orientlamp_back.repository.FiliereRepository;
 import com.example.orientlamp_back.service.CritereService;
+import com.example.orientlamp_back.service.admission.ScoreFormula;
+import com.example.orientlamp_back.service.admission.ThresholdHistory;
+import com.example.orientlamp_back.service.admission.ThresholdTrends;
+import com.example.orientlamp_back.service.catalog.Catalog;
+import com.example.orientlamp_back.service.catalog.CatalogSnapshot;
+import com.example.orientlamp_back.service.eligibility.CritereRequirementsParser;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.function.Predicate;
 
 @Service
 @RequiredArgsConstructor
@@ -24,12 +37,17 @@ import java.util.stream.Collectors;
 public class CritereServiceImpl implements CritereService {
 
     private final CritereRepository critereRepository;
+    private final CritereHistoryRepository critereHistoryRepository;
+    private final ThresholdTrends thresholdTrends;
     private final FiliereRepository filiereRepository;
     private final CritereMapper critereMapper;
+    private final CatalogSnapshot catalogSnapshot;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public CritereResponseDTO createCritere(CritereRequestDTO requestDTO) {
         log.info("Creating critere for filiere ID: {}", requestDTO.getFiliereId());
+        validateFormula(requestDTO);
 
         Filiere filiere = filiereRepository.findById(requestDTO.getFiliereId())
                 .orElseThrow(() -> new RuntimeException("Filiere not found with id: " + requestDTO.getFiliereId()));
@@ -39,8 +57,11 @@ public class CritereServiceImpl implements CritereService {
         }
 
         Critere critere = critereMapper.toEntity(requestDTO, filiere);
+        critere.setRequirements(CritereRequirementsParser.of(critere));
         Critere savedCritere = critereRepository.save(critere);
+        critereHistoryRepository.append(savedCritere);
 
+        eventPublisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.Type.CRITERE, savedCritere.getFiliereId()));
         log.info("Critere created successfully for filiere ID: {}", savedCritere.getFiliereId());
         return critereMapper.toDTO(savedCritere);
     }
@@ -48,6 +69,7 @@ public class CritereServiceImpl implements CritereService {
     @Override
     public CritereResponseDTO updateCritere(Long filiereId, CritereRequestDTO requestDTO) {
         log.info("Updating critere for filiere ID: {}", filiereId);
+        validateFormula(requestDTO);
 
         Critere critere = critereRepository.findById(filiereId)
                 .orElseThrow(() -> new RuntimeException("Critere not found for filiere id: " + filiereId));
@@ -56,8 +78,11 @@ public class CritereServiceImpl implements CritereService {
                 .orElseThrow(() -> new RuntimeException("Filiere not found with id: " + requestDTO.getFiliereId()));
 
         critereMapper.updateEntityFromDTO(requestDTO, critere, filiere);
+        critere.setRequirements(CritereRequirementsParser.of(critere));
         Critere updatedCritere = critereRepository.save(critere);
+        critereHistoryRepository.append(updatedCritere);
 
+        eventPublisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.Type.CRITERE, updatedCritere.getFiliereId()));
         log.info("Critere updated successfully for filiere ID: {}", updatedCritere.getFiliereId());
         return critereMapper.toDTO(updatedCritere);
     }
@@ -71,88 +96,96 @@ public class CritereServiceImpl implements CritereService {
         }
 
         critereRepository.deleteById(filiereId);
+        eventPublisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.Type.CRITERE, filiereId));
         log.info("Critere deleted successfully for filiere ID: {}", filiereId);
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public CritereResponseDTO getCritereByFiliereId(Long filiereId) {
         log.info("Fetching critere for filiere ID: {}", filiereId);
 
-        Critere critere = critereRepository.findById(filiereId)
-                .orElseThrow(() -> new RuntimeException("Critere not found for filiere id: " + filiereId));
+        Catalog catalog = catalogSnapshot.current();
+        int index = catalog.filiereIndex(filiereId);
+        if (index < 0 || catalog.filiere(index).critere() == null) {
+            throw new RuntimeException("Critere not found for filiere id: " + filiereId);
+        }
 
-        return critereMapper.toDTO(critere);
+        return catalog.toCritereDTO(index);
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public List<CritereResponseDTO> getAllCriteres() {
         log.info("Fetching all criteres");
 
-        return critereRepository.findAll().stream()
-                .map(critereMapper::toDTO)
-                .collect(Collectors.toList());
+        return collect(catalogSnapshot.current(), row -> true);
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public List<CritereResponseDTO> getCriteresByAnneeAcademique(String anneeAcademique) {
         log.info("Fetching criteres by annee academique: {}", anneeAcademique);
 
-        return critereRepository.findByAnneeAcademique(anneeAcademique).stream()
-                .map(critereMapper::toDTO)
-                .collect(Collectors.toList());
+        Catalog catalog = catalogSnapshot.current();
+        int code = catalog.code(anneeAcademique);
+        return collect(catalog, row -> row.anneeAcademique() == code);
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public List<CritereResponseDTO> getCriteresByTypeCandidat(String typeCandidat) {
         log.info("Fetching criteres by type candidat: {}", typeCandidat);
 
-        return critereRepository.findByTypeCandidat(typeCandidat).stream()
-                .map(critereMapper::toDTO)
-                .collect(Collectors.toList());
+        Catalog catalog = catalogSnapshot.current();
+        int code = catalog.code(typeCandidat);
+        return collect(catalog, row -> row.typeCandidat() == code);
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public List<CritereResponseDTO> getCriteresBySerieBacCible(String serieBacCible) {
         log.info("Fetching criteres by serie bac cible: {}", serieBacCible);
 
-        return critereRepository.findBySerieBacCible(serieBacCible).stream()
-                .map(critereMapper::toDTO)
-                .collect(Collectors.toList());
+        Catalog catalog = catalogSnapshot.current();
+        int code = catalog.code(serieBacCible);
+        return collect(catalog, row -> row.serieBacCible() == code);
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public List<CritereResponseDTO> getCriteresBySeuilCalculGreaterThanEqual(BigDecimal minSeuil) {
         log.info("Fetching criteres with seuil calcul >= {}", minSeuil);
 
-        return critereRepository.findBySeuilCalculGreaterThanEqual(minSeuil).stream()
-                .map(critereMapper::toDTO)
-                .collect(Collectors.toList());
+        return collect(catalogSnapshot.current(),
+                row -> row.seuilCalcul() != null && row.seuilCalcul().compareTo(minSeuil) >= 0);
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public List<CritereResponseDTO> getCriteresWithEntretien() {
         log.info("Fetching criteres with entretien");
 
-        return critereRepository.findWithEntretien().stream()
-                .map(critereMapper::toDTO)
-                .collect(Collectors.toList());
+        return collect(catalogSnapshot.current(), row -> Boolean.TRUE.equals(row.aEntretien()));
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public List<CritereResponseDTO> getCriteresByAgeMaxLessThanEqual(Integer age) {
         log.info("Fetching criteres with age max <= {}", age);
 
-        return critereRepository.findByAgeMaxLessThanEqual(age).stream()
-                .map(critereMapper::toDTO)
-                .collect(Collectors.toList());
+        return collect(catalogSnapshot.current(), row -> row.ageMax() != null && row.ageMax() <= age);
+    }
+
+    private List<CritereResponseDTO> collect(Catalog catalog, Predicate<Catalog.CritereRow> filter) {
+        List<CritereResponseDTO> result = new ArrayList<>();
+        for (int i = 0; i < catalog.filiereCount(); i++) {
+            Catalog.CritereRow critere = catalog.filiere(i).critere();
+            if (critere != null && filter.test(critere)) {
+                result.add(catalog.toCritereDTO(i));
+            }
+        }
+        return result;
     }
 
     @Override
@@ -160,4 +193,89 @@ public class CritereServiceImpl implements CritereService {
     public boolean existsByFiliereId(Long filiereId) {
         return critereRepository.existsByFiliereId(filiereId);
     }
-}
\ No newline at end of file
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<CritereHistoryDTO> getCritereHistory(Long filiereId) {
+        log.info("Fetching critere history for filiere ID: {}", filiereId);
+
+        return critereHistoryRepository.findByFiliereId(filiereId).stream()
+                .map(CritereServiceImpl::toHistoryDTO)
+                .toList();
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public CritereHistoryDTO getCritereAsOf(Long filiereId, int year) {
+        log.info("Fetching critere for filiere ID: {} as of {}", filiereId, year);
+
+        CritereHistoryRepository.Entry entry = thresholdTrends.current().asOf(filiereId, year);
+        if (entry == null) {
+            throw new RuntimeException("No critere recorded for filiere id: " + filiereId + " as of " + year);
+        }
+        return toHistoryDTO(entry);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public ThresholdProjectionDTO getThresholdTrend(Long filiereId) {
+        log.info("Fetching threshold trend for filiere ID: {}", filiereId);
+
+        ThresholdHistory history = thresholdTrends.current();
+        ThresholdHistory.Projection projection = history.projection(filiereId);
+        if (projection == null) {
+            throw new RuntimeException("No critere recorded for filiere id: " + filiereId);
+        }
+        ThresholdProjectionDTO dto = toProjectionDTO(catalogSnapshot.current(), projection);
+        dto.setHistory(history.years(filiereId).stream().map(CritereServiceImpl::toHistoryDTO).toList());
+        return dto;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<ThresholdProjectionDTO> getThresholdTrends() {
+        log.info("Fetching threshold trends");
+
+        Catalog catalog = catalogSnapshot.current();
+        return thresholdTrends.current().projections().stream()
+                .map(projection -> toProjectionDTO(catalog, projection))
+                .toList();
+    }
+
+    private static CritereHistoryDTO toHistoryDTO(CritereHistoryRepository.Entry entry) {
+        return CritereHistoryDTO.builder()
+                .filiereId(entry.filiereId())
+                .anneeAcademique(entry.anneeAcademique())
+                .academicYear(entry.academicYear())
+                .revision(entry.revision())
+                .typeCandidat(entry.typeCandidat())
+                .serieBacCible(entry.serieBacCible())
+                .seuilCalcul(entry.seuilCalcul())
+                .noteConcoursEcrit(entry.noteConcoursEcrit())
+                .scorePrepa(entry.scorePrepa())
+                .classementCnc(entry.classementCnc())
+                .recordedAt(entry.recordedAt())
+                .build();
+    }
+
+    private static ThresholdProjectionDTO toProjectionDTO(Catalog catalog, ThresholdHistory.Projection projection) {
+        int index = catalog.filiereIndex(projection.filiereId());
+        return ThresholdProjectionDTO.builder()
+                .filiereId(projection.filiereId())
+                .filiereName(index == Catalog.NONE ? null : catalog.filiere(index).name())
+                .anneeAcademique(projection.anneeAcademique())
+                .seuilCalcul(projection.seuilCalcul())
+                .seuilSlope(projection.seuilSlope())
+                .scorePrepa(projection.scorePrepa())
+                .classementCnc(projection.classementCnc())
+                .years(projection.years())
+                .build();
+    }
+
+    /** Rejects a score formula that does not compile before anything is written. */
+    private static void validateFormula(CritereRequestDTO requestDTO) {
+        if (requestDTO.getFormuleScore() != null && !requestDTO.getFormuleScore().isBlank()) {
+            ScoreFormula.compile(requestDTO.getFormuleScore());
+        }
+    }
+}
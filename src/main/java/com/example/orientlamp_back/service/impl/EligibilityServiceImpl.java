@@ -0,0 +1,247 @@
+package com.example.orientlamp_back.service.impl;
+
+import com.example.orientlamp_back.dto.CatalogSort;
+import com.example.orientlamp_back.dto.EligibilityDTO;
+import com.example.orientlamp_back.dto.EligibilityReasonDTO;
+import com.example.orientlamp_back.dto.EligibilitySimulationDTO;
+import com.example.orientlamp_back.dto.EligibilitySimulationRequestDTO;
+import com.example.orientlamp_back.dto.FiliereEligibilityDTO;
+import com.example.orientlamp_back.dto.FiliereSummaryDTO;
+import com.example.orientlamp_back.entity.User;
+import com.example.orientlamp_back.exception.InvalidSimulationRequestException;
+import com.example.orientlamp_back.exception.StudentProfileNotFoundException;
+import com.example.orientlamp_back.service.EligibilityService;
+import com.example.orientlamp_back.service.catalog.Catalog;
+import com.example.orientlamp_back.service.catalog.CatalogSnapshot;
+import com.example.orientlamp_back.service.eligibility.CandidateProfile;
+import com.example.orientlamp_back.service.eligibility.CandidateProfiles;
+import com.example.orientlamp_back.service.eligibility.CandidateType;
+import com.example.orientlamp_back.service.eligibility.EligibilityIndex;
+import com.example.orientlamp_back.service.eligibility.EligibilityMatrix;
+import com.example.orientlamp_back.service.eligibility.EligibilityRules;
+import com.example.orientlamp_back.service.eligibility.Transcript;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Checks a student's profile against the compiled {@link EligibilityIndex}, read for the same
+ * catalog snapshot as the filieres it reports on.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class EligibilityServiceImpl implements EligibilityService {
+
+    private final CatalogSnapshot catalogSnapshot;
+    private final EligibilityRules eligibilityRules;
+    private final CandidateProfiles candidateProfiles;
+    private final EligibilityMatrix eligibilityMatrix;
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public EligibilityDTO getEligibility(User user, boolean eligibleOnly) {
+        CandidateProfile profile = candidateProfiles.forUser(user);
+        Catalog catalog = catalogSnapshot.current();
+        EligibilityIndex index = eligibilityRules.forCatalog(catalog);
+
+        BitSet eligible = index.eligible(profile);
+        List<FiliereEligibilityDTO> passed = new ArrayList<>(eligible.cardinality());
+        List<FiliereEligibilityDTO> failed = new ArrayList<>();
+        for (int position = 0; position < catalog.filiereCount(); position++) {
+            int f = catalog.filiereAt(CatalogSort.NAME, position);
+            if (eligibleOnly && !eligible.get(f)) {
+                continue;
+            }
+            EligibilityIndex.Verdict verdict = index.explain(f, profile);
+            if (verdict == null) {
+                continue;
+            }
+            (verdict.eligible() ? passed : failed).add(toDTO(catalog, verdict));
+        }
+        passed.addAll(failed);
+
+        return EligibilityDTO.builder()
+                .candidateType(profile.type().name())
+                .bacMajor(profile.bacMajor())
+                .score(profile.score())
+                .age(profile.age())
+                .eligibleCount(eligible.cardinality())
+                .total(index.ruleCount())
+                .results(passed)
+                .build();
+    }
+
+    /**
+     * One primary-key lookup in the matrix. The cells still being recomputed are evaluated live
+     * instead, the whole row when it is the student's own, so a dashboard never shows
+     * eligibility from before an update.
+     */
+    @Override
+    public List<FiliereSummaryDTO> getEligibleFilieres(User user) {
+        Catalog catalog = catalogSnapshot.current();
+        EligibilityMatrix.Pending pending = eligibilityMatrix.pending(user.getIdUser());
+        BitSet eligible;
+        if (pending.row()) {
+            eligible = eligibilityRules.forCatalog(catalog).eligible(candidateProfiles.forUser(user));
+        } else {
+            eligible = new BitSet(catalog.filiereCount());
+            for (Long filiereId : eligibilityMatrix.filiereIds(user.getIdUser())) {
+                int f = catalog.filiereIndex(filiereId);
+                if (f >= 0) {
+                    eligible.set(f);
+                }
+            }
+            if (!pending.filieres().isEmpty()) {
+                override(catalog, user, pending.filieres(), eligible);
+            }
+        }
+
+        List<FiliereSummaryDTO> filieres = new ArrayList<>(eligible.cardinality());
+        for (int position = 0; position < catalog.filiereCount(); position++) {
+            int f = catalog.filiereAt(CatalogSort.NAME, position);
+            if (eligible.get(f)) {
+                filieres.add(catalog.toFiliereSummaryDTO(f));
+            }
+        }
+        return filieres;
+    }
+
+    /** Re-evaluates {@code filiereIds} into {@code eligible}; a student without a profile has no row to correct. */
+    private void override(Catalog catalog, User user, Set<Long> filiereIds, BitSet eligible) {
+        CandidateProfile profile;
+        try {
+            profile = candidateProfiles.forUser(user);
+        } catch (StudentProfileNotFoundException e) {
+            return;
+        }
+        EligibilityIndex index = eligibilityRules.forCatalog(catalog);
+        for (Long filiereId : filiereIds) {
+            int f = catalog.filiereIndex(filiereId);
+            if (f >= 0) {
+                eligible.set(f, index.isEligible(f, profile));
+            }
+        }
+    }
+
+    /**
+     * Both profiles are evaluated against the same index, one binary search per (type, series)
+     * group each, so dragging a grade slider costs microseconds; the timer
+     * {@code eligibility.simulate} records it without the reply's mapping.
+     */
+    @Override
+    public EligibilitySimulationDTO simulate(User user, EligibilitySimulationRequestDTO request) {
+        CandidateProfile current;
+        try {
+            current = candidateProfiles.forUser(user);
+        } catch (StudentProfileNotFoundException e) {
+            current = null;
+        }
+        CandidateProfile simulated = simulatedProfile(user, current, request);
+        Catalog catalog = catalogSnapshot.current();
+        EligibilityIndex index = eligibilityRules.forCatalog(catalog);
+
+        BitSet[] sets = new BitSet[2];
+        BigDecimal[] next = new BigDecimal[1];
+        CandidateProfile baseline = current;
+        meterRegistry.timer("eligibility.simulate").record(() -> {
+            sets[0] = baseline == null ? new BitSet() : index.eligible(baseline);
+            sets[1] = index.eligible(simulated);
+            next[0] = index.nextThreshold(simulated);
+        });
+
+        BitSet gained = (BitSet) sets[1].clone();
+        gained.andNot(sets[0]);
+        BitSet lost = (BitSet) sets[0].clone();
+        lost.andNot(sets[1]);
+        return EligibilitySimulationDTO.builder()
+                .candidateType(simulated.type().name())
+                .bacMajor(simulated.bacMajor())
+                .score(simulated.score())
+                .age(simulated.age())
+                .eligibleCount(sets[1].cardinality())
+                .currentEligibleCount(sets[0].cardinality())
+                .gained(summaries(catalog, gained))
+                .lost(summaries(catalog, lost))
+                .nextThreshold(next[0])
+                .build();
+    }
+
+    /** {@code request} over {@code current} when both are of the same track, else {@code request} alone. */
+    static CandidateProfile simulatedProfile(User user, CandidateProfile current, EligibilitySimulationRequestDTO request) {
+        CandidateType type = simulatedType(request, current);
+        CandidateProfile base = current != null && current.type() == type ? current : null;
+        String bacMajor = request.getBacMajor() != null ? request.getBacMajor()
+                : current == null ? null : current.bacMajor();
+        Integer age = request.getAge() != null ? request.getAge() : user.getAge();
+
+        return switch (type) {
+            case BACHELIER -> new CandidateProfile(user.getIdUser(), type, bacMajor,
+                    request.getGrade() != null ? request.getGrade() : base == null ? null : base.score(), age);
+            case CPGE -> new CandidateProfile(user.getIdUser(), type, bacMajor,
+                    request.getCncRating() != null ? request.getCncRating() : base == null ? null : base.score(), age);
+            case DIPLOME -> {
+                Transcript was = base == null ? null : base.transcript();
+                Transcript transcript = Transcript.of(
+                        request.getAvgS1() != null ? request.getAvgS1() : was == null ? null : was.s1(),
+                        request.getAvgS2() != null ? request.getAvgS2() : was == null ? null : was.s2(),
+                        request.getAvgS3() != null ? request.getAvgS3() : was == null ? null : was.s3(),
+                        request.getAvgS4() != null ? request.getAvgS4() : was == null ? null : was.s4(),
+                        request.getDiplomaType() != null ? request.getDiplomaType() : was == null ? null : was.diplomaText());
+                yield new CandidateProfile(user.getIdUser(), type, bacMajor, transcript.average(), age, transcript);
+            }
+        };
+    }
+
+    private static CandidateType simulatedType(EligibilitySimulationRequestDTO request, CandidateProfile current) {
+        if (request.getCandidateType() != null) {
+            try {
+                return CandidateType.valueOf(request.getCandidateType().trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new InvalidSimulationRequestException("Unknown candidate type: " + request.getCandidateType()
+                        + " (expected BACHELIER, CPGE or DIPLOME)");
+            }
+        }
+        if (request.getCncRating() != null) {
+            return CandidateType.CPGE;
+        }
+        if (request.getAvgS1() != null || request.getAvgS2() != null || request.getAvgS3() != null
+                || request.getAvgS4() != null || request.getDiplomaType() != null) {
+            return CandidateType.DIPLOME;
+        }
+        if (request.getGrade() != null) {
+            return CandidateType.BACHELIER;
+        }
+        if (current != null) {
+            return current.type();
+        }
+        throw new InvalidSimulationRequestException(
+                "Give a bac grade, a CNC rating or semester averages to simulate a profile");
+    }
+
+    private static List<FiliereSummaryDTO> summaries(Catalog catalog, BitSet filieres) {
+        List<FiliereSummaryDTO> summaries = new ArrayList<>(filieres.cardinality());
+        for (int position = 0; position < catalog.filiereCount(); position++) {
+            int f = catalog.filiereAt(CatalogSort.NAME, position);
+            if (filieres.get(f)) {
+                summaries.add(catalog.toFiliereSummaryDTO(f));
+            }
+        }
+        return summaries;
+    }
+
+    private static FiliereEligibilityDTO toDTO(Catalog catalog, EligibilityIndex.Verdict verdict) {
+        List<EligibilityReasonDTO> reasons = verdict.reasons().stream()
+                .map(r -> new EligibilityReasonDTO(r.check().name(), r.passed(), r.message()))
+                .toList();
+        return new FiliereEligibilityDTO(catalog.toFiliereSummaryDTO(verdict.filiere()), verdict.eligible(), reasons);
+    }
+}
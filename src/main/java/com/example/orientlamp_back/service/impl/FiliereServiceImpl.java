@@ -1,21 +1,45 @@
 package com.example.orientlamp_back.service.impl;
 
+import com.example.orientlamp_back.dto.CatalogEmbed;
+import com.example.orientlamp_back.dto.CatalogSort;
+import com.example.orientlamp_back.dto.CursorPageDTO;
+import com.example.orientlamp_back.dto.FacetCountDTO;
+import com.example.orientlamp_back.dto.FacetedPageDTO;
+import com.example.orientlamp_back.dto.FiliereFacetQuery;
+import com.example.orientlamp_back.dto.FiliereQueryFilter;
 import com.example.orientlamp_back.dto.FiliereRequestDTO;
 import com.example.orientlamp_back.dto.FiliereResponseDTO;
+import com.example.orientlamp_back.dto.FiliereSummaryDTO;
+import com.example.orientlamp_back.event.CatalogChangedEvent;
 import com.example.orientlamp_back.entity.Filiere;
 import com.example.orientlamp_back.entity.University;
+import com.example.orientlamp_back.exception.InvalidFiliereQueryException;
 import com.example.orientlamp_back.mapper.FiliereMapper;
+import com.example.orientlamp_back.repository.FiliereQueryRepository;
 import com.example.orientlamp_back.repository.FiliereRepository;
 import com.example.orientlamp_back.repository.UniversityRepository;
+import com.example.orientlamp_back.service.CatalogCursor;
 import com.example.orientlamp_back.service.FiliereService;
+import com.example.orientlamp_back.service.catalog.Catalog;
+import com.example.orientlamp_back.service.catalog.CatalogSnapshot;
+import com.example.orientlamp_back.service.catalog.FiliereFacetIndex;
+import com.example.orientlamp_back.service.catalog.FiliereFacets;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
 
 @Service
 @RequiredArgsConstructor
@@ -24,8 +48,12 @@ import java.util.stream.Collectors;
 public class FiliereServiceImpl implements FiliereService {
 
     private final FiliereRepository filiereRepository;
+    private final FiliereQueryRepository filiereQueryRepository;
     private final UniversityRepository universityRepository;
     private final FiliereMapper filiereMapper;
+    private final CatalogSnapshot catalogSnapshot;
+    private final FiliereFacets filiereFacets;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public FiliereResponseDTO createFiliere(FiliereRequestDTO requestDTO) {
@@ -42,6 +70,7 @@ public class FiliereServiceImpl implements FiliereService {
         Filiere filiere = filiereMapper.toEntity(requestDTO, university);
         Filiere savedFiliere = filiereRepository.save(filiere);
 
+        eventPublisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.Type.FILIERE, savedFiliere.getId()));
         log.info("Filiere created successfully with ID: {}", savedFiliere.getId());
         return filiereMapper.toDTO(savedFiliere);
     }
@@ -65,6 +94,7 @@ public class FiliereServiceImpl implements FiliereService {
         filiereMapper.updateEntityFromDTO(requestDTO, filiere, university);
         Filiere updatedFiliere = filiereRepository.save(filiere);
 
+        eventPublisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.Type.FILIERE, updatedFiliere.getId()));
         log.info("Filiere updated successfully with ID: {}", updatedFiliere.getId());
         return filiereMapper.toDTO(updatedFiliere);
     }
@@ -78,87 +108,240 @@ public class FiliereServiceImpl implements FiliereService {
         }
 
         filiereRepository.deleteById(id);
+        eventPublisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.Type.FILIERE, id));
         log.info("Filiere deleted successfully with ID: {}", id);
     }
 
     @Override
-    @Transactional(readOnly = true)
-    public FiliereResponseDTO getFiliereById(Long id) {
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public FiliereResponseDTO getFiliereById(Long id, Set<CatalogEmbed> embed) {
         log.info("Fetching filiere with ID: {}", id);
 
-        Filiere filiere = filiereRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Filiere not found with id: " + id));
+        Catalog catalog = catalogSnapshot.current();
+        int index = catalog.filiereIndex(id);
+        if (index < 0) {
+            throw new RuntimeException("Filiere not found with id: " + id);
+        }
 
-        return filiereMapper.toDTO(filiere);
+        return catalog.toFiliereDTO(index, embed.contains(CatalogEmbed.CRITERE));
     }
 
     @Override
-    @Transactional(readOnly = true)
-    public List<FiliereResponseDTO> getAllFilieres() {
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<FiliereSummaryDTO> getAllFilieres() {
         log.info("Fetching all filieres");
 
-        return filiereRepository.findAll().stream()
-                .map(filiereMapper::toDTO)
-                .collect(Collectors.toList());
+        return collect(catalogSnapshot.current(), row -> true);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public CursorPageDTO<FiliereSummaryDTO> getFilieresPage(String cursorToken, Integer size, CatalogSort sort) {
+        log.info("Fetching filieres page sorted by {}", sort);
+
+        Catalog catalog = catalogSnapshot.current();
+        CatalogCursor cursor = CatalogCursor.decode(cursorToken, sort);
+        int pageSize = CatalogCursor.clampSize(size);
+
+        int from = catalog.seekFilieres(sort, cursor);
+        int to = Math.min(from + pageSize, catalog.filiereCount());
+
+        List<FiliereSummaryDTO> content = new ArrayList<>(to - from);
+        for (int position = from; position < to; position++) {
+            content.add(catalog.toFiliereSummaryDTO(catalog.filiereAt(sort, position)));
+        }
+
+        boolean hasNext = to < catalog.filiereCount();
+        String nextCursor = hasNext ? nextCursor(catalog, sort, catalog.filiereAt(sort, to - 1)) : null;
+
+        return CursorPageDTO.<FiliereSummaryDTO>builder()
+                .content(content)
+                .size(pageSize)
+                .sort(sort.name())
+                .nextCursor(nextCursor)
+                .hasNext(hasNext)
+                .build();
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public FacetedPageDTO<FiliereSummaryDTO> searchFilieres(FiliereFacetQuery query, String cursorToken,
+                                                           Integer size, CatalogSort sort) {
+        log.info("Faceted filiere search sorted by {}: {}", sort, query);
+
+        FiliereFacetIndex facets = filiereFacets.current();
+        Catalog catalog = facets.catalog();
+        CatalogCursor cursor = CatalogCursor.decode(cursorToken, sort);
+        int pageSize = CatalogCursor.clampSize(size);
+
+        Map<FiliereFacetIndex.Facet, Set<String>> selected = FiliereFacets.selection(query);
+        FiliereFacetIndex.Result result = facets.query(selected, LocalDate.now());
+        BitSet matches = result.matches();
+
+        List<FiliereSummaryDTO> content = new ArrayList<>(pageSize);
+        int last = -1;
+        boolean hasNext = false;
+        for (int position = catalog.seekFilieres(sort, cursor); position < catalog.filiereCount(); position++) {
+            int index = catalog.filiereAt(sort, position);
+            if (!matches.get(index)) {
+                continue;
+            }
+            if (content.size() == pageSize) {
+                hasNext = true;
+                break;
+            }
+            content.add(catalog.toFiliereSummaryDTO(index));
+            last = index;
+        }
+
+        Map<String, List<FacetCountDTO>> facetCounts = new LinkedHashMap<>();
+        result.counts().forEach((facet, counts) -> {
+            Set<String> chosen = selected.getOrDefault(facet, Set.of());
+            List<FacetCountDTO> values = new ArrayList<>(counts.size());
+            counts.forEach((value, count) -> values.add(new FacetCountDTO(value, count, chosen.contains(value))));
+            facetCounts.put(facet.getProperty(), values);
+        });
+
+        return FacetedPageDTO.<FiliereSummaryDTO>builder()
+                .content(content)
+                .size(pageSize)
+                .sort(sort.name())
+                .nextCursor(hasNext ? nextCursor(catalog, sort, last) : null)
+                .hasNext(hasNext)
+                .total(matches.cardinality())
+                .facets(facetCounts)
+                .build();
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<FiliereResponseDTO> getFilieresByUniversityId(Long universityId) {
+    public CursorPageDTO<FiliereSummaryDTO> queryFilieres(FiliereQueryFilter filter, String cursorToken,
+                                                         Integer size, CatalogSort sort) {
+        log.info("Querying filieres sorted by {}: {}", sort, filter);
+
+        checkRange("tuition", filter.getMinTuition(), filter.getMaxTuition());
+        checkRange("duration", filter.getMinDuration(), filter.getMaxDuration());
+        checkRange("deadline", filter.getDeadlineFrom(), filter.getDeadlineTo());
+        checkRange("seuil", filter.getMinSeuil(), filter.getMaxSeuil());
+
+        CatalogCursor cursor = CatalogCursor.decode(cursorToken, sort);
+        int pageSize = CatalogCursor.clampSize(size);
+
+        // One row past the page tells whether there is a next one
+        List<FiliereSummaryDTO> rows = filiereQueryRepository.find(filter, sort, cursor, pageSize + 1);
+        boolean hasNext = rows.size() > pageSize;
+        List<FiliereSummaryDTO> content = hasNext ? rows.subList(0, pageSize) : rows;
+
+        String nextCursor = null;
+        if (hasNext) {
+            FiliereSummaryDTO last = content.get(pageSize - 1);
+            Object key = switch (sort) {
+                case NAME -> last.getName();
+                case ID -> null;
+                case TUITION -> last.getTuitionFee() == null ? null : last.getTuitionFee().toPlainString();
+                case DEADLINE -> last.getApplicationDeadline();
+            };
+            nextCursor = CatalogCursor.encode(sort, key, last.getId());
+        }
+
+        return CursorPageDTO.<FiliereSummaryDTO>builder()
+                .content(new ArrayList<>(content))
+                .size(pageSize)
+                .sort(sort.name())
+                .nextCursor(nextCursor)
+                .hasNext(hasNext)
+                .build();
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<FiliereSummaryDTO> getFilieresByUniversityId(Long universityId) {
         log.info("Fetching filieres by university ID: {}", universityId);
 
-        return filiereRepository.findByUniversityId(universityId).stream()
-                .map(filiereMapper::toDTO)
-                .collect(Collectors.toList());
+        Catalog catalog = catalogSnapshot.current();
+        int university = catalog.universityIndex(universityId);
+        if (university < 0) {
+            return List.of();
+        }
+
+        List<FiliereSummaryDTO> result = new ArrayList<>();
+        for (int f : catalog.university(university).filieres()) {
+            result.add(catalog.toFiliereSummaryDTO(f));
+        }
+        return result;
     }
 
     @Override
-    @Transactional(readOnly = true)
-    public List<FiliereResponseDTO> getFilieresByAdmissionType(String admissionType) {
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<FiliereSummaryDTO> getFilieresByAdmissionType(String admissionType) {
         log.info("Fetching filieres by admission type: {}", admissionType);
 
-        return filiereRepository.findByAdmissionType(admissionType).stream()
-                .map(filiereMapper::toDTO)
-                .collect(Collectors.toList());
+        Catalog catalog = catalogSnapshot.current();
+        int code = catalog.code(admissionType);
+        return collect(catalog, row -> row.admissionType() == code);
     }
 
     @Override
-    @Transactional(readOnly = true)
-    public List<FiliereResponseDTO> getFilieresByLanguage(String language) {
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<FiliereSummaryDTO> getFilieresByLanguage(String language) {
         log.info("Fetching filieres by language: {}", language);
 
-        return filiereRepository.findByLanguage(language).stream()
-                .map(filiereMapper::toDTO)
-                .collect(Collectors.toList());
+        Catalog catalog = catalogSnapshot.current();
+        int code = catalog.code(language);
+        return collect(catalog, row -> row.language() == code);
     }
 
     @Override
-    @Transactional(readOnly = true)
-    public List<FiliereResponseDTO> getFilieresByApplicationDeadlineAfter(LocalDate date) {
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<FiliereSummaryDTO> getFilieresByApplicationDeadlineAfter(LocalDate date) {
         log.info("Fetching filieres with deadline after: {}", date);
 
-        return filiereRepository.findByApplicationDeadlineAfter(date).stream()
-                .map(filiereMapper::toDTO)
-                .collect(Collectors.toList());
+        return collect(catalogSnapshot.current(),
+                row -> row.applicationDeadline() != null && !row.applicationDeadline().isBefore(date));
     }
 
     @Override
-    @Transactional(readOnly = true)
-    public List<FiliereResponseDTO> getAvailableFilieres() {
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<FiliereSummaryDTO> getAvailableFilieres() {
         log.info("Fetching available filieres");
 
-        return filiereRepository.findAvailableFilieres().stream()
-                .map(filiereMapper::toDTO)
-                .collect(Collectors.toList());
+        return collect(catalogSnapshot.current(),
+                row -> row.seatsAvailabial() != null && row.seatsAvailabial() > 0);
     }
 
     @Override
-    @Transactional(readOnly = true)
-    public List<FiliereResponseDTO> getFilieresByUniversityIdAndAdmissionType(Long universityId, String admissionType) {
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<FiliereSummaryDTO> getFilieresByUniversityIdAndAdmissionType(Long universityId, String admissionType) {
         log.info("Fetching filieres by university ID: {} and admission type: {}", universityId, admissionType);
 
-        return filiereRepository.findByUniversityIdAndAdmissionType(universityId, admissionType).stream()
-                .map(filiereMapper::toDTO)
-                .collect(Collectors.toList());
+        Catalog catalog = catalogSnapshot.current();
+        int university = catalog.universityIndex(universityId);
+        int code = catalog.code(admissionType);
+        return collect(catalog, row -> row.university() == university && row.admissionType() == code);
+    }
+
+    private List<FiliereSummaryDTO> collect(Catalog catalog, Predicate<Catalog.FiliereRow> filter) {
+        List<FiliereSummaryDTO> result = new ArrayList<>();
+        for (int i = 0; i < catalog.filiereCount(); i++) {
+            if (filter.test(catalog.filiere(i))) {
+                result.add(catalog.toFiliereSummaryDTO(i));
+            }
+        }
+        return result;
+    }
+
+    private static <T extends Comparable<? super T>> void checkRange(String name, T min, T max) {
+        if (min != null && max != null && min.compareTo(max) > 0) {
+            throw new InvalidFiliereQueryException("Empty " + name + " range: " + min + " > " + max);
+        }
+    }
+
+    private static String nextCursor(Catalog catalog, CatalogSort sort, int lastIndex) {
+        Catalog.FiliereRow last = catalog.filiere(lastIndex);
+        Object key = Catalog.filiereKey(last, sort);
+        if (key instanceof BigDecimal decimal) {
+            key = decimal.toPlainString();
+        }
+        return CatalogCursor.encode(sort, key, last.id());
     }
-}
\ No newline at end of file
+}
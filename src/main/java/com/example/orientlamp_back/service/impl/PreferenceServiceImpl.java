@@ -4,12 +4,14 @@ import com.example.orientlamp_back.dto.PreferenceRequestDTO;
 import com.example.orientlamp_back.dto.PreferenceResponseDTO;
 import com.example.orientlamp_back.entity.Preference;
 import com.example.orientlamp_back.entity.User;
+import com.example.orientlamp_back.event.PreferenceChangedEvent;
 import com.example.orientlamp_back.mapper.PreferenceMapper;
 import com.example.orientlamp_back.repository.PreferenceRepository;
 import com.example.orientlamp_back.repository.UserRepository;
 import com.example.orientlamp_back.service.PreferenceService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -25,6 +27,7 @@ public class PreferenceServiceImpl implements PreferenceService {
     private final PreferenceRepository preferenceRepository;
     private final UserRepository userRepository;
     private final PreferenceMapper preferenceMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public PreferenceResponseDTO createPreference(PreferenceRequestDTO requestDTO) {
@@ -39,6 +42,7 @@ public class PreferenceServiceImpl implements PreferenceService {
 
         Preference preference = preferenceMapper.toEntity(requestDTO, user);
         Preference savedPreference = preferenceRepository.save(preference);
+        eventPublisher.publishEvent(new PreferenceChangedEvent(requestDTO.getUserId()));
 
         log.info("Preference created successfully with ID: {}", savedPreference.getId());
         return preferenceMapper.toDTO(savedPreference);
@@ -54,8 +58,13 @@ public class PreferenceServiceImpl implements PreferenceService {
         User user = userRepository.findById(requestDTO.getUserId())
                 .orElseThrow(() -> new RuntimeException("User not found with id: " + requestDTO.getUserId()));
 
+        Long previousUserId = preference.getUser().getIdUser();
         preferenceMapper.updateEntityFromDTO(requestDTO, preference, user);
         Preference updatedPreference = preferenceRepository.save(preference);
+        eventPublisher.publishEvent(new PreferenceChangedEvent(previousUserId));
+        if (!previousUserId.equals(requestDTO.getUserId())) {
+            eventPublisher.publishEvent(new PreferenceChangedEvent(requestDTO.getUserId()));
+        }
 
         log.info("Preference updated successfully with ID: {}", updatedPreference.getId());
         return preferenceMapper.toDTO(updatedPreference);
@@ -65,11 +74,11 @@ public class PreferenceServiceImpl implements PreferenceService {
     public void deletePreference(Long id) {
         log.info("Deleting preference with ID: {}", id);
 
-        if (!preferenceRepository.existsById(id)) {
-            throw new RuntimeException("Preference not found with id: " + id);
-        }
+        Preference preference = preferenceRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Preference not found with id: " + id));
 
-        preferenceRepository.deleteById(id);
+        preferenceRepository.delete(preference);
+        eventPublisher.publishEvent(new PreferenceChangedEvent(preference.getUser().getIdUser()));
         log.info("Preference deleted successfully with ID: {}", id);
     }
 
@@ -154,6 +163,7 @@ public class PreferenceServiceImpl implements PreferenceService {
         }
 
         preferenceRepository.deleteByUser_IdUser(userId);
+        eventPublisher.publishEvent(new PreferenceChangedEvent(userId));
         log.info("Preference deleted successfully for user ID: {}", userId);
     }
 
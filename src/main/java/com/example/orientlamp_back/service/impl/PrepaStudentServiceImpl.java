@@ -4,12 +4,14 @@ import com.example.orientlamp_back.dto.PrepaStudentRequestDTO;
 import com.example.orientlamp_back.dto.PrepaStudentResponseDTO;
 import com.example.orientlamp_back.entity.PrepaStudent;
 import com.example.orientlamp_back.entity.User;
+import com.example.orientlamp_back.event.StudentProfileChangedEvent;
 import com.example.orientlamp_back.mapper.PrepaStudentMapper;
 import com.example.orientlamp_back.repository.PrepaStudentRepository;
 import com.example.orientlamp_back.repository.UserRepository;
 import com.example.orientlamp_back.service.PrepaStudentService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -26,6 +28,7 @@ public class PrepaStudentServiceImpl implements PrepaStudentService {
     private final PrepaStudentRepository prepaStudentRepository;
     private final UserRepository userRepository;
     private final PrepaStudentMapper prepaStudentMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public PrepaStudentResponseDTO createPrepaStudent(PrepaStudentRequestDTO requestDTO) {
@@ -40,6 +43,7 @@ public class PrepaStudentServiceImpl implements PrepaStudentService {
 
         PrepaStudent prepaStudent = prepaStudentMapper.toEntity(requestDTO, user);
         PrepaStudent savedPrepaStudent = prepaStudentRepository.save(prepaStudent);
+        eventPublisher.publishEvent(new StudentProfileChangedEvent(savedPrepaStudent.getIdUser()));
 
         log.info("PrepaStudent created successfully for user ID: {}", savedPrepaStudent.getIdUser());
         return prepaStudentMapper.toDTO(savedPrepaStudent);
@@ -54,6 +58,7 @@ public class PrepaStudentServiceImpl implements PrepaStudentService {
 
         prepaStudentMapper.updateEntityFromDTO(requestDTO, prepaStudent);
         PrepaStudent updatedPrepaStudent = prepaStudentRepository.save(prepaStudent);
+        eventPublisher.publishEvent(new StudentProfileChangedEvent(idUser));
 
         log.info("PrepaStudent updated successfully for user ID: {}", updatedPrepaStudent.getIdUser());
         return prepaStudentMapper.toDTO(updatedPrepaStudent);
@@ -68,6 +73,7 @@ public class PrepaStudentServiceImpl implements PrepaStudentService {
         }
 
         prepaStudentRepository.deleteById(idUser);
+        eventPublisher.publishEvent(new StudentProfileChangedEvent(idUser));
         log.info("PrepaStudent deleted successfully for user ID: {}", idUser);
     }
 
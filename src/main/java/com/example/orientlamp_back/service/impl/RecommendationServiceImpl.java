@@ -0,0 +1,147 @@
+package com.example.orientlamp_back.service.impl;
+
+import com.example.orientlamp_back.dto.RecommendationDTO;
+import com.example.orientlamp_back.entity.User;
+import com.example.orientlamp_back.event.PreferenceChangedEvent;
+import com.example.orientlamp_back.event.StudentProfileChangedEvent;
+import com.example.orientlamp_back.repository.PreferenceRepository;
+import com.example.orientlamp_back.repository.StudentVersionRepository;
+import com.example.orientlamp_back.service.RecommendationService;
+import com.example.orientlamp_back.service.catalog.Catalog;
+import com.example.orientlamp_back.service.catalog.CatalogSnapshot;
+import com.example.orientlamp_back.service.eligibility.CandidateProfile;
+import com.example.orientlamp_back.service.eligibility.CandidateProfiles;
+import com.example.orientlamp_back.service.eligibility.EligibilityIndex;
+import com.example.orientlamp_back.service.eligibility.EligibilityRules;
+import com.example.orientlamp_back.service.geo.Gazetteer;
+import com.example.orientlamp_back.service.recommendation.Preferences;
+import com.example.orientlamp_back.service.recommendation.RecommendationFeatures;
+import com.example.orientlamp_back.service.recommendation.RecommendationIndex;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Ranks the filieres a student is eligible for against their {@link Preferences}. A result is
+ * cached per user together with the catalog version and the student's version it was ranked
+ * on. Writes to the student's preferences or profile bump the latter in
+ * {@code student_version}, so they reach every instance's cache; a hit costs that one
+ * primary-key read. A catalog refresh makes every entry stale at once through the catalog
+ * version.
+ */
+@Service
+@Slf4j
+public class RecommendationServiceImpl implements RecommendationService {
+
+    static final int MAX_LIMIT = 50;
+
+    private final CatalogSnapshot catalogSnapshot;
+    private final EligibilityRules eligibilityRules;
+    private final RecommendationFeatures recommendationFeatures;
+    private final CandidateProfiles candidateProfiles;
+    private final PreferenceRepository preferenceRepository;
+    private final StudentVersionRepository studentVersionRepository;
+    private final Gazetteer gazetteer;
+    private final int cacheSize;
+
+    /** Entries are whole top-k lists; {@code k} is what was asked for, the list may be shorter. */
+    private record Cached(long version, long studentVersion, int k, List<RecommendationDTO> recommendations) {}
+
+    private final Map<Long, Cached> cache = new ConcurrentHashMap<>();
+    private final Timer hitTimer;
+    private final Timer missTimer;
+
+    public RecommendationServiceImpl(CatalogSnapshot catalogSnapshot,
+                                     EligibilityRules eligibilityRules,
+                                     RecommendationFeatures recommendationFeatures,
+                                     CandidateProfiles candidateProfiles,
+                                     PreferenceRepository preferenceRepository,
+                                     StudentVersionRepository studentVersionRepository,
+                                     Gazetteer gazetteer,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${app.recommendations.cache-size:10000}") int cacheSize) {
+        this.catalogSnapshot = catalogSnapshot;
+        this.eligibilityRules = eligibilityRules;
+        this.recommendationFeatures = recommendationFeatures;
+        this.candidateProfiles = candidateProfiles;
+        this.preferenceRepository = preferenceRepository;
+        this.studentVersionRepository = studentVersionRepository;
+        this.gazetteer = gazetteer;
+        this.cacheSize = cacheSize;
+        this.hitTimer = requestTimer(meterRegistry, "hit");
+        this.missTimer = requestTimer(meterRegistry, "miss");
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<RecommendationDTO> getRecommendations(User user, int limit) {
+        int k = Math.max(1, Math.min(limit, MAX_LIMIT));
+        Catalog catalog = catalogSnapshot.current();
+        // Read before ranking: a write committing meanwhile leaves an entry that is already stale
+        long studentVersion = studentVersionRepository.current(user.getIdUser());
+        Cached cached = cache.get(user.getIdUser());
+        if (cached != null && cached.version() == catalog.version() && cached.studentVersion() == studentVersion
+                && cached.k() >= k) {
+            return hitTimer.record(() -> cached.recommendations()
+                    .subList(0, Math.min(k, cached.recommendations().size())));
+        }
+        return missTimer.record(() -> {
+            List<RecommendationDTO> recommendations = rank(catalog, user, k);
+            if (cache.size() >= cacheSize) {
+                // Rare and cheap to recover from: every entry is one ranking away.
+                cache.clear();
+            }
+            cache.put(user.getIdUser(), new Cached(catalog.version(), studentVersion, k, recommendations));
+            return recommendations;
+        });
+    }
+
+    /** Bumps the student's version in the writer's transaction; the entry goes stale with its commit. */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onPreferenceChanged(PreferenceChangedEvent event) {
+        studentVersionRepository.increment(event.userId());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onStudentProfileChanged(StudentProfileChangedEvent event) {
+        studentVersionRepository.increment(event.userId());
+    }
+
+    private List<RecommendationDTO> rank(Catalog catalog, User user, int k) {
+        CandidateProfile profile = candidateProfiles.forUser(user);
+        EligibilityIndex rules = eligibilityRules.forCatalog(catalog);
+        RecommendationIndex features = recommendationFeatures.forCatalog(catalog);
+        Preferences preferences = preferenceRepository.findByUser_IdUser(user.getIdUser())
+                .map(preference -> Preferences.of(preference, gazetteer))
+                .orElse(Preferences.NONE);
+
+        return features.recommend(preferences, rules.eligible(profile), rules, profile, k).stream()
+                .map(r -> RecommendationDTO.builder()
+                        .filiere(catalog.toFiliereSummaryDTO(r.filiere()))
+                        .score(r.score())
+                        .margin(r.margin())
+                        .cityMatch(r.cityMatch())
+                        .withinBudget(r.withinBudget())
+                        .languageMatch(r.languageMatch())
+                        .matchedKeywords(r.matchedKeywords())
+                        .build())
+                .toList();
+    }
+
+    private static Timer requestTimer(MeterRegistry meterRegistry, String cache) {
+        return Timer.builder("recommendations.request")
+                .description("Time to serve a student's recommendations")
+                .tag("cache", cache)
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,323 @@
+package com.example.orientlamp_back.service.impl;
+
+import com.example.orientlamp_back.dto.ScoringJobDTO;
+import com.example.orientlamp_back.exception.ScoringJobNotFoundException;
+import com.example.orientlamp_back.exception.ScoringJobStaleException;
+import com.example.orientlamp_back.repository.CandidateProfileRepository;
+import com.example.orientlamp_back.repository.ScoringJobRepository;
+import com.example.orientlamp_back.repository.StudentEligibilityRepository;
+import com.example.orientlamp_back.service.ScoringJobService;
+import com.example.orientlamp_back.service.admission.AdmissionFormulas;
+import com.example.orientlamp_back.service.admission.ScoreFormulas;
+import com.example.orientlamp_back.service.catalog.Catalog;
+import com.example.orientlamp_back.service.catalog.CatalogSnapshot;
+import com.example.orientlamp_back.service.eligibility.EligibilityIndex;
+import com.example.orientlamp_back.service.eligibility.EligibilityMatrix;
+import com.example.orientlamp_back.service.eligibility.EligibilityRules;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Re-scores the whole student population into {@code student_eligibility}. The user id space
+ * is cut into ranges; each range is a partition, scored on a fork-join pool in its own
+ * transaction: its rows are deleted, its profiles streamed through a server-side cursor,
+ * evaluated against the compiled rules and scored by the filieres' compiled admission formulas,
+ * written back with COPY, and the partition is marked DONE in the same commit. A failed or interrupted job is resumed by re-running the
+ * partitions that are not DONE.
+ *
+ * A job scores against the catalog version it was created with. Each partition takes the
+ * shared lock of {@link StudentEligibilityRepository} and checks the version is still the one
+ * served; once the catalog has moved on, the remaining partitions fail and the job can no longer
+ * be resumed, since the eligibility matrix has re-scored what the newer catalog changed. The
+ * students of a partition not committed yet are read live meanwhile, see
+ * {@link EligibilityMatrix#pending}.
+ *
+ * The pool's parallelism is also the number of connections the job holds, so keep it below
+ * the datasource pool size. Only one job runs at a time per instance.
+ */
+@Service
+@Slf4j
+public class ScoringJobServiceImpl implements ScoringJobService {
+
+    static final int DEFAULT_PARTITIONS = 64;
+    static final int MAX_PARTITIONS = 4096;
+    static final int RECENT_JOBS = 20;
+
+    private final ScoringJobRepository scoringJobRepository;
+    private final CandidateProfileRepository candidateProfileRepository;
+    private final StudentEligibilityRepository studentEligibilityRepository;
+    private final CatalogSnapshot catalogSnapshot;
+    private final EligibilityRules eligibilityRules;
+    private final AdmissionFormulas admissionFormulas;
+    private final EligibilityMatrix eligibilityMatrix;
+    private final TransactionTemplate transaction;
+    private final Counter studentsCounter;
+
+    private final ForkJoinPool pool;
+    private final ExecutorService coordinator = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "scoring-job");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Map<Long, Progress> running = new ConcurrentHashMap<>();
+
+    /** Live counters of a job running in this instance, on top of what earlier runs committed. */
+    private static final class Progress {
+        final long startedNanos = System.nanoTime();
+        final AtomicLong students = new AtomicLong();
+        final AtomicLong pairs = new AtomicLong();
+        long committedStudents;
+        long committedPairs;
+    }
+
+    public ScoringJobServiceImpl(ScoringJobRepository scoringJobRepository,
+                                 CandidateProfileRepository candidateProfileRepository,
+                                 StudentEligibilityRepository studentEligibilityRepository,
+                                 CatalogSnapshot catalogSnapshot,
+                                 EligibilityRules eligibilityRules,
+                                 AdmissionFormulas admissionFormulas,
+                                 EligibilityMatrix eligibilityMatrix,
+                                 PlatformTransactionManager transactionManager,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${app.scoring.parallelism:4}") int parallelism) {
+        this.scoringJobRepository = scoringJobRepository;
+        this.candidateProfileRepository = candidateProfileRepository;
+        this.studentEligibilityRepository = studentEligibilityRepository;
+        this.catalogSnapshot = catalogSnapshot;
+        this.eligibilityRules = eligibilityRules;
+        this.admissionFormulas = admissionFormulas;
+        this.eligibilityMatrix = eligibilityMatrix;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.pool = new ForkJoinPool(Math.max(1, parallelism));
+        this.studentsCounter = Counter.builder("eligibility.scoring.students")
+                .description("Students scored by batch scoring jobs")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public synchronized ScoringJobDTO startJob(Integer partitions) {
+        if (!running.isEmpty()) {
+            Long id = running.keySet().iterator().next();
+            log.info("Scoring job {} is still running, not starting another", id);
+            return getJob(id);
+        }
+        int requested = partitions == null ? DEFAULT_PARTITIONS : Math.max(1, Math.min(partitions, MAX_PARTITIONS));
+        Catalog catalog = catalogSnapshot.current();
+        ScoringJobRepository.Job job = scoringJobRepository.create(catalog.version(),
+                bounds(candidateProfileRepository.userIdBounds(), requested));
+        log.info("Scoring job {} created: {} partitions against catalog v{}", job.id(), job.partitions(), catalog.version());
+        launch(job.id());
+        return getJob(job.id());
+    }
+
+    @Override
+    public synchronized ScoringJobDTO resumeJob(Long id) {
+        ScoringJobRepository.Job job = scoringJobRepository.findById(id)
+                .orElseThrow(() -> new ScoringJobNotFoundException("Scoring job not found with id: " + id));
+        if (running.containsKey(id) || job.status() == ScoringJobRepository.Status.DONE) {
+            return getJob(id);
+        }
+        if (!running.isEmpty()) {
+            return getJob(running.keySet().iterator().next());
+        }
+        long served = catalogSnapshot.current().version();
+        if (job.catalogVersion() != served) {
+            throw new ScoringJobStaleException("Scoring job " + id + " was scored against catalog v"
+                    + job.catalogVersion() + " and the catalog is now v" + served + "; start a new job");
+        }
+        scoringJobRepository.markJob(id, ScoringJobRepository.Status.RUNNING);
+        log.info("Scoring job {} resumed", id);
+        launch(id);
+        return getJob(id);
+    }
+
+    @Override
+    public ScoringJobDTO getJob(Long id) {
+        ScoringJobRepository.Job job = scoringJobRepository.findById(id)
+                .orElseThrow(() -> new ScoringJobNotFoundException("Scoring job not found with id: " + id));
+        return toDTO(job, scoringJobRepository.findPartitions(id), running.get(id));
+    }
+
+    @Override
+    public List<ScoringJobDTO> getRecentJobs() {
+        List<ScoringJobDTO> jobs = new ArrayList<>();
+        for (ScoringJobRepository.Job job : scoringJobRepository.findRecent(RECENT_JOBS)) {
+            jobs.add(toDTO(job, scoringJobRepository.findPartitions(job.id()), running.get(job.id())));
+        }
+        return jobs;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        coordinator.shutdownNow();
+        pool.shutdownNow();
+    }
+
+    private void launch(Long jobId) {
+        Progress progress = new Progress();
+        for (ScoringJobRepository.Partition partition : scoringJobRepository.findPartitions(jobId)) {
+            if (partition.status() == ScoringJobRepository.Status.DONE) {
+                progress.committedStudents += partition.students();
+                progress.committedPairs += partition.pairs();
+            }
+        }
+        running.put(jobId, progress);
+        coordinator.execute(() -> {
+            try {
+                run(jobId, progress);
+            } finally {
+                running.remove(jobId);
+            }
+        });
+    }
+
+    private void run(Long jobId, Progress progress) {
+        long version = scoringJobRepository.findById(jobId).orElseThrow().catalogVersion();
+        Catalog catalog = catalogSnapshot.current();
+        EligibilityIndex index = eligibilityRules.forCatalog(catalog);
+        ScoreFormulas formulas = admissionFormulas.forCatalog(catalog);
+
+        List<ForkJoinTask<Boolean>> tasks = new ArrayList<>();
+        for (ScoringJobRepository.Partition partition : scoringJobRepository.findPartitions(jobId)) {
+            if (partition.status() != ScoringJobRepository.Status.DONE) {
+                eligibilityMatrix.scoring(partition.fromUserId(), partition.toUserId());
+                tasks.add(pool.submit(() -> score(partition, version, catalog, index, formulas, progress)));
+            }
+        }
+        boolean succeeded = true;
+        for (ForkJoinTask<Boolean> task : tasks) {
+            succeeded &= task.join();
+        }
+
+        ScoringJobRepository.Status status = succeeded ? ScoringJobRepository.Status.DONE : ScoringJobRepository.Status.FAILED;
+        scoringJobRepository.markJob(jobId, status);
+        double seconds = (System.nanoTime() - progress.startedNanos) / 1e9;
+        log.info("Scoring job {} {}: {} partitions, {} students, {} eligible pairs in {}s ({} students/s)",
+                jobId, status, tasks.size(), progress.students.get(), progress.pairs.get(),
+                String.format("%.1f", seconds), Math.round(progress.students.get() / Math.max(seconds, 1e-3)));
+    }
+
+    /** Scores one partition in one transaction; false if it failed and was left to a resume. */
+    private boolean score(ScoringJobRepository.Partition partition, long version, Catalog catalog,
+                          EligibilityIndex index, ScoreFormulas formulas, Progress progress) {
+        Long jobId = partition.jobId();
+        int partitionNo = partition.partitionNo();
+        scoringJobRepository.markRunning(jobId, partitionNo);
+        try {
+            transaction.executeWithoutResult(status -> {
+                studentEligibilityRepository.lockShared();
+                if (catalog.version() != version || catalogSnapshot.current().version() != version) {
+                    throw new IllegalStateException("catalog changed from v" + version + " to v"
+                            + catalogSnapshot.current().version());
+                }
+                studentEligibilityRepository.deleteUserRange(partition.fromUserId(), partition.toUserId());
+                long[] counts = new long[2];
+                List<StudentEligibilityRepository.Row> batch = new ArrayList<>(StudentEligibilityRepository.BATCH_SIZE);
+                candidateProfileRepository.forEachInRange(partition.fromUserId(), partition.toUserId(), profile -> {
+                    counts[0]++;
+                    progress.students.incrementAndGet();
+                    EligibilityMatrix.rows(catalog, index, formulas, profile, row -> {
+                        batch.add(row);
+                        if (batch.size() == StudentEligibilityRepository.BATCH_SIZE) {
+                            studentEligibilityRepository.insert(batch);
+                            counts[1] += batch.size();
+                            progress.pairs.addAndGet(batch.size());
+                            batch.clear();
+                        }
+                    });
+                });
+                studentEligibilityRepository.insert(batch);
+                counts[1] += batch.size();
+                progress.pairs.addAndGet(batch.size());
+                scoringJobRepository.markDone(jobId, partitionNo, counts[0], counts[1]);
+                studentsCounter.increment(counts[0]);
+            });
+            return true;
+        } catch (RuntimeException e) {
+            log.warn("Scoring job {} partition {} failed: {}", jobId, partitionNo, e.getMessage());
+            scoringJobRepository.markFailed(jobId, partitionNo, e.getMessage());
+            return false;
+        } finally {
+            eligibilityMatrix.scored(partition.fromUserId());
+        }
+    }
+
+    /**
+     * {@code partitions + 1} ascending bounds splitting {@code [min, max]} into equal ranges,
+     * fewer when there are fewer ids than partitions.
+     */
+    static long[] bounds(long[] idBounds, int partitions) {
+        if (idBounds == null) {
+            return new long[]{0, 1};
+        }
+        long from = idBounds[0];
+        long to = idBounds[1] + 1;
+        int count = (int) Math.min(partitions, to - from);
+        long[] bounds = new long[count + 1];
+        for (int p = 0; p <= count; p++) {
+            bounds[p] = from + (to - from) * p / count;
+        }
+        return bounds;
+    }
+
+    private static ScoringJobDTO toDTO(ScoringJobRepository.Job job, List<ScoringJobRepository.Partition> partitions,
+                                       Progress progress) {
+        int done = 0;
+        int failed = 0;
+        long students = 0;
+        long pairs = 0;
+        for (ScoringJobRepository.Partition partition : partitions) {
+            if (partition.status() == ScoringJobRepository.Status.DONE) {
+                done++;
+                students += partition.students();
+                pairs += partition.pairs();
+            } else if (partition.status() == ScoringJobRepository.Status.FAILED) {
+                failed++;
+            }
+        }
+
+        double seconds;
+        double rateStudents = students;
+        if (progress != null) {
+            students = progress.committedStudents + progress.students.get();
+            pairs = progress.committedPairs + progress.pairs.get();
+            rateStudents = progress.students.get();
+            seconds = (System.nanoTime() - progress.startedNanos) / 1e9;
+        } else {
+            Instant end = job.finishedAt() == null ? Instant.now() : job.finishedAt();
+            seconds = Duration.between(job.createdAt(), end).toMillis() / 1e3;
+        }
+
+        return ScoringJobDTO.builder()
+                .id(job.id())
+                .status(progress != null ? ScoringJobRepository.Status.RUNNING.name() : job.status().name())
+                .catalogVersion(job.catalogVersion())
+                .partitions(job.partitions())
+                .partitionsDone(done)
+                .partitionsFailed(failed)
+                .students(students)
+                .pairs(pairs)
+                .studentsPerSecond(seconds <= 0 ? 0 : Math.round(rateStudents / seconds * 10) / 10.0)
+                .createdAt(job.createdAt())
+                .finishedAt(job.finishedAt())
+                .build();
+    }
+}
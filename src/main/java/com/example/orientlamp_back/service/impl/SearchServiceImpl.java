@@ -0,0 +1,114 @@
+package com.example.orientlamp_back.service.impl;
+
+import com.example.orientlamp_back.dto.FiliereSummaryDTO;
+import com.example.orientlamp_back.dto.SearchHitDTO;
+import com.example.orientlamp_back.dto.SearchResponseDTO;
+import com.example.orientlamp_back.dto.UniversitySummaryDTO;
+import com.example.orientlamp_back.repository.CatalogSearchRepository;
+import com.example.orientlamp_back.service.SearchService;
+import com.example.orientlamp_back.service.catalog.Catalog;
+import com.example.orientlamp_back.service.catalog.CatalogSnapshot;
+import com.example.orientlamp_back.service.search.SearchQuery;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ranks ids in PostgreSQL, then builds the cards and highlights from the catalog snapshot.
+ * A hit that the snapshot does not know yet (written in the last few milliseconds) is skipped.
+ */
+@Service
+@Slf4j
+public class SearchServiceImpl implements SearchService {
+
+    static final int DEFAULT_LIMIT = 10;
+    static final int MAX_LIMIT = 50;
+
+    private final CatalogSearchRepository searchRepository;
+    private final CatalogSnapshot catalogSnapshot;
+    private final Timer searchTimer;
+
+    public SearchServiceImpl(CatalogSearchRepository searchRepository,
+                             CatalogSnapshot catalogSnapshot,
+                             MeterRegistry meterRegistry) {
+        this.searchRepository = searchRepository;
+        this.catalogSnapshot = catalogSnapshot;
+        this.searchTimer = Timer.builder("catalog.search")
+                .description("Time to rank and render a search")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public SearchResponseDTO search(String text, Integer limit) {
+        SearchQuery query = SearchQuery.parse(text);
+        if (query.isEmpty()) {
+            return SearchResponseDTO.builder()
+                    .query(text)
+                    .terms(List.of())
+                    .universities(List.of())
+                    .filieres(List.of())
+                    .build();
+        }
+        int max = limit == null || limit < 1 ? DEFAULT_LIMIT : Math.min(limit, MAX_LIMIT);
+        return searchTimer.record(() -> search(query, max));
+    }
+
+    private SearchResponseDTO search(SearchQuery query, int limit) {
+        log.debug("Searching for {}", query.toTsQuery());
+        Catalog catalog = catalogSnapshot.current();
+        LocalDate today = LocalDate.now();
+
+        List<SearchHitDTO<UniversitySummaryDTO>> universities = new ArrayList<>();
+        for (CatalogSearchRepository.Hit hit : searchRepository.searchUniversities(query, limit)) {
+            int index = catalog.universityIndex(hit.id());
+            if (index < 0) {
+                continue;
+            }
+            Catalog.UniversityRow u = catalog.university(index);
+            Map<String, String> highlights = new LinkedHashMap<>();
+            putIfPresent(highlights, "name", query.highlight(u.name()));
+            putIfPresent(highlights, "location", query.highlight(catalog.string(u.location())));
+            putIfPresent(highlights, "programs", query.snippet(u.programs()));
+            putIfPresent(highlights, "description", query.snippet(u.description()));
+            universities.add(new SearchHitDTO<>(catalog.toUniversitySummaryDTO(index, today), hit.rank(), highlights));
+        }
+
+        List<SearchHitDTO<FiliereSummaryDTO>> filieres = new ArrayList<>();
+        for (CatalogSearchRepository.Hit hit : searchRepository.searchFilieres(query, limit)) {
+            int index = catalog.filiereIndex(hit.id());
+            if (index < 0) {
+                continue;
+            }
+            Catalog.FiliereRow f = catalog.filiere(index);
+            Map<String, String> highlights = new LinkedHashMap<>();
+            putIfPresent(highlights, "name", query.highlight(f.name()));
+            putIfPresent(highlights, "universityName", query.highlight(catalog.university(f.university()).name()));
+            putIfPresent(highlights, "critereAdmission", query.snippet(catalog.string(f.critereAdmission())));
+            filieres.add(new SearchHitDTO<>(catalog.toFiliereSummaryDTO(index), hit.rank(), highlights));
+        }
+
+        return SearchResponseDTO.builder()
+                .query(query.getText())
+                .terms(query.getTerms())
+                .universities(universities)
+                .filieres(filieres)
+                .build();
+    }
+
+    private static void putIfPresent(Map<String, String> highlights, String field, String fragment) {
+        if (fragment != null) {
+            highlights.put(field, fragment);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.orientlamp_back.service.impl;
+
+import com.example.orientlamp_back.dto.SuggestionDTO;
+import com.example.orientlamp_back.event.CatalogRefreshedEvent;
+import com.example.orientlamp_back.service.SuggestService;
+import com.example.orientlamp_back.service.catalog.Catalog;
+import com.example.orientlamp_back.service.catalog.CatalogSnapshot;
+import com.example.orientlamp_back.service.search.SuggestIndex;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Serves {@code /api/suggest} from a {@link SuggestIndex} kept in step with the catalog
+ * snapshot: each refresh re-keys only what the triggering write touched.
+ */
+@Service
+@Slf4j
+public class SuggestServiceImpl implements SuggestService {
+
+    static final int DEFAULT_LIMIT = 8;
+    static final int MAX_LIMIT = 20;
+
+    private final CatalogSnapshot catalogSnapshot;
+    private final Timer suggestTimer;
+    private final AtomicReference<SuggestIndex> index = new AtomicReference<>();
+
+    public SuggestServiceImpl(CatalogSnapshot catalogSnapshot, MeterRegistry meterRegistry) {
+        this.catalogSnapshot = catalogSnapshot;
+        this.suggestTimer = Timer.builder("catalog.suggest")
+                .description("Server time of a typeahead lookup")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        Gauge.builder("catalog.suggest.keys", index, i -> i.get() == null ? 0 : i.get().size())
+                .description("Prefix keys in the typeahead index")
+                .register(meterRegistry);
+    }
+
+    /** Refreshes are published one at a time from the synchronized {@link CatalogSnapshot#refresh}. */
+    @EventListener
+    public void onCatalogRefreshed(CatalogRefreshedEvent event) {
+        SuggestIndex previous = index.get();
+        SuggestIndex updated = previous == null
+                ? SuggestIndex.build(event.catalog())
+                : previous.update(event.catalog(), event.cause());
+        index.set(updated);
+        log.debug("Suggest index v{}: {} keys", updated.version(), updated.size());
+    }
+
+    @Override
+    public List<SuggestionDTO> suggest(String query, Integer limit) {
+        int max = limit == null || limit < 1 ? DEFAULT_LIMIT : Math.min(limit, MAX_LIMIT);
+        return suggestTimer.record(() -> current().suggest(query, max).stream()
+                .map(SuggestServiceImpl::toDTO)
+                .toList());
+    }
+
+    private SuggestIndex current() {
+        SuggestIndex current = index.get();
+        if (current != null) {
+            return current;
+        }
+        Catalog catalog = catalogSnapshot.current();
+        index.compareAndSet(null, SuggestIndex.build(catalog));
+        return index.get();
+    }
+
+    private static SuggestionDTO toDTO(SuggestIndex.Target target) {
+        return SuggestionDTO.builder()
+                .type(target.kind().name())
+                .id(target.id())
+                .name(target.name())
+                .slug(target.slug())
+                .universityId(target.kind() == SuggestIndex.Kind.FILIERE ? target.universityId() : null)
+                .universityName(target.universityName())
+                .build();
+    }
+}
@@ -1,20 +1,44 @@
 package com.example.orientlamp_back.service.impl;
 
+import com.example.orientlamp_back.dto.CatalogEmbed;
+import com.example.orientlamp_back.dto.CatalogSort;
+import com.example.orientlamp_back.dto.CursorPageDTO;
+import com.example.orientlamp_back.dto.FiliereFacetQuery;
+import com.example.orientlamp_back.dto.NearbyUniversitiesDTO;
+import com.example.orientlamp_back.dto.NearbyUniversityDTO;
 import com.example.orientlamp_back.dto.UniversityRequestDTO;
 import com.example.orientlamp_back.dto.UniversityResponseDTO;
+import com.example.orientlamp_back.dto.UniversitySummaryDTO;
 import com.example.orientlamp_back.entity.University;
+import com.example.orientlamp_back.event.CatalogChangedEvent;
+import com.example.orientlamp_back.exception.InvalidGeoQueryException;
 import com.example.orientlamp_back.mapper.UniversityMapper;
 import com.example.orientlamp_back.repository.UniversityRepository;
+import com.example.orientlamp_back.service.CatalogCursor;
 import com.example.orientlamp_back.service.FileStorageService;
 import com.example.orientlamp_back.service.UniversityService;
+import com.example.orientlamp_back.service.catalog.Catalog;
+import com.example.orientlamp_back.service.catalog.CatalogSnapshot;
+import com.example.orientlamp_back.service.catalog.FiliereFacetIndex;
+import com.example.orientlamp_back.service.catalog.FiliereFacets;
+import com.example.orientlamp_back.service.geo.Gazetteer;
+import com.example.orientlamp_back.service.geo.UniversityGeoIndex;
+import com.example.orientlamp_back.service.geo.UniversityLocations;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
 
 @Service
 @RequiredArgsConstructor
@@ -25,6 +49,16 @@ public class UniversityServiceImpl implements UniversityService {
     private final UniversityRepository universityRepository;
     private final UniversityMapper universityMapper;
     private final FileStorageService fileStorageService;
+    private final CatalogSnapshot catalogSnapshot;
+    private final ApplicationEventPublisher eventPublisher;
+    private final UniversityLocations universityLocations;
+    private final Gazetteer gazetteer;
+    private final FiliereFacets filiereFacets;
+
+    private static final double DEFAULT_RADIUS_KM = 50;
+    private static final double MAX_RADIUS_KM = 1000;
+    private static final int DEFAULT_NEAR_LIMIT = 20;
+    private static final int MAX_NEAR_LIMIT = 100;
 
     @Override
     public UniversityResponseDTO createUniversity(UniversityRequestDTO requestDTO) {
@@ -37,6 +71,7 @@ public class UniversityServiceImpl implements UniversityService {
         University university = universityMapper.toEntity(requestDTO);
         University savedUniversity = universityRepository.save(university);
 
+        eventPublisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.Type.UNIVERSITY, savedUniversity.getId()));
         log.info("University created successfully with ID: {}", savedUniversity.getId());
         return universityMapper.toDTO(savedUniversity);
     }
@@ -56,6 +91,7 @@ public class UniversityServiceImpl implements UniversityService {
         universityMapper.updateEntityFromDTO(requestDTO, university);
         University updatedUniversity = universityRepository.save(university);
 
+        eventPublisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.Type.UNIVERSITY, updatedUniversity.getId()));
         log.info("University updated successfully with ID: {}", updatedUniversity.getId());
         return universityMapper.toDTO(updatedUniversity);
     }
@@ -69,67 +105,196 @@ public class UniversityServiceImpl implements UniversityService {
         }
 
         universityRepository.deleteById(id);
+        eventPublisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.Type.UNIVERSITY, id));
         log.info("University deleted successfully with ID: {}", id);
     }
 
     @Override
-    @Transactional(readOnly = true)
-    public UniversityResponseDTO getUniversityById(Long id) {
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public UniversityResponseDTO getUniversityById(Long id, Set<CatalogEmbed> embed) {
         log.info("Fetching university with ID: {}", id);
 
-        University university = universityRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("University not found with id: " + id));
+        Catalog catalog = catalogSnapshot.current();
+        int index = catalog.universityIndex(id);
+        if (index < 0) {
+            throw new RuntimeException("University not found with id: " + id);
+        }
 
-        return universityMapper.toDTO(university);
+        return catalog.toUniversityDTO(index, embed);
     }
 
     @Override
-    @Transactional(readOnly = true)
-    public UniversityResponseDTO getUniversityBySlug(String slug) {
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public UniversityResponseDTO getUniversityBySlug(String slug, Set<CatalogEmbed> embed) {
         log.info("Fetching university with slug: {}", slug);
-        University university = universityRepository.findBySlug(slug)
-                .orElseThrow(() -> new RuntimeException("University not found with slug: " + slug));
-        return universityMapper.toDTO(university);
+        Catalog catalog = catalogSnapshot.current();
+        int index = catalog.universityIndexBySlug(slug);
+        if (index < 0) {
+            throw new RuntimeException("University not found with slug: " + slug);
+        }
+        return catalog.toUniversityDTO(index, embed);
     }
 
     @Override
-    @Transactional(readOnly = true)
-    public List<UniversityResponseDTO> getAllUniversities() {
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<UniversitySummaryDTO> getAllUniversities() {
         log.info("Fetching all universities");
 
-        return universityRepository.findAll().stream()
-                .map(universityMapper::toDTO)
-                .collect(Collectors.toList());
+        return collect(catalogSnapshot.current(), row -> true);
     }
 
     @Override
-    @Transactional(readOnly = true)
-    public List<UniversityResponseDTO> getUniversitiesByLocation(String location) {
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public CursorPageDTO<UniversitySummaryDTO> getUniversitiesPage(String cursorToken, Integer size, CatalogSort sort) {
+        log.info("Fetching universities page sorted by {}", sort);
+
+        Catalog catalog = catalogSnapshot.current();
+        CatalogCursor cursor = CatalogCursor.decode(cursorToken, sort);
+        int pageSize = CatalogCursor.clampSize(size);
+
+        LocalDate today = LocalDate.now();
+        int from = catalog.seekUniversities(sort, cursor);
+        int to = Math.min(from + pageSize, catalog.universityCount());
+
+        List<UniversitySummaryDTO> content = new ArrayList<>(to - from);
+        for (int position = from; position < to; position++) {
+            content.add(catalog.toUniversitySummaryDTO(catalog.universityAt(sort, position), today));
+        }
+
+        boolean hasNext = to < catalog.universityCount();
+        String nextCursor = null;
+        if (hasNext) {
+            Catalog.UniversityRow last = catalog.university(catalog.universityAt(sort, to - 1));
+            nextCursor = CatalogCursor.encode(sort, sort == CatalogSort.NAME ? last.name() : null, last.id());
+        }
+
+        return CursorPageDTO.<UniversitySummaryDTO>builder()
+                .content(content)
+                .size(pageSize)
+                .sort(sort.name())
+                .nextCursor(nextCursor)
+                .hasNext(hasNext)
+                .build();
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<UniversitySummaryDTO> getUniversitiesByLocation(String location) {
         log.info("Fetching universities by location: {}", location);
 
-        return universityRepository.findByLocation(location).stream()
-                .map(universityMapper::toDTO)
-                .collect(Collectors.toList());
+        Catalog catalog = catalogSnapshot.current();
+        int code = catalog.code(location);
+        return collect(catalog, row -> row.location() == code);
     }
 
     @Override
-    @Transactional(readOnly = true)
-    public List<UniversityResponseDTO> getUniversitiesByType(String type) {
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<UniversitySummaryDTO> getUniversitiesByType(String type) {
         log.info("Fetching universities by type: {}", type);
 
-        return universityRepository.findByType(type).stream()
-                .map(universityMapper::toDTO)
-                .collect(Collectors.toList());
+        Catalog catalog = catalogSnapshot.current();
+        int code = catalog.code(type);
+        return collect(catalog, row -> row.type() == code);
     }
 
     @Override
-    @Transactional(readOnly = true)
-    public List<UniversityResponseDTO> getUniversitiesByAccreditationStatus(String accreditationStatus) {
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<UniversitySummaryDTO> getUniversitiesByAccreditationStatus(String accreditationStatus) {
         log.info("Fetching universities by accreditation status: {}", accreditationStatus);
 
-        return universityRepository.findByAccreditationStatus(accreditationStatus).stream()
-                .map(universityMapper::toDTO)
-                .collect(Collectors.toList());
+        Catalog catalog = catalogSnapshot.current();
+        int code = catalog.code(accreditationStatus);
+        return collect(catalog, row -> row.accreditationStatus() == code);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public NearbyUniversitiesDTO getUniversitiesNear(String city, Double latitude, Double longitude, Double radiusKm,
+                                                     Integer limit, FiliereFacetQuery filters) {
+        log.info("Fetching universities near {}", city != null ? city : latitude + "," + longitude);
+
+        String place = null;
+        if (city != null && !city.isBlank()) {
+            Gazetteer.Place resolved = gazetteer.resolve(city)
+                    .orElseThrow(() -> new InvalidGeoQueryException("Unknown city: " + city));
+            place = resolved.name();
+            latitude = resolved.latitude();
+            longitude = resolved.longitude();
+        } else if (latitude == null || longitude == null) {
+            throw new InvalidGeoQueryException("Either city or both latitude and longitude are required");
+        } else if (Math.abs(latitude) > 90 || Math.abs(longitude) > 180) {
+            throw new InvalidGeoQueryException("Coordinates out of range: " + latitude + "," + longitude);
+        }
+        double radius = radiusKm == null ? DEFAULT_RADIUS_KM : radiusKm;
+        if (!(radius > 0 && radius <= MAX_RADIUS_KM)) {
+            throw new InvalidGeoQueryException("radiusKm must be between 0 and " + (int) MAX_RADIUS_KM);
+        }
+        int max = limit == null || limit < 1 ? DEFAULT_NEAR_LIMIT : Math.min(limit, MAX_NEAR_LIMIT);
+
+        UniversityGeoIndex index = universityLocations.current();
+        Catalog catalog = index.catalog();
+        List<UniversityGeoIndex.Hit> hits = index.near(latitude, longitude, radius);
+
+        // Filiere filters run on the facet bitsets; that index follows the same refreshes, but
+        // universities are matched by id in case it is one catalog version apart.
+        Map<FiliereFacetIndex.Facet, Set<String>> selected = FiliereFacets.selection(filters);
+        FiliereFacetIndex facets = selected.isEmpty() ? null : filiereFacets.current();
+        BitSet matches = facets == null ? null : facets.query(selected, LocalDate.now()).matches();
+
+        LocalDate today = LocalDate.now();
+        List<NearbyUniversityDTO> results = new ArrayList<>();
+        int total = 0;
+        for (UniversityGeoIndex.Hit hit : hits) {
+            Integer matching = null;
+            if (facets != null) {
+                matching = countMatching(facets.catalog(), matches, catalog.university(hit.university()).id());
+                if (matching == 0) {
+                    continue;
+                }
+            }
+            total++;
+            if (results.size() < max) {
+                results.add(NearbyUniversityDTO.builder()
+                        .university(catalog.toUniversitySummaryDTO(hit.university(), today))
+                        .distanceKm(Math.round(hit.distanceKm() * 10) / 10.0)
+                        .matchingFilieres(matching)
+                        .build());
+            }
+        }
+
+        return NearbyUniversitiesDTO.builder()
+                .place(place)
+                .latitude(latitude)
+                .longitude(longitude)
+                .radiusKm(radius)
+                .total(total)
+                .results(results)
+                .build();
+    }
+
+    private static int countMatching(Catalog catalog, BitSet matches, Long universityId) {
+        int university = catalog.universityIndex(universityId);
+        if (university < 0) {
+            return 0;
+        }
+        int count = 0;
+        for (int f : catalog.university(university).filieres()) {
+            if (matches.get(f)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private List<UniversitySummaryDTO> collect(Catalog catalog, Predicate<Catalog.UniversityRow> filter) {
+        LocalDate today = LocalDate.now();
+        List<UniversitySummaryDTO> result = new ArrayList<>();
+        for (int i = 0; i < catalog.universityCount(); i++) {
+            if (filter.test(catalog.university(i))) {
+                result.add(catalog.toUniversitySummaryDTO(i, today));
+            }
+        }
+        return result;
     }
 
     @Override
@@ -152,6 +317,7 @@ public class UniversityServiceImpl implements UniversityService {
         String imageUrl = fileStorageService.storeUniversityImage(file, id);
         university.setImageUrl(imageUrl);
         University saved = universityRepository.save(university);
+        eventPublisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.Type.UNIVERSITY, id));
         log.info("Image uploaded successfully for university ID: {}", id);
         return universityMapper.toDTO(saved);
     }
@@ -5,11 +5,13 @@ import com.example.orientlamp_back.dto.UserRequestDTO;
 import com.example.orientlamp_back.dto.UserResponseDTO;
 import com.example.orientlamp_back.entity.CurrentStudyLevel;
 import com.example.orientlamp_back.entity.User;
+import com.example.orientlamp_back.event.StudentProfileChangedEvent;
 import com.example.orientlamp_back.mapper.UserMapper;
 import com.example.orientlamp_back.repository.UserRepository;
 import com.example.orientlamp_back.service.UserService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -24,6 +26,7 @@ public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
     private final UserMapper userMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public UserResponseDTO createUser(UserRequestDTO requestDTO) {
@@ -52,6 +55,7 @@ public class UserServiceImpl implements UserService {
         }
         userMapper.updateEntityFromDTO(requestDTO, user);
         User updatedUser = userRepository.save(user);
+        eventPublisher.publishEvent(new StudentProfileChangedEvent(idUser));
 
         log.info("User updated successfully with ID: {}", updatedUser.getIdUser());
         return userMapper.toDTO(updatedUser);
@@ -183,6 +187,9 @@ public class UserServiceImpl implements UserService {
         }
 
         User updatedUser = userRepository.save(user);
+        if (dto.getAge() != null) {
+            eventPublisher.publishEvent(new StudentProfileChangedEvent(idUser));
+        }
         log.info("User basic info updated successfully with ID: {}", updatedUser.getIdUser());
         return userMapper.toDTO(updatedUser);
     }
@@ -0,0 +1,67 @@
+package com.example.orientlamp_back.service.recommendation;
+
+import com.example.orientlamp_back.entity.Preference;
+import com.example.orientlamp_back.service.geo.Gazetteer;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A student's {@link Preference} reduced to what the ranking compares: city keys, a tuition
+ * ceiling, language keys and interest keywords, each normalised the same way as the catalog
+ * side in {@link RecommendationIndex}. Empty sets and a null budget mean "no preference".
+ *
+ * @param budgetMax the most the student is willing to pay, in MAD a year
+ */
+public record Preferences(Set<String> cities, Double budgetMax, Set<String> languages, Set<String> keywords) {
+
+    public static final Preferences NONE = new Preferences(Set.of(), null, Set.of(), Set.of());
+
+    private static final Pattern AMOUNT = Pattern.compile("(\\d+(?:[.,]\\d+)?)\\s*(k\\b)?");
+    private static final Pattern THOUSANDS_SEPARATOR = Pattern.compile("(?<=\\d)[\\s\\u00A0.](?=\\d{3}\\b)");
+
+    public static Preferences of(Preference preference, Gazetteer gazetteer) {
+        if (preference == null) {
+            return NONE;
+        }
+        Set<String> cities = new LinkedHashSet<>();
+        if (preference.getDesiredCitiest() != null) {
+            for (String city : preference.getDesiredCitiest().split("[,;/|\\n]")) {
+                String key = RecommendationIndex.cityKey(city, gazetteer);
+                if (key != null) {
+                    cities.add(key);
+                }
+            }
+        }
+        Set<String> keywords = new LinkedHashSet<>(RecommendationIndex.keywords(preference.getInterests()));
+        keywords.addAll(RecommendationIndex.keywords(preference.getCareerGoals()));
+        return new Preferences(Set.copyOf(cities), parseBudget(preference.getBudgetRange()),
+                Set.copyOf(RecommendationIndex.languages(preference.getLanguagePreferences())), Set.copyOf(keywords));
+    }
+
+    /**
+     * The ceiling of a free-text budget: "20000-50000 MAD", "20 000 à 50 000", "< 30k" and
+     * "gratuit" all work. A single amount is read as a ceiling; a range keeps its larger end.
+     */
+    static Double parseBudget(String text) {
+        if (text == null || text.isBlank()) {
+            return null;
+        }
+        String folded = THOUSANDS_SEPARATOR.matcher(text.toLowerCase()).replaceAll("");
+        Double max = null;
+        Matcher matcher = AMOUNT.matcher(folded);
+        while (matcher.find()) {
+            double amount = Double.parseDouble(matcher.group(1).replace(',', '.'));
+            if (matcher.group(2) != null) {
+                amount *= 1000;
+            }
+            max = max == null ? amount : Math.max(max, amount);
+        }
+        if (max == null && (folded.contains("gratuit") || folded.contains("free") || folded.contains("public"))) {
+            return 0.0;
+        }
+        return max;
+    }
+}
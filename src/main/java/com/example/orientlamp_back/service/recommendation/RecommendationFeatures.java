@@ -0,0 +1,48 @@
+package com.example.orientlamp_back.service.recommendation;
+
+import com.example.orientlamp_back.event.CatalogRefreshedEvent;
+import com.example.orientlamp_back.service.catalog.Catalog;
+import com.example.orientlamp_back.service.catalog.CatalogSnapshot;
+import com.example.orientlamp_back.service.geo.Gazetteer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holds the {@link RecommendationIndex} for the current catalog, rebuilt whole on each refresh
+ * like the eligibility rules.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RecommendationFeatures {
+
+    private final CatalogSnapshot catalogSnapshot;
+    private final Gazetteer gazetteer;
+    private final AtomicReference<RecommendationIndex> current = new AtomicReference<>();
+
+    public RecommendationIndex current() {
+        RecommendationIndex index = current.get();
+        if (index != null) {
+            return index;
+        }
+        current.compareAndSet(null, RecommendationIndex.build(catalogSnapshot.current(), gazetteer));
+        return current.get();
+    }
+
+    /** Features compiled from {@code catalog}, so that their filiere indexes line up with it. */
+    public RecommendationIndex forCatalog(Catalog catalog) {
+        RecommendationIndex index = current();
+        return index.version() == catalog.version() ? index : RecommendationIndex.build(catalog, gazetteer);
+    }
+
+    @EventListener
+    public void onCatalogRefreshed(CatalogRefreshedEvent event) {
+        RecommendationIndex index = RecommendationIndex.build(event.catalog(), gazetteer);
+        current.set(index);
+        log.debug("Recommendation features v{} compiled", index.version());
+    }
+}
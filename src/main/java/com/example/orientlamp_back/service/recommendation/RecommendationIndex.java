@@ -0,0 +1,300 @@
+package com.example.orientlamp_back.service.recommendation;
+
+import com.example.orientlamp_back.service.catalog.Catalog;
+import com.example.orientlamp_back.service.eligibility.CandidateProfile;
+import com.example.orientlamp_back.service.eligibility.EligibilityIndex;
+import com.example.orientlamp_back.service.geo.Gazetteer;
+import com.example.orientlamp_back.service.search.SearchQuery;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * The per-filiere features the recommendations are ranked on, compiled from one {@link Catalog}
+ * into flat arrays indexed like its filieres: a city id, a tuition fee, a bit mask of teaching
+ * languages and the sorted keyword ids of the filiere's name and admission text.
+ *
+ * Ranking only walks the filieres a student is eligible for. Each gets a weighted score in
+ * {@code [0, 1]} and the best {@code k} are kept in a min-heap of size {@code k}, so the
+ * catalog is never sorted and only the winners are explained.
+ */
+public final class RecommendationIndex {
+
+    static final double CITY_WEIGHT = 0.30;
+    static final double BUDGET_WEIGHT = 0.20;
+    static final double LANGUAGE_WEIGHT = 0.15;
+    static final double INTEREST_WEIGHT = 0.20;
+    static final double MARGIN_WEIGHT = 0.15;
+
+    /** Points above the threshold that earn the full admission-margin component. */
+    static final double MARGIN_SCALE = 4.0;
+    /** Keyword matches that earn the full interest component. */
+    static final int KEYWORDS_FOR_FULL_MATCH = 2;
+    static final int MIN_KEYWORD_LENGTH = 3;
+
+    /** Teaching languages as students and schools spell them, keyed by their folded form. */
+    static final Map<String, String> LANGUAGE_ALIASES = Map.ofEntries(
+            Map.entry("fr", "francais"), Map.entry("francais", "francais"), Map.entry("french", "francais"),
+            Map.entry("en", "anglais"), Map.entry("anglais", "anglais"), Map.entry("english", "anglais"),
+            Map.entry("ar", "arabe"), Map.entry("arabe", "arabe"), Map.entry("arabic", "arabe"),
+            Map.entry("es", "espagnol"), Map.entry("espagnol", "espagnol"), Map.entry("spanish", "espagnol"),
+            Map.entry("de", "allemand"), Map.entry("allemand", "allemand"), Map.entry("german", "allemand"));
+
+    static final Set<String> STOP_WORDS = Set.of(
+            "les", "des", "aux", "pour", "sur", "une", "dans", "avec", "par", "the", "and", "for", "with",
+            "filiere", "licence", "master", "cycle", "option", "etudes");
+
+    public record Recommendation(int filiere, double score, BigDecimal margin, boolean cityMatch,
+                                 Boolean withinBudget, boolean languageMatch, List<String> matchedKeywords) {}
+
+    private record Candidate(int filiere, double score) {}
+
+    private final long version;
+    private final int[] city;
+    private final Map<String, Integer> cityIds;
+    private final double[] tuition;
+    private final long[] languages;
+    private final Map<String, Integer> languageBits;
+    private final int[][] keywords;
+    private final Map<String, Integer> keywordIds;
+    private final String[] keywordStrings;
+
+    private RecommendationIndex(long version, int[] city, Map<String, Integer> cityIds, double[] tuition,
+                                long[] languages, Map<String, Integer> languageBits,
+                                int[][] keywords, Map<String, Integer> keywordIds) {
+        this.version = version;
+        this.city = city;
+        this.cityIds = Map.copyOf(cityIds);
+        this.tuition = tuition;
+        this.languages = languages;
+        this.languageBits = Map.copyOf(languageBits);
+        this.keywords = keywords;
+        this.keywordIds = Map.copyOf(keywordIds);
+        this.keywordStrings = new String[keywordIds.size()];
+        keywordIds.forEach((word, id) -> keywordStrings[id] = word);
+    }
+
+    public static RecommendationIndex build(Catalog catalog, Gazetteer gazetteer) {
+        int n = catalog.filiereCount();
+        int[] city = new int[n];
+        double[] tuition = new double[n];
+        long[] languages = new long[n];
+        int[][] keywords = new int[n][];
+        Map<String, Integer> cityIds = new HashMap<>();
+        Map<String, Integer> languageBits = new HashMap<>();
+        Map<String, Integer> keywordIds = new HashMap<>();
+
+        // Cities are resolved once per university, not once per filiere.
+        int[] universityCity = new int[catalog.universityCount()];
+        for (int u = 0; u < universityCity.length; u++) {
+            String key = cityKey(catalog.string(catalog.university(u).location()), gazetteer);
+            universityCity[u] = key == null ? -1 : cityIds.computeIfAbsent(key, k -> cityIds.size());
+        }
+
+        for (int f = 0; f < n; f++) {
+            Catalog.FiliereRow row = catalog.filiere(f);
+            city[f] = universityCity[row.university()];
+            tuition[f] = row.tuitionFee() == null ? Double.NaN : row.tuitionFee().doubleValue();
+
+            long mask = 0;
+            for (String language : languages(catalog.string(row.language()))) {
+                Integer bit = languageBits.get(language);
+                if (bit == null && languageBits.size() < Long.SIZE) {
+                    bit = languageBits.size();
+                    languageBits.put(language, bit);
+                }
+                if (bit != null) {
+                    mask |= 1L << bit;
+                }
+            }
+            languages[f] = mask;
+
+            Set<String> words = keywords(row.name());
+            words.addAll(keywords(catalog.string(row.critereAdmission())));
+            int[] ids = new int[words.size()];
+            int i = 0;
+            for (String word : words) {
+                ids[i++] = keywordIds.computeIfAbsent(word, k -> keywordIds.size());
+            }
+            Arrays.sort(ids);
+            keywords[f] = ids;
+        }
+        return new RecommendationIndex(catalog.version(), city, cityIds, tuition, languages, languageBits,
+                keywords, keywordIds);
+    }
+
+    public long version() {
+        return version;
+    }
+
+    /**
+     * The {@code k} best-scored filieres among {@code eligible}, best first; ties go to the lower
+     * filiere index so the order is stable.
+     */
+    public List<Recommendation> recommend(Preferences preferences, BitSet eligible, EligibilityIndex rules,
+                                          CandidateProfile profile, int k) {
+        Query query = compile(preferences);
+        PriorityQueue<Candidate> heap = new PriorityQueue<>(Math.max(1, k), (a, b) -> a.score() != b.score()
+                ? Double.compare(a.score(), b.score())
+                : Integer.compare(b.filiere(), a.filiere()));
+        for (int f = eligible.nextSetBit(0); f >= 0 && k > 0; f = eligible.nextSetBit(f + 1)) {
+            double score = score(f, query, rules.margin(f, profile));
+            if (heap.size() < k) {
+                heap.add(new Candidate(f, score));
+            } else if (score > heap.peek().score()) {
+                heap.poll();
+                heap.add(new Candidate(f, score));
+            }
+        }
+
+        Recommendation[] best = new Recommendation[heap.size()];
+        for (int i = best.length - 1; i >= 0; i--) {
+            Candidate candidate = heap.poll();
+            best[i] = explain(candidate, query, rules.margin(candidate.filiere(), profile));
+        }
+        return List.of(best);
+    }
+
+    /** A student's preferences translated into this index's ids. */
+    private record Query(BitSet cities, boolean anyCity, Double budgetMax, long languages, boolean anyLanguage,
+                         BitSet keywords, boolean anyKeyword) {}
+
+    private Query compile(Preferences preferences) {
+        BitSet cities = new BitSet();
+        for (String key : preferences.cities()) {
+            Integer id = cityIds.get(key);
+            if (id != null) {
+                cities.set(id);
+            }
+        }
+        long languageMask = 0;
+        for (String language : preferences.languages()) {
+            Integer bit = languageBits.get(language);
+            if (bit != null) {
+                languageMask |= 1L << bit;
+            }
+        }
+        BitSet words = new BitSet();
+        for (String word : preferences.keywords()) {
+            Integer id = keywordIds.get(word);
+            if (id != null) {
+                words.set(id);
+            }
+        }
+        // A preference stated but matching nothing in the catalog still counts as stated.
+        return new Query(cities, !preferences.cities().isEmpty(), preferences.budgetMax(),
+                languageMask, !preferences.languages().isEmpty(), words, !preferences.keywords().isEmpty());
+    }
+
+    private double score(int f, Query query, BigDecimal margin) {
+        double score = 0;
+        if (query.anyCity() && city[f] >= 0 && query.cities().get(city[f])) {
+            score += CITY_WEIGHT;
+        }
+        if (query.budgetMax() != null) {
+            score += BUDGET_WEIGHT * budgetFit(tuition[f], query.budgetMax());
+        }
+        if (query.anyLanguage() && (languages[f] & query.languages()) != 0) {
+            score += LANGUAGE_WEIGHT;
+        }
+        if (query.anyKeyword()) {
+            int matched = 0;
+            for (int id : keywords[f]) {
+                if (query.keywords().get(id) && ++matched == KEYWORDS_FOR_FULL_MATCH) {
+                    break;
+                }
+            }
+            score += INTEREST_WEIGHT * matched / KEYWORDS_FOR_FULL_MATCH;
+        }
+        // No threshold to clear (open access) sits halfway.
+        double marginFit = margin == null ? 0.5 : Math.max(0, Math.min(1, margin.doubleValue() / MARGIN_SCALE));
+        return score + MARGIN_WEIGHT * marginFit;
+    }
+
+    /** 1 within budget, falling linearly to 0 at twice the budget; an unknown fee sits halfway. */
+    static double budgetFit(double tuition, double budgetMax) {
+        if (Double.isNaN(tuition)) {
+            return 0.5;
+        }
+        if (tuition <= budgetMax) {
+            return 1;
+        }
+        return budgetMax <= 0 ? 0 : Math.max(0, 1 - (tuition - budgetMax) / budgetMax);
+    }
+
+    private Recommendation explain(Candidate candidate, Query query, BigDecimal margin) {
+        int f = candidate.filiere();
+        List<String> matched = new ArrayList<>();
+        for (int id : keywords[f]) {
+            if (query.keywords().get(id)) {
+                matched.add(keywordStrings[id]);
+            }
+        }
+        Boolean withinBudget = query.budgetMax() == null || Double.isNaN(tuition[f])
+                ? null
+                : tuition[f] <= query.budgetMax();
+        return new Recommendation(f, Math.round(candidate.score() * 1000) / 1000.0, margin,
+                city[f] >= 0 && query.cities().get(city[f]), withinBudget,
+                (languages[f] & query.languages()) != 0, List.copyOf(matched));
+    }
+
+    // ------------------------------------------------------------------ //
+    //  Normalisation shared with Preferences                              //
+    // ------------------------------------------------------------------ //
+
+    /** The gazetteer name of the place {@code text} mentions, else its folded words. */
+    static String cityKey(String text, Gazetteer gazetteer) {
+        if (text == null || text.isBlank()) {
+            return null;
+        }
+        return gazetteer.resolve(text)
+                .map(Gazetteer.Place::name)
+                .orElseGet(() -> {
+                    String folded = normalize(text);
+                    return folded.isEmpty() ? null : folded;
+                });
+    }
+
+    static Set<String> languages(String text) {
+        Set<String> languages = new LinkedHashSet<>();
+        if (text == null) {
+            return languages;
+        }
+        for (String word : normalize(text).split(" ")) {
+            String language = LANGUAGE_ALIASES.get(word);
+            if (language != null) {
+                languages.add(language);
+            }
+        }
+        return languages;
+    }
+
+    /** Folded words of {@code text} worth matching, with a plural {@code s} or {@code x} dropped. */
+    static Set<String> keywords(String text) {
+        Set<String> words = new LinkedHashSet<>();
+        if (text == null) {
+            return words;
+        }
+        for (String word : normalize(text).split(" ")) {
+            if (word.length() > MIN_KEYWORD_LENGTH && (word.endsWith("s") || word.endsWith("x"))) {
+                word = word.substring(0, word.length() - 1);
+            }
+            if (word.length() >= MIN_KEYWORD_LENGTH && !STOP_WORDS.contains(word)) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+
+    private static String normalize(String text) {
+        return SearchQuery.fold(text).replaceAll("[^\\p{L}\\p{Nd}]+", " ").trim();
+    }
+}
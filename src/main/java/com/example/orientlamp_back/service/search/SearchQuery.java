@@ -0,0 +1,258 @@
+package com.example.orientlamp_back.service.search;
+
+import org.springframework.web.util.HtmlUtils;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A parsed {@code /api/search} query: the folded terms, the {@code tsquery} they compile to and
+ * the highlighter for the returned text.
+ *
+ * Folding is a character-for-character translation (Latin accents, Arabic alef/hamza variants,
+ * tashkeel and tatweel) followed by lower-casing. {@link #sqlFold(String)} emits the same
+ * translation as SQL so that the documents indexed in {@code V9__catalog_search.sql} and the
+ * query terms built here agree on every character.
+ */
+public final class SearchQuery {
+
+    static final String FOLD_FROM =
+            "ÀÁÂÃÄÅÇÈÉÊËÌÍÎÏÑÒÓÔÕÖÙÚÛÜÝŒÆ"
+            + "àáâãäåçèéêëìíîïñòóôõöùúûüýÿœæ"
+            // alef with hamza above/below, alef with madda, alef wasla, alef maqsura, teh marbuta
+            + "\u0623\u0625\u0622\u0671\u0649\u0629"
+            // no counterpart in FOLD_TO, so removed: tatweel, fathatan..sukun, superscript alef
+            + "\u0640\u064B\u064C\u064D\u064E\u064F\u0650\u0651\u0652\u0670";
+
+    static final String FOLD_TO =
+            "aaaaaaceeeeiiiinooooouuuuyoa"
+            + "aaaaaaceeeeiiiinooooouuuuyyoa"
+            + "\u0627\u0627\u0627\u0627\u064A\u0647";
+
+    /** Abbreviations students type, expanded to the words of the full school name. */
+    static final Map<String, List<String>> ABBREVIATIONS = Map.ofEntries(
+            Map.entry("ensa", List.of("ecole", "nationale", "sciences", "appliquees")),
+            Map.entry("ensam", List.of("ecole", "nationale", "superieure", "arts", "metiers")),
+            Map.entry("encg", List.of("ecole", "nationale", "commerce", "gestion")),
+            Map.entry("emi", List.of("ecole", "mohammadia", "ingenieurs")),
+            Map.entry("fst", List.of("faculte", "sciences", "techniques")),
+            Map.entry("est", List.of("ecole", "superieure", "technologie")),
+            Map.entry("ensias", List.of("informatique", "analyse", "systemes")),
+            Map.entry("ehtp", List.of("hassania", "travaux", "publics")),
+            Map.entry("inpt", List.of("postes", "telecommunications")),
+            Map.entry("iscae", List.of("commerce", "administration", "entreprises")),
+            Map.entry("insea", List.of("statistique", "economie", "appliquee")),
+            Map.entry("enset", List.of("enseignement", "technique")),
+            Map.entry("fsjes", List.of("faculte", "sciences", "juridiques", "economiques", "sociales")),
+            Map.entry("flsh", List.of("faculte", "lettres", "sciences", "humaines")),
+            Map.entry("fmp", List.of("faculte", "medecine", "pharmacie")),
+            Map.entry("cpge", List.of("classes", "preparatoires")),
+            Map.entry("um5", List.of("universite", "mohammed", "rabat"))
+    );
+
+    /** Dropped from queries: with the {@code simple} configuration they would match nearly every row. */
+    static final Set<String> STOP_WORDS = Set.of(
+            "a", "au", "aux", "d", "de", "des", "du", "en", "et", "l", "la", "le", "les",
+            "ou", "pour", "sur", "un", "une", "the", "of", "and", "in");
+
+    static final int MAX_TERMS = 8;
+    static final int SNIPPET_LENGTH = 160;
+
+    private final String text;
+    private final List<String> terms;
+    private final Set<String> exactWords;
+
+    private SearchQuery(String text, List<String> terms, Set<String> exactWords) {
+        this.text = text;
+        this.terms = terms;
+        this.exactWords = exactWords;
+    }
+
+    public static SearchQuery parse(String text) {
+        List<String> terms = new ArrayList<>();
+        Set<String> exactWords = new LinkedHashSet<>();
+        for (String word : words(fold(text == null ? "" : text))) {
+            if (terms.size() == MAX_TERMS) {
+                break;
+            }
+            if (STOP_WORDS.contains(word) || terms.contains(word)) {
+                continue;
+            }
+            terms.add(word);
+            List<String> expansion = ABBREVIATIONS.get(word);
+            if (expansion != null) {
+                exactWords.add(word);
+                exactWords.addAll(expansion);
+            }
+        }
+        return new SearchQuery(text, List.copyOf(terms), Set.copyOf(exactWords));
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public List<String> getTerms() {
+        return terms;
+    }
+
+    public boolean isEmpty() {
+        return terms.isEmpty();
+    }
+
+    /**
+     * Terms are OR-ed so that "ingénieur informatique Rabat" also finds a filiere whose own
+     * document only has "informatique"; ranking then favours rows that cover more terms.
+     * Plain terms are prefix matches, abbreviations match exactly or through their expansion.
+     * Folded terms only contain letters and digits, so they need no tsquery escaping.
+     */
+    public String toTsQuery() {
+        List<String> clauses = new ArrayList<>(terms.size());
+        for (String term : terms) {
+            List<String> expansion = ABBREVIATIONS.get(term);
+            clauses.add(expansion == null
+                    ? term + ":*"
+                    : "(" + term + " | " + String.join(" & ", expansion) + ")");
+        }
+        return String.join(" | ", clauses);
+    }
+
+    /** HTML-escaped {@code value} with matching words wrapped in {@code <mark>}, or null if nothing matches. */
+    public String highlight(String value) {
+        if (value == null) {
+            return null;
+        }
+        List<int[]> matches = matches(value);
+        if (matches.isEmpty()) {
+            return null;
+        }
+        return mark(value, 0, value.length(), matches);
+    }
+
+    /** Like {@link #highlight(String)}, cut to a window of about {@link #SNIPPET_LENGTH} characters around the first match. */
+    public String snippet(String value) {
+        if (value == null) {
+            return null;
+        }
+        List<int[]> matches = matches(value);
+        if (matches.isEmpty()) {
+            return null;
+        }
+        int start = Math.max(0, matches.get(0)[0] - SNIPPET_LENGTH / 3);
+        while (start > 0 && !Character.isWhitespace(value.charAt(start - 1))) {
+            start--;
+        }
+        int end = Math.min(value.length(), start + SNIPPET_LENGTH);
+        while (end < value.length() && !Character.isWhitespace(value.charAt(end))) {
+            end++;
+        }
+        return (start > 0 ? "…" : "") + mark(value, start, end, matches) + (end < value.length() ? "…" : "");
+    }
+
+    public static String fold(String value) {
+        StringBuilder folded = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            int index = FOLD_FROM.indexOf(c);
+            if (index < 0) {
+                folded.append(c);
+            } else if (index < FOLD_TO.length()) {
+                folded.append(FOLD_TO.charAt(index));
+            }
+        }
+        return folded.toString().toLowerCase(Locale.ROOT);
+    }
+
+    /** SQL equivalent of {@link #fold(String)} applied to {@code expression}. */
+    public static String sqlFold(String expression) {
+        return "lower(translate(" + expression + ", " + sqlLiteral(FOLD_FROM) + ", " + sqlLiteral(FOLD_TO) + "))";
+    }
+
+    /** Arabic code points are written as {@code U&'\XXXX'} escapes to keep the migration readable. */
+    private static String sqlLiteral(String value) {
+        StringBuilder literal = new StringBuilder("U&'");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= '\u0600' && c <= '\u06FF') {
+                literal.append(String.format("\\%04X", (int) c));
+            } else {
+                literal.append(c);
+            }
+        }
+        return literal.append('\'').toString();
+    }
+
+    private static List<String> words(String value) {
+        List<String> words = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= value.length(); i++) {
+            boolean letter = i < value.length() && isWordChar(value.charAt(i));
+            if (letter && start < 0) {
+                start = i;
+            } else if (!letter && start >= 0) {
+                words.add(value.substring(start, i));
+                start = -1;
+            }
+        }
+        return words;
+    }
+
+    private List<int[]> matches(String value) {
+        List<int[]> matches = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= value.length(); i++) {
+            boolean letter = i < value.length() && isWordChar(value.charAt(i));
+            if (letter && start < 0) {
+                start = i;
+            } else if (!letter && start >= 0) {
+                if (matchesWord(fold(value.substring(start, i)))) {
+                    matches.add(new int[]{start, i});
+                }
+                start = -1;
+            }
+        }
+        return matches;
+    }
+
+    /** Combining marks (accents, tashkeel) stay inside the word they decorate. */
+    private static boolean isWordChar(char c) {
+        return Character.isLetterOrDigit(c) || Character.getType(c) == Character.NON_SPACING_MARK;
+    }
+
+    private boolean matchesWord(String word) {
+        if (exactWords.contains(word)) {
+            return true;
+        }
+        for (String term : terms) {
+            if (!ABBREVIATIONS.containsKey(term) && word.startsWith(term)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String mark(String value, int start, int end, List<int[]> matches) {
+        StringBuilder marked = new StringBuilder(end - start + 32);
+        int position = start;
+        for (int[] match : matches) {
+            if (match[0] < start || match[1] > end) {
+                continue;
+            }
+            marked.append(escape(value.substring(position, match[0])))
+                    .append("<mark>")
+                    .append(escape(value.substring(match[0], match[1])))
+                    .append("</mark>");
+            position = match[1];
+        }
+        return marked.append(escape(value.substring(position, end))).toString();
+    }
+
+    /** Escapes markup characters only; accented and Arabic letters are left as they are. */
+    private static String escape(String text) {
+        return HtmlUtils.htmlEscape(text, "UTF-8");
+    }
+}
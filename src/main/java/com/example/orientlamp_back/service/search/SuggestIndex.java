@@ -0,0 +1,295 @@
+package com.example.orientlamp_back.service.search;
+
+import com.example.orientlamp_back.event.CatalogChangedEvent;
+import com.example.orientlamp_back.service.catalog.Catalog;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Immutable prefix index for the search box. Every suggestible string is normalised (folded
+ * like {@link SearchQuery}, punctuation collapsed to single spaces) and stored once per word
+ * start, so "informatique" finds "Génie Informatique". Keys live in one sorted array: the
+ * keys starting with a prefix form a contiguous range found with two binary searches, and
+ * only that range is ranked, keeping no more than the requested number of targets per weight.
+ *
+ * Keys come from university names, slugs and known abbreviations, and from filiere names.
+ * A catalog write only re-keys the universities it touched (a university together with its
+ * filieres) and merges them into the untouched keys, see {@link #update}.
+ */
+public final class SuggestIndex {
+
+    public enum Kind {
+        UNIVERSITY,
+        FILIERE
+    }
+
+    /**
+     * What a key points to. {@code popularity} is the number of seats on offer, summed over
+     * its filieres for a university: the catalog keeps no other demand signal.
+     */
+    public record Target(Kind kind, Long id, Long universityId, String name, String slug,
+                         String universityName, int popularity) {}
+
+    /** Where in the target a key starts; a hit on the start of the name ranks above one mid-name. */
+    static final int WEIGHT_NAME_START = 3;
+    static final int WEIGHT_ABBREVIATION = 3;
+    static final int WEIGHT_SLUG = 2;
+    static final int WEIGHT_INNER_WORD = 1;
+    static final int MAX_WEIGHT = 3;
+
+    /** Keys are cut here; nobody types further than this before picking a suggestion. */
+    static final int MAX_KEY_LENGTH = 48;
+
+    private static final Comparator<Target> TIE_BREAK = Comparator
+            .comparingInt((Target t) -> t.name().length())
+            .thenComparing(Target::name)
+            .thenComparing(Target::id);
+
+    /** Among targets of one weight: most popular first. */
+    private static final Comparator<Target> BY_POPULARITY = Comparator
+            .comparingInt(Target::popularity).reversed()
+            .thenComparing(TIE_BREAK);
+
+    private final long version;
+    private final String[] keys;
+    private final Target[] targets;
+    private final byte[] weights;
+
+    private SuggestIndex(long version, String[] keys, Target[] targets, byte[] weights) {
+        this.version = version;
+        this.keys = keys;
+        this.targets = targets;
+        this.weights = weights;
+    }
+
+    private record Key(String key, Target target, int weight) {}
+
+    private static final Comparator<Key> KEY_ORDER = Comparator.comparing(Key::key);
+
+    public static SuggestIndex build(Catalog catalog) {
+        List<Key> keys = new ArrayList<>();
+        for (int u = 0; u < catalog.universityCount(); u++) {
+            addUniversity(catalog, u, keys);
+        }
+        keys.sort(KEY_ORDER);
+        return of(catalog.version(), keys);
+    }
+
+    /**
+     * Index for {@code catalog}, which was built because of {@code cause}. Only the universities
+     * touched by the write are re-keyed; anything else (a bulk reload, or a catalog that is not
+     * the direct successor of this one) falls back to a full {@link #build}.
+     */
+    public SuggestIndex update(Catalog catalog, CatalogChangedEvent cause) {
+        if (catalog.version() != version + 1 || cause.id() == null || cause.type() == CatalogChangedEvent.Type.ALL) {
+            return build(catalog);
+        }
+        if (cause.type() == CatalogChangedEvent.Type.CRITERE) {
+            return new SuggestIndex(catalog.version(), keys, targets, weights);
+        }
+
+        Set<Long> affected = new HashSet<>();
+        if (cause.type() == CatalogChangedEvent.Type.UNIVERSITY) {
+            affected.add(cause.id());
+        } else {
+            for (Target target : targets) {
+                if (target.kind() == Kind.FILIERE && target.id().equals(cause.id())) {
+                    affected.add(target.universityId());
+                    break;
+                }
+            }
+            int f = catalog.filiereIndex(cause.id());
+            if (f >= 0) {
+                affected.add(catalog.university(catalog.filiere(f).university()).id());
+            }
+        }
+
+        List<Key> kept = new ArrayList<>(keys.length);
+        for (int i = 0; i < keys.length; i++) {
+            if (!affected.contains(targets[i].universityId())) {
+                kept.add(new Key(keys[i], targets[i], weights[i]));
+            }
+        }
+        List<Key> added = new ArrayList<>();
+        for (Long universityId : affected) {
+            int u = catalog.universityIndex(universityId);
+            if (u >= 0) {
+                addUniversity(catalog, u, added);
+            }
+        }
+        added.sort(KEY_ORDER);
+        return of(catalog.version(), merge(kept, added));
+    }
+
+    /** Best {@code limit} targets with a key starting with {@code query}, most relevant first. */
+    public List<Target> suggest(String query, int limit) {
+        String prefix = normalize(query);
+        if (prefix.isEmpty()) {
+            return List.of();
+        }
+        if (prefix.length() > MAX_KEY_LENGTH) {
+            prefix = prefix.substring(0, MAX_KEY_LENGTH);
+        }
+        int from = lowerBound(prefix);
+        int to = lowerBound(prefix + Character.MAX_VALUE);
+
+        if (limit <= 0) {
+            return List.of();
+        }
+
+        // A short prefix covers most of the keys, so nothing here grows with the range: each
+        // weight keeps only its best {@code limit} targets, worst at the head of its heap.
+        List<PriorityQueue<Target>> heaps = new ArrayList<>(MAX_WEIGHT + 1);
+        for (int w = 0; w <= MAX_WEIGHT; w++) {
+            heaps.add(new PriorityQueue<>(Math.min(limit, to - from) + 1, BY_POPULARITY.reversed()));
+        }
+        for (int i = from; i < to; i++) {
+            PriorityQueue<Target> heap = heaps.get(weights[i]);
+            Target target = targets[i];
+            if (heap.size() < limit) {
+                if (!heap.contains(target)) {
+                    heap.add(target);
+                }
+            } else if (BY_POPULARITY.compare(target, heap.peek()) < 0 && !heap.contains(target)) {
+                heap.poll();
+                heap.add(target);
+            }
+        }
+
+        // Highest weight first. A target also keyed at a lower weight was either taken at its
+        // best one or pushed out by {@code limit} better targets, so the lower heap is not reached.
+        List<Target> ranked = new ArrayList<>(Math.min(limit, to - from));
+        Set<Target> taken = new HashSet<>();
+        for (int w = MAX_WEIGHT; w > 0 && ranked.size() < limit; w--) {
+            List<Target> candidates = new ArrayList<>(heaps.get(w));
+            candidates.sort(BY_POPULARITY);
+            for (Target target : candidates) {
+                if (ranked.size() < limit && taken.add(target)) {
+                    ranked.add(target);
+                }
+            }
+        }
+        return ranked;
+    }
+
+    public long version() {
+        return version;
+    }
+
+    public int size() {
+        return keys.length;
+    }
+
+    static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        String folded = SearchQuery.fold(value);
+        StringBuilder normalized = new StringBuilder(folded.length());
+        boolean space = false;
+        for (int i = 0; i < folded.length(); i++) {
+            char c = folded.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                if (space && !normalized.isEmpty()) {
+                    normalized.append(' ');
+                }
+                normalized.append(c);
+                space = false;
+            } else {
+                space = true;
+            }
+        }
+        return normalized.toString();
+    }
+
+    private static void addUniversity(Catalog catalog, int index, List<Key> keys) {
+        Catalog.UniversityRow u = catalog.university(index);
+        int seats = 0;
+        for (int f : u.filieres()) {
+            Integer filiereSeats = catalog.filiere(f).seatsAvailabial();
+            seats += filiereSeats == null ? 0 : filiereSeats;
+        }
+
+        Target university = new Target(Kind.UNIVERSITY, u.id(), u.id(), u.name(), u.slug(), null, seats);
+        String name = normalize(u.name());
+        addWordStarts(name, university, keys);
+        if (u.slug() != null) {
+            addKey(normalize(u.slug()), university, WEIGHT_SLUG, keys);
+        }
+        Set<String> words = new HashSet<>(Arrays.asList(name.split(" ")));
+        SearchQuery.ABBREVIATIONS.forEach((abbreviation, expansion) -> {
+            if (words.containsAll(expansion)) {
+                addKey(abbreviation, university, WEIGHT_ABBREVIATION, keys);
+            }
+        });
+
+        for (int f : u.filieres()) {
+            Catalog.FiliereRow row = catalog.filiere(f);
+            Target filiere = new Target(Kind.FILIERE, row.id(), u.id(), row.name(), null, u.name(),
+                    row.seatsAvailabial() == null ? 0 : row.seatsAvailabial());
+            addWordStarts(normalize(row.name()), filiere, keys);
+        }
+    }
+
+    private static void addWordStarts(String name, Target target, List<Key> keys) {
+        int start = 0;
+        while (start < name.length()) {
+            int end = name.indexOf(' ', start);
+            String word = name.substring(start, end < 0 ? name.length() : end);
+            if (start == 0 || !SearchQuery.STOP_WORDS.contains(word)) {
+                addKey(name.substring(start), target, start == 0 ? WEIGHT_NAME_START : WEIGHT_INNER_WORD, keys);
+            }
+            if (end < 0) {
+                break;
+            }
+            start = end + 1;
+        }
+    }
+
+    private static void addKey(String key, Target target, int weight, List<Key> keys) {
+        if (!key.isEmpty()) {
+            keys.add(new Key(key.length() > MAX_KEY_LENGTH ? key.substring(0, MAX_KEY_LENGTH) : key, target, weight));
+        }
+    }
+
+    private static List<Key> merge(List<Key> left, List<Key> right) {
+        List<Key> merged = new ArrayList<>(left.size() + right.size());
+        int i = 0;
+        int j = 0;
+        while (i < left.size() && j < right.size()) {
+            merged.add(KEY_ORDER.compare(left.get(i), right.get(j)) <= 0 ? left.get(i++) : right.get(j++));
+        }
+        merged.addAll(left.subList(i, left.size()));
+        merged.addAll(right.subList(j, right.size()));
+        return merged;
+    }
+
+    private static SuggestIndex of(long version, List<Key> sorted) {
+        String[] keys = new String[sorted.size()];
+        Target[] targets = new Target[sorted.size()];
+        byte[] weights = new byte[sorted.size()];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = sorted.get(i).key();
+            targets[i] = sorted.get(i).target();
+            weights[i] = (byte) sorted.get(i).weight();
+        }
+        return new SuggestIndex(version, keys, targets, weights);
+    }
+
+    private int lowerBound(String prefix) {
+        int index = Arrays.binarySearch(keys, prefix);
+        if (index < 0) {
+            return -index - 1;
+        }
+        while (index > 0 && keys[index - 1].equals(prefix)) {
+            index--;
+        }
+        return index;
+    }
+}
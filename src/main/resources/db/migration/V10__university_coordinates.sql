@@ -0,0 +1,4 @@
+-- Campus coordinates (WGS 84) for /api/universities/near. Universities left without them are
+-- placed at the centre of their city from geo/morocco-cities.csv.
+ALTER TABLE university ADD COLUMN latitude DOUBLE PRECISION;
+ALTER TABLE university ADD COLUMN longitude DOUBLE PRECISION;
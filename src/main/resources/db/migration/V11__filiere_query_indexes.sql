@@ -0,0 +1,21 @@
+-- Composite indexes for /api/filieres/query (PostgreSQL).
+--
+-- Equality filters lead, then the keyset sort key and id, so a filtered page is an index
+-- range scan in sort order that stops after LIMIT rows. Name order is the default sort.
+
+-- Keyset orders without filters (also the tail of every filtered sort below)
+CREATE INDEX IF NOT EXISTS idx_filiere_name_id ON filiere (name, id);
+CREATE INDEX IF NOT EXISTS idx_filiere_tuition_id ON filiere (tuition_fee, id);
+CREATE INDEX IF NOT EXISTS idx_filiere_deadline_id ON filiere (application_deadline, id);
+
+-- One university's filieres, optionally of one admission type
+-- (the pair behind FiliereRepository.findByUniversityIdAndAdmissionType)
+CREATE INDEX IF NOT EXISTS idx_filiere_university_admission_name
+    ON filiere (university_id, admission_type, name, id);
+
+CREATE INDEX IF NOT EXISTS idx_filiere_admission_name ON filiere (admission_type, name, id);
+CREATE INDEX IF NOT EXISTS idx_filiere_language_name ON filiere (language, name, id);
+CREATE INDEX IF NOT EXISTS idx_filiere_admission_tuition ON filiere (admission_type, tuition_fee, id);
+
+-- Critere filters probe by bac series and threshold, then join back on the primary key
+CREATE INDEX IF NOT EXISTS idx_critere_serie_seuil ON critere (serie_bac_cible, seuil_calcul, filiere_id);
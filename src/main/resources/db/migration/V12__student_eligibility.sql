@@ -0,0 +1,18 @@
+-- Precomputed eligibility (EligibilityMatrix): one row per student and filiere they are
+-- eligible for. Ineligible pairs are not stored, so a student's row is the set of filiere ids.
+
+CREATE TABLE student_eligibility (
+    id_user     BIGINT NOT NULL,
+    filiere_id  BIGINT NOT NULL,
+    computed_at TIMESTAMP(6) WITH TIME ZONE NOT NULL DEFAULT now(),
+
+    CONSTRAINT pk_student_eligibility PRIMARY KEY (id_user, filiere_id),
+    CONSTRAINT fk_student_eligibility_user
+        FOREIGN KEY (id_user) REFERENCES "user" (id_user) ON DELETE CASCADE,
+    CONSTRAINT fk_student_eligibility_filiere
+        FOREIGN KEY (filiere_id) REFERENCES filiere (id) ON DELETE CASCADE
+);
+
+-- The primary key serves the dashboard read (one student's row); this one serves replacing a
+-- filiere's column after a critere update and the filiere cascade.
+CREATE INDEX idx_student_eligibility_filiere ON student_eligibility (filiere_id, id_user);
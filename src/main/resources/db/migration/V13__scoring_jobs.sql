@@ -0,0 +1,32 @@
+-- Batch re-scoring of the whole student population (ScoringJobService).
+
+-- Admission margin of each eligible pair: the student's score minus the filiere's threshold.
+ALTER TABLE student_eligibility ADD COLUMN margin NUMERIC(6, 2);
+
+CREATE TABLE scoring_job (
+    id              BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    status          VARCHAR(20) NOT NULL,
+    catalog_version BIGINT      NOT NULL,
+    partitions      INTEGER     NOT NULL,
+    created_at      TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    finished_at     TIMESTAMP(6) WITH TIME ZONE
+);
+
+-- A partition is a range of user ids, rescored in one transaction: a job resumed after a
+-- crash or a failure only re-runs the partitions that are not DONE.
+CREATE TABLE scoring_job_partition (
+    job_id       BIGINT  NOT NULL,
+    partition_no INTEGER NOT NULL,
+    from_user_id BIGINT  NOT NULL,
+    to_user_id   BIGINT  NOT NULL,
+    status       VARCHAR(20) NOT NULL,
+    students     BIGINT  NOT NULL DEFAULT 0,
+    pairs        BIGINT  NOT NULL DEFAULT 0,
+    started_at   TIMESTAMP(6) WITH TIME ZONE,
+    finished_at  TIMESTAMP(6) WITH TIME ZONE,
+    error        VARCHAR(500),
+
+    CONSTRAINT pk_scoring_job_partition PRIMARY KEY (job_id, partition_no),
+    CONSTRAINT fk_scoring_job_partition_job
+        FOREIGN KEY (job_id) REFERENCES scoring_job (id) ON DELETE CASCADE
+);
@@ -0,0 +1,35 @@
+-- Structured form of critere's free-text requirements (entity CritereRequirements): the
+-- application parses seuil_matieres_specifiques, notes_semestres and diplomes_requis into this
+-- document on every write, and CritereRequirementsBackfill fills it for rows written before.
+--   {"schema": 1, "subjects": {"mathematiques": 14}, "minSemester": [12, 12, null, null],
+--    "minAverage": 13, "validatedSemesters": 4, "diplomas": ["DUT", "BTS"], "minLevel": 2}
+ALTER TABLE critere ADD COLUMN requirements JSONB;
+
+ALTER TABLE critere ADD CONSTRAINT chk_critere_requirements CHECK (
+    requirements IS NULL OR (
+        jsonb_typeof(requirements) = 'object'
+        AND (requirements ->> 'schema') IS NOT NULL
+        AND jsonb_typeof(COALESCE(requirements -> 'subjects', '{}')) = 'object'
+        AND jsonb_typeof(COALESCE(requirements -> 'minSemester', '[]')) = 'array'
+        AND jsonb_typeof(COALESCE(requirements -> 'diplomas', '[]')) = 'array'));
+
+-- findFiliereIdsAcceptingDiploma: containment on the listed diplomas ...
+CREATE INDEX idx_critere_requirements ON critere USING GIN (requirements jsonb_path_ops);
+-- ... or on the Bac+N level accepted
+CREATE INDEX idx_critere_requirements_min_level ON critere (((requirements ->> 'minLevel')::int));
+
+-- Per-subject thresholds, one index per key of the Subject enum. The queries compare the exact
+-- expression, so these must match CritereRequirementQueriesImpl.threshold().
+CREATE INDEX idx_critere_subject_mathematiques ON critere (((requirements -> 'subjects' ->> 'mathematiques')::numeric));
+CREATE INDEX idx_critere_subject_physique ON critere (((requirements -> 'subjects' ->> 'physique')::numeric));
+CREATE INDEX idx_critere_subject_svt ON critere (((requirements -> 'subjects' ->> 'svt')::numeric));
+CREATE INDEX idx_critere_subject_francais ON critere (((requirements -> 'subjects' ->> 'francais')::numeric));
+CREATE INDEX idx_critere_subject_anglais ON critere (((requirements -> 'subjects' ->> 'anglais')::numeric));
+CREATE INDEX idx_critere_subject_arabe ON critere (((requirements -> 'subjects' ->> 'arabe')::numeric));
+CREATE INDEX idx_critere_subject_philosophie ON critere (((requirements -> 'subjects' ->> 'philosophie')::numeric));
+CREATE INDEX idx_critere_subject_economie ON critere (((requirements -> 'subjects' ->> 'economie')::numeric));
+CREATE INDEX idx_critere_subject_comptabilite ON critere (((requirements -> 'subjects' ->> 'comptabilite')::numeric));
+CREATE INDEX idx_critere_subject_informatique ON critere (((requirements -> 'subjects' ->> 'informatique')::numeric));
+
+-- findByRequirementsIsNull: only the rows the backfill has yet to reach
+CREATE INDEX idx_critere_requirements_missing ON critere (filiere_id) WHERE requirements IS NULL;
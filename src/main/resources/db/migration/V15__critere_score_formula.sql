@@ -0,0 +1,3 @@
+-- Per-filiere admission score formula (Critere.formuleScore), compiled by ScoreFormula.
+-- NULL keeps the track's own grade as the score.
+ALTER TABLE critere ADD COLUMN formule_score TEXT;
@@ -0,0 +1,30 @@
+-- Seat allocation runs (AllocationService): deferred acceptance over every student's wishes,
+-- kept as the projected cut-off score of each filiere.
+
+CREATE TABLE allocation_run (
+    id                 BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    status             VARCHAR(20) NOT NULL,
+    catalog_version    BIGINT      NOT NULL,
+    wishes_per_student INTEGER     NOT NULL,
+    students           BIGINT      NOT NULL DEFAULT 0,
+    assigned           BIGINT      NOT NULL DEFAULT 0,
+    proposals          BIGINT      NOT NULL DEFAULT 0,
+    created_at         TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    finished_at        TIMESTAMP(6) WITH TIME ZONE,
+    error              VARCHAR(500)
+);
+
+-- One row per filiere of the run's catalog. seats is NULL for a filiere without a seat limit,
+-- cutoff_score NULL when it admitted no one.
+CREATE TABLE allocation_cutoff (
+    run_id       BIGINT  NOT NULL,
+    filiere_id   BIGINT  NOT NULL,
+    seats        INTEGER,
+    applicants   INTEGER NOT NULL,
+    admitted     INTEGER NOT NULL,
+    cutoff_score NUMERIC(8, 3),
+
+    CONSTRAINT pk_allocation_cutoff PRIMARY KEY (run_id, filiere_id),
+    CONSTRAINT fk_allocation_cutoff_run
+        FOREIGN KEY (run_id) REFERENCES allocation_run (id) ON DELETE CASCADE
+);
@@ -0,0 +1,47 @@
+-- Append-only history of the admission thresholds of each filiere, one revision per critere
+-- write (CritereHistoryRepository). The critere row only keeps the current year; this keeps
+-- every year that came before it.
+
+CREATE TABLE critere_history (
+    id                  BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    -- No foreign key: the history of a filiere outlives its critere and the filiere itself.
+    filiere_id          BIGINT       NOT NULL,
+    annee_academique    VARCHAR(20)  NOT NULL,
+    -- First calendar year of annee_academique ("2024-2025" -> 2024), what as-of lookups compare.
+    academic_year       INTEGER      NOT NULL,
+    revision            INTEGER      NOT NULL,
+    type_candidat       VARCHAR(100) NOT NULL,
+    serie_bac_cible     VARCHAR(100),
+    seuil_calcul        NUMERIC(5, 2),
+    note_concours_ecrit NUMERIC(5, 2),
+    score_prepa         NUMERIC(5, 2),
+    classement_cnc      INTEGER,
+    recorded_at         TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+
+    CONSTRAINT uq_critere_history_revision UNIQUE (filiere_id, academic_year, revision)
+);
+
+-- "As of year Y" is the first row of a backward scan from (filiere_id, Y); the unique
+-- constraint's index already has that order.
+
+CREATE FUNCTION critere_history_append_only() RETURNS trigger AS $$
+BEGIN
+    RAISE EXCEPTION 'critere_history is append-only';
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_critere_history_append_only
+    BEFORE UPDATE OR DELETE ON critere_history
+    FOR EACH ROW EXECUTE FUNCTION critere_history_append_only();
+
+-- The current criteres are the first revision of their year. Years are read like
+-- ThresholdHistory.startYear does; a text with no year counts as the year it was written in.
+INSERT INTO critere_history (filiere_id, annee_academique, academic_year, revision, type_candidat,
+                             serie_bac_cible, seuil_calcul, note_concours_ecrit, score_prepa,
+                             classement_cnc, recorded_at)
+SELECT filiere_id, annee_academique,
+       COALESCE(CAST(substring(annee_academique FROM '(?:19|20)\d\d') AS INTEGER),
+                CAST(EXTRACT(YEAR FROM COALESCE(updated_at, now())) AS INTEGER)),
+       1, type_candidat, serie_bac_cible, seuil_calcul, note_concours_ecrit, score_prepa,
+       classement_cnc, COALESCE(updated_at, now())
+FROM critere;
@@ -0,0 +1,10 @@
+-- Version of the catalog shared by every instance (CatalogVersionRepository). Each catalog write
+-- bumps it in its own transaction; instances poll it and rebuild their snapshot when it moved,
+-- so a write on one replica reaches the others without waiting for their own next write.
+
+CREATE TABLE catalog_version (
+    id      SMALLINT PRIMARY KEY CHECK (id = 1),
+    version BIGINT   NOT NULL
+);
+
+INSERT INTO catalog_version (id, version) VALUES (1, 1);
@@ -0,0 +1,15 @@
+-- Recomputes of student_eligibility owed to committed writes (EligibilityRecomputeRepository).
+-- A catalog or profile write records its mark in its own transaction and the recompute deletes
+-- it in its own, so a recompute lost to a restart, or to a failure on the instance that made
+-- the write, is found and done by whichever instance drains next. A filiere_id marks that
+-- filiere's column, an id_user that student's row, neither of them the whole table.
+
+CREATE TABLE eligibility_recompute (
+    id         BIGSERIAL PRIMARY KEY,
+    filiere_id BIGINT,
+    id_user    BIGINT,
+    created_at TIMESTAMP(6) WITH TIME ZONE NOT NULL DEFAULT now()
+);
+
+-- The matrix was rebuilt on every start before; owe it one rebuild instead.
+INSERT INTO eligibility_recompute (filiere_id, id_user) VALUES (NULL, NULL);
@@ -1,12 +1,35 @@
-CREATE TABLE `user` (
-                        id_user BIGINT AUTO_INCREMENT PRIMARY KEY,
-                        email VARCHAR(255) NOT NULL UNIQUE,
-                        username VARCHAR(100) NOT NULL UNIQUE,
-                        password VARCHAR(255) NOT NULL,
-                        user_type VARCHAR(50) NOT NULL,
-                        age INT,
-                        current_study_level VARCHAR(100),
-                        created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-                        updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
-) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+-- Accounts (entity User) and their e-mail verification tokens.
+CREATE TABLE "user" (
+    id_user             BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    email               VARCHAR(255) NOT NULL,
+    enabled             BOOLEAN      NOT NULL DEFAULT FALSE,
+    first_name          VARCHAR(100) NOT NULL,
+    last_name           VARCHAR(100) NOT NULL,
+    password            VARCHAR(255) NOT NULL,
+    current_study_level VARCHAR(50),
+    age                 INTEGER,
+    created_at          TIMESTAMP(6) NOT NULL,
+    updated_at          TIMESTAMP(6),
 
+    CONSTRAINT uk_user_email UNIQUE (email)
+);
+
+-- UserRepository.findByAgeBetween
+CREATE INDEX idx_user_age ON "user" (age);
+
+CREATE TABLE email_verification_tokens (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    token       VARCHAR(255) NOT NULL,
+    user_id     BIGINT       NOT NULL,
+    expiry_date TIMESTAMP(6) NOT NULL,
+    verified    BOOLEAN      NOT NULL DEFAULT FALSE,
+    created_at  TIMESTAMP(6) NOT NULL,
+
+    CONSTRAINT uk_email_verification_tokens_token UNIQUE (token),
+    CONSTRAINT uk_email_verification_tokens_user UNIQUE (user_id),
+    CONSTRAINT fk_email_verification_tokens_user
+        FOREIGN KEY (user_id) REFERENCES "user" (id_user) ON DELETE CASCADE
+);
+
+-- EmailVerificationTokenRepository.deleteByExpiryDateBefore
+CREATE INDEX idx_email_verification_tokens_expiry_date ON email_verification_tokens (expiry_date);
@@ -0,0 +1,11 @@
+-- Per-student counter (StudentVersionRepository). Each preference or student profile write bumps
+-- its student's row in its own transaction; instances label what they cache for a student with
+-- it, so a write on one replica invalidates the others' entries on their next read.
+
+CREATE TABLE student_version (
+    id_user BIGINT PRIMARY KEY,
+    version BIGINT NOT NULL,
+
+    CONSTRAINT fk_student_version_user
+        FOREIGN KEY (id_user) REFERENCES "user" (id_user) ON DELETE CASCADE
+);
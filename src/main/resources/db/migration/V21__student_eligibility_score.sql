@@ -0,0 +1,4 @@
+-- Admission score of each eligible pair by the filiere's formula (critere.formule_score, see
+-- ScoreFormula), from the variables the student's profile carries. Null when the filiere has no
+-- formula or the profile lacks a variable it reads.
+ALTER TABLE student_eligibility ADD COLUMN score NUMERIC(10, 2);
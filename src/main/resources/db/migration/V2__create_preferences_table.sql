@@ -1,17 +1,25 @@
+-- Student preferences (entity Preference), one row per user.
 CREATE TABLE preferences (
-                             id BIGINT AUTO_INCREMENT PRIMARY KEY,
-                             user_id BIGINT NOT NULL UNIQUE,
-                             desired_citiest TEXT,
-                             budget_range VARCHAR(100),
-                             interests TEXT,
-                             career_goals TEXT,
-                             language_preferences VARCHAR(255),
-                             created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-                             updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    id                   BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id              BIGINT NOT NULL,
+    desired_citiest      TEXT,
+    budget_range         VARCHAR(100),
+    interests            TEXT,
+    career_goals         TEXT,
+    language_preferences VARCHAR(255),
+    created_at           TIMESTAMP(6) WITH TIME ZONE,
+    updated_at           TIMESTAMP(6) WITH TIME ZONE,
 
-                             CONSTRAINT fk_preferences_user
-                                 FOREIGN KEY (user_id)
-                                     REFERENCES `user`(id_user)
-                                     ON DELETE CASCADE
-)
+    CONSTRAINT uk_preferences_user UNIQUE (user_id),
+    CONSTRAINT fk_preferences_user
+        FOREIGN KEY (user_id) REFERENCES "user" (id_user) ON DELETE CASCADE
+);
 
+-- PreferenceRepository.findByBudgetRange
+CREATE INDEX idx_preferences_budget_range ON preferences (budget_range);
+
+-- The find...Containing queries are LIKE '%value%': only trigram indexes can serve them
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX idx_preferences_desired_cities_trgm ON preferences USING GIN (desired_citiest gin_trgm_ops);
+CREATE INDEX idx_preferences_interests_trgm ON preferences USING GIN (interests gin_trgm_ops);
+CREATE INDEX idx_preferences_language_trgm ON preferences USING GIN (language_preferences gin_trgm_ops);
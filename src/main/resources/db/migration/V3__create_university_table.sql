@@ -1,25 +1,28 @@
+-- Universities (entity University). Coordinates are added by V10.
 CREATE TABLE university (
-                            id BIGINT AUTO_INCREMENT PRIMARY KEY,
-
-                            name VARCHAR(255) NOT NULL,
-
-                            location VARCHAR(255),
-
-                            type VARCHAR(100),
-
-                            description TEXT,
-
-                            website VARCHAR(255),
-
-                            contact_email VARCHAR(255),
-
-                            phone VARCHAR(20),
-
-                            accreditation_status VARCHAR(100),
-
-                            programs TEXT,
-
-                            created_at DATETIME,
-
-                            updated_at DATETIME
-) ENGINE=InnoDB;
\ No newline at end of file
+    id                   BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name                 VARCHAR(255) NOT NULL,
+    location             VARCHAR(255),
+    type                 VARCHAR(100),
+    description          TEXT,
+    website              VARCHAR(255),
+    contact_email        VARCHAR(255),
+    phone                VARCHAR(20),
+    accreditation_status VARCHAR(100),
+    programs             TEXT,
+    image_url            VARCHAR(512),
+    slug                 VARCHAR(100),
+    header_image_url     VARCHAR(512),
+    earth_view_url       VARCHAR(512),
+    gallery_images       TEXT,
+    created_at           TIMESTAMP(6) WITH TIME ZONE,
+    updated_at           TIMESTAMP(6) WITH TIME ZONE,
+
+    CONSTRAINT uk_university_slug UNIQUE (slug)
+);
+
+-- findByName, existsByName and the NAME keyset pages
+CREATE INDEX idx_university_name_id ON university (name, id);
+CREATE INDEX idx_university_location ON university (location);
+CREATE INDEX idx_university_type ON university (type);
+CREATE INDEX idx_university_accreditation_status ON university (accreditation_status);
@@ -1,29 +1,22 @@
+-- Programmes (entity Filiere). The indexes behind the filiere filters and keyset sorts
+-- are in V11.
 CREATE TABLE filiere (
-                         id BIGINT AUTO_INCREMENT PRIMARY KEY,
-
-                         name VARCHAR(255) NOT NULL,
-
-                         university_id BIGINT NOT NULL,
-
-                         critere_d_admission VARCHAR(255),
-
-                         duration_years INTEGER,
-
-                         tuition_fee DECIMAL(10, 2),
-
-                         admission_type VARCHAR(100),
-
-                         language VARCHAR(50),
-
-                         seats_availabial INTEGER,
-
-                         application_deadline DATE,
-
-                         created_at DATETIME,
-
-                         updated_at DATETIME,
-
-                         CONSTRAINT fk_filiere_university
-                             FOREIGN KEY (university_id)
-                                 REFERENCES university(id)
-) ENGINE=InnoDB;
\ No newline at end of file
+    id                   BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name                 VARCHAR(255) NOT NULL,
+    university_id        BIGINT       NOT NULL,
+    critere_d_admission  VARCHAR(255),
+    duration_years       INTEGER,
+    tuition_fee          NUMERIC(10, 2),
+    admission_type       VARCHAR(100),
+    language             VARCHAR(50),
+    seats_availabial     INTEGER,
+    application_deadline DATE,
+    created_at           TIMESTAMP(6) WITH TIME ZONE,
+    updated_at           TIMESTAMP(6) WITH TIME ZONE,
+
+    CONSTRAINT fk_filiere_university
+        FOREIGN KEY (university_id) REFERENCES university (id)
+);
+
+-- Foreign key, University.filieres fetches and existsByNameAndUniversityId
+CREATE INDEX idx_filiere_university_name ON filiere (university_id, name);
@@ -1,22 +1,28 @@
+-- Admission criteria (entity Critere), sharing the primary key of their filiere.
 CREATE TABLE critere (
-                         filiere_id BIGINT AUTO_INCREMENT PRIMARY KEY,
-                         annee_academique VARCHAR(20) NOT NULL,
-                         type_candidat VARCHAR(100) NOT NULL,
-                         serie_bac_cible VARCHAR(100),
-                         seuil_calcul DECIMAL(5,2),
-                         note_concours_ecrit DECIMAL(5,2),
-                         a_entretien BOOLEAN DEFAULT FALSE,
-                         age_max INT,
-                         seuil_matieres_specifiques TEXT,
-                         score_prepa DECIMAL(5,2),
-                         classement_cnc INT,
-                         diplomes_requis TEXT,
-                         notes_semestres TEXT,
-                         created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-                         updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
-) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+    filiere_id                 BIGINT       NOT NULL PRIMARY KEY,
+    annee_academique           VARCHAR(20)  NOT NULL,
+    type_candidat              VARCHAR(100) NOT NULL,
+    serie_bac_cible            VARCHAR(100),
+    seuil_calcul               NUMERIC(5, 2),
+    note_concours_ecrit        NUMERIC(5, 2),
+    a_entretien                BOOLEAN DEFAULT FALSE,
+    age_max                    INTEGER,
+    seuil_matieres_specifiques TEXT,
+    score_prepa                NUMERIC(5, 2),
+    classement_cnc             INTEGER,
+    diplomes_requis            TEXT,
+    notes_semestres            TEXT,
+    created_at                 TIMESTAMP(6) WITH TIME ZONE,
+    updated_at                 TIMESTAMP(6) WITH TIME ZONE,
 
-ALTER TABLE critere
-    ADD CONSTRAINT fk_critere_filiere
-        FOREIGN KEY (filiere_id) REFERENCES filiere(id) ON DELETE CASCADE;
+    CONSTRAINT fk_critere_filiere
+        FOREIGN KEY (filiere_id) REFERENCES filiere (id) ON DELETE CASCADE
+);
 
+CREATE INDEX idx_critere_annee_academique ON critere (annee_academique);
+CREATE INDEX idx_critere_type_candidat ON critere (type_candidat);
+CREATE INDEX idx_critere_seuil_calcul ON critere (seuil_calcul);
+CREATE INDEX idx_critere_age_max ON critere (age_max);
+-- findWithEntretien: interviews are the exception, so only those rows are indexed
+CREATE INDEX idx_critere_entretien ON critere (filiere_id) WHERE a_entretien;
@@ -1,15 +1,20 @@
+-- Baccalaureate students (entity BacStudent), sharing the primary key of their user.
 CREATE TABLE bac_student (
-                             id_user BIGINT NOT NULL PRIMARY KEY,
-                             bac_major VARCHAR(100),
-                             bac_degree VARCHAR(100),
-                             grade DECIMAL(5,2),
-                             subject_degree VARCHAR(100),
-                             bac_year_graduation INTEGER,
-                             created_at DATETIME,
-                             updated_at DATETIME,
+    id_user             BIGINT NOT NULL PRIMARY KEY,
+    bac_major           VARCHAR(100),
+    bac_degree          VARCHAR(100),
+    grade               NUMERIC(5, 2),
+    subject_degree      VARCHAR(100),
+    bac_year_graduation INTEGER,
+    created_at          TIMESTAMP(6) WITH TIME ZONE,
+    updated_at          TIMESTAMP(6) WITH TIME ZONE,
 
+    CONSTRAINT fk_bac_student_user
+        FOREIGN KEY (id_user) REFERENCES "user" (id_user) ON DELETE CASCADE
+);
 
-                             CONSTRAINT fk_bacstudent_user
-                                 FOREIGN KEY (id_user)
-                                     REFERENCES `user`(id_user)
-) ENGINE=InnoDB;
\ No newline at end of file
+-- findByBacMajor and findByBacMajorAndGradeGreaterThanEqual
+CREATE INDEX idx_bac_student_major_grade ON bac_student (bac_major, grade);
+CREATE INDEX idx_bac_student_grade ON bac_student (grade);
+CREATE INDEX idx_bac_student_degree ON bac_student (bac_degree);
+CREATE INDEX idx_bac_student_year ON bac_student (bac_year_graduation);
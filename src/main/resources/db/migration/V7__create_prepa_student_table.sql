@@ -1,18 +1,20 @@
+-- Classes préparatoires students (entity PrepaStudent), sharing the primary key of their user.
 CREATE TABLE prepa_student (
-                               id_user BIGINT NOT NULL PRIMARY KEY,
+    id_user         BIGINT NOT NULL PRIMARY KEY,
+    prepa_major     VARCHAR(100),
+    bac_major       VARCHAR(100),
+    cnc_rating      NUMERIC(5, 2),
+    notes_trimestre TEXT,
+    annee_bac       VARCHAR(20),
+    created_at      TIMESTAMP(6) WITH TIME ZONE,
+    updated_at      TIMESTAMP(6) WITH TIME ZONE,
 
-                               prepa_major VARCHAR(100),
+    CONSTRAINT fk_prepa_student_user
+        FOREIGN KEY (id_user) REFERENCES "user" (id_user) ON DELETE CASCADE
+);
 
-                               cnc_ranking INTEGER,
-
-                               notes_trimestre TEXT,
-
-                               annee_bac INTEGER,
-
-                               created_at DATETIME,
-                               updated_at DATETIME,
-
-                               CONSTRAINT fk_prepastudent_user
-                                   FOREIGN KEY (id_user)
-                                       REFERENCES user(id_user)
-) ENGINE=InnoDB;
\ No newline at end of file
+-- findByPrepaMajor and findByPrepaMajorAndCncRatingGreaterThanEqual
+CREATE INDEX idx_prepa_student_major_rating ON prepa_student (prepa_major, cnc_rating);
+-- findByCncRatingGreaterThanEqual and findByCncRatingBetween
+CREATE INDEX idx_prepa_student_cnc_rating ON prepa_student (cnc_rating);
+CREATE INDEX idx_prepa_student_annee_bac ON prepa_student (annee_bac);
@@ -1,21 +1,27 @@
+-- Bac+2 students (entity Bac2Student), sharing the primary key of their user.
 CREATE TABLE bac2_student (
-                              id_user BIGINT NOT NULL PRIMARY KEY,
+    id_user      BIGINT NOT NULL PRIMARY KEY,
+    diploma_type VARCHAR(100),
+    bac_major    VARCHAR(100),
+    institution  VARCHAR(255),
+    avg_s1       NUMERIC(5, 2),
+    avg_s2       NUMERIC(5, 2),
+    avg_s3       NUMERIC(5, 2),
+    avg_s4       NUMERIC(5, 2),
+    created_at   TIMESTAMP(6) WITH TIME ZONE,
+    updated_at   TIMESTAMP(6) WITH TIME ZONE,
 
-                              diploma_type VARCHAR(100),
+    CONSTRAINT fk_bac2_student_user
+        FOREIGN KEY (id_user) REFERENCES "user" (id_user) ON DELETE CASCADE
+);
 
-                              bac_major VARCHAR(100),
+-- findByDiplomaType and findByDiplomaTypeAndInstitution
+CREATE INDEX idx_bac2_student_diploma_institution ON bac2_student (diploma_type, institution);
+CREATE INDEX idx_bac2_student_institution ON bac2_student (institution);
+CREATE INDEX idx_bac2_student_avg_s1 ON bac2_student (avg_s1);
 
-                              institution VARCHAR(255),
-
-                              avg_s1 DECIMAL(4,2),
-                              avg_s2 DECIMAL(4,2),
-                              avg_s3 DECIMAL(4,2),
-                              avg_s4 DECIMAL(4,2),
-
-                              created_at DATETIME,
-                              updated_at DATETIME,
-
-                              CONSTRAINT fk_bac2student_user
-                                  FOREIGN KEY (id_user)
-                                      REFERENCES user(id_user)
-) ENGINE=InnoDB;
\ No newline at end of file
+-- The overall-average queries filter on this exact expression (as Hibernate renders the JPQL)
+CREATE INDEX idx_bac2_student_overall_average
+    ON bac2_student (((avg_s1 + avg_s2 + avg_s3 + avg_s4) / 4.0));
+CREATE INDEX idx_bac2_student_major_overall_average
+    ON bac2_student (bac_major, ((avg_s1 + avg_s2 + avg_s3 + avg_s4) / 4.0));
@@ -0,0 +1,24 @@
+-- Full-text search for /api/search (PostgreSQL).
+--
+-- Each document is a weighted tsvector over accent-folded text: translate() maps Latin accents
+-- and Arabic alef/hamza variants to their base letter and drops tashkeel, lower() does the rest.
+-- The 'simple' configuration keeps abbreviations (ENSA, EMI...) and Arabic words as they are.
+--
+-- The indexes are on expressions rather than stored columns so that the entities stay unaware
+-- of them. CatalogSearchRepository queries the very same expressions (checked by
+-- SearchQueryTest); any change here must be made there too, in a new migration.
+
+CREATE INDEX IF NOT EXISTS idx_university_search ON university USING GIN ((
+    setweight(to_tsvector('simple', lower(translate(coalesce(name, ''), U&'ÀÁÂÃÄÅÇÈÉÊËÌÍÎÏÑÒÓÔÕÖÙÚÛÜÝŒÆàáâãäåçèéêëìíîïñòóôõöùúûüýÿœæ\0623\0625\0622\0671\0649\0629\0640\064B\064C\064D\064E\064F\0650\0651\0652\0670', U&'aaaaaaceeeeiiiinooooouuuuyoaaaaaaaceeeeiiiinooooouuuuyyoa\0627\0627\0627\0627\064A\0647'))), 'A')
+        || setweight(to_tsvector('simple', lower(translate(coalesce(location, '') || ' ' || coalesce(type, '') || ' ' || coalesce(programs, ''), U&'ÀÁÂÃÄÅÇÈÉÊËÌÍÎÏÑÒÓÔÕÖÙÚÛÜÝŒÆàáâãäåçèéêëìíîïñòóôõöùúûüýÿœæ\0623\0625\0622\0671\0649\0629\0640\064B\064C\064D\064E\064F\0650\0651\0652\0670', U&'aaaaaaceeeeiiiinooooouuuuyoaaaaaaaceeeeiiiinooooouuuuyyoa\0627\0627\0627\0627\064A\0647'))), 'B')
+        || setweight(to_tsvector('simple', lower(translate(coalesce(description, ''), U&'ÀÁÂÃÄÅÇÈÉÊËÌÍÎÏÑÒÓÔÕÖÙÚÛÜÝŒÆàáâãäåçèéêëìíîïñòóôõöùúûüýÿœæ\0623\0625\0622\0671\0649\0629\0640\064B\064C\064D\064E\064F\0650\0651\0652\0670', U&'aaaaaaceeeeiiiinooooouuuuyoaaaaaaaceeeeiiiinooooouuuuyyoa\0627\0627\0627\0627\064A\0647'))), 'C')
+));
+
+CREATE INDEX IF NOT EXISTS idx_filiere_search ON filiere USING GIN ((
+    setweight(to_tsvector('simple', lower(translate(coalesce(name, ''), U&'ÀÁÂÃÄÅÇÈÉÊËÌÍÎÏÑÒÓÔÕÖÙÚÛÜÝŒÆàáâãäåçèéêëìíîïñòóôõöùúûüýÿœæ\0623\0625\0622\0671\0649\0629\0640\064B\064C\064D\064E\064F\0650\0651\0652\0670', U&'aaaaaaceeeeiiiinooooouuuuyoaaaaaaaceeeeiiiinooooouuuuyyoa\0627\0627\0627\0627\064A\0647'))), 'A')
+        || setweight(to_tsvector('simple', lower(translate(coalesce(admission_type, '') || ' ' || coalesce(language, ''), U&'ÀÁÂÃÄÅÇÈÉÊËÌÍÎÏÑÒÓÔÕÖÙÚÛÜÝŒÆàáâãäåçèéêëìíîïñòóôõöùúûüýÿœæ\0623\0625\0622\0671\0649\0629\0640\064B\064C\064D\064E\064F\0650\0651\0652\0670', U&'aaaaaaceeeeiiiinooooouuuuyoaaaaaaaceeeeiiiinooooouuuuyyoa\0627\0627\0627\0627\064A\0647'))), 'B')
+        || setweight(to_tsvector('simple', lower(translate(coalesce(critere_d_admission, ''), U&'ÀÁÂÃÄÅÇÈÉÊËÌÍÎÏÑÒÓÔÕÖÙÚÛÜÝŒÆàáâãäåçèéêëìíîïñòóôõöùúûüýÿœæ\0623\0625\0622\0671\0649\0629\0640\064B\064C\064D\064E\064F\0650\0651\0652\0670', U&'aaaaaaceeeeiiiinooooouuuuyoaaaaaaaceeeeiiiinooooouuuuyyoa\0627\0627\0627\0627\064A\0647'))), 'C')
+));
+
+-- The second arm of the filiere search (filieres of the universities that matched) joins
+-- through idx_filiere_university_name from V4.
@@ -0,0 +1,30 @@
+package com.example.orientlamp_back;
+
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+/**
+ * The PostgreSQL the suites tagged {@code postgres} run against: one container per test JVM,
+ * started by the first suite and migrated by that suite's Flyway, and removed by Testcontainers
+ * when the JVM exits. Those suites only run with {@code mvn -Ppostgres test}.
+ */
+public final class PostgresTestDatabase {
+
+    /** Same major version as docker-compose.yml. */
+    private static final PostgreSQLContainer<?> CONTAINER = new PostgreSQLContainer<>("postgres:16");
+
+    private PostgresTestDatabase() {
+    }
+
+    /** Points the test context's datasource at the container, starting it on first use. */
+    public static void register(DynamicPropertyRegistry registry) {
+        synchronized (CONTAINER) {
+            if (!CONTAINER.isRunning()) {
+                CONTAINER.start();
+            }
+        }
+        registry.add("spring.datasource.url", CONTAINER::getJdbcUrl);
+        registry.add("spring.datasource.username", CONTAINER::getUsername);
+        registry.add("spring.datasource.password", CONTAINER::getPassword);
+    }
+}
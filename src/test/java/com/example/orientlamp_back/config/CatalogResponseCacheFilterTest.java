@@ -0,0 +1,108 @@
+package com.example.orientlamp_back.config;
+
+import com.example.orientlamp_back.event.CatalogChangedEvent;
+import com.example.orientlamp_back.event.CatalogRefreshedEvent;
+import com.example.orientlamp_back.service.catalog.Catalog;
+import com.example.orientlamp_back.service.catalog.CatalogSnapshot;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.ByteArrayInputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class CatalogResponseCacheFilterTest {
+
+    @RestController
+    static class StubController {
+        final AtomicInteger renders = new AtomicInteger();
+
+        @GetMapping("/api/universities/slug/emi")
+        Map<String, Object> university() {
+            return Map.of("slug", "emi", "render", renders.incrementAndGet());
+        }
+    }
+
+    private final CatalogSnapshot catalogSnapshot = mock(CatalogSnapshot.class);
+    private final StubController controller = new StubController();
+    private CatalogResponseCacheFilter filter;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        when(catalogSnapshot.current()).thenReturn(Catalog.build(1, List.of()));
+        filter = new CatalogResponseCacheFilter(catalogSnapshot, new SimpleMeterRegistry());
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).addFilters(filter).build();
+    }
+
+    @Test
+    void repeatHitsAreServedFromCacheAndRevalidateWith304() throws Exception {
+        MvcResult first = mockMvc.perform(get("/api/universities/slug/emi"))
+                .andExpect(status().isOk())
+                .andReturn();
+        String etag = first.getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(etag).startsWith("\"");
+
+        MvcResult second = mockMvc.perform(get("/api/universities/slug/emi")).andReturn();
+        assertThat(second.getResponse().getContentAsString()).isEqualTo(first.getResponse().getContentAsString());
+
+        mockMvc.perform(get("/api/universities/slug/emi").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag));
+
+        assertThat(controller.renders).hasValue(1);
+    }
+
+    @Test
+    void gzipIsServedToClientsThatAcceptIt() throws Exception {
+        String plain = mockMvc.perform(get("/api/universities/slug/emi")).andReturn().getResponse().getContentAsString();
+
+        MvcResult gzipped = mockMvc.perform(get("/api/universities/slug/emi").header(HttpHeaders.ACCEPT_ENCODING, "gzip, br"))
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andReturn();
+
+        byte[] inflated = new GZIPInputStream(new ByteArrayInputStream(gzipped.getResponse().getContentAsByteArray())).readAllBytes();
+        assertThat(new String(inflated)).isEqualTo(plain);
+    }
+
+    @Test
+    void gzipIsNegotiatedOnQValues() throws Exception {
+        for (String refused : List.of("gzip;q=0", "identity", "gzip;q=0.5, identity", "*;q=0", "br, gzip; q=0.0")) {
+            mockMvc.perform(get("/api/universities/slug/emi").header(HttpHeaders.ACCEPT_ENCODING, refused))
+                    .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING));
+        }
+        for (String accepted : List.of("*", "GZIP;Q=0.8, identity;q=0.5", "identity;q=0, *", "deflate, gzip;q=1.0")) {
+            mockMvc.perform(get("/api/universities/slug/emi").header(HttpHeaders.ACCEPT_ENCODING, accepted))
+                    .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"));
+        }
+    }
+
+    @Test
+    void catalogRefreshInvalidatesEntries() throws Exception {
+        String etag = mockMvc.perform(get("/api/universities/slug/emi")).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        Catalog rebuilt = Catalog.build(2, List.of());
+        when(catalogSnapshot.current()).thenReturn(rebuilt);
+        filter.onCatalogRefreshed(new CatalogRefreshedEvent(rebuilt, CatalogChangedEvent.all()));
+
+        mockMvc.perform(get("/api/universities/slug/emi").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+        assertThat(controller.renders).hasValue(2);
+    }
+}
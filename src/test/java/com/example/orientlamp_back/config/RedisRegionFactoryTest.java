@@ -0,0 +1,338 @@
+package com.example.orientlamp_back.config;
+
+import com.example.orientlamp_back.entity.Filiere;
+import com.example.orientlamp_back.entity.University;
+import com.example.orientlamp_back.repository.FiliereRepository;
+import com.example.orientlamp_back.repository.UniversityRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisHashCommands;
+import org.springframework.data.redis.connection.RedisKeyCommands;
+import org.springframework.data.redis.connection.RedisScriptingCommands;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs the Redis region factory against an in-memory stand-in for Redis hashes and checks
+ * that repeat loads are served from the cache, that the existing write paths invalidate it,
+ * that regions stay within their age and size bounds and that cached query results are never
+ * served when the update timestamps they depend on are lost or unreadable.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.show-sql=false"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class RedisRegionFactoryTest {
+
+    /** Redis hashes keyed by hash name, then by field bytes. */
+    static final Map<ByteBuffer, Map<ByteBuffer, byte[]>> REDIS = new ConcurrentHashMap<>();
+
+    /** Expiry in milliseconds set on each hash. */
+    static final Map<ByteBuffer, Long> EXPIRES = new ConcurrentHashMap<>();
+
+    static final Duration TTL = Duration.ofMinutes(10);
+    static final long MAX_ENTRIES = 3;
+
+    /** Makes every connection attempt fail, as when Redis is down. */
+    static volatile boolean unavailable;
+
+    /** Hashes whose reads fail, as when a single command times out. */
+    static final Set<ByteBuffer> FAILING = ConcurrentHashMap.newKeySet();
+
+    static final ByteBuffer TIMESTAMPS =
+            ByteBuffer.wrap("l2:default-update-timestamps-region".getBytes(StandardCharsets.UTF_8));
+
+    @TestConfiguration
+    static class Config {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        HibernatePropertiesCustomizer secondLevelCache(MeterRegistry meterRegistry) {
+            return properties -> {
+                properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+                properties.put(AvailableSettings.USE_QUERY_CACHE, true);
+                properties.put(AvailableSettings.CACHE_REGION_FACTORY,
+                        new RedisRegionFactory(inMemoryRedis(), meterRegistry, TTL, MAX_ENTRIES));
+                properties.put(AvailableSettings.AUTO_EVICT_COLLECTION_CACHE, true);
+            };
+        }
+
+        private static RedisConnectionFactory inMemoryRedis() {
+            RedisHashCommands hashes = mock(RedisHashCommands.class);
+            when(hashes.hGet(any(), any())).thenAnswer(call -> {
+                if (FAILING.contains(ByteBuffer.wrap(call.getArgument(0)))) {
+                    throw new IllegalStateException("Command timed out");
+                }
+                return hash(call.getArgument(0)).get(ByteBuffer.wrap(call.getArgument(1)));
+            });
+            when(hashes.hSet(any(), any(), any())).thenAnswer(call ->
+                    hash(call.getArgument(0)).put(ByteBuffer.wrap(call.getArgument(1)), call.getArgument(2)) == null);
+            when(hashes.hMGet(any(), any(byte[][].class))).thenAnswer(call -> {
+                if (FAILING.contains(ByteBuffer.wrap(call.getArgument(0)))) {
+                    throw new IllegalStateException("Command timed out");
+                }
+                Map<ByteBuffer, byte[]> hash = REDIS.getOrDefault(ByteBuffer.wrap(call.getArgument(0)), Map.of());
+                List<byte[]> values = new ArrayList<>();
+                for (byte[] field : (byte[][]) call.getRawArguments()[1]) {
+                    values.add(hash.get(ByteBuffer.wrap(field)));
+                }
+                return values;
+            });
+            when(hashes.hSetNX(any(), any(), any())).thenAnswer(call ->
+                    hash(call.getArgument(0)).putIfAbsent(ByteBuffer.wrap(call.getArgument(1)), call.getArgument(2)) == null);
+            when(hashes.hExists(any(), any())).thenAnswer(call ->
+                    hash(call.getArgument(0)).containsKey(ByteBuffer.wrap(call.getArgument(1))));
+            when(hashes.hDel(any(), any(byte[][].class))).thenAnswer(call -> {
+                long removed = 0;
+                for (byte[] field : (byte[][]) call.getRawArguments()[1]) {
+                    removed += hash(call.getArgument(0)).remove(ByteBuffer.wrap(field)) != null ? 1 : 0;
+                }
+                return removed;
+            });
+
+            RedisKeyCommands keys = mock(RedisKeyCommands.class);
+            when(keys.del(any(byte[][].class))).thenAnswer(call -> {
+                long removed = 0;
+                for (byte[] key : (byte[][]) call.getRawArguments()[0]) {
+                    removed += REDIS.remove(ByteBuffer.wrap(key)) != null ? 1 : 0;
+                }
+                return removed;
+            });
+
+            // Only the put script is ever evaluated: HSET, drop the hash past MAX_ENTRIES, else expire it once
+            RedisScriptingCommands scripts = mock(RedisScriptingCommands.class);
+            when(scripts.eval(any(), eq(ReturnType.INTEGER), anyInt(), any(byte[][].class))).thenAnswer(call -> {
+                byte[][] keysAndArgs = (byte[][]) call.getRawArguments()[3];
+                ByteBuffer key = ByteBuffer.wrap(keysAndArgs[0]);
+                Map<ByteBuffer, byte[]> hash = hash(keysAndArgs[0]);
+                hash.put(ByteBuffer.wrap(keysAndArgs[1]), keysAndArgs[2]);
+                if (hash.size() > Long.parseLong(new String(keysAndArgs[4], StandardCharsets.UTF_8))) {
+                    REDIS.remove(key);
+                    EXPIRES.remove(key);
+                    return 0L;
+                }
+                EXPIRES.putIfAbsent(key, Long.parseLong(new String(keysAndArgs[3], StandardCharsets.UTF_8)));
+                return 1L;
+            });
+
+            RedisConnection connection = mock(RedisConnection.class);
+            when(connection.hashCommands()).thenReturn(hashes);
+            when(connection.keyCommands()).thenReturn(keys);
+            when(connection.scriptingCommands()).thenReturn(scripts);
+
+            RedisConnectionFactory factory = mock(RedisConnectionFactory.class);
+            when(factory.getConnection()).thenAnswer(call -> {
+                if (unavailable) {
+                    throw new IllegalStateException("Connection refused");
+                }
+                return connection;
+            });
+            return factory;
+        }
+
+        private static Map<ByteBuffer, byte[]> hash(byte[] key) {
+            return REDIS.computeIfAbsent(ByteBuffer.wrap(key), k -> new ConcurrentHashMap<>());
+        }
+    }
+
+    @Autowired
+    private UniversityRepository universityRepository;
+
+    @Autowired
+    private FiliereRepository filiereRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private TransactionTemplate transaction;
+    private Long universityId;
+    private Long filiereId;
+
+    @BeforeEach
+    void seed() {
+        transaction = new TransactionTemplate(transactionManager);
+        University university = University.builder().name("EMI").slug("emi").build();
+        university.addFiliere(Filiere.builder().name("Génie Civil").build());
+        university.addFiliere(Filiere.builder().name("Génie Informatique").build());
+        universityId = universityRepository.save(university).getId();
+        filiereId = university.getFilieres().get(0).getId();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        unavailable = false;
+        FAILING.clear();
+        universityRepository.deleteAll();
+        REDIS.clear();
+        EXPIRES.clear();
+    }
+
+    @Test
+    void repeatLoadsAreServedFromTheCache() {
+        countFilieres();
+        Statistics statistics = statistics();
+
+        assertThat(countFilieres()).isEqualTo(2);
+        assertThat(filiereRepository.findById(filiereId)).isPresent();
+
+        assertThat(statistics.getSecondLevelCacheHitCount()).isPositive();
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(statistics.getCollectionLoadCount()).isZero();
+        assertThat(meterRegistry.get("hibernate.l2.cache.requests").tag("result", "hit").counters())
+                .isNotEmpty();
+    }
+
+    @Test
+    void writesInvalidateEntitiesAndTheFiliereCollection() {
+        countFilieres();
+
+        transaction.executeWithoutResult(status -> {
+            University university = universityRepository.findById(universityId).orElseThrow();
+            filiereRepository.save(Filiere.builder().name("Génie Électrique").university(university).build());
+        });
+        assertThat(countFilieres()).isEqualTo(3);
+
+        transaction.executeWithoutResult(status ->
+                filiereRepository.findById(filiereId).orElseThrow().setName("Génie Civil et BTP"));
+        assertThat(filiereRepository.findById(filiereId).orElseThrow().getName()).isEqualTo("Génie Civil et BTP");
+
+        filiereRepository.deleteById(filiereId);
+        assertThat(filiereRepository.findById(filiereId)).isEmpty();
+        assertThat(countFilieres()).isEqualTo(2);
+    }
+
+    @Test
+    void regionsExpireAndAreDroppedPastTheirSizeBound() {
+        transaction.executeWithoutResult(status -> {
+            University university = universityRepository.findById(universityId).orElseThrow();
+            filiereRepository.save(Filiere.builder().name("Génie Électrique").university(university).build());
+            filiereRepository.save(Filiere.builder().name("Génie Industriel").university(university).build());
+        });
+        REDIS.clear();
+        EXPIRES.clear();
+        double evictions = count("hibernate.l2.cache.evictions");
+
+        assertThat(filiereRepository.findAll()).hasSize(4);
+
+        assertThat(REDIS).allSatisfy((key, hash) -> {
+            assertThat(hash).hasSizeLessThanOrEqualTo((int) MAX_ENTRIES);
+            if (!hash.isEmpty()) {
+                assertThat(EXPIRES).containsEntry(key, TTL.toMillis());
+            }
+        });
+        assertThat(count("hibernate.l2.cache.evictions")).isGreaterThan(evictions);
+    }
+
+    @Test
+    void putsAreOnlyCountedWhenRedisTookThem() {
+        double puts = count("hibernate.l2.cache.puts");
+        double errors = count("hibernate.l2.cache.errors");
+        REDIS.clear();
+        unavailable = true;
+
+        assertThat(countFilieres()).isEqualTo(2);
+
+        assertThat(count("hibernate.l2.cache.puts")).isEqualTo(puts);
+        assertThat(count("hibernate.l2.cache.errors")).isGreaterThan(errors);
+        assertThat(REDIS).isEmpty();
+    }
+
+    @Test
+    void queryResultsGoToTheDatabaseOnceUpdateTimestampsAreLost() {
+        Statistics statistics = statistics();
+        assertThat(universityRepository.existsByName("ENSA Kénitra")).isFalse();
+        assertThat(universityRepository.existsByName("ENSA Kénitra")).isFalse();
+        assertThat(statistics.getQueryCacheHitCount()).isPositive();
+
+        universityRepository.save(University.builder().name("ENSA Kénitra").slug("ensa-kenitra").build());
+        assertThat(REDIS).containsKey(TIMESTAMPS);
+        REDIS.remove(TIMESTAMPS);
+
+        assertThat(universityRepository.existsByName("ENSA Kénitra")).isTrue();
+    }
+
+    @Test
+    void queryResultsGoToTheDatabaseWhenUpdateTimestampsCannotBeRead() {
+        assertThat(universityRepository.existsByName("ENSA Kénitra")).isFalse();
+        universityRepository.save(University.builder().name("ENSA Kénitra").slug("ensa-kenitra").build());
+        FAILING.add(TIMESTAMPS);
+
+        assertThat(universityRepository.existsByName("ENSA Kénitra")).isTrue();
+        assertThat(universityRepository.existsByName("EMI")).isTrue();
+    }
+
+    @Test
+    void updateTimestampsAreNeitherExpiredNorDropped() {
+        for (int i = 0; i < MAX_ENTRIES + 2; i++) {
+            universityRepository.save(University.builder().name("Université " + i).slug("u-" + i).build());
+        }
+        transaction.executeWithoutResult(status ->
+                filiereRepository.save(Filiere.builder().name("Génie Électrique")
+                        .university(universityRepository.findById(universityId).orElseThrow()).build()));
+
+        assertThat(REDIS).containsKey(TIMESTAMPS);
+        assertThat(EXPIRES).doesNotContainKey(TIMESTAMPS);
+    }
+
+    private double count(String name) {
+        return meterRegistry.find(name).counters().stream().mapToDouble(counter -> counter.count()).sum();
+    }
+
+    private int countFilieres() {
+        return transaction.execute(status ->
+                universityRepository.findById(universityId).orElseThrow().getFilieres().size());
+    }
+
+    private Statistics statistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+}
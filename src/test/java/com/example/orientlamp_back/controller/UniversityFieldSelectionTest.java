@@ -0,0 +1,93 @@
+package com.example.orientlamp_back.controller;
+
+import com.example.orientlamp_back.config.FieldSelectionAdvice;
+import com.example.orientlamp_back.controller.impl.UniversityControllerImpl;
+import com.example.orientlamp_back.dto.CatalogEmbed;
+import com.example.orientlamp_back.dto.FiliereResponseDTO;
+import com.example.orientlamp_back.dto.UniversityResponseDTO;
+import com.example.orientlamp_back.exception.GlobalExceptionHandler;
+import com.example.orientlamp_back.service.UniversityService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class UniversityFieldSelectionTest {
+
+    private final UniversityService universityService = mock(UniversityService.class);
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+                .filters(new SimpleFilterProvider().setDefaultFilter(SimpleBeanPropertyFilter.serializeAll()))
+                .build();
+        mockMvc = MockMvcBuilders.standaloneSetup(new UniversityControllerImpl(universityService))
+                .setControllerAdvice(new FieldSelectionAdvice(), new GlobalExceptionHandler())
+                .setMessageConverters(new MappingJackson2HttpMessageConverter(objectMapper))
+                .build();
+
+        when(universityService.getUniversityById(eq(1L), any())).thenAnswer(call -> {
+            Set<CatalogEmbed> embed = call.getArgument(1);
+            return UniversityResponseDTO.builder()
+                    .id(1L).name("EMI").location("Rabat").earthViewUrl("https://earth/emi").description("…")
+                    .filieres(embed.contains(CatalogEmbed.FILIERES)
+                            ? List.of(FiliereResponseDTO.builder().id(7L).name("Génie Civil").build())
+                            : null)
+                    .build();
+        });
+    }
+
+    @Test
+    void fieldsLimitTheSerializedPropertiesAndSkipAssociations() throws Exception {
+        mockMvc.perform(get("/api/universities/1").param("fields", "id,name,location,earthViewUrl"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.*", hasSize(4)))
+                .andExpect(jsonPath("$.earthViewUrl").value("https://earth/emi"));
+
+        verify(universityService).getUniversityById(1L, EnumSet.noneOf(CatalogEmbed.class));
+    }
+
+    @Test
+    void embeddedAssociationsAreWrittenWhole() throws Exception {
+        mockMvc.perform(get("/api/universities/1").param("fields", "id").param("embed", "filieres"))
+                .andExpect(jsonPath("$.*", hasSize(2)))
+                .andExpect(jsonPath("$.filieres[0].name").value("Génie Civil"));
+
+        verify(universityService).getUniversityById(1L, EnumSet.of(CatalogEmbed.FILIERES));
+    }
+
+    @Test
+    void withoutParametersTheFullGraphIsReturned() throws Exception {
+        mockMvc.perform(get("/api/universities/1"))
+                .andExpect(jsonPath("$.description").value("…"))
+                .andExpect(jsonPath("$.filieres", hasSize(1)));
+
+        verify(universityService).getUniversityById(1L, EnumSet.allOf(CatalogEmbed.class));
+    }
+
+    @Test
+    void unknownEmbedIsABadRequest() throws Exception {
+        mockMvc.perform(get("/api/universities/1").param("embed", "students"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.orientlamp_back.repository;
+
+import com.example.orientlamp_back.PostgresTestDatabase;
+import com.example.orientlamp_back.entity.Filiere;
+import com.example.orientlamp_back.entity.University;
+import com.example.orientlamp_back.service.catalog.SyntheticCatalog;
+import com.example.orientlamp_back.service.search.SearchQuery;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.BiFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Search latency of {@link CatalogSearchRepository} on 100k synthetic filieres (5,000
+ * universities of {@link SyntheticCatalog}) on the PostgreSQL of {@link PostgresTestDatabase}:
+ * queries students type, drawn from a fixed seed so that runs compare, each timed end to end
+ * through the repository. Logs p50/p99 and fails past {@link #P99_BUDGET}. Runs with
+ * {@code mvn -Ppostgres test}.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.show-sql=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(CatalogSearchRepository.class)
+@Tag("postgres")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Slf4j
+class CatalogSearchLatencyTest {
+
+    private static final int UNIVERSITIES = 5_000;
+    private static final int FILIERES_PER_UNIVERSITY = 20;
+    private static final long SEED = 42;
+    private static final int WARMUP = 200;
+    private static final int SAMPLES = 2_000;
+    private static final int LIMIT = 20;
+    private static final Duration P99_BUDGET = Duration.ofMillis(250);
+
+    /* What students type: acronyms, programs, cities, unaccented or cut short while typing. */
+    private static final String[] ACRONYMS = {"ensa", "encg", "est", "fmp", "isg"};
+    private static final String[] PROGRAMS = {
+            "informatique", "génie civil", "genie electrique", "finance", "management", "data science",
+            "intelligence artificielle", "cybersecurite", "logistique", "médecine", "architecture", "informat"};
+    private static final String[] CITIES = {"Rabat", "Casablanca", "fes", "Marrakech", "meknes", "Tanger", "Agadir"};
+    private static final String[] DEGREES = {"master", "licence", "cycle ingénieur", "ingénieur"};
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        PostgresTestDatabase.register(registry);
+    }
+
+    @Autowired
+    private CatalogSearchRepository searchRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void seed() {
+        jdbcTemplate.execute("TRUNCATE \"user\", university RESTART IDENTITY CASCADE");
+        List<University> universities = SyntheticCatalog.universities(UNIVERSITIES, FILIERES_PER_UNIVERSITY, SEED);
+        jdbcTemplate.batchUpdate("INSERT INTO university (id, name, location, type, slug) VALUES (?, ?, ?, ?, ?)",
+                universities.stream().map(u -> new Object[]{
+                        u.getId(), u.getName(), u.getLocation(), u.getType(), u.getSlug()}).toList());
+        List<Object[]> filieres = new ArrayList<>();
+        for (University university : universities) {
+            for (Filiere f : university.getFilieres()) {
+                filieres.add(new Object[]{f.getId(), f.getName(), university.getId(), f.getLanguage(),
+                        f.getTuitionFee(), f.getSeatsAvailabial(), f.getDurationYears(), f.getApplicationDeadline()});
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO filiere (id, name, university_id, language, tuition_fee, "
+                + "seats_availabial, duration_years, application_deadline) VALUES (?, ?, ?, ?, ?, ?, ?, ?)", filieres);
+        jdbcTemplate.execute("ANALYZE university, filiere");
+    }
+
+    @Test
+    void filiereSearchP99() {
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM filiere", Long.class))
+                .isEqualTo((long) UNIVERSITIES * FILIERES_PER_UNIVERSITY);
+        // Every drawn query names a program, a city or a school of the catalog
+        assertThat(measure("filieres", searchRepository::searchFilieres)).isLessThan(SAMPLES / 10);
+    }
+
+    @Test
+    void universitySearchP99() {
+        measure("universities", searchRepository::searchUniversities);
+    }
+
+    /** Times {@link #SAMPLES} searches after a warm-up, checks their p99 and returns how many found nothing. */
+    private int measure(String what, BiFunction<SearchQuery, Integer, List<CatalogSearchRepository.Hit>> search) {
+        List<SearchQuery> queries = queries(new Random(SEED), WARMUP + SAMPLES);
+        int empty = 0;
+        for (SearchQuery query : queries.subList(0, WARMUP)) {
+            search.apply(query, LIMIT);
+        }
+        long[] nanos = new long[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            long started = System.nanoTime();
+            List<CatalogSearchRepository.Hit> hits = search.apply(queries.get(WARMUP + i), LIMIT);
+            nanos[i] = System.nanoTime() - started;
+            if (hits.isEmpty()) {
+                empty++;
+            }
+        }
+        Arrays.sort(nanos);
+        Duration p50 = percentile(nanos, 0.50);
+        Duration p99 = percentile(nanos, 0.99);
+        log.info("Catalog search benchmark ({} over {} filieres): {} queries, p50 {} ms, p99 {} ms, max {} ms, {} without hits",
+                what, UNIVERSITIES * FILIERES_PER_UNIVERSITY, SAMPLES, millis(p50), millis(p99),
+                millis(Duration.ofNanos(nanos[SAMPLES - 1])), empty);
+
+        assertThat(p99).isLessThan(P99_BUDGET);
+        return empty;
+    }
+
+    private static List<SearchQuery> queries(Random random, int count) {
+        List<SearchQuery> queries = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String text = switch (random.nextInt(5)) {
+                case 0 -> pick(random, ACRONYMS);
+                case 1 -> pick(random, ACRONYMS) + " " + pick(random, CITIES);
+                case 2 -> pick(random, PROGRAMS) + " " + pick(random, CITIES);
+                case 3 -> pick(random, DEGREES) + " " + pick(random, PROGRAMS);
+                default -> pick(random, PROGRAMS);
+            };
+            queries.add(SearchQuery.parse(text));
+        }
+        return queries;
+    }
+
+    private static String pick(Random random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    /** Nearest-rank percentile of sorted samples. */
+    private static Duration percentile(long[] sorted, double p) {
+        return Duration.ofNanos(sorted[Math.max(0, (int) Math.ceil(p * sorted.length) - 1)]);
+    }
+
+    private static String millis(Duration duration) {
+        return String.format("%.2f", duration.toNanos() / 1e6);
+    }
+}
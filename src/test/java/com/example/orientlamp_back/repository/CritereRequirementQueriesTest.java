@@ -0,0 +1,124 @@
+package com.example.orientlamp_back.repository;
+
+import com.example.orientlamp_back.PostgresTestDatabase;
+import com.example.orientlamp_back.service.eligibility.CritereRequirementsParser;
+import com.example.orientlamp_back.service.eligibility.DiplomaType;
+import com.example.orientlamp_back.service.eligibility.Subject;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * {@link CritereRequirementQueries} on the schema Flyway builds: the documents are the ones
+ * {@link CritereRequirementsParser} derives from critere texts, and every subject's spliced
+ * expression must be the one its {@code V14__critere_requirements.sql} index is built on, or the
+ * planner cannot use the index. Runs with {@code mvn -Ppostgres test}.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.show-sql=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Tag("postgres")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CritereRequirementQueriesTest {
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        PostgresTestDatabase.register(registry);
+    }
+
+    @Autowired
+    private CritereRepository critereRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @BeforeEach
+    void seed() throws Exception {
+        jdbcTemplate.execute("TRUNCATE \"user\", university RESTART IDENTITY CASCADE");
+        jdbcTemplate.update("INSERT INTO university (name, location, type, accreditation_status, slug) "
+                + "VALUES ('ENSA Fès', 'Fès', 'Public', 'Accréditée', 'ensa-fes')");
+        critere(1, "Maths ≥ 14, Physique-Chimie : 12/20", null);
+        critere(2, "Mathématiques 12", null);
+        critere(3, null, "DUT ou BTS");
+        critere(4, null, "Bac+3 en informatique");
+        critere(5, null, null);
+    }
+
+    @Test
+    void subjectQueriesCompareTheSubjectThreshold() {
+        assertThat(critereRepository.findFiliereIdsRequiringAtLeast(Subject.MATHEMATIQUES, new BigDecimal("13")))
+                .containsExactly(1L);
+        assertThat(critereRepository.findFiliereIdsRequiringAtLeast(Subject.MATHEMATIQUES, new BigDecimal("12")))
+                .containsExactly(1L, 2L);
+        assertThat(critereRepository.findFiliereIdsWithSubjectThresholdAtMost(Subject.MATHEMATIQUES, new BigDecimal("13.5")))
+                .containsExactly(2L);
+        assertThat(critereRepository.findFiliereIdsWithSubjectThresholdAtMost(Subject.PHYSIQUE, new BigDecimal("15")))
+                .containsExactly(1L);
+        assertThat(critereRepository.findFiliereIdsRequiringAtLeast(Subject.SVT, BigDecimal.ZERO)).isEmpty();
+    }
+
+    @Test
+    void diplomaQueryFindsListedDiplomasAndAcceptedLevels() {
+        assertThat(critereRepository.findFiliereIdsAcceptingDiploma(DiplomaType.BTS)).containsExactly(3L);
+        assertThat(critereRepository.findFiliereIdsAcceptingDiploma(DiplomaType.LICENCE)).containsExactly(4L);
+        assertThat(critereRepository.findFiliereIdsAcceptingDiploma(DiplomaType.MASTER)).containsExactly(4L);
+        assertThat(critereRepository.findFiliereIdsAcceptingDiploma(DiplomaType.DEUG)).isEmpty();
+    }
+
+    @Test
+    void everySubjectExpressionIsServedByItsIndex() {
+        for (Subject subject : Subject.values()) {
+            String plan = explain("SELECT filiere_id FROM critere WHERE "
+                    + CritereRequirementQueriesImpl.threshold(subject) + " >= 10");
+            assertThat(plan).as("plan for %s", subject).contains("idx_critere_subject_" + subject.key());
+        }
+    }
+
+    /** The plan with sequential scans ruled out, so a matching index is used even on five rows. */
+    private String explain(String sql) {
+        return jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SET enable_seqscan = off");
+                StringBuilder plan = new StringBuilder();
+                try (ResultSet rows = statement.executeQuery("EXPLAIN " + sql)) {
+                    while (rows.next()) {
+                        plan.append(rows.getString(1)).append('\n');
+                    }
+                }
+                statement.execute("RESET enable_seqscan");
+                return plan.toString();
+            }
+        });
+    }
+
+    private void critere(long filiereId, String seuilMatieresSpecifiques, String diplomesRequis) throws Exception {
+        jdbcTemplate.update("INSERT INTO filiere (name, university_id, duration_years) VALUES (?, 1, 3)",
+                "Filière " + filiereId);
+        String requirements = objectMapper.writeValueAsString(
+                CritereRequirementsParser.parse(seuilMatieresSpecifiques, null, diplomesRequis));
+        jdbcTemplate.update("INSERT INTO critere (filiere_id, annee_academique, type_candidat, "
+                        + "seuil_matieres_specifiques, diplomes_requis, requirements) "
+                        + "VALUES (?, '2025-2026', 'Bacheliers', ?, ?, CAST(? AS jsonb))",
+                filiereId, seuilMatieresSpecifiques, diplomesRequis, requirements);
+    }
+}
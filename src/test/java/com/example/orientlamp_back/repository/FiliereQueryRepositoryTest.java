@@ -0,0 +1,139 @@
+package com.example.orientlamp_back.repository;
+
+import com.example.orientlamp_back.dto.CatalogSort;
+import com.example.orientlamp_back.dto.FiliereQueryFilter;
+import com.example.orientlamp_back.dto.FiliereSummaryDTO;
+import com.example.orientlamp_back.entity.Critere;
+import com.example.orientlamp_back.entity.Filiere;
+import com.example.orientlamp_back.entity.University;
+import com.example.orientlamp_back.service.CatalogCursor;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The statements {@link FiliereQueryRepository} compiles: which filieres each critere filter
+ * keeps, and that every sort pages through all rows once, null keys included.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@Import(FiliereQueryRepository.class)
+class FiliereQueryRepositoryTest {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private FiliereQueryRepository filiereQueryRepository;
+
+    private Long noLimit;
+    private Long noCritere;
+    private Long interview;
+
+    @BeforeEach
+    void seed() {
+        University university = University.builder().name("ENSA").slug("ensa").build();
+        entityManager.persist(university);
+        noLimit = filiere(university, "Génie Civil", "12000", LocalDate.of(2026, 6, 1),
+                critere(false, null, "12"));
+        noCritere = filiere(university, "Architecture", null, null, null);
+        interview = filiere(university, "Génie Informatique", "9000", LocalDate.of(2026, 6, 1),
+                critere(true, 20, "15"));
+        filiere(university, "Génie Industriel", null, LocalDate.of(2026, 5, 1), critere(false, 22, "14"));
+        entityManager.flush();
+    }
+
+    @Test
+    void critereFiltersSkipFilieresWithoutACritere() {
+        assertThat(ids(FiliereQueryFilter.builder().entretien(false).build()))
+                .contains(noLimit)
+                .doesNotContain(noCritere, interview);
+        assertThat(ids(FiliereQueryFilter.builder().entretien(true).build())).containsExactly(interview);
+        // No age limit passes the age filter; no critere does not.
+        assertThat(ids(FiliereQueryFilter.builder().age(25).build())).containsExactly(noLimit);
+        assertThat(ids(FiliereQueryFilter.builder().maxSeuil(new BigDecimal("14")).build()))
+                .hasSize(2)
+                .doesNotContain(noCritere);
+        assertThat(ids(new FiliereQueryFilter())).hasSize(4).contains(noCritere);
+    }
+
+    @Test
+    void everySortPagesThroughAllRowsOnce() {
+        for (CatalogSort sort : CatalogSort.values()) {
+            List<FiliereSummaryDTO> seen = new ArrayList<>();
+            CatalogCursor cursor = null;
+            List<FiliereSummaryDTO> page;
+            do {
+                page = filiereQueryRepository.find(new FiliereQueryFilter(), sort, cursor, 1);
+                seen.addAll(page);
+                if (!page.isEmpty()) {
+                    cursor = CatalogCursor.decode(CatalogCursor.encode(sort, key(sort, page.get(0)), page.get(0).getId()), sort);
+                }
+            } while (!page.isEmpty());
+
+            assertThat(seen).as("rows paged by %s", sort).hasSize(4);
+            assertThat(seen).extracting(FiliereSummaryDTO::getId).as("rows paged by %s", sort).doesNotHaveDuplicates();
+            if (sort == CatalogSort.TUITION) {
+                assertThat(seen).extracting(FiliereSummaryDTO::getTuitionFee)
+                        .containsExactly(new BigDecimal("9000.00"), new BigDecimal("12000.00"), null, null);
+            }
+            if (sort == CatalogSort.DEADLINE) {
+                assertThat(seen.get(3).getId()).isEqualTo(noCritere);
+            }
+        }
+    }
+
+    private List<Long> ids(FiliereQueryFilter filter) {
+        return filiereQueryRepository.find(filter, CatalogSort.ID, null, 10).stream()
+                .map(FiliereSummaryDTO::getId)
+                .toList();
+    }
+
+    /** The key the service puts in the cursor of a page ending on {@code row}. */
+    private static Object key(CatalogSort sort, FiliereSummaryDTO row) {
+        return switch (sort) {
+            case NAME -> row.getName();
+            case ID -> null;
+            case TUITION -> row.getTuitionFee() == null ? null : row.getTuitionFee().toPlainString();
+            case DEADLINE -> row.getApplicationDeadline();
+        };
+    }
+
+    private Long filiere(University university, String name, String tuition, LocalDate deadline, Critere critere) {
+        Filiere filiere = Filiere.builder()
+                .name(name)
+                .university(university)
+                .tuitionFee(tuition == null ? null : new BigDecimal(tuition))
+                .applicationDeadline(deadline)
+                .build();
+        entityManager.persist(filiere);
+        if (critere != null) {
+            critere.setFiliere(filiere);
+            entityManager.persist(critere);
+        }
+        return filiere.getId();
+    }
+
+    private static Critere critere(boolean entretien, Integer ageMax, String seuil) {
+        return Critere.builder()
+                .anneeAcademique("2025-2026")
+                .typeCandidat("Bacheliers")
+                .aEntretien(entretien)
+                .ageMax(ageMax)
+                .seuilCalcul(new BigDecimal(seuil))
+                .build();
+    }
+}
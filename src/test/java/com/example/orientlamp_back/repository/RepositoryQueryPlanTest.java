@@ -0,0 +1,364 @@
+package com.example.orientlamp_back.repository;
+
+import com.example.orientlamp_back.PostgresTestDatabase;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Query-plan regression suite: calls every query method of the JPA repositories against a
+ * seeded PostgreSQL database migrated by Flyway, records the SQL Hibernate sends with its
+ * bound parameters, and fails when {@code EXPLAIN} of any of those statements sequentially
+ * scans a table of more than {@link #SEQ_SCAN_ROW_THRESHOLD} rows. A new repository method
+ * is covered as soon as it is declared; one that needs a new index fails here first.
+ *
+ * Statements without a WHERE clause or a LIMIT read whole tables on purpose (the catalog
+ * snapshot) and are not checked. The context also runs with {@code ddl-auto=validate}, so
+ * the migrations are checked against the entities on the way.
+ *
+ * Runs against the PostgreSQL container of {@link PostgresTestDatabase}, migrated by Flyway:
+ * {@code mvn -Ppostgres test}. The seeded tables are truncated first.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.show-sql=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Tag("postgres")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class RepositoryQueryPlanTest {
+
+    private static final long SEQ_SCAN_ROW_THRESHOLD = 1_000;
+
+    private static final List<Class<?>> REPOSITORIES = List.of(
+            UniversityRepository.class, FiliereRepository.class, CritereRepository.class,
+            UserRepository.class, PreferenceRepository.class, EmailVerificationTokenRepository.class,
+            BacStudentRepository.class, PrepaStudentRepository.class, Bac2StudentRepository.class);
+
+    /** Filters that keep most of a table, where a sequential scan is the right plan. */
+    private static final Map<String, String> ALLOWED_SEQ_SCANS = Map.of(
+            "UserRepository.findByEnabled", "nearly every account is enabled",
+            "UserRepository.findByCurrentStudyLevel", "a handful of levels shared by all users");
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        PostgresTestDatabase.register(registry);
+    }
+
+    @TestConfiguration
+    static class Capture {
+        @Bean
+        static StatementCapture statementCapture() {
+            return new StatementCapture();
+        }
+    }
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Autowired
+    private StatementCapture capture;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @BeforeEach
+    void seed() {
+        jdbcTemplate.execute("TRUNCATE \"user\", university RESTART IDENTITY CASCADE");
+        jdbcTemplate.execute("INSERT INTO \"user\" (email, enabled, first_name, last_name, password, "
+                + "current_study_level, age, created_at) "
+                + "SELECT 'user' || g || '@example.ma', g % 50 <> 0, 'Prénom', 'Nom', 'secret', "
+                + "(ARRAY['bac', 'bac1', 'bac2prepa', 'licence', 'master'])[1 + g % 5], 17 + g % 14, now() "
+                + "FROM generate_series(1, 30000) g");
+        jdbcTemplate.execute("INSERT INTO preferences (user_id, desired_citiest, budget_range, interests, "
+                + "career_goals, language_preferences) "
+                + "SELECT g, 'Rabat, Fès, Ville ' || g % 40, 'Budget ' || g % 6, 'Informatique, Domaine ' || g % 90, "
+                + "'Ingénieur', 'Français, Langue ' || g % 7 FROM generate_series(1, 30000) g");
+        jdbcTemplate.execute("INSERT INTO email_verification_tokens (token, user_id, expiry_date, verified, created_at) "
+                + "SELECT md5(g::text), g, now() + (g % 30) * interval '1 minute', g % 3 = 0, now() "
+                + "FROM generate_series(1, 10000) g");
+        jdbcTemplate.execute("INSERT INTO bac_student (id_user, bac_major, bac_degree, grade, subject_degree, "
+                + "bac_year_graduation) "
+                + "SELECT g, 'Série ' || g % 9, 'Mention ' || g % 4, 8 + (g % 1100) / 100.0, 'Matière ' || g % 12, "
+                + "2015 + g % 10 FROM generate_series(1, 10000) g");
+        jdbcTemplate.execute("INSERT INTO prepa_student (id_user, prepa_major, bac_major, cnc_rating, annee_bac) "
+                + "SELECT g, 'Filière ' || g % 5, 'Série ' || g % 9, 8 + (g % 1100) / 100.0, (2015 + g % 10)::text "
+                + "FROM generate_series(10001, 20000) g");
+        jdbcTemplate.execute("INSERT INTO bac2_student (id_user, diploma_type, bac_major, institution, "
+                + "avg_s1, avg_s2, avg_s3, avg_s4) "
+                + "SELECT g, 'Diplôme ' || g % 6, 'Série ' || g % 9, 'Établissement ' || g % 300, "
+                + "8 + g % 10, 9 + g % 9, 10 + g % 8, 8 + g % 11 FROM generate_series(20001, 30000) g");
+        jdbcTemplate.execute("INSERT INTO university (name, location, type, accreditation_status, slug) "
+                + "SELECT 'Université ' || g, 'Ville ' || g % 40, 'Type ' || g % 6, 'Statut ' || g % 4, 'u-' || g "
+                + "FROM generate_series(1, 2000) g");
+        jdbcTemplate.execute("INSERT INTO filiere (name, university_id, critere_d_admission, duration_years, "
+                + "tuition_fee, admission_type, language, seats_availabial, application_deadline) "
+                + "SELECT 'Filière ' || g, 1 + g % 2000, 'Dossier', 2 + g % 4, "
+                + "CASE WHEN g % 5 = 0 THEN NULL ELSE (g % 100) * 1000 END, 'Admission ' || g % 8, "
+                + "(ARRAY['Français', 'Anglais', 'Arabe'])[1 + g % 3], g % 60, DATE '2026-01-01' + g % 300 "
+                + "FROM generate_series(1, 20000) g");
+        jdbcTemplate.execute("INSERT INTO critere (filiere_id, annee_academique, type_candidat, serie_bac_cible, "
+                + "seuil_calcul, a_entretien, age_max, requirements) "
+                + "SELECT g, '2025-2026', 'Candidat ' || g % 5, 'Série ' || g % 9, 10 + g % 10, g % 20 = 0, 22 + g % 8, "
+                + "CASE g % 10 WHEN 0 THEN jsonb_build_object('schema', 1, 'subjects', "
+                + "jsonb_build_object('mathematiques', 10 + g % 9, 'physique', 10 + g % 7)) "
+                + "WHEN 1 THEN jsonb_build_object('schema', 1, 'diplomas', jsonb_build_array('BTS'), 'minLevel', 3) "
+                + "ELSE '{\"schema\": 1}'::jsonb END "
+                + "FROM generate_series(1, 20000) g");
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @Test
+    void repositoryQueriesDoNotScanLargeTables() throws Exception {
+        List<String> violations = new ArrayList<>();
+        int explained = 0;
+
+        for (Class<?> repository : REPOSITORIES) {
+            Object bean = applicationContext.getBean(repository);
+            for (Method method : queryMethods(repository)) {
+                String name = repository.getSimpleName() + "." + method.getName();
+                capture.executed.clear();
+                new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                    invoke(bean, method, sampleArguments(method));
+                    status.setRollbackOnly();
+                });
+                List<Executed> statements = List.copyOf(capture.executed);
+                assertThat(statements).as("SQL issued by %s", name).isNotEmpty();
+
+                for (Executed statement : statements) {
+                    if (readsWholeTable(statement.sql())) {
+                        continue;
+                    }
+                    explained++;
+                    JsonNode plan = explain(statement);
+                    for (String relation : sequentialScans(plan.path("Plan"), new ArrayList<>())) {
+                        long rows = tableRows(relation);
+                        if (rows > SEQ_SCAN_ROW_THRESHOLD && !ALLOWED_SEQ_SCANS.containsKey(name)) {
+                            violations.add(name + ": Seq Scan on " + relation + " (" + rows + " rows)\n  "
+                                    + statement.sql() + "\n  " + plan.toPrettyString().replace("\n", "\n  "));
+                        }
+                    }
+                }
+            }
+        }
+
+        assertThat(explained).as("statements explained").isPositive();
+        assertThat(violations).as(String.join("\n\n", violations)).isEmpty();
+    }
+
+    private static List<Method> queryMethods(Class<?> repository) {
+        // Methods of a custom fragment (an interface of the same package) are the repository's too
+        return Stream.concat(Stream.of(repository), Arrays.stream(repository.getInterfaces())
+                        .filter(type -> type.getPackage() == repository.getPackage()))
+                .flatMap(type -> Arrays.stream(type.getDeclaredMethods()))
+                .filter(method -> !method.isDefault() && !method.isSynthetic()
+                        && !Modifier.isStatic(method.getModifiers()))
+                // Derived deletes load and remove rows; they are not worth a write to the seed
+                .filter(method -> !method.getName().startsWith("delete"))
+                .sorted(Comparator.comparing(Method::getName))
+                .toList();
+    }
+
+    /**
+     * Values unlikely to match much of the seed, as for a real lookup. A parameter type
+     * without a sample fails the test, so a new signature gets a deliberate value here.
+     */
+    private Object[] sampleArguments(Method method) {
+        Class<?>[] types = method.getParameterTypes();
+        Object[] arguments = new Object[types.length];
+        for (int i = 0; i < types.length; i++) {
+            Class<?> type = types[i];
+            if (type == Long.class || type == long.class) {
+                arguments[i] = 1L;
+            } else if (type == Integer.class || type == int.class) {
+                arguments[i] = 1;
+            } else if (type == boolean.class || type == Boolean.class) {
+                arguments[i] = false;
+            } else if (type == String.class) {
+                arguments[i] = "none";
+            } else if (type == BigDecimal.class) {
+                arguments[i] = new BigDecimal("19.99");
+            } else if (type == LocalDate.class) {
+                arguments[i] = LocalDate.of(2099, 1, 1);
+            } else if (type == LocalDateTime.class) {
+                arguments[i] = LocalDateTime.now();
+            } else if (Collection.class.isAssignableFrom(type)) {
+                arguments[i] = List.of(1L, 2L);
+            } else if (type == Limit.class) {
+                arguments[i] = Limit.of(20);
+            } else if (type.isEnum()) {
+                arguments[i] = type.getEnumConstants()[0];
+            } else if (type.isAnnotationPresent(Entity.class)) {
+                arguments[i] = entityManager.getReference(type, 1L);
+            } else {
+                throw new IllegalStateException("No sample value for " + type.getName() + " in " + method);
+            }
+        }
+        return arguments;
+    }
+
+    private static void invoke(Object bean, Method method, Object[] arguments) {
+        try {
+            method.invoke(bean, arguments);
+        } catch (InvocationTargetException ex) {
+            throw new IllegalStateException(method + " failed", ex.getTargetException());
+        } catch (IllegalAccessException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static boolean readsWholeTable(String sql) {
+        String lower = sql.toLowerCase(Locale.ROOT);
+        return !lower.contains(" where ") && !lower.contains(" fetch first ") && !lower.contains(" limit ");
+    }
+
+    /** Replays the statement's parameter bindings on {@code EXPLAIN}, so the planner sees the real values. */
+    private JsonNode explain(Executed statement) throws Exception {
+        try (Connection connection = capture.target.getConnection();
+             PreparedStatement explain = connection.prepareStatement("EXPLAIN (FORMAT JSON) " + statement.sql())) {
+            for (Binding binding : statement.bindings()) {
+                binding.setter().invoke(explain, binding.arguments());
+            }
+            try (ResultSet result = explain.executeQuery()) {
+                result.next();
+                return objectMapper.readTree(result.getString(1)).get(0);
+            }
+        }
+    }
+
+    private static List<String> sequentialScans(JsonNode node, List<String> relations) {
+        if ("Seq Scan".equals(node.path("Node Type").asText())) {
+            relations.add(node.path("Relation Name").asText());
+        }
+        for (JsonNode child : node.path("Plans")) {
+            sequentialScans(child, relations);
+        }
+        return relations;
+    }
+
+    private long tableRows(String relation) {
+        Long rows = jdbcTemplate.queryForObject(
+                "SELECT reltuples::bigint FROM pg_class WHERE relname = ?", Long.class, relation);
+        return rows == null ? 0 : rows;
+    }
+
+    record Binding(Method setter, Object[] arguments) {}
+
+    record Executed(String sql, List<Binding> bindings) {}
+
+    /** Wraps the DataSource so that every prepared statement is recorded with its bindings. */
+    static class StatementCapture implements BeanPostProcessor {
+
+        final List<Executed> executed = new CopyOnWriteArrayList<>();
+        DataSource target;
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof DataSource dataSource) || target != null) {
+                return bean;
+            }
+            target = dataSource;
+            return new DelegatingDataSource(dataSource) {
+                @Override
+                public Connection getConnection() throws SQLException {
+                    return capture(super.getConnection());
+                }
+
+                @Override
+                public Connection getConnection(String username, String password) throws SQLException {
+                    return capture(super.getConnection(username, password));
+                }
+            };
+        }
+
+        private Connection capture(Connection connection) {
+            return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+                    (proxy, method, arguments) -> {
+                        Object result = call(connection, method, arguments);
+                        if (method.getName().equals("prepareStatement") && result instanceof PreparedStatement statement) {
+                            return capture(statement, (String) arguments[0]);
+                        }
+                        return result;
+                    });
+        }
+
+        private PreparedStatement capture(PreparedStatement statement, String sql) {
+            Map<Integer, Binding> bindings = new TreeMap<>();
+            return (PreparedStatement) Proxy.newProxyInstance(getClass().getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class},
+                    (proxy, method, arguments) -> {
+                        String name = method.getName();
+                        if (name.startsWith("set") && arguments != null && arguments.length >= 2
+                                && arguments[0] instanceof Integer index) {
+                            bindings.put(index, new Binding(method, arguments.clone()));
+                        } else if (name.equals("clearParameters")) {
+                            bindings.clear();
+                        } else if (name.startsWith("execute") && (arguments == null || arguments.length == 0)) {
+                            executed.add(new Executed(sql, List.copyOf(bindings.values())));
+                        }
+                        return call(statement, method, arguments);
+                    });
+        }
+
+        private static Object call(Object target, Method method, Object[] arguments) throws Throwable {
+            try {
+                return method.invoke(target, arguments);
+            } catch (InvocationTargetException ex) {
+                throw ex.getTargetException();
+            }
+        }
+    }
+}
@@ -0,0 +1,470 @@
+package com.example.orientlamp_back.service;
+
+import com.example.orientlamp_back.dto.CatalogEmbed;
+import com.example.orientlamp_back.dto.CatalogSort;
+import com.example.orientlamp_back.dto.CursorPageDTO;
+import com.example.orientlamp_back.dto.FacetCountDTO;
+import com.example.orientlamp_back.dto.FacetedPageDTO;
+import com.example.orientlamp_back.dto.FiliereFacetQuery;
+import com.example.orientlamp_back.dto.FiliereQueryFilter;
+import com.example.orientlamp_back.dto.FiliereRequestDTO;
+import com.example.orientlamp_back.dto.FiliereResponseDTO;
+import com.example.orientlamp_back.dto.FiliereSummaryDTO;
+import com.example.orientlamp_back.dto.NearbyUniversitiesDTO;
+import com.example.orientlamp_back.dto.NearbyUniversityDTO;
+import com.example.orientlamp_back.dto.UniversitySummaryDTO;
+import com.example.orientlamp_back.entity.Critere;
+import com.example.orientlamp_back.entity.Filiere;
+import com.example.orientlamp_back.entity.University;
+import com.example.orientlamp_back.event.CatalogChangedEvent;
+import com.example.orientlamp_back.exception.InvalidFiliereQueryException;
+import com.example.orientlamp_back.mapper.CritereMapper;
+import com.example.orientlamp_back.mapper.FiliereMapper;
+import com.example.orientlamp_back.mapper.UniversityMapper;
+import com.example.orientlamp_back.repository.CatalogVersionRepository;
+import com.example.orientlamp_back.repository.CritereHistoryRepository;
+import com.example.orientlamp_back.repository.FiliereQueryRepository;
+import com.example.orientlamp_back.service.admission.ThresholdTrends;
+import com.example.orientlamp_back.service.catalog.Catalog;
+import com.example.orientlamp_back.service.catalog.CatalogSnapshot;
+import com.example.orientlamp_back.service.catalog.FiliereFacets;
+import com.example.orientlamp_back.service.geo.Gazetteer;
+import com.example.orientlamp_back.service.geo.UniversityLocations;
+import com.example.orientlamp_back.service.impl.CritereServiceImpl;
+import com.example.orientlamp_back.service.impl.FiliereServiceImpl;
+import com.example.orientlamp_back.service.impl.UniversityServiceImpl;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Guards the catalog read path: the snapshot is loaded with a single statement, every read
+ * is then served from memory, and committed writes are visible to the next read.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.show-sql=false",
+        "app.catalog.poll-interval=100ms"
+})
+@Import({
+        UniversityServiceImpl.class, FiliereServiceImpl.class, CritereServiceImpl.class,
+        UniversityMapper.class, FiliereMapper.class, CritereMapper.class, FiliereQueryRepository.class,
+        CatalogSnapshot.class, CatalogVersionRepository.class, FiliereFacets.class, Gazetteer.class, UniversityLocations.class,
+        CatalogQueryCountTest.Metrics.class
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CatalogQueryCountTest {
+
+    private static final int UNIVERSITIES = 4;
+    private static final int FILIERES_PER_UNIVERSITY = 3;
+
+    @TestConfiguration
+    static class Metrics {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CatalogSnapshot catalogSnapshot;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private UniversityService universityService;
+
+    @Autowired
+    private FiliereService filiereService;
+
+    @Autowired
+    private CritereService critereService;
+
+    @MockBean
+    private FileStorageService fileStorageService;
+
+    @MockBean
+    private CritereHistoryRepository critereHistoryRepository;
+
+    @MockBean
+    private ThresholdTrends thresholdTrends;
+
+    private Long universityId;
+    private String universitySlug;
+    private Long filiereId;
+
+    @BeforeEach
+    void seed() {
+        // Flyway is off here, so catalog_version (V18) is created by hand; kept across tests so it only grows.
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS catalog_version (id SMALLINT PRIMARY KEY, version BIGINT NOT NULL)");
+        jdbcTemplate.execute("INSERT INTO catalog_version SELECT 1, 1 WHERE NOT EXISTS (SELECT 1 FROM catalog_version)");
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            for (int u = 0; u < UNIVERSITIES; u++) {
+                University university = University.builder()
+                        .name("University " + u)
+                        .location(u % 2 == 0 ? "Rabat" : "Fès")
+                        .type("Grande École Publique")
+                        .accreditationStatus("Accréditée")
+                        .slug("university-" + u)
+                        .build();
+                entityManager.persist(university);
+                universityId = university.getId();
+                universitySlug = university.getSlug();
+
+                for (int f = 0; f < FILIERES_PER_UNIVERSITY; f++) {
+                    Filiere filiere = Filiere.builder()
+                            .name("Filiere " + u + "-" + f)
+                            .university(university)
+                            .admissionType("CNC")
+                            .language("Français")
+                            .seatsAvailabial(40)
+                            .tuitionFee(f == 2 ? null : BigDecimal.valueOf(1000L * (u + f)))
+                            .applicationDeadline(f == 0 ? null : LocalDate.of(2026, 6, 15 - u))
+                            .build();
+                    entityManager.persist(filiere);
+                    filiereId = filiere.getId();
+
+                    entityManager.persist(Critere.builder()
+                            .filiere(filiere)
+                            .anneeAcademique("2025-2026")
+                            .typeCandidat("Lauréat CPGE")
+                            .serieBacCible("Sciences Mathématiques")
+                            .seuilCalcul(BigDecimal.valueOf(14))
+                            .aEntretien(false)
+                            .ageMax(28)
+                            .build());
+                }
+            }
+        });
+        catalogSnapshot.refresh(CatalogChangedEvent.all());
+    }
+
+    @AfterEach
+    void cleanUp() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            entityManager.createQuery("DELETE FROM Critere").executeUpdate();
+            entityManager.createQuery("DELETE FROM Filiere").executeUpdate();
+            entityManager.createQuery("DELETE FROM University").executeUpdate();
+        });
+    }
+
+    @Test
+    void snapshotLoadsTheWholeGraphInOneStatement() {
+        Catalog catalog = assertStatements(1, () -> catalogSnapshot.refresh(CatalogChangedEvent.all()));
+
+        assertThat(catalog.universityCount()).isEqualTo(UNIVERSITIES);
+        assertThat(catalog.filiereCount()).isEqualTo(UNIVERSITIES * FILIERES_PER_UNIVERSITY);
+        assertThat(catalog.critereCount()).isEqualTo(UNIVERSITIES * FILIERES_PER_UNIVERSITY);
+        assertThat(meterRegistry.get("catalog.snapshot.entries").tag("type", "filiere").gauge().value())
+                .isEqualTo(UNIVERSITIES * FILIERES_PER_UNIVERSITY);
+    }
+
+    @Test
+    void universityReadsIssueNoStatements() {
+        assertThat(assertStatements(0, () -> universityService.getAllUniversities())).hasSize(UNIVERSITIES);
+        assertStatements(0, () -> universityService.getUniversityById(universityId, EnumSet.allOf(CatalogEmbed.class)));
+        assertStatements(0, () -> universityService.getUniversityBySlug(universitySlug, EnumSet.allOf(CatalogEmbed.class)));
+        assertThat(assertStatements(0, () -> universityService.getUniversitiesByLocation("Rabat"))).hasSize(2);
+        assertStatements(0, () -> universityService.getUniversitiesByType("Grande École Publique"));
+        assertStatements(0, () -> universityService.getUniversitiesByAccreditationStatus("Accréditée"));
+        assertThat(universityService.getUniversitiesByLocation("Casablanca")).isEmpty();
+    }
+
+    @Test
+    void filiereReadsIssueNoStatements() {
+        assertStatements(0, () -> filiereService.getAllFilieres());
+        assertStatements(0, () -> filiereService.getFiliereById(filiereId, EnumSet.of(CatalogEmbed.CRITERE)));
+        assertThat(assertStatements(0, () -> filiereService.getFilieresByUniversityId(universityId)))
+                .hasSize(FILIERES_PER_UNIVERSITY);
+        assertStatements(0, () -> filiereService.getFilieresByAdmissionType("CNC"));
+        assertStatements(0, () -> filiereService.getFilieresByLanguage("Français"));
+        assertThat(assertStatements(0, () -> filiereService.getFilieresByApplicationDeadlineAfter(LocalDate.of(2026, 1, 1))))
+                .hasSize(UNIVERSITIES * (FILIERES_PER_UNIVERSITY - 1));
+        assertStatements(0, () -> filiereService.getAvailableFilieres());
+        assertThat(assertStatements(0, () -> filiereService.getFilieresByUniversityIdAndAdmissionType(universityId, "CNC")))
+                .hasSize(FILIERES_PER_UNIVERSITY);
+    }
+
+    @Test
+    void deadlineFilterIncludesTheRequestedDay() {
+        // Deadlines are June 15, 14, 13 and 12; a filiere closing on the 13th is still open on the 13th.
+        assertThat(filiereService.getFilieresByApplicationDeadlineAfter(LocalDate.of(2026, 6, 13)))
+                .extracting(FiliereSummaryDTO::getApplicationDeadline)
+                .hasSize(3 * (FILIERES_PER_UNIVERSITY - 1))
+                .contains(LocalDate.of(2026, 6, 13))
+                .doesNotContain(LocalDate.of(2026, 6, 12));
+    }
+
+    @Test
+    void critereReadsIssueNoStatements() {
+        assertStatements(0, () -> critereService.getAllCriteres());
+        assertStatements(0, () -> critereService.getCritereByFiliereId(filiereId));
+        assertStatements(0, () -> critereService.getCriteresByAnneeAcademique("2025-2026"));
+        assertStatements(0, () -> critereService.getCriteresByTypeCandidat("Lauréat CPGE"));
+        assertStatements(0, () -> critereService.getCriteresBySerieBacCible("Sciences Mathématiques"));
+        assertStatements(0, () -> critereService.getCriteresBySeuilCalculGreaterThanEqual(BigDecimal.TEN));
+        assertStatements(0, () -> critereService.getCriteresByAgeMaxLessThanEqual(30));
+    }
+
+    @Test
+    void universitySummariesCarryFiliereAggregates() {
+        Catalog catalog = catalogSnapshot.current();
+        UniversitySummaryDTO summary = catalog.toUniversitySummaryDTO(
+                catalog.universityIndex(universityId), LocalDate.of(2026, 1, 1));
+
+        int u = UNIVERSITIES - 1;
+        assertThat(summary.getFiliereCount()).isEqualTo(FILIERES_PER_UNIVERSITY);
+        assertThat(summary.getMinTuitionFee()).isEqualByComparingTo(BigDecimal.valueOf(1000L * u));
+        assertThat(summary.getMaxTuitionFee()).isEqualByComparingTo(BigDecimal.valueOf(1000L * (u + 1)));
+        assertThat(summary.getLanguages()).containsExactly("Français");
+        assertThat(summary.getNextApplicationDeadline()).isEqualTo(LocalDate.of(2026, 6, 15 - u));
+        assertThat(catalog.toUniversitySummaryDTO(catalog.universityIndex(universityId), LocalDate.of(2026, 7, 1))
+                .getNextApplicationDeadline()).isNull();
+    }
+
+    @Test
+    void universityPagesVisitEveryRowOnce() {
+        Set<Long> seen = new HashSet<>();
+        String cursor = null;
+        do {
+            String current = cursor;
+            CursorPageDTO<UniversitySummaryDTO> page = assertStatements(0,
+                    () -> universityService.getUniversitiesPage(current, 1, CatalogSort.NAME));
+            page.getContent().forEach(u -> {
+                assertThat(u.getFiliereCount()).isEqualTo(FILIERES_PER_UNIVERSITY);
+                assertThat(seen.add(u.getId())).isTrue();
+            });
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertThat(seen).hasSize(UNIVERSITIES);
+    }
+
+    @Test
+    void filierePagesVisitEveryRowOnceForEachSort() {
+        for (CatalogSort sort : CatalogSort.values()) {
+            Set<Long> seen = new HashSet<>();
+            String cursor = null;
+            do {
+                String current = cursor;
+                CursorPageDTO<FiliereSummaryDTO> page = assertStatements(0,
+                        () -> filiereService.getFilieresPage(current, 5, sort));
+                page.getContent().forEach(f -> assertThat(seen.add(f.getId())).as("%s revisited", sort).isTrue());
+                cursor = page.getNextCursor();
+            } while (cursor != null);
+
+            assertThat(seen).as("rows paged by %s", sort).hasSize(UNIVERSITIES * FILIERES_PER_UNIVERSITY);
+        }
+    }
+
+    @Test
+    void committedWritesAreVisibleToTheNextRead() {
+        long version = catalogSnapshot.current().version();
+
+        FiliereRequestDTO request = new FiliereRequestDTO();
+        request.setName("Génie Informatique");
+        request.setUniversityId(universityId);
+        request.setAdmissionType("Concours");
+        request.setLanguage("Anglais");
+        filiereService.updateFiliere(filiereId, request);
+        awaitRefreshed();
+
+        assertThat(catalogSnapshot.current().version()).isGreaterThan(version);
+        FiliereResponseDTO updated = assertStatements(0, () -> filiereService.getFiliereById(filiereId, EnumSet.of(CatalogEmbed.CRITERE)));
+        assertThat(updated.getName()).isEqualTo("Génie Informatique");
+        assertThat(updated.getCritere()).isNotNull();
+        assertThat(filiereService.getFilieresByLanguage("Anglais")).extracting(FiliereSummaryDTO::getId)
+                .containsExactly(filiereId);
+    }
+
+    @Test
+    void writesMadeOnAnotherInstanceArePickedUpByThePoll() {
+        long version = catalogSnapshot.current().version();
+        double remote = meterRegistry.get("catalog.snapshot.refreshes").tag("source", "remote").counter().count();
+
+        // What another instance's FiliereService.updateFiliere leaves behind: the row and a bumped version.
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            jdbcTemplate.update("UPDATE filiere SET name = 'Génie Civil' WHERE id = ?", filiereId);
+            jdbcTemplate.update("UPDATE catalog_version SET version = version + 1 WHERE id = 1");
+        });
+
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (catalogSnapshot.current().version() == version && System.currentTimeMillis() < deadline) {
+            Thread.onSpinWait();
+        }
+        assertThat(catalogSnapshot.current().version()).isEqualTo(version + 1);
+        assertThat(filiereService.getFiliereById(filiereId, EnumSet.noneOf(CatalogEmbed.class)).getName())
+                .isEqualTo("Génie Civil");
+        assertThat(meterRegistry.get("catalog.snapshot.refreshes").tag("source", "remote").counter().count())
+                .isEqualTo(remote + 1);
+    }
+
+    @Test
+    void facetedSearchCountsAgainstTheOtherFacetsAndFollowsWrites() {
+        FiliereFacetQuery inRabat = FiliereFacetQuery.builder().location(List.of("Rabat")).build();
+
+        Set<Long> seen = new HashSet<>();
+        String cursor = null;
+        FacetedPageDTO<FiliereSummaryDTO> page;
+        do {
+            String current = cursor;
+            page = assertStatements(0, () -> filiereService.searchFilieres(inRabat, current, 4, CatalogSort.NAME));
+            page.getContent().forEach(f -> assertThat(seen.add(f.getId())).isTrue());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        assertThat(seen).hasSize(UNIVERSITIES / 2 * FILIERES_PER_UNIVERSITY);
+        assertThat(page.getTotal()).isEqualTo(seen.size());
+        assertThat(page.getFacets().get("location"))
+                .extracting(FacetCountDTO::getValue, FacetCountDTO::getCount, FacetCountDTO::isSelected)
+                .containsExactlyInAnyOrder(tuple("Rabat", 6, true), tuple("Fès", 6, false));
+        assertThat(page.getFacets().get("tuitionBand"))
+                .extracting(FacetCountDTO::getValue, FacetCountDTO::getCount)
+                .containsExactlyInAnyOrder(tuple("FREE", 1), tuple("UNDER_20K", 3));
+
+        FiliereRequestDTO request = new FiliereRequestDTO();
+        request.setName("Génie Informatique");
+        request.setUniversityId(universityId);
+        request.setAdmissionType("Concours");
+        request.setLanguage("Français");
+        filiereService.updateFiliere(filiereId, request);
+        awaitRefreshed();
+
+        FiliereFacetQuery concours = FiliereFacetQuery.builder()
+                .admissionType(List.of("Concours"))
+                .hasSeats(false)
+                .build();
+        FacetedPageDTO<FiliereSummaryDTO> updated = assertStatements(0,
+                () -> filiereService.searchFilieres(concours, null, null, CatalogSort.NAME));
+        assertThat(updated.getContent()).extracting(FiliereSummaryDTO::getId).containsExactly(filiereId);
+        assertThat(updated.getFacets().get("admissionType"))
+                .extracting(FacetCountDTO::getValue, FacetCountDTO::getCount)
+                .containsExactlyInAnyOrder(tuple("CNC", 0), tuple("Concours", 1));
+    }
+
+    @Test
+    void nearbyUniversitiesAreRankedByDistanceAndFiltered() {
+        NearbyUniversitiesDTO nearSale = assertStatements(0,
+                () -> universityService.getUniversitiesNear("Salé", null, null, 30.0, null, new FiliereFacetQuery()));
+        assertThat(nearSale.getPlace()).isEqualTo("Salé");
+        assertThat(nearSale.getResults())
+                .extracting(nearby -> nearby.getUniversity().getLocation())
+                .containsExactly("Rabat", "Rabat");
+        assertThat(nearSale.getResults().get(0).getDistanceKm()).isBetween(3.0, 6.0);
+        assertThat(nearSale.getResults().get(0).getMatchingFilieres()).isNull();
+
+        NearbyUniversitiesDTO wide = universityService.getUniversitiesNear(null, 34.02, -6.84, 300.0, null,
+                FiliereFacetQuery.builder().tuitionBand(List.of("FREE")).build());
+        assertThat(wide.getTotal()).isEqualTo(1);
+        assertThat(wide.getResults()).extracting(NearbyUniversityDTO::getMatchingFilieres).containsExactly(1);
+        assertThat(universityService.getUniversitiesNear(null, 34.02, -6.84, 300.0, null, new FiliereFacetQuery())
+                .getResults()).extracting(nearby -> nearby.getUniversity().getLocation())
+                .containsExactly("Rabat", "Rabat", "Fès", "Fès");
+    }
+
+    @Test
+    void compiledFiliereQueryPagesThroughNullKeysAndAppliesCritereFilters() {
+        FiliereQueryFilter filter = FiliereQueryFilter.builder()
+                .language(List.of("Français"))
+                .minSeuil(BigDecimal.TEN)
+                .serieBacCible(List.of("Sciences Mathématiques"))
+                .age(25)
+                .build();
+
+        List<FiliereSummaryDTO> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPageDTO<FiliereSummaryDTO> page = filiereService.queryFilieres(filter, cursor, 5, CatalogSort.TUITION);
+            seen.addAll(page.getContent());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        assertThat(seen).hasSize(UNIVERSITIES * FILIERES_PER_UNIVERSITY);
+        assertThat(seen).extracting(FiliereSummaryDTO::getId).doesNotHaveDuplicates();
+        assertThat(seen.subList(0, 8)).extracting(FiliereSummaryDTO::getTuitionFee)
+                .isSortedAccordingTo(BigDecimal::compareTo);
+        assertThat(seen.subList(8, 12)).extracting(FiliereSummaryDTO::getTuitionFee).containsOnlyNulls();
+
+        FiliereQueryFilter narrow = FiliereQueryFilter.builder()
+                .universityId(List.of(universityId))
+                .minTuition(BigDecimal.valueOf(3500))
+                .deadlineFrom(LocalDate.of(2026, 1, 1))
+                .entretien(false)
+                .build();
+        assertThat(filiereService.queryFilieres(narrow, null, null, CatalogSort.NAME).getContent())
+                .extracting(FiliereSummaryDTO::getTuitionFee, FiliereSummaryDTO::getUniversityName)
+                .containsExactly(tuple(new BigDecimal("4000.00"), "University 3"));
+
+        assertThat(filiereService.queryFilieres(FiliereQueryFilter.builder().age(30).build(), null, null,
+                CatalogSort.ID).getContent()).isEmpty();
+        assertThatThrownBy(() -> filiereService.queryFilieres(FiliereQueryFilter.builder()
+                .minTuition(BigDecimal.TEN).maxTuition(BigDecimal.ONE).build(), null, null, CatalogSort.NAME))
+                .isInstanceOf(InvalidFiliereQueryException.class);
+    }
+
+    /** Catalog writes are rebuilt for in the background; waits until the last one is served. */
+    private void awaitRefreshed() {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (catalogSnapshot.isRefreshPending() && System.currentTimeMillis() < deadline) {
+            Thread.onSpinWait();
+        }
+        assertThat(catalogSnapshot.isRefreshPending()).isFalse();
+    }
+
+    private <T> T assertStatements(long expected, Supplier<T> call) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        T result = call.get();
+        assertThat(result).isNotNull();
+
+        assertThat(statistics.getPrepareStatementCount())
+                .as("SQL statements issued")
+                .isEqualTo(expected);
+        return result;
+    }
+}
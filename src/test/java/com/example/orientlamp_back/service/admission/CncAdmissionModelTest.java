@@ -0,0 +1,83 @@
+package com.example.orientlamp_back.service.admission;
+
+import com.example.orientlamp_back.entity.Critere;
+import com.example.orientlamp_back.entity.Filiere;
+import com.example.orientlamp_back.entity.University;
+import com.example.orientlamp_back.service.catalog.Catalog;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class CncAdmissionModelTest {
+
+    @Test
+    void ranksFilieresByChanceAtTheirCutOffRanks() {
+        CncAdmissionModel model = CncAdmissionModel.build(1, List.of(
+                new CncAdmissionModel.Observation(0, "2024-2025", 300, null),
+                new CncAdmissionModel.Observation(1, "2024-2025", 1200, null),
+                new CncAdmissionModel.Observation(2, "2024-2025", 4000, null)));
+
+        List<CncAdmissionModel.Chance> chances = model.chances(1000, null);
+
+        assertThat(chances).extracting(CncAdmissionModel.Chance::filiere).containsExactly(2, 1, 0);
+        assertThat(chances.get(0).probability()).isGreaterThan(0.99);
+        assertThat(chances.get(1).probability()).isBetween(0.6, 0.9);
+        assertThat(chances.get(2).probability()).isLessThan(0.01);
+        assertThat(model.chances(1200, null).get(1).probability()).isCloseTo(0.5, within(0.001));
+    }
+
+    @Test
+    void weighsRecentYearsMore() {
+        CncAdmissionModel model = CncAdmissionModel.build(1, List.of(
+                new CncAdmissionModel.Observation(0, "2023-2024", 5000, null),
+                new CncAdmissionModel.Observation(0, "2024-2025", 500, null)));
+
+        CncAdmissionModel.Chance chance = model.chances(1000, null).get(0);
+
+        // About 0 for the latest year (weight 1) and 1 for the one before (weight 0.7).
+        assertThat(chance.probability()).isCloseTo(0.7 / 1.7, within(0.01));
+        assertThat(chance.anneeAcademique()).isEqualTo("2024-2025");
+        assertThat(chance.lastAdmittedRank()).isEqualTo(500);
+        assertThat(chance.years()).isEqualTo(2);
+    }
+
+    @Test
+    void fallsBackToTheScoreCutOffAndSkipsWhatItCannotEstimate() {
+        CncAdmissionModel model = CncAdmissionModel.build(1, List.of(
+                new CncAdmissionModel.Observation(0, "2024-2025", 800, new BigDecimal("14.00")),
+                new CncAdmissionModel.Observation(1, "2024-2025", 2000, null)));
+
+        assertThat(model.chances(null, new BigDecimal("15.00")))
+                .singleElement()
+                .satisfies(c -> {
+                    assertThat(c.filiere()).isZero();
+                    assertThat(c.probability()).isGreaterThan(0.95);
+                });
+        assertThat(model.chances(1000, new BigDecimal("15.00"))).hasSize(2);
+    }
+
+    @Test
+    void buildsFromTheCncCriteresOfTheCatalog() {
+        University emi = University.builder().id(1L).name("EMI").build();
+        add(emi, 10L, "Génie Informatique", Critere.builder().typeCandidat("Lauréat CPGE").classementCnc(400));
+        add(emi, 11L, "Génie Civil", Critere.builder().typeCandidat("Lauréat CPGE").scorePrepa(new BigDecimal("14.5")));
+        add(emi, 12L, "Licence", Critere.builder().typeCandidat("Bacheliers").seuilCalcul(new BigDecimal("12")));
+
+        CncAdmissionModel model = CncAdmissionModel.build(Catalog.build(3, List.of(emi)));
+
+        assertThat(model.version()).isEqualTo(3);
+        assertThat(model.filiereCount()).isEqualTo(2);
+        assertThat(model.chances(100, new BigDecimal("16"))).extracting(CncAdmissionModel.Chance::filiere)
+                .containsExactlyInAnyOrder(0, 1);
+    }
+
+    private static void add(University university, Long id, String name, Critere.CritereBuilder critere) {
+        Filiere filiere = Filiere.builder().id(id).name(name).build();
+        filiere.setCritere(critere.filiereId(id).filiere(filiere).anneeAcademique("2025-2026").build());
+        university.addFiliere(filiere);
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.orientlamp_back.service.admission;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compiled formula evaluations per second, one student at a time ({@link ScoreFormula#evaluate})
+ * and over a column-wise population ({@link ScoreFormula#evaluateAll}), for the three shapes of
+ * the class comment. See the Readme for how to run the benchmarks.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ScoreFormulaBenchmark {
+
+    static final int STUDENTS = 100_000;
+
+    @Param({
+            "0.75 * national + 0.25 * regional",
+            "(4 * mathematiques + 3 * physique + francais) / 8",
+            "max(cnc, 0.6 * cnc + 0.4 * trimestres)"})
+    String text;
+
+    private ScoreFormula formula;
+    private double[][] rows;
+    private double[][] columns;
+    private final double[] out = new double[STUDENTS];
+    private int next;
+
+    @Setup
+    public void setUp() {
+        formula = ScoreFormula.compile(text);
+        Random random = new Random(22);
+        rows = new double[1024][ScoreVariables.COUNT];
+        for (double[] row : rows) {
+            for (int slot = 0; slot < row.length; slot++) {
+                row[slot] = 8 + random.nextDouble() * 12;
+            }
+        }
+        columns = new double[ScoreVariables.COUNT][STUDENTS];
+        for (double[] column : columns) {
+            for (int i = 0; i < STUDENTS; i++) {
+                column[i] = 8 + random.nextDouble() * 12;
+            }
+        }
+    }
+
+    @Benchmark
+    public double evaluate() {
+        return formula.evaluate(rows[next++ & (rows.length - 1)]);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(STUDENTS)
+    public double[] evaluateAll() {
+        formula.evaluateAll(columns, STUDENTS, out);
+        return out;
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.orientlamp_back.service.admission;
+
+import com.example.orientlamp_back.entity.BacStudent;
+import com.example.orientlamp_back.entity.PrepaStudent;
+import com.example.orientlamp_back.exception.InvalidScoreFormulaException;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class ScoreFormulaTest {
+
+    @Test
+    void evaluatesWeightedSubjectFormulas() {
+        double[] student = ScoreVariables.of(BacStudent.builder()
+                .grade(new BigDecimal("15.20"))
+                .subjectDegree("Mathématiques 17, Physique-Chimie 14, Français 12")
+                .build());
+
+        assertThat(ScoreFormula.compile("(4 * Mathématiques + 3 * physique + francais) / 8").evaluate(student))
+                .isCloseTo((4 * 17 + 3 * 14 + 12) / 8.0, within(1e-9));
+        assertThat(ScoreFormula.compile("max(bac, moyenne(mathematiques, physique)) - -1").evaluate(student))
+                .isCloseTo(16.5, within(1e-9));
+        assertThat(ScoreFormula.compile("min(bac, 12 / (2 * 1.5))").evaluate(student)).isEqualTo(4.0);
+
+        ScoreFormula national = ScoreFormula.compile("0.75 * national + 0.25 * regional");
+        assertThat(national.evaluate(student)).isNaN();
+        assertThat(national.missing(student)).containsExactly("national", "regional");
+        assertThat(ScoreFormula.compile("bac / (mathematiques - 17)").evaluate(student)).isNaN();
+    }
+
+    @Test
+    void readsPrepaTrimesterNotesInOrder() {
+        double[] student = ScoreVariables.of(PrepaStudent.builder()
+                .cncRating(new BigDecimal("14.00"))
+                .notesTrimestre("T1: 12,5 ; T2: 13 ; T3: 14.5")
+                .build());
+
+        assertThat(ScoreFormula.compile("0.6 * cnc + 0.4 * trimestres").evaluate(student))
+                .isCloseTo(0.6 * 14 + 0.4 * 13.333333333, within(1e-6));
+        assertThat(ScoreFormula.compile("t1 + t3").evaluate(student)).isEqualTo(27.0);
+        assertThat(ScoreFormula.compile("t4").evaluate(student)).isNaN();
+    }
+
+    @Test
+    void bulkEvaluationMatchesSingleEvaluation() {
+        ScoreFormula formula = ScoreFormula.compile("max(cnc, 0.5 * cnc + 0.5 * moyenne(t1, t2)) * 2 / 2 - 0");
+        int n = 1000;
+        Random random = new Random(7);
+        double[][] columns = new double[ScoreVariables.COUNT][];
+        columns[ScoreVariables.CNC] = new double[n];
+        columns[ScoreVariables.T1] = new double[n];
+        columns[ScoreVariables.T1 + 1] = new double[n];
+        for (int i = 0; i < n; i++) {
+            columns[ScoreVariables.CNC][i] = i % 50 == 0 ? Double.NaN : 8 + random.nextDouble() * 12;
+            columns[ScoreVariables.T1][i] = 8 + random.nextDouble() * 12;
+            columns[ScoreVariables.T1 + 1][i] = 8 + random.nextDouble() * 12;
+        }
+
+        double[] out = new double[n];
+        formula.evaluateAll(columns, n, out);
+        for (int i = 0; i < n; i++) {
+            double[] row = ScoreVariables.empty();
+            row[ScoreVariables.CNC] = columns[ScoreVariables.CNC][i];
+            row[ScoreVariables.T1] = columns[ScoreVariables.T1][i];
+            row[ScoreVariables.T1 + 1] = columns[ScoreVariables.T1 + 1][i];
+            assertThat(Double.valueOf(out[i])).as("student %d", i).isEqualTo(Double.valueOf(formula.evaluate(row)));
+        }
+        // The columns themselves are read, never written.
+        assertThat(columns[ScoreVariables.T1][0]).isBetween(8.0, 20.0);
+    }
+
+    @Test
+    void rejectsMalformedFormulas() {
+        assertThatThrownBy(() -> ScoreFormula.compile("bac +")).isInstanceOf(InvalidScoreFormulaException.class)
+                .hasMessageContaining("Unexpected end");
+        assertThatThrownBy(() -> ScoreFormula.compile("0.5 * chimie")).isInstanceOf(InvalidScoreFormulaException.class)
+                .hasMessageContaining("Unknown variable 'chimie' at position 7");
+        assertThatThrownBy(() -> ScoreFormula.compile("sqrt(bac)")).isInstanceOf(InvalidScoreFormulaException.class);
+        assertThatThrownBy(() -> ScoreFormula.compile("(bac")).isInstanceOf(InvalidScoreFormulaException.class);
+        assertThatThrownBy(() -> ScoreFormula.compile("bac bac")).isInstanceOf(InvalidScoreFormulaException.class);
+        assertThatThrownBy(() -> ScoreFormula.compile(" ")).isInstanceOf(InvalidScoreFormulaException.class);
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.orientlamp_back.service.admission;
+
+import com.example.orientlamp_back.repository.CritereHistoryRepository.Entry;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ThresholdHistoryTest {
+
+    @Test
+    void looksUpTheYearInEffect() {
+        ThresholdHistory history = ThresholdHistory.build(List.of(
+                entry(1L, 2021, "12.00", null), entry(1L, 2023, "13.00", null),
+                entry(2L, 2024, "15.00", 900)));
+
+        assertThat(history.asOf(1L, 2020)).isNull();
+        assertThat(history.asOf(1L, 2021).seuilCalcul()).isEqualByComparingTo("12");
+        assertThat(history.asOf(1L, 2022).seuilCalcul()).isEqualByComparingTo("12");
+        assertThat(history.asOf(1L, 2030).seuilCalcul()).isEqualByComparingTo("13");
+        assertThat(history.asOf(2L, 2024).classementCnc()).isEqualTo(900);
+        assertThat(history.asOf(3L, 2024)).isNull();
+        assertThat(history.years(1L)).extracting(Entry::academicYear).containsExactly(2021, 2023);
+
+        assertThat(ThresholdHistory.startYear("2024-2025", Instant.EPOCH)).isEqualTo(2024);
+        assertThat(ThresholdHistory.startYear("Session 2023/24", Instant.EPOCH)).isEqualTo(2023);
+        assertThat(ThresholdHistory.startYear("en cours", Instant.parse("2026-10-01T00:00:00Z"))).isEqualTo(2026);
+    }
+
+    @Test
+    void projectsTheNextYearAlongTheTrend() {
+        ThresholdHistory history = ThresholdHistory.build(List.of(
+                entry(1L, 2022, "12.00", 1200), entry(1L, 2023, "12.50", 1100),
+                entry(1L, 2024, "13.00", 1000), entry(1L, 2025, "13.50", 900),
+                entry(2L, 2025, "19.80", null),
+                entry(3L, 2016, "10.00", null), entry(3L, 2024, "14.00", null), entry(3L, 2025, "19.90", null)));
+
+        ThresholdHistory.Projection steady = history.projection(1L);
+        assertThat(steady.anneeAcademique()).isEqualTo("2026-2027");
+        assertThat(steady.seuilCalcul()).isEqualByComparingTo("14.00");
+        assertThat(steady.seuilSlope()).isEqualByComparingTo("0.50");
+        assertThat(steady.classementCnc()).isEqualTo(800);
+        assertThat(steady.years()).isEqualTo(4);
+
+        ThresholdHistory.Projection single = history.projection(2L);
+        assertThat(single.seuilCalcul()).isEqualByComparingTo("19.80");
+        assertThat(single.seuilSlope()).isEqualByComparingTo("0");
+        assertThat(single.classementCnc()).isNull();
+
+        // 2016 is outside the trend window; the steep rise after it is capped at 20.
+        ThresholdHistory.Projection capped = history.projection(3L);
+        assertThat(capped.years()).isEqualTo(2);
+        assertThat(capped.seuilCalcul()).isEqualByComparingTo("20");
+    }
+
+    private static Entry entry(Long filiereId, int year, String seuil, Integer rank) {
+        return new Entry(filiereId, year + "-" + (year + 1), year, 1, "Bacheliers", null, new BigDecimal(seuil),
+                null, null, rank, Instant.EPOCH);
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.orientlamp_back.service.allocation;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One national allocation run at the size the admin job targets: up to 500k students with one
+ * to ten ranked wishes each over 10k filieres, popular filieres drawing most wishes and seats
+ * covering about 60% of the cohort. See the Readme for how to run the benchmarks.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class DeferredAcceptanceBenchmark {
+
+    static final int FILIERES = 10_000;
+
+    @Param({"50000", "500000"})
+    int students;
+
+    private DeferredAcceptance.Wishes wishes;
+    private int[] capacity;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(23);
+        capacity = new int[FILIERES];
+        long seats = 0;
+        for (int f = 0; f < FILIERES; f++) {
+            capacity[f] = 1 + random.nextInt(Math.max(1, (int) (students * 1.2 / FILIERES)));
+            seats += capacity[f];
+        }
+        double[] bonus = new double[FILIERES];
+        for (int f = 0; f < FILIERES; f++) {
+            bonus[f] = random.nextInt(3);
+        }
+
+        wishes = new DeferredAcceptance.Wishes();
+        int[] ranked = new int[10];
+        for (int s = 0; s < students; s++) {
+            double merit = Math.round(random.nextDouble() * 2000) / 100.0;
+            int count = 1 + random.nextInt(ranked.length);
+            for (int w = 0; w < count; w++) {
+                // Squaring skews the draw towards the low, popular filiere indexes.
+                double r = random.nextDouble();
+                ranked[w] = (int) (FILIERES * r * r);
+                for (int previous = 0; previous < w; previous++) {
+                    if (ranked[previous] == ranked[w]) {
+                        w--;
+                        break;
+                    }
+                }
+            }
+            for (int w = 0; w < count; w++) {
+                wishes.add(ranked[w], merit + bonus[ranked[w]]);
+            }
+            wishes.endStudent();
+        }
+        if (seats > students) {
+            throw new IllegalStateException("seats should not cover the whole cohort: " + seats);
+        }
+    }
+
+    @Benchmark
+    public DeferredAcceptance.Result run() {
+        return wishes.run(capacity);
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.orientlamp_back.service.allocation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DeferredAcceptanceTest {
+
+    @Test
+    void bumpsTheWeakestHolderAndReportsCutoffs() {
+        // Filiere 0 has one seat, filiere 1 two, filiere 2 none, filiere 3 no limit.
+        DeferredAcceptance.Wishes wishes = new DeferredAcceptance.Wishes();
+        student(wishes, new int[]{0, 1}, new double[]{12, 12});       // 0: bumped from 0 by student 1
+        student(wishes, new int[]{0}, new double[]{15});               // 1
+        student(wishes, new int[]{2, 1}, new double[]{18, 11});        // 2: filiere 2 has no seats
+        student(wishes, new int[]{1}, new double[]{10});               // 3: bumped from 1 by student 0
+        student(wishes, new int[]{0, 3}, new double[]{15, 9});         // 4: loses the tie to student 1
+
+        DeferredAcceptance.Result result = wishes.run(new int[]{1, 2, 0, -1});
+
+        assertThat(result.assigned()).containsExactly(1, 0, 1, -1, 3);
+        assertThat(result.admitted()).containsExactly(1, 2, 0, 1);
+        assertThat(result.applicants()).containsExactly(3, 3, 1, 1);
+        assertThat(result.cutoff(0)).isEqualTo(15);
+        assertThat(result.cutoff(1)).isEqualTo(11);
+        assertThat(result.cutoff(2)).isNaN();
+        assertThat(result.cutoff(3)).isEqualTo(9);
+        assertThat(result.assignedCount()).isEqualTo(4);
+    }
+
+    @Test
+    void randomAllocationsAreStableAndWithinCapacity() {
+        Random random = new Random(23);
+        int students = 5_000;
+        int filieres = 200;
+        int[] capacity = new int[filieres];
+        for (int f = 0; f < filieres; f++) {
+            capacity[f] = f % 17 == 0 ? -1 : random.nextInt(30);
+        }
+        // A filiere ranks everyone by the same merit, plus a per-filiere bonus.
+        double[] merit = new double[students];
+        double[] bonus = new double[filieres];
+        for (int s = 0; s < students; s++) {
+            merit[s] = Math.round(random.nextDouble() * 2000) / 100.0;
+        }
+        for (int f = 0; f < filieres; f++) {
+            bonus[f] = random.nextInt(3);
+        }
+
+        DeferredAcceptance.Wishes wishes = new DeferredAcceptance.Wishes();
+        int[][] ranked = new int[students][];
+        for (int s = 0; s < students; s++) {
+            ranked[s] = random.ints(0, filieres).distinct().limit(1 + random.nextInt(8)).toArray();
+            for (int f : ranked[s]) {
+                wishes.add(f, merit[s] + bonus[f]);
+            }
+            wishes.endStudent();
+        }
+        DeferredAcceptance.Result result = wishes.run(capacity);
+
+        int[] admitted = new int[filieres];
+        for (int s = 0; s < students; s++) {
+            if (result.assigned()[s] >= 0) {
+                admitted[result.assigned()[s]]++;
+            }
+        }
+        assertThat(admitted).containsExactly(result.admitted());
+        for (int f = 0; f < filieres; f++) {
+            if (capacity[f] >= 0) {
+                assertThat(admitted[f]).isLessThanOrEqualTo(capacity[f]);
+            }
+        }
+
+        // No blocking pair: no student prefers a filiere that is not full or admitted someone weaker.
+        for (int s = 0; s < students; s++) {
+            for (int f : ranked[s]) {
+                if (f == result.assigned()[s]) {
+                    break;
+                }
+                double score = merit[s] + bonus[f];
+                boolean hasRoom = capacity[f] < 0 || admitted[f] < capacity[f];
+                assertThat(hasRoom).isFalse();
+                if (capacity[f] > 0) {
+                    assertThat(score).isLessThanOrEqualTo(result.cutoff(f));
+                }
+            }
+        }
+    }
+
+    private static void student(DeferredAcceptance.Wishes wishes, int[] filieres, double[] scores) {
+        for (int i = 0; i < filieres.length; i++) {
+            wishes.add(filieres[i], scores[i]);
+        }
+        wishes.endStudent();
+    }
+}
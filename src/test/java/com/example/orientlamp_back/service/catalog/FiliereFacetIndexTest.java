@@ -0,0 +1,179 @@
+package com.example.orientlamp_back.service.catalog;
+
+import com.example.orientlamp_back.entity.Filiere;
+import com.example.orientlamp_back.entity.University;
+import com.example.orientlamp_back.event.CatalogChangedEvent;
+import com.example.orientlamp_back.service.catalog.FiliereFacetIndex.Facet;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FiliereFacetIndexTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 6, 1);
+
+    @Test
+    void filtersOrInsideAFacetAndAndAcrossFacets() {
+        FiliereFacetIndex index = FiliereFacetIndex.build(Catalog.build(1, catalog()));
+
+        assertThat(ids(index, Map.of(Facet.ADMISSION_TYPE, Set.of("CNC", "Concours"))))
+                .containsExactly(10L, 11L, 20L, 21L);
+        assertThat(ids(index, Map.of(Facet.ADMISSION_TYPE, Set.of("CNC"), Facet.LANGUAGE, Set.of("Français"))))
+                .containsExactly(10L);
+        assertThat(ids(index, Map.of(Facet.LOCATION, Set.of("Rabat"), Facet.HAS_SEATS, Set.of("false"))))
+                .containsExactly(12L);
+        assertThat(ids(index, Map.of(Facet.ADMISSION_TYPE, Set.of("Sur dossier")))).isEmpty();
+        assertThat(ids(index, Map.of())).hasSize(5);
+    }
+
+    @Test
+    void countsIgnoreTheSelectionOnTheirOwnFacet() {
+        FiliereFacetIndex index = FiliereFacetIndex.build(Catalog.build(1, catalog()));
+
+        Map<Facet, Map<String, Integer>> counts = index.query(Map.of(Facet.ADMISSION_TYPE, Set.of("CNC")), TODAY).counts();
+
+        assertThat(counts.get(Facet.ADMISSION_TYPE)).containsOnly(
+                Map.entry("CNC", 2), Map.entry("Concours", 2), Map.entry("Bac", 1));
+        assertThat(counts.get(Facet.LANGUAGE)).containsOnly(Map.entry("Français", 1), Map.entry("Anglais", 1));
+        assertThat(counts.get(Facet.LOCATION)).containsOnly(Map.entry("Rabat", 2), Map.entry("Fès", 0));
+        assertThat(counts.get(Facet.TUITION_BAND)).containsOnly(
+                Map.entry("FREE", 2), Map.entry("FROM_20K_TO_50K", 0), Map.entry("OVER_100K", 0));
+    }
+
+    @Test
+    void openFollowsTheDeadlineOfTheDayAsked() {
+        FiliereFacetIndex index = FiliereFacetIndex.build(Catalog.build(1, catalog()));
+
+        assertThat(ids(index, Map.of(Facet.OPEN, Set.of("true")))).containsExactly(10L, 20L);
+        assertThat(index.query(Map.of(), TODAY).counts().get(Facet.OPEN))
+                .containsExactly(Map.entry("true", 2), Map.entry("false", 3));
+        assertThat(index.query(Map.of(Facet.OPEN, Set.of("true")), LocalDate.of(2026, 6, 16)).matches().cardinality())
+                .isEqualTo(1);
+        assertThat(index.query(Map.of(Facet.OPEN, Set.of("true", "false")), TODAY).matches().cardinality())
+                .isEqualTo(5);
+    }
+
+    @Test
+    void incrementalRefileMatchesAFullRebuild() {
+        List<University> universities = catalog();
+        FiliereFacetIndex index = FiliereFacetIndex.build(Catalog.build(1, universities));
+
+        Filiere informatique = universities.get(0).getFilieres().get(0);
+        informatique.setLanguage("Arabe");
+        informatique.setTuitionFee(new BigDecimal("30000"));
+        Catalog second = Catalog.build(2, universities);
+        FiliereFacetIndex updated = index.update(second, new CatalogChangedEvent(CatalogChangedEvent.Type.FILIERE, 10L));
+        assertSameAnswers(updated, FiliereFacetIndex.build(second));
+        assertThat(ids(updated, Map.of(Facet.LANGUAGE, Set.of("Arabe")))).containsExactly(10L);
+        // The previous index keeps answering for its own catalog
+        assertThat(ids(index, Map.of(Facet.LANGUAGE, Set.of("Arabe")))).isEmpty();
+        assertThat(ids(index, Map.of(Facet.LANGUAGE, Set.of("Français")))).containsExactly(10L, 12L, 20L);
+
+        universities.get(1).addFiliere(Filiere.builder().id(22L).name("Master Data Science").admissionType("Master")
+                .language("Anglais").durationYears(2).seatsAvailabial(30).build());
+        Catalog third = Catalog.build(3, universities);
+        updated = updated.update(third, new CatalogChangedEvent(CatalogChangedEvent.Type.FILIERE, 22L));
+        assertThat(updated.size()).isEqualTo(6);
+        assertSameAnswers(updated, FiliereFacetIndex.build(third));
+
+        universities.get(1).setLocation("Meknès");
+        universities.get(1).setType("Privé");
+        Catalog fourth = Catalog.build(4, universities);
+        updated = updated.update(fourth, new CatalogChangedEvent(CatalogChangedEvent.Type.UNIVERSITY, 2L));
+        assertSameAnswers(updated, FiliereFacetIndex.build(fourth));
+        assertThat(ids(updated, Map.of(Facet.LOCATION, Set.of("Fès")))).isEmpty();
+        assertThat(ids(updated, Map.of(Facet.LOCATION, Set.of("Meknès")))).containsExactly(20L, 21L, 22L);
+
+        universities.get(0).getFilieres().remove(2);
+        Catalog fifth = Catalog.build(5, universities);
+        updated = updated.update(fifth, new CatalogChangedEvent(CatalogChangedEvent.Type.FILIERE, 12L));
+        assertThat(updated.size()).isEqualTo(5);
+        assertSameAnswers(updated, FiliereFacetIndex.build(fifth));
+    }
+
+    @Test
+    void refileAgreesWithARebuildOnALargeCatalog() {
+        List<University> universities = SyntheticCatalog.universities(30, 20, 10);
+        FiliereFacetIndex index = FiliereFacetIndex.build(Catalog.build(1, universities));
+
+        long version = 1;
+        for (int i = 0; i < 25; i++) {
+            Filiere filiere = universities.get(i).getFilieres().get(i % 20);
+            filiere.setAdmissionType(i % 2 == 0 ? "Concours" : "Sur dossier");
+            filiere.setSeatsAvailabial(i % 3 == 0 ? 0 : 50);
+            filiere.setTuitionFee(i % 4 == 0 ? null : BigDecimal.valueOf(15_000L * i));
+            Catalog next = Catalog.build(++version, universities);
+            index = index.update(next, new CatalogChangedEvent(CatalogChangedEvent.Type.FILIERE, filiere.getId()));
+        }
+        assertSameAnswers(index, FiliereFacetIndex.build(index.catalog()));
+    }
+
+    private static void assertSameAnswers(FiliereFacetIndex updated, FiliereFacetIndex rebuilt) {
+        assertThat(updated.version()).isEqualTo(rebuilt.version());
+        List<Map<Facet, Set<String>>> selections = List.of(
+                Map.of(),
+                Map.of(Facet.ADMISSION_TYPE, Set.of("CNC", "Concours", "Master")),
+                Map.of(Facet.LANGUAGE, Set.of("Anglais"), Facet.HAS_SEATS, Set.of("true")),
+                Map.of(Facet.LOCATION, Set.of("Rabat", "Meknès"), Facet.TUITION_BAND, Set.of("FREE", "FROM_20K_TO_50K")),
+                Map.of(Facet.UNIVERSITY_TYPE, Set.of("Public"), Facet.DURATION_YEARS, Set.of("2", "3")),
+                Map.of(Facet.OPEN, Set.of("true"), Facet.ADMISSION_TYPE, Set.of("Sur dossier")));
+        for (Map<Facet, Set<String>> selected : selections) {
+            FiliereFacetIndex.Result expected = rebuilt.query(selected, TODAY);
+            FiliereFacetIndex.Result actual = updated.query(selected, TODAY);
+            assertThat(actual.matches()).as("%s", selected).isEqualTo(expected.matches());
+            // A refile keeps values nobody carries any more, counted at zero
+            assertThat(nonZero(actual.counts())).as("%s", selected).isEqualTo(nonZero(expected.counts()));
+        }
+    }
+
+    private static Map<Facet, Map<String, Integer>> nonZero(Map<Facet, Map<String, Integer>> counts) {
+        Map<Facet, Map<String, Integer>> nonZero = new EnumMap<>(Facet.class);
+        counts.forEach((facet, values) -> {
+            Map<String, Integer> kept = new LinkedHashMap<>(values);
+            kept.values().removeIf(count -> count == 0);
+            nonZero.put(facet, kept);
+        });
+        return nonZero;
+    }
+
+    private static List<Long> ids(FiliereFacetIndex index, Map<Facet, Set<String>> selected) {
+        List<Long> ids = new ArrayList<>();
+        IntStream.range(0, index.size())
+                .filter(index.query(selected, TODAY).matches()::get)
+                .forEach(i -> ids.add(index.catalog().filiere(i).id()));
+        return ids;
+    }
+
+    private static List<University> catalog() {
+        University emi = University.builder().id(1L).name("École Mohammadia d'Ingénieurs (EMI)").slug("emi")
+                .location("Rabat").type("Public").build();
+        emi.addFiliere(Filiere.builder().id(10L).name("Génie Informatique").admissionType("CNC").language("Français")
+                .durationYears(3).tuitionFee(BigDecimal.ZERO).seatsAvailabial(90)
+                .applicationDeadline(LocalDate.of(2026, 6, 15)).build());
+        emi.addFiliere(Filiere.builder().id(11L).name("Génie Civil").admissionType("CNC").language("Anglais")
+                .durationYears(3).tuitionFee(BigDecimal.ZERO).seatsAvailabial(80)
+                .applicationDeadline(LocalDate.of(2026, 5, 31)).build());
+        emi.addFiliere(Filiere.builder().id(12L).name("Cycle Préparatoire Intégré").admissionType("Bac")
+                .language("Français").durationYears(2).tuitionFee(new BigDecimal("120000")).seatsAvailabial(0)
+                .build());
+
+        University ensa = University.builder().id(2L).name("École Nationale des Sciences Appliquées de Fès").slug("ensa-fes")
+                .location("Fès").type("Public").build();
+        ensa.addFiliere(Filiere.builder().id(20L).name("Génie Industriel").admissionType("Concours").language("Français")
+                .durationYears(3).tuitionFee(new BigDecimal("20000")).seatsAvailabial(40)
+                .applicationDeadline(LocalDate.of(2026, 7, 1)).build());
+        ensa.addFiliere(Filiere.builder().id(21L).name("Génie Mécanique").admissionType("Concours").language("Anglais")
+                .durationYears(3).seatsAvailabial(35).applicationDeadline(LocalDate.of(2026, 1, 10)).build());
+        return new ArrayList<>(List.of(emi, ensa));
+    }
+}
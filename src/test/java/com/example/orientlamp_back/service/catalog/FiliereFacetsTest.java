@@ -0,0 +1,62 @@
+package com.example.orientlamp_back.service.catalog;
+
+import com.example.orientlamp_back.dto.FiliereFacetQuery;
+import com.example.orientlamp_back.entity.Filiere;
+import com.example.orientlamp_back.entity.University;
+import com.example.orientlamp_back.event.CatalogChangedEvent;
+import com.example.orientlamp_back.event.CatalogRefreshedEvent;
+import com.example.orientlamp_back.service.catalog.FiliereFacetIndex.Facet;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class FiliereFacetsTest {
+
+    @Test
+    void buildsFromTheSnapshotOnceThenFollowsRefreshes() {
+        List<University> universities = SyntheticCatalog.universities(5, 4, 7);
+        CatalogSnapshot catalogSnapshot = mock(CatalogSnapshot.class);
+        when(catalogSnapshot.current()).thenReturn(Catalog.build(1, universities));
+        FiliereFacets facets = new FiliereFacets(catalogSnapshot, new SimpleMeterRegistry());
+
+        FiliereFacetIndex first = facets.current();
+        assertThat(first.version()).isEqualTo(1);
+        assertThat(facets.current()).isSameAs(first);
+        verify(catalogSnapshot).current();
+
+        Filiere filiere = universities.get(2).getFilieres().get(1);
+        filiere.setLanguage("Espagnol");
+        Catalog next = Catalog.build(2, universities);
+        facets.onCatalogRefreshed(new CatalogRefreshedEvent(next,
+                new CatalogChangedEvent(CatalogChangedEvent.Type.FILIERE, filiere.getId())));
+
+        FiliereFacetIndex updated = facets.current();
+        assertThat(updated.version()).isEqualTo(2);
+        assertThat(updated.query(Map.of(Facet.LANGUAGE, Set.of("Espagnol")), LocalDate.now()).matches().stream()
+                .mapToObj(i -> updated.catalog().filiere(i).id())).containsExactly(filiere.getId());
+    }
+
+    @Test
+    void selectionKeepsOnlyTheFiltersThatWereGiven() {
+        FiliereFacetQuery query = FiliereFacetQuery.builder()
+                .admissionType(List.of("CNC", "Concours"))
+                .language(List.of())
+                .durationYears(List.of(3, 5))
+                .hasSeats(true)
+                .build();
+
+        assertThat(FiliereFacets.selection(query)).containsOnly(
+                Map.entry(Facet.ADMISSION_TYPE, Set.of("CNC", "Concours")),
+                Map.entry(Facet.DURATION_YEARS, Set.of("3", "5")),
+                Map.entry(Facet.HAS_SEATS, Set.of("true")));
+    }
+}
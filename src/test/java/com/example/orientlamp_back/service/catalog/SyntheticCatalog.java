@@ -0,0 +1,96 @@
+package com.example.orientlamp_back.service.catalog;
+
+import com.example.orientlamp_back.entity.Critere;
+import com.example.orientlamp_back.entity.Filiere;
+import com.example.orientlamp_back.entity.University;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * A generated catalog far larger than the seed, for the benchmarks: universities spread around
+ * real Moroccan cities, filieres with a critere of every candidate type, tuition, languages and
+ * thresholds drawn from a fixed seed so that runs compare.
+ */
+public final class SyntheticCatalog {
+
+    static final String[] CITIES = {
+            "Rabat", "Casablanca", "Fès", "Marrakech", "Meknès", "Tanger", "Agadir", "Oujda", "Kénitra",
+            "Tétouan", "El Jadida", "Beni Mellal", "Safi", "Settat", "Khouribga", "Nador", "Errachidia",
+            "Ouarzazate", "Laâyoune", "Essaouira", "Taza", "Ifrane", "Dakhla", "Larache"};
+    static final String[] SCHOOLS = {
+            "École Nationale des Sciences Appliquées", "École Nationale de Commerce et de Gestion",
+            "Faculté des Sciences", "Faculté de Médecine", "École Supérieure de Technologie",
+            "Institut Supérieur de Génie", "Université Privée", "École Nationale d'Architecture"};
+    static final String[] ACRONYMS = {"ENSA", "ENCG", "FS", "FMP", "EST", "ISG", "UP", "ENA"};
+    static final String[] DEGREES = {"Génie", "Licence", "Master", "Cycle Ingénieur", "Diplôme"};
+    static final String[] SUBJECTS = {
+            "Informatique", "Civil", "Industriel", "Mécanique", "Électrique", "Finance", "Management",
+            "Médecine", "Architecture", "Data Science", "Réseaux et Télécoms", "Énergies Renouvelables",
+            "Logistique", "Marketing", "Droit des Affaires", "Biologie", "Intelligence Artificielle",
+            "Cybersécurité", "Agronomie", "Chimie"};
+    static final String[] TYPES = {
+            "Bacheliers", "Bacheliers", "Bacheliers", "Bacheliers", "Bacheliers", "Bacheliers", "Bacheliers",
+            "Lauréats CPGE", "Lauréats CPGE", "Titulaires d'un Bac+2"};
+    static final String[] SERIES = {
+            "Sciences Mathématiques", "Sciences Physiques", "Sciences de la Vie et de la Terre",
+            "Sciences Économiques", "Sciences Mathématiques / Sciences Physiques", "Toutes séries"};
+    static final String[] LANGUAGES = {"Français", "Français", "Anglais", "Français / Anglais", "Arabe"};
+
+    private SyntheticCatalog() {
+    }
+
+    /** {@code universities × filieresPerUniversity} filieres; ids count up from 1. */
+    public static List<University> universities(int universities, int filieresPerUniversity, long seed) {
+        Random random = new Random(seed);
+        List<University> result = new ArrayList<>(universities);
+        long filiereId = 1;
+        for (int u = 0; u < universities; u++) {
+            int school = random.nextInt(SCHOOLS.length);
+            int city = random.nextInt(CITIES.length);
+            University university = University.builder()
+                    .id(u + 1L)
+                    .name(SCHOOLS[school] + " de " + CITIES[city] + " " + (u + 1) + " (" + ACRONYMS[school] + ")")
+                    .slug(ACRONYMS[school].toLowerCase() + "-" + (u + 1))
+                    .location(CITIES[city])
+                    .type(school == 6 ? "Privée" : "Publique")
+                    .build();
+            for (int f = 0; f < filieresPerUniversity; f++) {
+                university.addFiliere(filiere(filiereId++, random));
+            }
+            result.add(university);
+        }
+        return result;
+    }
+
+    public static Catalog catalog(int universities, int filieresPerUniversity, long seed) {
+        return Catalog.build(1, universities(universities, filieresPerUniversity, seed));
+    }
+
+    private static Filiere filiere(long id, Random random) {
+        String subject = SUBJECTS[random.nextInt(SUBJECTS.length)];
+        Filiere filiere = Filiere.builder()
+                .id(id)
+                .name(DEGREES[random.nextInt(DEGREES.length)] + " " + subject)
+                .tuitionFee(random.nextBoolean() ? BigDecimal.ZERO : BigDecimal.valueOf(10_000 + random.nextInt(110) * 1_000L))
+                .language(LANGUAGES[random.nextInt(LANGUAGES.length)])
+                .seatsAvailabial(20 + random.nextInt(180))
+                .durationYears(2 + random.nextInt(4))
+                .applicationDeadline(LocalDate.of(2026, 6, 1).plusDays(random.nextInt(60)))
+                .build();
+        Critere critere = Critere.builder()
+                .filiereId(id)
+                .filiere(filiere)
+                .anneeAcademique("2025-2026")
+                .typeCandidat(TYPES[random.nextInt(TYPES.length)])
+                .serieBacCible(SERIES[random.nextInt(SERIES.length)])
+                .seuilCalcul(BigDecimal.valueOf(1000 + random.nextInt(800), 2))
+                .ageMax(random.nextInt(4) == 0 ? null : 20 + random.nextInt(6))
+                .build();
+        filiere.setCritere(critere);
+        return filiere;
+    }
+}
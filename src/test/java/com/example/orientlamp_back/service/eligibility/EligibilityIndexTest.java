@@ -0,0 +1,219 @@
+package com.example.orientlamp_back.service.eligibility;
+
+import com.example.orientlamp_back.entity.Critere;
+import com.example.orientlamp_back.entity.Filiere;
+import com.example.orientlamp_back.entity.University;
+import com.example.orientlamp_back.service.catalog.Catalog;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class EligibilityIndexTest {
+
+    private final Catalog catalog = Catalog.build(1, catalog());
+    private final EligibilityIndex index = EligibilityIndex.build(catalog);
+
+    @Test
+    void bachelierPassesOnSeriesGradeAndAge() {
+        CandidateProfile profile = new CandidateProfile(1L, CandidateType.BACHELIER, "Sciences Mathématiques A",
+                new BigDecimal("14.60"), 19);
+
+        assertThat(names(index.eligible(profile)))
+                .containsExactlyInAnyOrder("Génie Civil", "Architecture", "Licence Économie");
+
+        CandidateProfile tooOld = new CandidateProfile(1L, CandidateType.BACHELIER, "SM", new BigDecimal("17"), 23);
+        assertThat(names(index.eligible(tooOld))).containsExactly("Licence Économie");
+
+        CandidateProfile lettres = new CandidateProfile(1L, CandidateType.BACHELIER, "Lettres", new BigDecimal("14"), 18);
+        assertThat(names(index.eligible(lettres))).containsExactlyInAnyOrder("Architecture", "Licence Économie");
+    }
+
+    @Test
+    void findsTheThresholdThatOpensTheNextFiliere() {
+        CandidateProfile profile = new CandidateProfile(1L, CandidateType.BACHELIER, "SM", new BigDecimal("14.60"), 19);
+        assertThat(index.nextThreshold(profile)).isEqualByComparingTo("15.00");
+
+        CandidateProfile withoutGrade = new CandidateProfile(1L, CandidateType.BACHELIER, "SM", null, 19);
+        assertThat(index.nextThreshold(withoutGrade)).isEqualByComparingTo("13.50");
+
+        CandidateProfile top = new CandidateProfile(1L, CandidateType.BACHELIER, "SM", new BigDecimal("15.50"), 19);
+        assertThat(index.nextThreshold(top)).isNull();
+        assertThat(names(index.eligible(top))).contains("Génie Informatique");
+    }
+
+    @Test
+    void prepaStudentIsRankedOnScorePrepa() {
+        CandidateProfile profile = new CandidateProfile(2L, CandidateType.CPGE, "Sciences Mathématiques B",
+                new BigDecimal("16.00"), 21);
+
+        assertThat(names(index.eligible(profile))).containsExactlyInAnyOrder("Génie des Procédés", "Licence Économie");
+        assertThat(index.explain(filiere("Génie Informatique CNC"), profile).reasons())
+                .filteredOn(r -> !r.passed())
+                .extracting(EligibilityIndex.Reason::check)
+                .containsExactly(EligibilityIndex.Check.THRESHOLD);
+    }
+
+    @Test
+    void explainsEveryFailedCheck() {
+        CandidateProfile profile = new CandidateProfile(3L, CandidateType.BACHELIER, null, null, null);
+
+        EligibilityIndex.Verdict verdict = index.explain(filiere("Génie Civil"), profile);
+        assertThat(verdict.eligible()).isFalse();
+        assertThat(verdict.reasons())
+                .extracting(EligibilityIndex.Reason::check, EligibilityIndex.Reason::passed)
+                .containsExactly(
+                        tuple(EligibilityIndex.Check.CANDIDATE_TYPE, true),
+                        tuple(EligibilityIndex.Check.BAC_SERIES, false),
+                        tuple(EligibilityIndex.Check.THRESHOLD, false),
+                        tuple(EligibilityIndex.Check.AGE, false),
+                        tuple(EligibilityIndex.Check.WRITTEN_EXAM, true));
+        assertThat(index.explain(filiere("Sans Critère"), profile)).isNull();
+    }
+
+    @Test
+    void groupedLookupAgreesWithCheckingEveryRule() {
+        List<CandidateProfile> profiles = new ArrayList<>();
+        for (CandidateType type : CandidateType.values()) {
+            for (String major : new String[]{null, "Sciences Mathématiques", "svt", "Lettres", "Sciences Économiques"}) {
+                for (String grade : new String[]{null, "10", "13.50", "14.00", "15.5", "18"}) {
+                    for (Integer age : new Integer[]{null, 18, 22, 30}) {
+                        BigDecimal score = grade == null ? null : new BigDecimal(grade);
+                        profiles.add(new CandidateProfile(1L, type, major, score, age));
+                        for (String diploma : new String[]{null, "DUT", "BTS", "Licence"}) {
+                            profiles.add(new CandidateProfile(1L, type, major, score, age,
+                                    Transcript.of(score, new BigDecimal("10.5"), score, null, diploma)));
+                        }
+                    }
+                }
+            }
+        }
+        for (CandidateProfile profile : profiles) {
+            BitSet expected = new BitSet();
+            for (int f = 0; f < catalog.filiereCount(); f++) {
+                EligibilityIndex.Verdict verdict = index.explain(f, profile);
+                if (verdict != null && verdict.eligible()) {
+                    expected.set(f);
+                }
+                assertThat(index.isEligible(f, profile)).isEqualTo(verdict != null && verdict.eligible());
+            }
+            assertThat(index.eligible(profile)).as(profile.toString()).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void bac2StudentIsMatchedOnTranscriptAndDiploma() {
+        Transcript dut = Transcript.of(new BigDecimal("12.50"), new BigDecimal("11.00"),
+                new BigDecimal("13.00"), new BigDecimal("12.00"), "DUT Génie Informatique");
+        CandidateProfile profile = new CandidateProfile(4L, CandidateType.DIPLOME, "SM", dut.average(), 21, dut);
+
+        assertThat(names(index.eligible(profile)))
+                .containsExactlyInAnyOrder("Master Data", "Licence Pro Réseaux", "Licence Économie");
+
+        Transcript weakS2 = Transcript.of(new BigDecimal("12.50"), new BigDecimal("9.50"),
+                new BigDecimal("13.00"), new BigDecimal("12.00"), "DUT");
+        CandidateProfile failed = new CandidateProfile(4L, CandidateType.DIPLOME, "SM", weakS2.average(), 21, weakS2);
+        assertThat(names(index.eligible(failed))).doesNotContain("Licence Pro Réseaux");
+        assertThat(index.explain(filiere("Licence Pro Réseaux"), failed).reasons())
+                .filteredOn(r -> !r.passed())
+                .extracting(EligibilityIndex.Reason::check)
+                .containsExactly(EligibilityIndex.Check.TRANSCRIPT);
+
+        Transcript licence = Transcript.of(dut.s1(), dut.s2(), dut.s3(), dut.s4(), "Licence fondamentale");
+        CandidateProfile wrongDiploma = new CandidateProfile(4L, CandidateType.DIPLOME, "SM", licence.average(), 21, licence);
+        assertThat(index.explain(filiere("Licence Pro Réseaux"), wrongDiploma).reasons())
+                .filteredOn(r -> !r.passed())
+                .extracting(EligibilityIndex.Reason::check)
+                .containsExactly(EligibilityIndex.Check.DIPLOMA);
+    }
+
+    @Test
+    void parsesTranscriptRequirements() {
+        TranscriptRequirement requirement = TranscriptRequirement.parse(
+                "S1 à S2 >= 12; S4 : 11,5\nMoyenne S1-S4 >= 12.5; 3 semestres validés", "DUT, BTS ou équivalent");
+        assertThat(requirement.minSemester()).containsExactly(
+                new BigDecimal("12"), new BigDecimal("12"), null, new BigDecimal("11.5"));
+        assertThat(requirement.minAverage()).isEqualByComparingTo("12.5");
+        assertThat(requirement.validatedSemesters()).isEqualTo(3);
+        assertThat(requirement.diplomas()).containsExactlyInAnyOrder(DiplomaType.DUT, DiplomaType.BTS);
+        assertThat(requirement.acceptsDiploma(DiplomaType.DEUG)).isTrue();
+        assertThat(requirement.acceptsDiploma(null)).isFalse();
+
+        assertThat(TranscriptRequirement.parse("12/20 minimum par semestre", "Bac+4 minimum").minSemester())
+                .containsOnly(new BigDecimal("12"));
+        assertThat(TranscriptRequirement.parse(null, "Licence Professionnelle").diplomas())
+                .containsExactly(DiplomaType.LICENCE_PROFESSIONNELLE);
+        assertThat(TranscriptRequirement.parse(null, "Baccalauréat marocain sciences")).isNull();
+    }
+
+    @Test
+    void parsesSeriesLists() {
+        assertThat(EligibilityIndex.parseSeries("Sciences Mathématiques / Lettres"))
+                .containsExactlyInAnyOrder("sciences mathematiques", "lettres");
+        assertThat(EligibilityIndex.parseSeries("Toutes séries")).isEmpty();
+        assertThat(EligibilityIndex.matchesSeries("sciences mathematiques",
+                EligibilityIndex.normalizeSeries("Sciences Mathématiques A"))).isTrue();
+        assertThat(EligibilityIndex.matchesSeries("sciences mathematiques",
+                EligibilityIndex.normalizeSeries("Sciences"))).isFalse();
+    }
+
+    private List<String> names(BitSet filieres) {
+        return filieres.stream().mapToObj(f -> catalog.filiere(f).name()).toList();
+    }
+
+    private int filiere(String name) {
+        for (int f = 0; f < catalog.filiereCount(); f++) {
+            if (catalog.filiere(f).name().equals(name)) {
+                return f;
+            }
+        }
+        throw new IllegalArgumentException(name);
+    }
+
+    private static List<University> catalog() {
+        University ensa = University.builder().id(1L).name("ENSA").build();
+        add(ensa, 10L, "Génie Informatique", critere("Bacheliers", "Sciences Mathématiques", "15.00", 22, null));
+        add(ensa, 11L, "Génie Civil", critere("Bacheliers", "Sciences Mathématiques", "14.00", 22, null));
+        add(ensa, 12L, "Architecture", critere("Bacheliers", "Sciences Mathématiques / Lettres", "13.50", 22, null));
+        add(ensa, 13L, "Sans Critère", null);
+
+        University emi = University.builder().id(2L).name("EMI").build();
+        add(emi, 20L, "Génie Informatique CNC", critere("Lauréat CPGE", "Sciences Mathématiques", "15.00", 28, "17.5"));
+        add(emi, 21L, "Génie des Procédés", critere("Lauréat CPGE", "Sciences Mathématiques", "13.00", 28, "14.5"));
+        add(emi, 22L, "Master Data", critere("Titulaires d'un diplôme supérieur", null, "12.00", null, null));
+        Critere licencePro = critere("Titulaires d'un DUT ou BTS", null, null, null, null);
+        licencePro.setDiplomesRequis("DUT, BTS ou DEUG");
+        licencePro.setNotesSemestres("S1-S4 validés; moyenne générale >= 12");
+        add(emi, 23L, "Licence Pro Réseaux", licencePro);
+
+        University fsjes = University.builder().id(3L).name("FSJES").build();
+        add(fsjes, 30L, "Licence Économie", critere("Accès ouvert", "Toutes séries", null, null, null));
+        return List.of(ensa, emi, fsjes);
+    }
+
+    private static void add(University university, Long id, String name, Critere critere) {
+        Filiere filiere = Filiere.builder().id(id).name(name).build();
+        if (critere != null) {
+            critere.setFiliereId(id);
+            critere.setFiliere(filiere);
+            filiere.setCritere(critere);
+        }
+        university.addFiliere(filiere);
+    }
+
+    private static Critere critere(String type, String series, String seuil, Integer ageMax, String scorePrepa) {
+        return Critere.builder()
+                .typeCandidat(type)
+                .serieBacCible(series)
+                .seuilCalcul(seuil == null ? null : new BigDecimal(seuil))
+                .noteConcoursEcrit(type.equals("Bacheliers") ? new BigDecimal("12.00") : null)
+                .ageMax(ageMax)
+                .scorePrepa(scorePrepa == null ? null : new BigDecimal(scorePrepa))
+                .build();
+    }
+}
@@ -0,0 +1,338 @@
+package com.example.orientlamp_back.service.eligibility;
+
+import com.example.orientlamp_back.dto.BacStudentRequestDTO;
+import com.example.orientlamp_back.dto.CritereHistoryDTO;
+import com.example.orientlamp_back.dto.CritereRequestDTO;
+import com.example.orientlamp_back.dto.FiliereSummaryDTO;
+import com.example.orientlamp_back.entity.BacStudent;
+import com.example.orientlamp_back.entity.CurrentStudyLevel;
+import com.example.orientlamp_back.entity.Critere;
+import com.example.orientlamp_back.entity.Filiere;
+import com.example.orientlamp_back.entity.University;
+import com.example.orientlamp_back.entity.User;
+import com.example.orientlamp_back.event.CatalogChangedEvent;
+import com.example.orientlamp_back.event.CatalogRefreshedEvent;
+import com.example.orientlamp_back.mapper.BacStudentMapper;
+import com.example.orientlamp_back.mapper.CritereMapper;
+import com.example.orientlamp_back.repository.CandidateProfileRepository;
+import com.example.orientlamp_back.repository.CatalogVersionRepository;
+import com.example.orientlamp_back.repository.CritereHistoryRepository;
+import com.example.orientlamp_back.repository.EligibilityRecomputeRepository;
+import com.example.orientlamp_back.repository.StudentEligibilityRepository;
+import com.example.orientlamp_back.service.BacStudentService;
+import com.example.orientlamp_back.service.CritereService;
+import com.example.orientlamp_back.service.EligibilityService;
+import com.example.orientlamp_back.service.admission.AdmissionFormulas;
+import com.example.orientlamp_back.service.admission.ThresholdTrends;
+import com.example.orientlamp_back.service.catalog.CatalogSnapshot;
+import com.example.orientlamp_back.service.impl.BacStudentServiceImpl;
+import com.example.orientlamp_back.service.impl.CritereServiceImpl;
+import com.example.orientlamp_back.service.impl.EligibilityServiceImpl;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Drives the matrix through the real write paths: a bulk reload, a critere update and a
+ * profile update each end up in {@code student_eligibility} once the worker has drained, and
+ * so does a mark some other instance left behind.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false"
+})
+@Import({
+        CatalogSnapshot.class, CatalogVersionRepository.class, EligibilityRules.class, EligibilityMatrix.class, CandidateProfiles.class,
+        AdmissionFormulas.class,
+        CandidateProfileRepository.class, StudentEligibilityRepository.class, EligibilityRecomputeRepository.class,
+        EligibilityServiceImpl.class,
+        CritereServiceImpl.class, CritereMapper.class, CritereHistoryRepository.class, ThresholdTrends.class,
+        BacStudentServiceImpl.class, BacStudentMapper.class, EligibilityMatrixTest.Metrics.class
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class EligibilityMatrixTest {
+
+    @TestConfiguration
+    static class Metrics {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private CatalogSnapshot catalogSnapshot;
+
+    @Autowired
+    private EligibilityMatrix eligibilityMatrix;
+
+    @Autowired
+    private EligibilityService eligibilityService;
+
+    @Autowired
+    private CritereService critereService;
+
+    @Autowired
+    private BacStudentService bacStudentService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    private final List<Long> filiereIds = new ArrayList<>();
+    private User strong;
+    private User weak;
+
+    @BeforeEach
+    void seed() {
+        // Flyway is off here, so student_eligibility (V12, margin from V13, score from V21) is created by hand.
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS student_eligibility ("
+                + "id_user BIGINT NOT NULL, filiere_id BIGINT NOT NULL, "
+                + "computed_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP NOT NULL, margin NUMERIC(6, 2), "
+                + "score NUMERIC(10, 2), PRIMARY KEY (id_user, filiere_id))");
+        // Likewise critere_history (V17), which critere writes append to.
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS critere_history ("
+                + "id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, filiere_id BIGINT NOT NULL, "
+                + "annee_academique VARCHAR(20) NOT NULL, academic_year INTEGER NOT NULL, revision INTEGER NOT NULL, "
+                + "type_candidat VARCHAR(100) NOT NULL, serie_bac_cible VARCHAR(100), seuil_calcul NUMERIC(5, 2), "
+                + "note_concours_ecrit NUMERIC(5, 2), score_prepa NUMERIC(5, 2), classement_cnc INTEGER, "
+                + "recorded_at TIMESTAMP(6) WITH TIME ZONE NOT NULL)");
+        // And catalog_version (V18), which every catalog write bumps; kept across tests so it only grows.
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS catalog_version (id SMALLINT PRIMARY KEY, version BIGINT NOT NULL)");
+        jdbcTemplate.execute("INSERT INTO catalog_version SELECT 1, 1 WHERE NOT EXISTS (SELECT 1 FROM catalog_version)");
+        // And eligibility_recompute (V19), where writes leave the recomputes they owe.
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS eligibility_recompute ("
+                + "id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, filiere_id BIGINT, id_user BIGINT, "
+                + "created_at TIMESTAMP(6) WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP NOT NULL)");
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            University university = University.builder().name("ENSA Test").slug("ensa-test").build();
+            entityManager.persist(university);
+            for (String seuil : List.of("12", "14", "16")) {
+                Filiere filiere = Filiere.builder().name("Filiere " + seuil).university(university).build();
+                entityManager.persist(filiere);
+                entityManager.persist(Critere.builder()
+                        .filiere(filiere)
+                        .anneeAcademique("2025-2026")
+                        .typeCandidat("Bacheliers")
+                        .serieBacCible("Sciences Mathématiques")
+                        .seuilCalcul(new BigDecimal(seuil))
+                        .ageMax(22)
+                        .build());
+                filiereIds.add(filiere.getId());
+            }
+            strong = student("strong@example.com", "15.00");
+            weak = student("weak@example.com", "11.00");
+        });
+        // Seeded behind the services' back, like DataInitializer, which then announces a bulk reload
+        eventPublisher.publishEvent(CatalogChangedEvent.all());
+        awaitDrained();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.execute("DROP TABLE student_eligibility");
+        jdbcTemplate.execute("DROP TABLE critere_history");
+        jdbcTemplate.execute("DROP TABLE eligibility_recompute");
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            entityManager.createQuery("DELETE FROM BacStudent").executeUpdate();
+            entityManager.createQuery("DELETE FROM User").executeUpdate();
+            entityManager.createQuery("DELETE FROM Critere").executeUpdate();
+            entityManager.createQuery("DELETE FROM Filiere").executeUpdate();
+            entityManager.createQuery("DELETE FROM University").executeUpdate();
+        });
+    }
+
+    @Test
+    void bulkReloadFillsTheMatrix() {
+        assertThat(eligibilityMatrix.filiereIds(strong.getIdUser())).containsExactly(filiereIds.get(0), filiereIds.get(1));
+        assertThat(eligibilityMatrix.filiereIds(weak.getIdUser())).isEmpty();
+        assertThat(eligibilityService.getEligibleFilieres(strong)).extracting(FiliereSummaryDTO::getName)
+                .containsExactly("Filiere 12", "Filiere 14");
+        assertThat(recomputes("all")).isPositive();
+    }
+
+    @Test
+    void critereUpdateRecomputesItsFiliereColumn() {
+        Long filiereId = filiereIds.get(2);
+        long filiereRecomputes = recomputes("filiere");
+        long fullRecomputes = recomputes("all");
+        critereService.updateCritere(filiereId, CritereRequestDTO.builder()
+                .filiereId(filiereId)
+                .anneeAcademique("2025-2026")
+                .typeCandidat("Bacheliers")
+                .serieBacCible("Sciences Mathématiques")
+                .seuilCalcul(new BigDecimal("10"))
+                .ageMax(22)
+                .build());
+        awaitDrained();
+
+        assertThat(eligibilityMatrix.filiereIds(strong.getIdUser())).containsExactlyElementsOf(filiereIds);
+        assertThat(eligibilityMatrix.filiereIds(weak.getIdUser())).containsExactly(filiereId);
+        assertThat(recomputes("filiere")).isEqualTo(filiereRecomputes + 1);
+        assertThat(recomputes("all")).isEqualTo(fullRecomputes);
+        assertThat(critereService.getCritereAsOf(filiereId, 2030).getSeuilCalcul()).isEqualByComparingTo("10");
+
+        critereService.updateCritere(filiereId, CritereRequestDTO.builder()
+                .filiereId(filiereId)
+                .anneeAcademique("2025-2026")
+                .typeCandidat("Bacheliers")
+                .serieBacCible("Sciences Mathématiques")
+                .seuilCalcul(new BigDecimal("11"))
+                .ageMax(22)
+                .build());
+        assertThat(critereService.getCritereHistory(filiereId))
+                .extracting(CritereHistoryDTO::getRevision, CritereHistoryDTO::getSeuilCalcul)
+                .containsExactly(tuple(1, new BigDecimal("10.00")), tuple(2, new BigDecimal("11.00")));
+    }
+
+    @Test
+    void writesFoldedIntoOneRebuildRecomputeEachColumn() {
+        long filiereRecomputes = recomputes("filiere");
+        long fullRecomputes = recomputes("all");
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            for (int i = 1; i < 3; i++) {
+                critereService.updateCritere(filiereIds.get(i), CritereRequestDTO.builder()
+                        .filiereId(filiereIds.get(i))
+                        .anneeAcademique("2025-2026")
+                        .typeCandidat("Bacheliers")
+                        .serieBacCible("Sciences Mathématiques")
+                        .seuilCalcul(new BigDecimal("10"))
+                        .ageMax(22)
+                        .build());
+            }
+        });
+        awaitDrained();
+
+        assertThat(eligibilityMatrix.filiereIds(weak.getIdUser())).containsExactly(filiereIds.get(1), filiereIds.get(2));
+        assertThat(recomputes("filiere")).isEqualTo(filiereRecomputes + 2);
+        assertThat(recomputes("all")).isEqualTo(fullRecomputes);
+    }
+
+    @Test
+    void refreshWithoutAWriteLeavesTheMatrixAlone() {
+        long fullRecomputes = recomputes("all");
+        catalogSnapshot.refresh(CatalogChangedEvent.all());
+        awaitDrained();
+
+        assertThat(recomputes("all")).isEqualTo(fullRecomputes);
+        assertThat(eligibilityMatrix.filiereIds(strong.getIdUser())).containsExactly(filiereIds.get(0), filiereIds.get(1));
+    }
+
+    @Test
+    void marksLeftByAnotherInstanceAreRecomputedOnTheNextPass() {
+        Long filiereId = filiereIds.get(0);
+        // A write elsewhere committed its mark, and that instance went away before recomputing
+        jdbcTemplate.update("DELETE FROM student_eligibility WHERE filiere_id = ?", filiereId);
+        jdbcTemplate.update("INSERT INTO eligibility_recompute (filiere_id) VALUES (?)", filiereId);
+        long filiereRecomputes = recomputes("filiere");
+
+        catalogSnapshot.refresh(CatalogChangedEvent.all());
+        long deadline = System.currentTimeMillis() + 10_000;
+        while ((jdbcTemplate.queryForObject("SELECT count(*) FROM eligibility_recompute", Long.class) > 0
+                || eligibilityMatrix.isPending(strong.getIdUser())) && System.currentTimeMillis() < deadline) {
+            Thread.onSpinWait();
+        }
+
+        assertThat(eligibilityMatrix.filiereIds(strong.getIdUser())).containsExactly(filiereIds.get(0), filiereIds.get(1));
+        assertThat(recomputes("filiere")).isEqualTo(filiereRecomputes + 1);
+    }
+
+    @Test
+    void onlyPendingColumnsAreEvaluatedLive() {
+        Long pendingId = filiereIds.get(0);
+        jdbcTemplate.update("DELETE FROM student_eligibility WHERE id_user = ?", strong.getIdUser());
+        // A write to the first filiere whose recompute waits for a newer catalog than this one
+        jdbcTemplate.update("INSERT INTO eligibility_recompute (filiere_id) VALUES (?)", pendingId);
+        jdbcTemplate.update("UPDATE catalog_version SET version = version + 1 WHERE id = 1");
+        eventPublisher.publishEvent(new CatalogRefreshedEvent(catalogSnapshot.current(),
+                new CatalogChangedEvent(CatalogChangedEvent.Type.CRITERE, pendingId)));
+
+        assertThat(eligibilityMatrix.pending(strong.getIdUser()))
+                .isEqualTo(new EligibilityMatrix.Pending(false, Set.of(pendingId)));
+        assertThat(eligibilityService.getEligibleFilieres(strong)).extracting(FiliereSummaryDTO::getName)
+                .containsExactly("Filiere 12");
+        assertThat(eligibilityService.getEligibleFilieres(weak)).isEmpty();
+    }
+
+    @Test
+    void profileUpdateRecomputesItsStudentRow() {
+        long studentRecomputes = recomputes("student");
+        bacStudentService.updateBacStudent(weak.getIdUser(), BacStudentRequestDTO.builder()
+                .idUser(weak.getIdUser())
+                .bacMajor("Sciences Mathématiques B")
+                .grade(new BigDecimal("16.50"))
+                .build());
+        awaitDrained();
+
+        assertThat(eligibilityMatrix.filiereIds(weak.getIdUser())).containsExactlyElementsOf(filiereIds);
+        assertThat(eligibilityMatrix.filiereIds(strong.getIdUser())).containsExactly(filiereIds.get(0), filiereIds.get(1));
+        assertThat(recomputes("student")).isEqualTo(studentRecomputes + 1);
+    }
+
+    private User student(String email, String grade) {
+        User user = User.builder()
+                .email(email)
+                .firstName("Test")
+                .lastName("Student")
+                .password("secret123")
+                .currentStudyLevel(CurrentStudyLevel.bac)
+                .age(18)
+                .build();
+        entityManager.persist(user);
+        entityManager.persist(BacStudent.builder()
+                .user(user)
+                .bacMajor("Sciences Mathématiques A")
+                .grade(new BigDecimal(grade))
+                .build());
+        return user;
+    }
+
+    private long recomputes(String scope) {
+        return meterRegistry.get("eligibility.matrix.recompute").tag("scope", scope).timer().count();
+    }
+
+    private void awaitDrained() {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while ((catalogSnapshot.isRefreshPending() || eligibilityMatrix.isPending(strong.getIdUser())
+                || eligibilityMatrix.isPending(weak.getIdUser())) && System.currentTimeMillis() < deadline) {
+            Thread.onSpinWait();
+        }
+        assertThat(eligibilityMatrix.isPending(weak.getIdUser())).isFalse();
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.orientlamp_back.service.eligibility;
+
+import com.example.orientlamp_back.service.catalog.SyntheticCatalog;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.BitSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What {@code /api/eligibility/simulate} times under {@code eligibility.simulate}: the eligible
+ * sets of the current and the simulated profile, and the next threshold. The simulated grade
+ * walks a slider from 10 to 20 so every call lands on a different binary-search position. See
+ * the Readme for how to run the benchmarks.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EligibilitySimulationBenchmark {
+
+    @Param({"500", "5000", "50000"})
+    int filieres;
+
+    private EligibilityIndex index;
+    private CandidateProfile current;
+    private CandidateProfile[] slider;
+    private int step;
+
+    @Setup
+    public void setUp() {
+        index = EligibilityIndex.build(SyntheticCatalog.catalog(Math.max(1, filieres / 50), Math.min(filieres, 50), 21));
+        current = new CandidateProfile(1L, CandidateType.BACHELIER, "Sciences Physiques", new BigDecimal("14.00"), 18);
+        slider = new CandidateProfile[101];
+        for (int i = 0; i < slider.length; i++) {
+            slider[i] = new CandidateProfile(1L, CandidateType.BACHELIER, "Sciences Physiques",
+                    BigDecimal.valueOf(1000 + 10L * i, 2), 18);
+        }
+    }
+
+    @Benchmark
+    public int simulate() {
+        CandidateProfile simulated = slider[step++ % slider.length];
+        BitSet before = index.eligible(current);
+        BitSet after = index.eligible(simulated);
+        BigDecimal next = index.nextThreshold(simulated);
+        after.xor(before);
+        return after.cardinality() + (next == null ? 0 : 1);
+    }
+}
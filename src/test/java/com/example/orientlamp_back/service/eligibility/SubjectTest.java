@@ -0,0 +1,37 @@
+package com.example.orientlamp_back.service.eligibility;
+
+import com.example.orientlamp_back.entity.CritereRequirements;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SubjectTest {
+
+    @Test
+    void parsesSubjectThresholds() {
+        assertThat(Subject.parseThresholds("Mathématiques ≥ 14, Physique-Chimie : 12,5/20; SVT 11"))
+                .containsExactlyInAnyOrderEntriesOf(Map.of(
+                        Subject.MATHEMATIQUES, new BigDecimal("14"),
+                        Subject.PHYSIQUE, new BigDecimal("12.5"),
+                        Subject.SVT, new BigDecimal("11")));
+        assertThat(Subject.parseThresholds("Maths 13\nmaths >= 15")).containsEntry(Subject.MATHEMATIQUES, new BigDecimal("15"));
+        assertThat(Subject.parseThresholds("Bonne moyenne en sciences")).isEmpty();
+        assertThat(Subject.fromKey(Subject.PHYSIQUE.key())).isEqualTo(Subject.PHYSIQUE);
+    }
+
+    @Test
+    void derivesTheRequirementsDocument() throws Exception {
+        CritereRequirements requirements = CritereRequirementsParser.parse("Maths ≥ 14", "S1-S2 >= 12; 4 semestres validés",
+                "DUT ou BTS ou équivalent");
+
+        assertThat(new ObjectMapper().writeValueAsString(requirements)).isEqualTo("{\"schema\":1,"
+                + "\"subjects\":{\"mathematiques\":14},\"minSemester\":[12,12,null,null],\"validatedSemesters\":4,"
+                + "\"diplomas\":[\"DUT\",\"BTS\"],\"minLevel\":2}");
+        assertThat(CritereRequirementsParser.parse(null, "sur dossier", null))
+                .isEqualTo(new CritereRequirements(CritereRequirements.SCHEMA, null, null, null, null, null, null));
+    }
+}
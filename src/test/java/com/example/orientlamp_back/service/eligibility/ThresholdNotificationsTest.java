@@ -0,0 +1,171 @@
+package com.example.orientlamp_back.service.eligibility;
+
+import com.example.orientlamp_back.entity.Critere;
+import com.example.orientlamp_back.entity.Filiere;
+import com.example.orientlamp_back.entity.University;
+import com.example.orientlamp_back.repository.UserRepository;
+import com.example.orientlamp_back.service.EmailService;
+import com.example.orientlamp_back.service.catalog.Catalog;
+import com.example.orientlamp_back.service.catalog.CatalogSnapshot;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.MessagingException;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class ThresholdNotificationsTest {
+
+    private final List<CandidateProfile> students = List.of(
+            new CandidateProfile(1L, CandidateType.BACHELIER, "Sciences Mathématiques A", new BigDecimal("12.50"), 18),
+            new CandidateProfile(2L, CandidateType.BACHELIER, "SM", new BigDecimal("13.20"), 19),
+            new CandidateProfile(3L, CandidateType.BACHELIER, "SM", new BigDecimal("14.00"), 18),
+            new CandidateProfile(4L, CandidateType.BACHELIER, "Lettres", new BigDecimal("13.00"), 18),
+            new CandidateProfile(5L, CandidateType.BACHELIER, "SM", null, 18),
+            new CandidateProfile(6L, CandidateType.BACHELIER, "SM", new BigDecimal("13.00"), 30),
+            new CandidateProfile(7L, CandidateType.CPGE, "SM", new BigDecimal("13.00"), 20));
+    private final GradeIndex grades = GradeIndex.build(students);
+
+    private final EmailService emailService = mock(EmailService.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ThresholdNotifications notifications = new ThresholdNotifications(mock(CatalogSnapshot.class),
+            mock(EligibilityRules.class), mock(StudentGrades.class), mock(UserRepository.class), emailService,
+            meterRegistry, 50, 3, Duration.ZERO);
+
+    @Test
+    void findsStudentsGradedInARangeForAnAudience() {
+        EligibilityIndex.Audience sm = new EligibilityIndex.Audience(
+                CandidateType.BACHELIER, Set.of("sciences mathematiques"), BigDecimal.TEN);
+        assertThat(between(sm, 12.5, 14.0, Set.of())).containsExactlyInAnyOrder(1L, 2L, 6L);
+        assertThat(between(sm, 12.5, 14.0, Set.of(2L))).containsExactlyInAnyOrder(1L, 6L);
+
+        EligibilityIndex.Audience anyone = new EligibilityIndex.Audience(null, Set.of(), null);
+        assertThat(between(anyone, 13.0, 13.5, Set.of())).containsExactlyInAnyOrder(2L, 4L, 6L, 7L);
+        // Without a grade a student sorts below every threshold.
+        assertThat(between(anyone, Double.NEGATIVE_INFINITY, 0, Set.of())).containsExactly(5L);
+        assertThat(GradeIndex.matches(anyone, 13.0, 13.5, students.get(3))).isTrue();
+        assertThat(GradeIndex.matches(sm, 13.0, 13.5, students.get(3))).isFalse();
+    }
+
+    @Test
+    void reportsOnlyStudentsWhoseEligibilityFlipped() {
+        EligibilityIndex before = EligibilityIndex.build(Catalog.build(1, catalog("14.00")));
+        EligibilityIndex lowered = EligibilityIndex.build(Catalog.build(2, catalog("12.50")));
+
+        // 6 is graded in the range but stays out on age; 4 is in the range but not in the series.
+        assertThat(crossings(before, lowered)).containsOnly(Map.entry(1L, true), Map.entry(2L, true));
+        assertThat(crossings(lowered, before)).containsOnly(Map.entry(1L, false), Map.entry(2L, false));
+
+        EligibilityIndex removed = EligibilityIndex.build(Catalog.build(3, catalog(null)));
+        assertThat(crossings(before, removed))
+                .containsOnlyKeys(1L, 2L, 5L)
+                .containsValues(true);
+    }
+
+    @Test
+    void retriesOnlyTheMessagesTheServerRefused() {
+        List<SimpleMailMessage> messages = messages(5);
+        SimpleMailMessage bad = messages.get(2);
+        List<List<String>> calls = new ArrayList<>();
+        doAnswer(invocation -> {
+            List<SimpleMailMessage> sent = invocation.getArgument(0);
+            calls.add(sent.stream().map(m -> m.getTo()[0]).toList());
+            if (sent.contains(bad)) {
+                throw new MailSendException(Map.of(bad, new MessagingException("550 no such user")));
+            }
+            return null;
+        }).when(emailService).sendEmails(anyList());
+
+        notifications.deliver(messages);
+
+        assertThat(calls).containsExactly(
+                List.of("s0@example.ma", "s1@example.ma", "s2@example.ma", "s3@example.ma", "s4@example.ma"),
+                List.of("s2@example.ma"), List.of("s2@example.ma"));
+        assertThat(counted("sent")).isEqualTo(4);
+        assertThat(counted("failed")).isEqualTo(1);
+    }
+
+    @Test
+    void retriesAFailedBatchThenSplitsItAroundTheMessageThatBreaksIt() {
+        doThrow(new MailSendException("connection reset")).doThrow(new MailSendException("connection reset"))
+                .doNothing().when(emailService).sendEmails(anyList());
+        notifications.deliver(messages(4));
+        verify(emailService, times(3)).sendEmails(anyList());
+        assertThat(counted("sent")).isEqualTo(4);
+        assertThat(counted("failed")).isZero();
+
+        List<SimpleMailMessage> messages = messages(6);
+        SimpleMailMessage poison = messages.get(4);
+        doAnswer(invocation -> {
+            List<SimpleMailMessage> sent = invocation.getArgument(0);
+            if (sent.contains(poison)) {
+                throw new MailSendException("451 message rejected");
+            }
+            return null;
+        }).when(emailService).sendEmails(anyList());
+
+        notifications.deliver(messages);
+
+        assertThat(counted("sent")).isEqualTo(4 + 5);
+        assertThat(counted("failed")).isEqualTo(1);
+    }
+
+    private List<SimpleMailMessage> messages(int count) {
+        List<SimpleMailMessage> messages = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            SimpleMailMessage message = new SimpleMailMessage();
+            message.setTo("s" + i + "@example.ma");
+            messages.add(message);
+        }
+        return messages;
+    }
+
+    private double counted(String result) {
+        return meterRegistry.get("eligibility.notifications.sent").tag("result", result).counter().count();
+    }
+
+    private List<Long> between(EligibilityIndex.Audience audience, double from, double to, Set<Long> skip) {
+        List<Long> userIds = new ArrayList<>();
+        grades.forEachBetween(audience, from, to, skip, p -> userIds.add(p.userId()));
+        return userIds;
+    }
+
+    private Map<Long, Boolean> crossings(EligibilityIndex before, EligibilityIndex after) {
+        Map<Long, Boolean> crossed = new HashMap<>();
+        ThresholdNotifications.crossings((audience, from, to, consumer) ->
+                        grades.forEachBetween(audience, from, to, Set.of(), consumer),
+                before, 0, after, 0, (profile, eligible) -> crossed.put(profile.userId(), eligible));
+        return crossed;
+    }
+
+    private static List<University> catalog(String seuil) {
+        University ensa = University.builder().id(1L).name("ENSA").build();
+        Filiere filiere = Filiere.builder().id(11L).name("Génie Civil").build();
+        Critere critere = Critere.builder()
+                .filiereId(11L)
+                .filiere(filiere)
+                .typeCandidat("Bacheliers")
+                .serieBacCible("Sciences Mathématiques")
+                .seuilCalcul(seuil == null ? null : new BigDecimal(seuil))
+                .ageMax(22)
+                .build();
+        filiere.setCritere(critere);
+        ensa.addFiliere(filiere);
+        return List.of(ensa);
+    }
+}
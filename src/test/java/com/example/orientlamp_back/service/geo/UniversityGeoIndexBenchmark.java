@@ -0,0 +1,77 @@
+package com.example.orientlamp_back.service.geo;
+
+import com.example.orientlamp_back.entity.University;
+import com.example.orientlamp_back.service.catalog.Catalog;
+import com.example.orientlamp_back.service.catalog.SyntheticCatalog;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code /api/universities/near} radius queries around Meknès at catalog sizes up to a
+ * hundred thousand campuses, each scattered within ~40 km of a real city, against a scan of
+ * every campus as the baseline. See the Readme for how to run the benchmarks.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UniversityGeoIndexBenchmark {
+
+    private static final double MEKNES_LATITUDE = 33.8935;
+    private static final double MEKNES_LONGITUDE = -5.5473;
+
+    @Param({"1000", "10000", "100000"})
+    int universities;
+
+    @Param({"25", "100", "400"})
+    double radiusKm;
+
+    private Catalog catalog;
+    private UniversityGeoIndex index;
+
+    @Setup
+    public void setUp() {
+        Gazetteer gazetteer = new Gazetteer();
+        Random random = new Random(11);
+        List<University> campuses = SyntheticCatalog.universities(universities, 1, 11);
+        for (University university : campuses) {
+            Gazetteer.Place city = gazetteer.resolve(university.getLocation()).orElseThrow();
+            university.setLatitude(city.latitude() + (random.nextDouble() - 0.5) * 0.7);
+            university.setLongitude(city.longitude() + (random.nextDouble() - 0.5) * 0.7);
+        }
+        catalog = Catalog.build(1, campuses);
+        index = UniversityGeoIndex.build(catalog, gazetteer);
+    }
+
+    @Benchmark
+    public List<UniversityGeoIndex.Hit> near() {
+        return index.near(MEKNES_LATITUDE, MEKNES_LONGITUDE, radiusKm);
+    }
+
+    @Benchmark
+    public int scanEveryCampus() {
+        int hits = 0;
+        for (int u = 0; u < catalog.universityCount(); u++) {
+            if (UniversityGeoIndex.distanceKm(MEKNES_LATITUDE, MEKNES_LONGITUDE,
+                    index.latitude(u), index.longitude(u)) <= radiusKm) {
+                hits++;
+            }
+        }
+        return hits;
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.orientlamp_back.service.geo;
+
+import com.example.orientlamp_back.entity.University;
+import com.example.orientlamp_back.service.catalog.Catalog;
+import com.example.orientlamp_back.service.catalog.SyntheticCatalog;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class UniversityGeoIndexTest {
+
+    private static final double MEKNES_LATITUDE = 33.8935;
+    private static final double MEKNES_LONGITUDE = -5.5473;
+
+    private final Gazetteer gazetteer = new Gazetteer();
+
+    @Test
+    void gazetteerResolvesNamesAliasesAndTheLongestKnownPhrase() {
+        assertThat(gazetteer.resolve("Rabat - Agdal, Maroc")).map(Gazetteer.Place::name).hasValue("Rabat");
+        assertThat(gazetteer.resolve("FES")).map(Gazetteer.Place::name).hasValue("Fès");
+        assertThat(gazetteer.resolve("Sale")).map(Gazetteer.Place::name).hasValue("Salé");
+        assertThat(gazetteer.resolve("Dar el Beida")).map(Gazetteer.Place::name).hasValue("Casablanca");
+        assertThat(gazetteer.resolve("الدار البيضاء")).map(Gazetteer.Place::name).hasValue("Casablanca");
+        assertThat(gazetteer.resolve("Campus de Meknès")).hasValueSatisfying(place -> {
+            assertThat(place.latitude()).isEqualTo(MEKNES_LATITUDE);
+            assertThat(place.longitude()).isEqualTo(MEKNES_LONGITUDE);
+        });
+        assertThat(gazetteer.resolve("Atlantis")).isEmpty();
+        assertThat(gazetteer.resolve(null)).isEmpty();
+    }
+
+    @Test
+    void nearKeepsCampusesWithinTheRadiusNearestFirst() {
+        University ensam = University.builder().id(1L).name("ENSAM Meknès").slug("ensam-meknes")
+                .location("Meknès").latitude(33.8580).longitude(-5.5740).build();
+        University usmba = University.builder().id(2L).name("USMBA").slug("usmba").location("Fès").build();
+        University um5 = University.builder().id(3L).name("UM5").slug("um5").location("Rabat - Agdal").build();
+        University online = University.builder().id(4L).name("Campus en ligne").slug("en-ligne").location("Atlantis").build();
+        UniversityGeoIndex index = UniversityGeoIndex.build(Catalog.build(1, List.of(ensam, usmba, um5, online)), gazetteer);
+
+        assertThat(index.located()).isEqualTo(3);
+        assertThat(slugs(index, index.near(MEKNES_LATITUDE, MEKNES_LONGITUDE, 10))).containsExactly("ensam-meknes");
+        assertThat(slugs(index, index.near(MEKNES_LATITUDE, MEKNES_LONGITUDE, 80))).containsExactly("ensam-meknes", "usmba");
+        assertThat(slugs(index, index.near(MEKNES_LATITUDE, MEKNES_LONGITUDE, 200)))
+                .containsExactly("ensam-meknes", "usmba", "um5");
+        assertThat(index.near(MEKNES_LATITUDE, MEKNES_LONGITUDE, 200).get(1).distanceKm()).isCloseTo(50, within(3.0));
+    }
+
+    @Test
+    void distanceIsTheGreatCircleDistance() {
+        assertThat(UniversityGeoIndex.distanceKm(34.0209, -6.8416, 33.5731, -7.5898)).isCloseTo(86.5, within(1.5));
+        assertThat(UniversityGeoIndex.distanceKm(35.7595, -5.8340, 30.4278, -9.5981)).isCloseTo(690, within(10.0));
+        assertThat(UniversityGeoIndex.distanceKm(MEKNES_LATITUDE, MEKNES_LONGITUDE, MEKNES_LATITUDE, MEKNES_LONGITUDE))
+                .isZero();
+    }
+
+    @Test
+    void gridSearchAgreesWithAScanOfEveryCampus() {
+        Random random = new Random(11);
+        List<University> campuses = SyntheticCatalog.universities(2000, 1, 11);
+        for (University university : campuses) {
+            Gazetteer.Place city = gazetteer.resolve(university.getLocation()).orElseThrow();
+            university.setLatitude(city.latitude() + (random.nextDouble() - 0.5) * 0.7);
+            university.setLongitude(city.longitude() + (random.nextDouble() - 0.5) * 0.7);
+        }
+        Catalog catalog = Catalog.build(1, campuses);
+        UniversityGeoIndex index = UniversityGeoIndex.build(catalog, gazetteer);
+
+        for (double radiusKm : new double[]{5, 25, 60, 250, 1500}) {
+            for (int centre = 0; centre < 20; centre++) {
+                double latitude = 28 + random.nextDouble() * 8;
+                double longitude = -11 + random.nextDouble() * 10;
+                List<UniversityGeoIndex.Hit> expected = new ArrayList<>();
+                for (int u = 0; u < catalog.universityCount(); u++) {
+                    double distance = UniversityGeoIndex.distanceKm(latitude, longitude, index.latitude(u), index.longitude(u));
+                    if (distance <= radiusKm) {
+                        expected.add(new UniversityGeoIndex.Hit(u, distance));
+                    }
+                }
+                expected.sort(Comparator.comparingDouble(UniversityGeoIndex.Hit::distanceKm)
+                        .thenComparingInt(UniversityGeoIndex.Hit::university));
+
+                List<UniversityGeoIndex.Hit> actual = index.near(latitude, longitude, radiusKm);
+                assertThat(actual).extracting(UniversityGeoIndex.Hit::university)
+                        .containsExactlyElementsOf(expected.stream().map(UniversityGeoIndex.Hit::university).toList());
+            }
+        }
+    }
+
+    private static List<String> slugs(UniversityGeoIndex index, List<UniversityGeoIndex.Hit> hits) {
+        return hits.stream().map(hit -> index.catalog().university(hit.university()).slug()).toList();
+    }
+}
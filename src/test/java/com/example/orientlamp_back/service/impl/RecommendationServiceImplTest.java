@@ -0,0 +1,179 @@
+package com.example.orientlamp_back.service.impl;
+
+import com.example.orientlamp_back.dto.RecommendationDTO;
+import com.example.orientlamp_back.entity.BacStudent;
+import com.example.orientlamp_back.entity.Critere;
+import com.example.orientlamp_back.entity.CurrentStudyLevel;
+import com.example.orientlamp_back.entity.Filiere;
+import com.example.orientlamp_back.entity.Preference;
+import com.example.orientlamp_back.entity.University;
+import com.example.orientlamp_back.entity.User;
+import com.example.orientlamp_back.event.CatalogChangedEvent;
+import com.example.orientlamp_back.event.PreferenceChangedEvent;
+import com.example.orientlamp_back.repository.CatalogVersionRepository;
+import com.example.orientlamp_back.repository.StudentVersionRepository;
+import com.example.orientlamp_back.service.RecommendationService;
+import com.example.orientlamp_back.service.catalog.CatalogSnapshot;
+import com.example.orientlamp_back.service.eligibility.CandidateProfiles;
+import com.example.orientlamp_back.service.eligibility.EligibilityRules;
+import com.example.orientlamp_back.service.geo.Gazetteer;
+import com.example.orientlamp_back.service.recommendation.RecommendationFeatures;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The per-user cache follows {@code student_version}: a preference written on another instance,
+ * which publishes no event here, still reaches this instance's next read.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false"
+})
+@Import({
+        RecommendationServiceImpl.class, StudentVersionRepository.class, CatalogSnapshot.class,
+        CatalogVersionRepository.class, EligibilityRules.class, RecommendationFeatures.class, CandidateProfiles.class,
+        Gazetteer.class, RecommendationServiceImplTest.Metrics.class
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class RecommendationServiceImplTest {
+
+    @TestConfiguration
+    static class Metrics {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private CatalogSnapshot catalogSnapshot;
+
+    @Autowired
+    private RecommendationService recommendationService;
+
+    @Autowired
+    private StudentVersionRepository studentVersionRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    private User student;
+
+    @BeforeEach
+    void seed() {
+        // Flyway is off here, so student_version (V20) and catalog_version (V18) are created by hand.
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS student_version (id_user BIGINT PRIMARY KEY, version BIGINT NOT NULL)");
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS catalog_version (id SMALLINT PRIMARY KEY, version BIGINT NOT NULL)");
+        jdbcTemplate.execute("INSERT INTO catalog_version SELECT 1, 1 WHERE NOT EXISTS (SELECT 1 FROM catalog_version)");
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            University university = University.builder().name("ENSA Test").slug("ensa-test").location("Rabat").build();
+            entityManager.persist(university);
+            for (String language : List.of("Français", "Anglais")) {
+                Filiere filiere = Filiere.builder().name("Filiere " + language).language(language)
+                        .university(university).build();
+                entityManager.persist(filiere);
+                entityManager.persist(Critere.builder()
+                        .filiere(filiere)
+                        .anneeAcademique("2025-2026")
+                        .typeCandidat("Bacheliers")
+                        .serieBacCible("Sciences Mathématiques")
+                        .seuilCalcul(new BigDecimal("12"))
+                        .build());
+            }
+            student = User.builder()
+                    .email("student@example.com")
+                    .firstName("Test")
+                    .lastName("Student")
+                    .password("secret123")
+                    .currentStudyLevel(CurrentStudyLevel.bac)
+                    .age(18)
+                    .build();
+            entityManager.persist(student);
+            entityManager.persist(BacStudent.builder()
+                    .user(student)
+                    .bacMajor("Sciences Mathématiques A")
+                    .grade(new BigDecimal("15.00"))
+                    .build());
+            entityManager.persist(Preference.builder().user(student).languagePreferences("Anglais").build());
+        });
+        catalogSnapshot.refresh(CatalogChangedEvent.all());
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.execute("DROP TABLE student_version");
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            entityManager.createQuery("DELETE FROM Preference").executeUpdate();
+            entityManager.createQuery("DELETE FROM BacStudent").executeUpdate();
+            entityManager.createQuery("DELETE FROM User").executeUpdate();
+            entityManager.createQuery("DELETE FROM Critere").executeUpdate();
+            entityManager.createQuery("DELETE FROM Filiere").executeUpdate();
+            entityManager.createQuery("DELETE FROM University").executeUpdate();
+        });
+    }
+
+    @Test
+    void aWriteOnAnotherInstanceReachesThisInstancesCache() {
+        assertThat(first()).isEqualTo("Filiere Anglais");
+
+        jdbcTemplate.update("UPDATE preferences SET language_preferences = 'Français' WHERE user_id = ?",
+                student.getIdUser());
+        // Not bumped yet: this instance still serves its entry
+        assertThat(first()).isEqualTo("Filiere Anglais");
+
+        // The writing instance bumps the version in its transaction; no event reaches this one
+        studentVersionRepository.increment(student.getIdUser());
+        assertThat(first()).isEqualTo("Filiere Français");
+    }
+
+    @Test
+    void aWriteOnThisInstanceBumpsTheVersionInItsTransaction() {
+        assertThat(first()).isEqualTo("Filiere Anglais");
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            jdbcTemplate.update("UPDATE preferences SET language_preferences = 'Français' WHERE user_id = ?",
+                    student.getIdUser());
+            eventPublisher.publishEvent(new PreferenceChangedEvent(student.getIdUser()));
+        });
+
+        assertThat(studentVersionRepository.current(student.getIdUser())).isEqualTo(1);
+        assertThat(first()).isEqualTo("Filiere Français");
+    }
+
+    private String first() {
+        List<RecommendationDTO> recommendations = recommendationService.getRecommendations(student, 5);
+        assertThat(recommendations).hasSize(2);
+        return recommendations.get(0).getFiliere().getName();
+    }
+}
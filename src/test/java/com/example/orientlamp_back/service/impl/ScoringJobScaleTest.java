@@ -0,0 +1,149 @@
+package com.example.orientlamp_back.service.impl;
+
+import com.example.orientlamp_back.PostgresTestDatabase;
+import com.example.orientlamp_back.dto.ScoringJobDTO;
+import com.example.orientlamp_back.repository.CandidateProfileRepository;
+import com.example.orientlamp_back.repository.CatalogVersionRepository;
+import com.example.orientlamp_back.repository.EligibilityRecomputeRepository;
+import com.example.orientlamp_back.repository.ScoringJobRepository;
+import com.example.orientlamp_back.repository.StudentEligibilityRepository;
+import com.example.orientlamp_back.service.admission.AdmissionFormulas;
+import com.example.orientlamp_back.service.catalog.CatalogSnapshot;
+import com.example.orientlamp_back.service.eligibility.EligibilityMatrix;
+import com.example.orientlamp_back.service.eligibility.EligibilityRules;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Scoring job benchmark at 1M synthetic students (600k bac, 250k prepa, 150k Bac+2) against 500
+ * filieres, half of them with an admission formula, on the PostgreSQL of
+ * {@link PostgresTestDatabase}: the job must score every student, store one row per eligible
+ * pair with its formula score, and logs its throughput. Runs with {@code mvn -Ppostgres test}.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.show-sql=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({
+        ScoringJobServiceImpl.class, ScoringJobRepository.class, CandidateProfileRepository.class,
+        StudentEligibilityRepository.class, EligibilityRecomputeRepository.class, CatalogSnapshot.class,
+        CatalogVersionRepository.class, EligibilityRules.class, AdmissionFormulas.class, EligibilityMatrix.class,
+        ScoringJobScaleTest.Metrics.class
+})
+@Tag("postgres")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Slf4j
+class ScoringJobScaleTest {
+
+    private static final int STUDENTS = 1_000_000;
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        PostgresTestDatabase.register(registry);
+    }
+
+    @TestConfiguration
+    static class Metrics {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ScoringJobServiceImpl scoringJobService;
+
+    @BeforeEach
+    void seed() {
+        jdbcTemplate.execute("TRUNCATE \"user\", university, scoring_job, eligibility_recompute RESTART IDENTITY CASCADE");
+        jdbcTemplate.execute("INSERT INTO \"user\" (email, enabled, first_name, last_name, password, "
+                + "current_study_level, age, created_at) "
+                + "SELECT 'student' || g || '@example.ma', true, 'Prénom', 'Nom', 'secret', "
+                + "CASE WHEN g <= 600000 THEN 'bac' WHEN g <= 850000 THEN 'bac2prepa' ELSE 'licence' END, "
+                + "17 + g % 8, now() FROM generate_series(1, " + STUDENTS + ") g");
+        jdbcTemplate.execute("INSERT INTO bac_student (id_user, bac_major, grade) "
+                + "SELECT g, " + series("g") + ", 8 + (g % 1200) / 100.0 FROM generate_series(1, 600000) g");
+        jdbcTemplate.execute("INSERT INTO prepa_student (id_user, prepa_major, bac_major, cnc_rating) "
+                + "SELECT g, 'MP', " + series("g") + ", 8 + (g % 1200) / 100.0 FROM generate_series(600001, 850000) g");
+        jdbcTemplate.execute("INSERT INTO bac2_student (id_user, diploma_type, bac_major, avg_s1, avg_s2, avg_s3, avg_s4) "
+                + "SELECT g, (ARRAY['DUT', 'BTS', 'Licence'])[1 + g % 3], " + series("g") + ", "
+                + "9 + g % 9, 10 + g % 8, 9 + g % 10, 11 + g % 7 FROM generate_series(850001, " + STUDENTS + ") g");
+
+        jdbcTemplate.execute("INSERT INTO university (name, location, slug) "
+                + "SELECT 'Université ' || g, 'Ville ' || g % 12, 'u-' || g FROM generate_series(1, 50) g");
+        jdbcTemplate.execute("INSERT INTO filiere (name, university_id, duration_years, seats_availabial) "
+                + "SELECT 'Filière ' || g, 1 + g % 50, 3, 40 + g % 60 FROM generate_series(1, 500) g");
+        jdbcTemplate.execute("INSERT INTO critere (filiere_id, annee_academique, type_candidat, serie_bac_cible, "
+                + "seuil_calcul, age_max, formule_score) "
+                + "SELECT g, '2025-2026', "
+                + "(ARRAY['Bacheliers', 'Lauréats CPGE', 'Titulaires d''un DUT ou BTS'])[1 + g % 3], "
+                + series("g / 3") + ", 10 + g % 9, 30, "
+                + "CASE WHEN g % 2 = 1 THEN NULL ELSE "
+                + "(ARRAY['0.75 * bac + 0.25 * 15', 'max(cnc, 0.9 * cnc + 2)', '(s1 + s2 + 2 * semestres) / 4'])[1 + g % 3] "
+                + "END FROM generate_series(1, 500) g");
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @Test
+    void scoresAMillionStudents() {
+        long started = System.nanoTime();
+        Long jobId = scoringJobService.startJob(64).getId();
+        long deadline = System.currentTimeMillis() + 30 * 60_000;
+        ScoringJobDTO job = scoringJobService.getJob(jobId);
+        while ("RUNNING".equals(job.getStatus()) && System.currentTimeMillis() < deadline) {
+            sleep();
+            job = scoringJobService.getJob(jobId);
+        }
+        double seconds = (System.nanoTime() - started) / 1e9;
+        log.info("Scoring job benchmark: {} students, {} eligible pairs in {}s ({} students/s)",
+                job.getStudents(), job.getPairs(), String.format("%.1f", seconds),
+                Math.round(job.getStudents() / seconds));
+
+        assertThat(job.getStatus()).isEqualTo("DONE");
+        assertThat(job.getStudents()).isEqualTo(STUDENTS);
+        assertThat(job.getPairs()).isPositive()
+                .isEqualTo(jdbcTemplate.queryForObject("SELECT count(*) FROM student_eligibility", Long.class));
+        // Every pair at a filiere with a formula is scored: each track's formula reads only what its profile has
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM student_eligibility e "
+                + "JOIN critere c ON c.filiere_id = e.filiere_id "
+                + "WHERE c.formule_score IS NOT NULL AND e.score IS NULL", Long.class)).isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM student_eligibility WHERE score IS NOT NULL",
+                Long.class)).isPositive();
+    }
+
+    /** The bac series of row {@code g}, as a SQL expression, spelled the way students and criteres write them. */
+    private static String series(String g) {
+        return "(ARRAY['Sciences Mathématiques A', 'Sciences Physiques', 'Sciences de la Vie et de la Terre', "
+                + "'Sciences Économiques'])[1 + (" + g + ") % 4]";
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(500);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
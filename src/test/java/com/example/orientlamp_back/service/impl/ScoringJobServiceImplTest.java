@@ -0,0 +1,267 @@
+package com.example.orientlamp_back.service.impl;
+
+import com.example.orientlamp_back.dto.ScoringJobDTO;
+import com.example.orientlamp_back.entity.BacStudent;
+import com.example.orientlamp_back.entity.Critere;
+import com.example.orientlamp_back.entity.CurrentStudyLevel;
+import com.example.orientlamp_back.entity.Filiere;
+import com.example.orientlamp_back.entity.University;
+import com.example.orientlamp_back.entity.User;
+import com.example.orientlamp_back.event.CatalogChangedEvent;
+import com.example.orientlamp_back.exception.ScoringJobStaleException;
+import com.example.orientlamp_back.repository.CandidateProfileRepository;
+import com.example.orientlamp_back.repository.CatalogVersionRepository;
+import com.example.orientlamp_back.repository.EligibilityRecomputeRepository;
+import com.example.orientlamp_back.repository.ScoringJobRepository;
+import com.example.orientlamp_back.repository.StudentEligibilityRepository;
+import com.example.orientlamp_back.service.admission.AdmissionFormulas;
+import com.example.orientlamp_back.service.catalog.CatalogSnapshot;
+import com.example.orientlamp_back.service.eligibility.EligibilityMatrix;
+import com.example.orientlamp_back.service.eligibility.EligibilityRules;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs scoring jobs against H2 on the job's own threads: a full run, a failed run and a resume
+ * that re-scores only the partitions not yet DONE.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false"
+})
+@Import({
+        ScoringJobServiceImpl.class, ScoringJobRepository.class, CandidateProfileRepository.class,
+        StudentEligibilityRepository.class, EligibilityRecomputeRepository.class, CatalogSnapshot.class,
+        CatalogVersionRepository.class, EligibilityRules.class, AdmissionFormulas.class, EligibilityMatrix.class,
+        ScoringJobServiceImplTest.Metrics.class
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ScoringJobServiceImplTest {
+
+    @TestConfiguration
+    static class Metrics {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private CatalogSnapshot catalogSnapshot;
+
+    @Autowired
+    private EligibilityMatrix eligibilityMatrix;
+
+    @Autowired
+    private ScoringJobRepository scoringJobRepository;
+
+    @Autowired
+    private ScoringJobServiceImpl scoringJobService;
+
+    private final List<Long> userIds = new ArrayList<>();
+
+    @BeforeEach
+    void seed() {
+        // Flyway is off here, so the tables of V12, V13, V18, V19 and V21 are created by hand.
+        createEligibilityTable();
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS scoring_job ("
+                + "id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, status VARCHAR(20) NOT NULL, "
+                + "catalog_version BIGINT NOT NULL, partitions INTEGER NOT NULL, "
+                + "created_at TIMESTAMP(6) WITH TIME ZONE NOT NULL, finished_at TIMESTAMP(6) WITH TIME ZONE)");
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS scoring_job_partition ("
+                + "job_id BIGINT NOT NULL, partition_no INTEGER NOT NULL, from_user_id BIGINT NOT NULL, "
+                + "to_user_id BIGINT NOT NULL, status VARCHAR(20) NOT NULL, students BIGINT DEFAULT 0 NOT NULL, "
+                + "pairs BIGINT DEFAULT 0 NOT NULL, started_at TIMESTAMP(6) WITH TIME ZONE, "
+                + "finished_at TIMESTAMP(6) WITH TIME ZONE, error VARCHAR(500), PRIMARY KEY (job_id, partition_no))");
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS catalog_version (id SMALLINT PRIMARY KEY, version BIGINT NOT NULL)");
+        jdbcTemplate.execute("INSERT INTO catalog_version SELECT 1, 1 WHERE NOT EXISTS (SELECT 1 FROM catalog_version)");
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS eligibility_recompute ("
+                + "id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, filiere_id BIGINT, id_user BIGINT, "
+                + "created_at TIMESTAMP(6) WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP NOT NULL)");
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            University university = University.builder().name("ENSA Test").slug("ensa-test").build();
+            entityManager.persist(university);
+            Filiere filiere = Filiere.builder().name("Génie Civil").university(university).build();
+            entityManager.persist(filiere);
+            entityManager.persist(Critere.builder()
+                    .filiere(filiere)
+                    .anneeAcademique("2025-2026")
+                    .typeCandidat("Bacheliers")
+                    .serieBacCible("Sciences Mathématiques")
+                    .seuilCalcul(new BigDecimal("12"))
+                    .ageMax(22)
+                    .formuleScore("0.5 * bac + 5")
+                    .build());
+            for (String grade : List.of("15.00", "11.00", "13.00", "12.50")) {
+                userIds.add(student("student" + userIds.size() + "@example.com", grade).getIdUser());
+            }
+        });
+        catalogSnapshot.refresh(CatalogChangedEvent.all());
+        awaitMatrix();
+        jdbcTemplate.update("DELETE FROM student_eligibility");
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS student_eligibility");
+        jdbcTemplate.execute("DELETE FROM scoring_job_partition");
+        jdbcTemplate.execute("DELETE FROM scoring_job");
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            entityManager.createQuery("DELETE FROM BacStudent").executeUpdate();
+            entityManager.createQuery("DELETE FROM User").executeUpdate();
+            entityManager.createQuery("DELETE FROM Critere").executeUpdate();
+            entityManager.createQuery("DELETE FROM Filiere").executeUpdate();
+            entityManager.createQuery("DELETE FROM University").executeUpdate();
+        });
+    }
+
+    @Test
+    void boundsSplitTheIdRangeIntoEqualPartitions() {
+        assertThat(ScoringJobServiceImpl.bounds(new long[]{1, 100}, 4)).containsExactly(1, 26, 51, 76, 101);
+        assertThat(ScoringJobServiceImpl.bounds(new long[]{1, 10}, 3)).containsExactly(1, 4, 7, 11);
+        // Fewer ids than partitions: one partition per id.
+        assertThat(ScoringJobServiceImpl.bounds(new long[]{5, 6}, 8)).containsExactly(5, 6, 7);
+        assertThat(ScoringJobServiceImpl.bounds(null, 8)).containsExactly(0, 1);
+    }
+
+    @Test
+    void jobScoresEveryPartition() {
+        ScoringJobDTO job = await(scoringJobService.startJob(2).getId());
+
+        assertThat(job.getStatus()).isEqualTo("DONE");
+        assertThat(job.getPartitionsDone()).isEqualTo(2);
+        assertThat(job.getStudents()).isEqualTo(4);
+        assertThat(job.getPairs()).isEqualTo(3);
+        assertThat(eligibleUsers()).containsExactly(userIds.get(0), userIds.get(2), userIds.get(3));
+        assertThat(jdbcTemplate.queryForList("SELECT score FROM student_eligibility ORDER BY id_user", BigDecimal.class))
+                .containsExactly(new BigDecimal("12.50"), new BigDecimal("11.50"), new BigDecimal("11.25"));
+    }
+
+    @Test
+    void failedPartitionsAreMarkedWithTheirError() {
+        jdbcTemplate.execute("DROP TABLE student_eligibility");
+
+        ScoringJobDTO job = await(scoringJobService.startJob(2).getId());
+
+        assertThat(job.getStatus()).isEqualTo("FAILED");
+        assertThat(job.getPartitionsFailed()).isEqualTo(2);
+        assertThat(scoringJobRepository.findPartitions(job.getId()))
+                .allSatisfy(partition -> {
+                    assertThat(partition.status()).isEqualTo(ScoringJobRepository.Status.FAILED);
+                    assertThat(partition.error()).isNotBlank();
+                    assertThat(partition.finishedAt()).isNotNull();
+                });
+    }
+
+    @Test
+    void resumeRescoresOnlyThePartitionsNotDone() {
+        long version = catalogSnapshot.current().version();
+        long[] bounds = {userIds.get(0), userIds.get(2), userIds.get(3) + 1};
+        ScoringJobRepository.Job created = scoringJobRepository.create(version, bounds);
+        // Partition 0 committed in an earlier run; its counts must survive the resume untouched.
+        scoringJobRepository.markDone(created.id(), 0, 42, 7);
+        scoringJobRepository.markFailed(created.id(), 1, "connection reset");
+        scoringJobRepository.markJob(created.id(), ScoringJobRepository.Status.FAILED);
+
+        scoringJobService.resumeJob(created.id());
+        ScoringJobDTO job = await(created.id());
+
+        assertThat(job.getStatus()).isEqualTo("DONE");
+        assertThat(job.getStudents()).isEqualTo(42 + 2);
+        assertThat(scoringJobRepository.findPartitions(created.id()).get(0).students()).isEqualTo(42);
+        assertThat(eligibleUsers()).containsExactly(userIds.get(2), userIds.get(3));
+    }
+
+    @Test
+    void jobsOfAnOlderCatalogCannotBeResumed() {
+        long version = catalogSnapshot.current().version();
+        ScoringJobRepository.Job created = scoringJobRepository.create(version - 1,
+                new long[]{userIds.get(0), userIds.get(3) + 1});
+        scoringJobRepository.markJob(created.id(), ScoringJobRepository.Status.FAILED);
+
+        assertThatThrownBy(() -> scoringJobService.resumeJob(created.id()))
+                .isInstanceOf(ScoringJobStaleException.class)
+                .hasMessageContaining("v" + (version - 1));
+        assertThat(scoringJobService.getJob(created.id()).getStatus()).isEqualTo("FAILED");
+    }
+
+    private void createEligibilityTable() {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS student_eligibility ("
+                + "id_user BIGINT NOT NULL, filiere_id BIGINT NOT NULL, "
+                + "computed_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP NOT NULL, margin NUMERIC(6, 2), "
+                + "score NUMERIC(10, 2), PRIMARY KEY (id_user, filiere_id))");
+    }
+
+    private User student(String email, String grade) {
+        User user = User.builder()
+                .email(email)
+                .firstName("Test")
+                .lastName("Student")
+                .password("secret123")
+                .currentStudyLevel(CurrentStudyLevel.bac)
+                .age(18)
+                .build();
+        entityManager.persist(user);
+        entityManager.persist(BacStudent.builder()
+                .user(user)
+                .bacMajor("Sciences Mathématiques A")
+                .grade(new BigDecimal(grade))
+                .build());
+        return user;
+    }
+
+    private List<Long> eligibleUsers() {
+        return jdbcTemplate.queryForList("SELECT id_user FROM student_eligibility ORDER BY id_user", Long.class);
+    }
+
+    private ScoringJobDTO await(Long jobId) {
+        long deadline = System.currentTimeMillis() + 10_000;
+        ScoringJobDTO job = scoringJobService.getJob(jobId);
+        while ("RUNNING".equals(job.getStatus()) && System.currentTimeMillis() < deadline) {
+            Thread.onSpinWait();
+            job = scoringJobService.getJob(jobId);
+        }
+        return job;
+    }
+
+    private void awaitMatrix() {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (eligibilityMatrix.isPending(userIds.get(0)) && System.currentTimeMillis() < deadline) {
+            Thread.onSpinWait();
+        }
+        assertThat(eligibilityMatrix.isPending(userIds.get(0))).isFalse();
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.orientlamp_back.service.recommendation;
+
+import com.example.orientlamp_back.entity.Preference;
+import com.example.orientlamp_back.service.catalog.Catalog;
+import com.example.orientlamp_back.service.catalog.SyntheticCatalog;
+import com.example.orientlamp_back.service.eligibility.CandidateProfile;
+import com.example.orientlamp_back.service.eligibility.CandidateType;
+import com.example.orientlamp_back.service.eligibility.EligibilityIndex;
+import com.example.orientlamp_back.service.geo.Gazetteer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A cache miss of {@code /api/recommendations/me}: the eligible set of a strong student, then
+ * the top 10 of it ranked on their preferences. The SLO is 20 ms at 50k filieres. See the Readme
+ * for how to run the benchmarks.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RecommendationIndexBenchmark {
+
+    @Param({"5000", "50000"})
+    int filieres;
+
+    private EligibilityIndex rules;
+    private RecommendationIndex index;
+    private Preferences preferences;
+    private final CandidateProfile profile = new CandidateProfile(1L, CandidateType.BACHELIER,
+            "Sciences Mathématiques A", new BigDecimal("17.40"), 19);
+
+    @Setup
+    public void setUp() {
+        Gazetteer gazetteer = new Gazetteer();
+        Catalog catalog = SyntheticCatalog.catalog(filieres / 50, 50, 17);
+        rules = EligibilityIndex.build(catalog);
+        index = RecommendationIndex.build(catalog, gazetteer);
+        preferences = Preferences.of(Preference.builder()
+                .desiredCitiest("Rabat, Casablanca, Fès")
+                .budgetRange("0 - 40 000 MAD")
+                .languagePreferences("Anglais")
+                .interests("Informatique, intelligence artificielle, data science")
+                .build(), gazetteer);
+    }
+
+    @Benchmark
+    public List<RecommendationIndex.Recommendation> eligibleThenTop10() {
+        return index.recommend(preferences, rules.eligible(profile), rules, profile, 10);
+    }
+}
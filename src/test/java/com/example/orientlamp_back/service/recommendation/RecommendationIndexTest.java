@@ -0,0 +1,115 @@
+package com.example.orientlamp_back.service.recommendation;
+
+import com.example.orientlamp_back.entity.Critere;
+import com.example.orientlamp_back.entity.Filiere;
+import com.example.orientlamp_back.entity.Preference;
+import com.example.orientlamp_back.entity.University;
+import com.example.orientlamp_back.service.catalog.Catalog;
+import com.example.orientlamp_back.service.eligibility.CandidateProfile;
+import com.example.orientlamp_back.service.eligibility.CandidateType;
+import com.example.orientlamp_back.service.eligibility.EligibilityIndex;
+import com.example.orientlamp_back.service.geo.Gazetteer;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.BitSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RecommendationIndexTest {
+
+    private static final Gazetteer GAZETTEER = new Gazetteer();
+
+    private final Catalog catalog = Catalog.build(1, catalog());
+    private final EligibilityIndex rules = EligibilityIndex.build(catalog);
+    private final RecommendationIndex index = RecommendationIndex.build(catalog, GAZETTEER);
+    private final CandidateProfile profile = new CandidateProfile(1L, CandidateType.BACHELIER,
+            "Sciences Mathématiques A", new BigDecimal("16.00"), 18);
+
+    @Test
+    void ranksEligibleFilieresOnPreferences() {
+        Preferences preferences = Preferences.of(Preference.builder()
+                .desiredCitiest("Rabat - Agdal, Fès")
+                .budgetRange("0 - 20 000 MAD")
+                .languagePreferences("Anglais")
+                .interests("Informatique, intelligence artificielle")
+                .build(), GAZETTEER);
+
+        List<RecommendationIndex.Recommendation> top = recommend(preferences, 3);
+
+        assertThat(top).extracting(r -> catalog.filiere(r.filiere()).name())
+                .containsExactly("Génie Informatique", "Génie Civil", "Intelligence Artificielle");
+        RecommendationIndex.Recommendation best = top.get(0);
+        assertThat(best.cityMatch()).isTrue();
+        assertThat(best.withinBudget()).isTrue();
+        assertThat(best.languageMatch()).isFalse();
+        assertThat(best.matchedKeywords()).containsExactly("informatique");
+        assertThat(best.margin()).isEqualByComparingTo("2.00");
+        assertThat(top.get(2).withinBudget()).isFalse();
+        assertThat(top.get(2).languageMatch()).isTrue();
+        assertThat(top.get(2).matchedKeywords()).containsExactlyInAnyOrder("intelligence", "artificielle");
+    }
+
+    @Test
+    void keepsOnlyTheBestKOfTheEligibleFilieres() {
+        BitSet eligible = rules.eligible(profile);
+        assertThat(eligible.cardinality()).isEqualTo(5);
+
+        List<RecommendationIndex.Recommendation> all = index.recommend(Preferences.NONE, eligible, rules, profile, 10);
+        assertThat(all).hasSize(5);
+        assertThat(all).extracting(RecommendationIndex.Recommendation::score).isSortedAccordingTo((a, b) -> Double.compare(b, a));
+        assertThat(recommend(Preferences.NONE, 2)).containsExactlyElementsOf(all.subList(0, 2));
+        assertThat(recommend(Preferences.NONE, 0)).isEmpty();
+        // Without preferences only the admission margin counts: the lowest threshold wins.
+        assertThat(catalog.filiere(all.get(0).filiere()).name()).isEqualTo("Génie Civil");
+    }
+
+    @Test
+    void parsesBudgetsAndLanguages() {
+        assertThat(Preferences.parseBudget("20 000 - 50 000 MAD")).isEqualTo(50_000);
+        assertThat(Preferences.parseBudget("< 30k")).isEqualTo(30_000);
+        assertThat(Preferences.parseBudget("Gratuit (public)")).isEqualTo(0);
+        assertThat(Preferences.parseBudget("flexible")).isNull();
+        assertThat(RecommendationIndex.languages("Français / English")).containsExactly("francais", "anglais");
+        assertThat(RecommendationIndex.keywords("Les Réseaux et Télécoms")).containsExactly("reseau", "telecom");
+        assertThat(RecommendationIndex.budgetFit(30_000, 20_000)).isEqualTo(0.5);
+    }
+
+    private List<RecommendationIndex.Recommendation> recommend(Preferences preferences, int k) {
+        return index.recommend(preferences, rules.eligible(profile), rules, profile, k);
+    }
+
+    private static List<University> catalog() {
+        University ensa = University.builder().id(1L).name("ENSA Rabat").location("Rabat").build();
+        add(ensa, 10L, "Génie Informatique", "14.00", "15000", "Français");
+        add(ensa, 11L, "Génie Civil", "12.00", "15000", "Français");
+        add(ensa, 12L, "Médecine", "17.00", "0", "Français");
+
+        University uir = University.builder().id(2L).name("UIR").location("Salé").build();
+        add(uir, 20L, "Intelligence Artificielle", "13.00", "90000", "Anglais");
+        add(uir, 21L, "Management", "14.00", "70000", "Anglais / Français");
+
+        University ensam = University.builder().id(3L).name("ENSAM").location("Casablanca").build();
+        add(ensam, 30L, "Génie Mécanique", "14.50", null, "Français");
+        return List.of(ensa, uir, ensam);
+    }
+
+    private static void add(University university, Long id, String name, String seuil, String fee, String language) {
+        Filiere filiere = Filiere.builder()
+                .id(id)
+                .name(name)
+                .tuitionFee(fee == null ? null : new BigDecimal(fee))
+                .language(language)
+                .build();
+        Critere critere = Critere.builder()
+                .filiereId(id)
+                .filiere(filiere)
+                .typeCandidat("Bacheliers")
+                .serieBacCible("Sciences Mathématiques")
+                .seuilCalcul(new BigDecimal(seuil))
+                .build();
+        filiere.setCritere(critere);
+        university.addFiliere(filiere);
+    }
+}
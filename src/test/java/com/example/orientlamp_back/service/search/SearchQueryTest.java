@@ -0,0 +1,57 @@
+package com.example.orientlamp_back.service.search;
+
+import com.example.orientlamp_back.repository.CatalogSearchRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SearchQueryTest {
+
+    @Test
+    void foldsAccentsCaseAndArabicVariants() {
+        assertThat(SearchQuery.fold("École Mohammadia d'Ingénieurs")).isEqualTo("ecole mohammadia d'ingenieurs");
+        assertThat(SearchQuery.fold("Œuvre À Fès")).isEqualTo("ouvre a fes");
+        assertThat(SearchQuery.fold("إِعْلَامِيَّة")).isEqualTo(SearchQuery.fold("اعلامية"));
+        assertThat(SearchQuery.fold("مدرسة")).endsWith("ه");
+    }
+
+    @Test
+    void compilesTermsToPrefixesAndExpandsAbbreviations() {
+        SearchQuery query = SearchQuery.parse("Ingénieur  informatique de Rabat");
+        assertThat(query.getTerms()).containsExactly("ingenieur", "informatique", "rabat");
+        assertThat(query.toTsQuery()).isEqualTo("ingenieur:* | informatique:* | rabat:*");
+
+        assertThat(SearchQuery.parse("ENSA Fès").toTsQuery())
+                .isEqualTo("(ensa | ecole & nationale & sciences & appliquees) | fes:*");
+        assertThat(SearchQuery.parse("l' & | ! :*").isEmpty()).isTrue();
+    }
+
+    @Test
+    void highlightsMatchesInTheOriginalTextAndEscapesTheRest() {
+        SearchQuery query = SearchQuery.parse("ensa kenitra");
+
+        assertThat(query.highlight("École Nationale des Sciences Appliquées de Kénitra (ENSA Kénitra)"))
+                .isEqualTo("<mark>École</mark> <mark>Nationale</mark> des <mark>Sciences</mark> "
+                        + "<mark>Appliquées</mark> de <mark>Kénitra</mark> (<mark>ENSA</mark> <mark>Kénitra</mark>)");
+        assertThat(query.highlight("ENSAM <b>Meknès</b>")).isNull();
+        assertThat(SearchQuery.parse("génie").highlight("<Génie & BTP>")).isEqualTo("&lt;<mark>Génie</mark> &amp; BTP&gt;");
+
+        String snippet = SearchQuery.parse("cybersécurité").snippet("x ".repeat(200) + "Cybersécurité " + "y ".repeat(200));
+        assertThat(snippet).startsWith("…").endsWith("…").contains("<mark>Cybersécurité</mark>");
+        assertThat(snippet.length()).isLessThan(SearchQuery.SNIPPET_LENGTH + 20);
+    }
+
+    @Test
+    void migrationIndexesTheExpressionsTheRepositoryQueries() throws Exception {
+        String migration = new ClassPathResource("db/migration/V9__catalog_search.sql")
+                .getContentAsString(StandardCharsets.UTF_8)
+                .replaceAll("\\s+", " ");
+
+        assertThat(migration)
+                .contains("ON university USING GIN (( " + CatalogSearchRepository.universityDocument("") + " ))")
+                .contains("ON filiere USING GIN (( " + CatalogSearchRepository.filiereDocument("") + " ))");
+    }
+}
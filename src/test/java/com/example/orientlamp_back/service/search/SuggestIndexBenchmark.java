@@ -0,0 +1,66 @@
+package com.example.orientlamp_back.service.search;
+
+import com.example.orientlamp_back.entity.University;
+import com.example.orientlamp_back.event.CatalogChangedEvent;
+import com.example.orientlamp_back.service.catalog.Catalog;
+import com.example.orientlamp_back.service.catalog.SyntheticCatalog;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One keystroke of {@code /api/suggest} against a synthetic catalog, from a one-letter prefix
+ * (the widest key range) to a nearly complete name, and the in-place update after a filiere
+ * write. See the Readme for how to run the benchmarks.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SuggestIndexBenchmark {
+
+    @Param({"5000", "50000"})
+    int filieres;
+
+    @State(Scope.Benchmark)
+    public static class Keystroke {
+        @Param({"g", "gen", "genie inf", "ensa", "casablanca 12"})
+        String query;
+    }
+
+    private SuggestIndex index;
+    private Catalog next;
+    private CatalogChangedEvent write;
+
+    @Setup
+    public void setUp() {
+        List<University> universities = SyntheticCatalog.universities(filieres / 50, 50, 9);
+        index = SuggestIndex.build(Catalog.build(1, universities));
+        universities.get(0).getFilieres().get(0).setName("Génie Informatique et Systèmes Embarqués");
+        next = Catalog.build(2, universities);
+        write = new CatalogChangedEvent(CatalogChangedEvent.Type.FILIERE, universities.get(0).getFilieres().get(0).getId());
+    }
+
+    @Benchmark
+    public List<SuggestIndex.Target> suggest(Keystroke keystroke) {
+        return index.suggest(keystroke.query, 10);
+    }
+
+    @Benchmark
+    public SuggestIndex updateAfterFiliereWrite() {
+        return index.update(next, write);
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.orientlamp_back.service.search;
+
+import com.example.orientlamp_back.entity.Filiere;
+import com.example.orientlamp_back.entity.University;
+import com.example.orientlamp_back.event.CatalogChangedEvent;
+import com.example.orientlamp_back.service.catalog.Catalog;
+import com.example.orientlamp_back.service.catalog.SyntheticCatalog;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SuggestIndexTest {
+
+    @Test
+    void matchesWordStartsSlugsAndAbbreviationsIgnoringAccents() {
+        SuggestIndex index = SuggestIndex.build(Catalog.build(1, catalog()));
+
+        assertThat(names(index.suggest("informatique", 10))).containsExactly("Génie Informatique");
+        assertThat(names(index.suggest("KENI", 10)))
+                .containsExactly("École Nationale des Sciences Appliquées de Kénitra (ENSA Kénitra)");
+        assertThat(names(index.suggest("emi", 10))).containsExactly("École Mohammadia d'Ingénieurs (EMI)");
+        assertThat(names(index.suggest("ensa", 10))).hasSize(1);
+        assertThat(names(index.suggest("ensa-k", 10))).hasSize(1);
+        assertThat(index.suggest("des", 10)).isEmpty();
+        assertThat(index.suggest("  ", 10)).isEmpty();
+    }
+
+    @Test
+    void ranksNameStartsFirstThenByPopularity() {
+        SuggestIndex index = SuggestIndex.build(Catalog.build(1, catalog()));
+
+        assertThat(names(index.suggest("gen", 10)))
+                .containsExactly("Génie Informatique", "Génie Civil", "Génie Industriel");
+        assertThat(names(index.suggest("ecole", 1)))
+                .containsExactly("École Mohammadia d'Ingénieurs (EMI)");
+    }
+
+    @Test
+    void incrementalUpdateMatchesAFullRebuild() {
+        List<University> universities = catalog();
+        SuggestIndex index = SuggestIndex.build(Catalog.build(1, universities));
+
+        Filiere civil = universities.get(0).getFilieres().get(1);
+        civil.setName("Génie Civil et BTP");
+        civil.setSeatsAvailabial(500);
+        Catalog next = Catalog.build(2, universities);
+        SuggestIndex updated = index.update(next, new CatalogChangedEvent(CatalogChangedEvent.Type.FILIERE, civil.getId()));
+
+        assertThat(updated.version()).isEqualTo(2);
+        assertThat(names(updated.suggest("btp", 10))).containsExactly("Génie Civil et BTP");
+        for (String query : List.of("g", "genie", "ecole", "ensa", "emi", "btp")) {
+            assertThat(updated.suggest(query, 10)).isEqualTo(SuggestIndex.build(next).suggest(query, 10));
+        }
+
+        universities.get(1).getFilieres().clear();
+        Catalog third = Catalog.build(3, universities);
+        assertThat(updated.update(third, new CatalogChangedEvent(CatalogChangedEvent.Type.UNIVERSITY, 2L))
+                .suggest("industriel", 10)).isEmpty();
+    }
+
+    @Test
+    void topResultsAreThePrefixOfTheFullRanking() {
+        SuggestIndex index = SuggestIndex.build(SyntheticCatalog.catalog(40, 25, 3));
+
+        for (String query : List.of("g", "ge", "genie", "ecole", "fs", "master i", "m")) {
+            List<SuggestIndex.Target> all = index.suggest(query, Integer.MAX_VALUE);
+            assertThat(all).doesNotHaveDuplicates();
+            for (int limit : new int[]{1, 8, 20}) {
+                assertThat(index.suggest(query, limit)).containsExactlyElementsOf(all.subList(0, Math.min(limit, all.size())));
+            }
+        }
+    }
+
+    private static List<String> names(List<SuggestIndex.Target> targets) {
+        return targets.stream().map(SuggestIndex.Target::name).toList();
+    }
+
+    private static List<University> catalog() {
+        University emi = University.builder().id(1L).name("École Mohammadia d'Ingénieurs (EMI)").slug("emi").build();
+        emi.addFiliere(Filiere.builder().id(10L).name("Génie Informatique").seatsAvailabial(90).build());
+        emi.addFiliere(Filiere.builder().id(11L).name("Génie Civil").seatsAvailabial(80).build());
+
+        University ensa = University.builder().id(2L)
+                .name("École Nationale des Sciences Appliquées de Kénitra (ENSA Kénitra)").slug("ensa-kenitra").build();
+        ensa.addFiliere(Filiere.builder().id(20L).name("Génie Industriel").seatsAvailabial(40).build());
+        return List.of(emi, ensa);
+    }
+}